@@ -1,7 +1,8 @@
 package cs3500.music;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
 
 import cs3500.music.view.CompositeView;
 import cs3500.music.view.View;
@@ -26,8 +27,8 @@ public final class MusicEditor {
       filename = args[0];
     }
 
-    try {
-      MusicEditorModel song = MusicReader.parseFile(new FileReader(filename), Song.builder());
+    try (FileChannel file = FileChannel.open(Paths.get(filename))) {
+      MusicEditorModel song = MusicReader.parseChannel(file, Song.builder());
       View view = ViewFactory.makeView(mode, song);
       if (view instanceof CompositeView) {
         Application.launch(CompositeView.class, new String[0]);
@@ -36,7 +37,7 @@ public final class MusicEditor {
         view.render(0);
       }
     }
-    catch (FileNotFoundException e) {
+    catch (IOException e) {
       System.err.println("Unable to open " + filename);
     }
 
@@ -9,7 +9,6 @@ import java.util.List;
 
 import cs3500.music.model.Link;
 import cs3500.music.model.LinkImpl;
-import cs3500.music.model.Pitch;
 import cs3500.music.model.Playable;
 import cs3500.music.view.GuiView;
 import cs3500.music.view.ViewModel;
@@ -92,14 +91,12 @@ public class GUIController implements Controller {
     kh.installKeyPressed(17, () -> {
       Playable currentLow = view.getLowBound();
       Playable currentHigh = view.getHighBound();
-      int newLowMidi = Pitch.getMidi(currentLow.getPitch(), currentLow.getOctave()) + 1;
-      int newHighMidi = Pitch.getMidi(currentHigh.getPitch(), currentHigh.getOctave()) + 1;
+      int newLowMidi = currentLow.getMidi() + 1;
+      int newHighMidi = currentHigh.getMidi() + 1;
 
       // mutate the highest and lowest Playables to modify the view window
-      view.setLowBound(currentLow.setPitch(Pitch.pitchFromMidi(newLowMidi)).setOctave(
-              Pitch.octaveFromMidi(newLowMidi)));
-      view.setHighBound(currentHigh.setPitch(Pitch.pitchFromMidi(newHighMidi)).setOctave(
-              Pitch.octaveFromMidi(newHighMidi)));
+      view.setLowBound(currentLow.setMidi(newLowMidi));
+      view.setHighBound(currentHigh.setMidi(newHighMidi));
 
       view.render(view.getViewModel().getCurrentTime());
     });
@@ -108,16 +105,14 @@ public class GUIController implements Controller {
     kh.installKeyPressed(19, () -> {
       Playable currentLow = view.getLowBound();
       Playable currentHigh = view.getHighBound();
-      int newLowMidi = Pitch.getMidi(currentLow.getPitch(), currentLow.getOctave()) - 1;
-      int newHighMidi = Pitch.getMidi(currentHigh.getPitch(), currentHigh.getOctave()) - 1;
+      int newLowMidi = currentLow.getMidi() - 1;
+      int newHighMidi = currentHigh.getMidi() - 1;
 
       // don't allow for negative MIDI values because those break things
       if (newLowMidi >= 0) {
         // mutate the highest and lowest Playables to modify the view window
-        view.setLowBound(currentLow.setPitch(Pitch.pitchFromMidi(newLowMidi)).setOctave(
-                Pitch.octaveFromMidi(newLowMidi)));
-        view.setHighBound(currentHigh.setPitch(Pitch.pitchFromMidi(newHighMidi)).setOctave(
-                Pitch.octaveFromMidi(newHighMidi)));
+        view.setLowBound(currentLow.setMidi(newLowMidi));
+        view.setHighBound(currentHigh.setMidi(newHighMidi));
 
         view.render(view.getViewModel().getCurrentTime());
       }
@@ -144,7 +139,7 @@ public class GUIController implements Controller {
       }
       vm.setIsPlaying(false);
       view.getViewModel().setIteration(0);
-      vm.setCurrentTime(vm.getLength() * (1.0 / (double) vm.getTempo()) * 60.0);
+      vm.setCurrentTime(vm.getTimeMap().toSeconds(vm.getLength()));
       view.render(vm.getCurrentTime());
     });
 
@@ -177,64 +172,49 @@ public class GUIController implements Controller {
     kh.installKeyPressed(81, () -> {
       view.render(view.getViewModel().getCurrentTime());
       ViewModel vm = view.getViewModel();
-      List<Playable> toRemove = new ArrayList<Playable>(vm.getSelected());
-      for (Playable note : toRemove) {
-        vm.removeNote(note);
-      }
+      vm.removeNotes(new ArrayList<Playable>(vm.getSelected()));
       view.render(view.getViewModel().getCurrentTime());
     });
 
     // handle w key for transposing selection upwards
     kh.installKeyPressed(58, () -> {
       ViewModel vm = view.getViewModel();
-      for (Playable note : vm.getSelected()) {
-        int newMidi = Pitch.getMidi(note.getPitch(), note.getOctave()) + 1;
-        note.setPitch(Pitch.pitchFromMidi(newMidi));
-        note.setOctave(Pitch.octaveFromMidi(newMidi));
-      }
+      vm.transposeNotes(new ArrayList<Playable>(vm.getSelected()), 1);
       view.render(vm.getCurrentTime());
     });
 
     // handle s key for transposing selection downward
     kh.installKeyPressed(54, () -> {
       ViewModel vm = view.getViewModel();
-      for (Playable note : vm.getSelected()) {
-        int newMidi = Pitch.getMidi(note.getPitch(), note.getOctave()) - 1;
-        note.setPitch(Pitch.pitchFromMidi(newMidi));
-        note.setOctave(Pitch.octaveFromMidi(newMidi));
-      }
+      vm.transposeNotes(new ArrayList<Playable>(vm.getSelected()), -1);
       view.render(vm.getCurrentTime());
     });
 
     // handle a key for moving selection left
     kh.installKeyPressed(36, () -> {
       ViewModel vm = view.getViewModel();
-
-      // need to iterate through a copy because selected is modified by vm.moveNote()
-      List<Playable> tempList = new ArrayList<Playable>(vm.getSelected());
-      for (Playable note : tempList) {
+      // notes already at the first beat stay where they are
+      List<Playable> movable = new ArrayList<Playable>();
+      for (Playable note : vm.getSelected()) {
         if (note.getStartBeat() > 0) {
-          vm.moveNote(note, -1);
+          movable.add(note);
         }
       }
+      vm.shiftNotes(movable, -1);
       view.render(vm.getCurrentTime());
     });
 
     // handle d key for moving selection right
     kh.installKeyPressed(39, () -> {
       ViewModel vm = view.getViewModel();
-      // need to iterate through a copy because selected is modified by vm.moveNote()
-      List<Playable> tempList = new ArrayList<Playable>(vm.getSelected());
-      for (Playable note : tempList) {
-        vm.moveNote(note, 1);
-      }
+      vm.shiftNotes(new ArrayList<Playable>(vm.getSelected()), 1);
       view.render(vm.getCurrentTime());
     });
 
     // handle l key for creating links
     kh.installKeyPressed(47, () -> {
       ViewModel vm = view.getViewModel();
-      int curBeat = (int) Math.round(((vm.getCurrentTime() / 60.0) * vm.getTempo()));
+      int curBeat = (int) Math.round(vm.getTimeMap().toTick(vm.getCurrentTime()));
       if (vm.getLinkStart() != null) {
         vm.addLink(new LinkImpl(vm.getLinkStart(),curBeat, 0));
         vm.setLinkStart(null);
@@ -250,12 +230,29 @@ public class GUIController implements Controller {
       ViewModel vm = view.getViewModel();
       List<Link> temp = new ArrayList<Link>();
       temp.addAll(vm.getAllLinks());
+      vm.beginBatch();
       for (Link link : temp) {
         vm.removeLink(link);
       }
+      vm.endBatch();
       view.render(vm.getCurrentTime());
     });
 
+    // handle z key for undoing the last edit
+    kh.installKeyPressed(61, () -> {
+      ViewModel vm = view.getViewModel();
+      if (vm.undo()) {
+        view.render(vm.getCurrentTime());
+      }
+    });
+
+    // handle y key for redoing the last undone edit
+    kh.installKeyPressed(60, () -> {
+      ViewModel vm = view.getViewModel();
+      if (vm.redo()) {
+        view.render(vm.getCurrentTime());
+      }
+    });
 
     return kh;
   }
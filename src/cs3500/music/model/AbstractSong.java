@@ -0,0 +1,538 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Represents the state that is shared by every MusicEditorModel backend regardless of how its
+ * Playables are stored: the tempo, the number of beats per measure, the number of ticks per
+ * beat and the Links
+ */
+abstract class AbstractSong implements MusicEditorModel {
+  /**
+   * Represents the tempo changes of this song, which set its tempo in beats per minute
+   */
+  private TimeMap timeMap;
+
+  /**
+   * Represents the number of beats in on measure
+   */
+  private int beatsPerMeasure;
+
+  /**
+   * Represents the number of ticks in one beat, which every time in this song is counted in
+   */
+  private final int ticksPerBeat;
+
+  /**
+   * Represents the Links found in this song as a map where the keys are beat numbers and the
+   * values are lists of Links found at that beat
+   */
+  private Map<Integer, List<Link>> links;
+
+  /**
+   * Represents the listeners of this song and the changes they have not been told about yet
+   */
+  private final ChangeNotifier changes;
+
+  /**
+   * Constructs the shared state of a song with the given tempo, measure length and Links
+   * @param tempo           the tempo in beats per minute
+   * @param beatsPerMeasure the number of beats in one measure
+   * @param links           the Links of the song keyed by their location beat
+   * @throws IllegalArgumentException if the tempo or beatsPerMeasure are not positive
+   */
+  AbstractSong(int tempo, int beatsPerMeasure, Map<Integer, List<Link>> links) {
+    this(tempo, beatsPerMeasure, 1, links);
+  }
+
+  /**
+   * Constructs the shared state of a song counted in the given number of ticks per beat
+   * @param tempo           the tempo in beats per minute
+   * @param beatsPerMeasure the number of beats in one measure
+   * @param ticksPerBeat    the number of ticks in one beat
+   * @param links           the Links of the song keyed by their location tick
+   * @throws IllegalArgumentException if the tempo, beatsPerMeasure or ticksPerBeat are not
+   * positive
+   */
+  AbstractSong(int tempo, int beatsPerMeasure, int ticksPerBeat,
+               Map<Integer, List<Link>> links) {
+    if (tempo <= 0 || beatsPerMeasure <= 0 || ticksPerBeat <= 0) {
+      throw new IllegalArgumentException("Invalid song construction arguments");
+    }
+    this.timeMap = TimeMap.of(tempo, ticksPerBeat);
+    this.beatsPerMeasure = beatsPerMeasure;
+    this.ticksPerBeat = ticksPerBeat;
+    this.links = links;
+    this.changes = new ChangeNotifier();
+  }
+
+  /**
+   * Constructs the shared state of an empty song with a default tempo of 120 bpm
+   */
+  AbstractSong() {
+    this(120, 4, new TreeMap<Integer, List<Link>>());
+  }
+
+  @Override
+  public int getTempo() {
+    return this.timeMap.getTempoAt(0);
+  }
+
+  @Override
+  public void setTempo(int tempo) {
+    if (tempo <= 0) {
+      throw new IllegalArgumentException("Tempo must be positive");
+    }
+    this.timeMap = this.timeMap.withTempoAt(0, tempo);
+    this.changes.changedEverything();
+  }
+
+  @Override
+  public void setTempoAt(int beatNum, int tempo) {
+    this.timeMap = this.timeMap.withTempoAt(beatNum, tempo);
+    this.changes.changedEverything();
+  }
+
+  @Override
+  public TimeMap getTimeMap() {
+    return this.timeMap;
+  }
+
+  @Override
+  public int getBeatsPerMeasure() {
+    return this.beatsPerMeasure;
+  }
+
+  @Override
+  public void setBeatsPerMeasure(int beatsPerMeasure) {
+    if (beatsPerMeasure <= 0) {
+      throw new IllegalArgumentException("Invalid number of beats per measure");
+    }
+    this.beatsPerMeasure = beatsPerMeasure;
+    this.changes.changedEverything();
+  }
+
+  @Override
+  public int getTicksPerBeat() {
+    return this.ticksPerBeat;
+  }
+
+  @Override
+  public SortedSet<Integer> getInstruments() {
+    return instrumentsOf(this);
+  }
+
+  @Override
+  public List<Playable> getTrackNotes(int instrumentID, int beatNum) {
+    checkInstrument(instrumentID);
+    return ofInstrument(this.getNotes(beatNum), instrumentID);
+  }
+
+  @Override
+  public List<Playable> getTrackNotesStartingIn(int instrumentID, int startBeat, int endBeat) {
+    checkInstrument(instrumentID);
+    return ofInstrument(this.getNotesStartingIn(startBeat, endBeat), instrumentID);
+  }
+
+  @Override
+  public Stream<Playable> notes() {
+    return NoteSpliterator.notesOf(this);
+  }
+
+  /**
+   * Return the listeners of this song and the changes they have not been told about yet
+   */
+  ChangeNotifier changes() {
+    return this.changes;
+  }
+
+  @Override
+  public void addListener(ModelListener listener) {
+    this.changes.addListener(listener);
+  }
+
+  @Override
+  public void removeListener(ModelListener listener) {
+    this.changes.removeListener(listener);
+  }
+
+  @Override
+  public void beginBatch() {
+    this.changes.beginBatch();
+  }
+
+  @Override
+  public void endBatch() {
+    this.changes.endBatch();
+  }
+
+  @Override
+  public int removeNotes(Collection<Playable> notes) {
+    Objects.requireNonNull(notes);
+    int removed = 0;
+    this.changes.beginBatch();
+    try {
+      for (Playable note : notes) {
+        if (this.removeNote(note)) {
+          removed++;
+        }
+      }
+    }
+    finally {
+      this.changes.endBatch();
+    }
+    return removed;
+  }
+
+  @Override
+  public void append(MusicEditorModel song) {
+    if (song == null) {
+      return;
+    }
+    int offset = this.getLength();
+    int from = song.getTicksPerBeat();
+    this.changes.beginBatch();
+    try {
+      // take the onsets before adding anything in case the given song is this song
+      for (Playable note : song.getNotesStartingIn(0, song.getLength())) {
+        Playable copy = retimed(note.copy(), from, this.ticksPerBeat);
+        this.addNote(copy.setStart(copy.getStartBeat() + offset));
+      }
+    }
+    finally {
+      this.changes.endBatch();
+    }
+  }
+
+  @Override
+  public void overlay(MusicEditorModel song) {
+    if (song == null) {
+      return;
+    }
+    this.changes.beginBatch();
+    try {
+      int from = song.getTicksPerBeat();
+      for (Playable note : song.getNotesStartingIn(0, song.getLength())) {
+        this.addNote(retimed(note.copy(), from, this.ticksPerBeat));
+      }
+    }
+    finally {
+      this.changes.endBatch();
+    }
+  }
+
+  @Override
+  public int shiftNotes(Collection<Playable> notes, int beats) {
+    List<Playable> distinct = checkBulkEdit(this, notes, beats, 0);
+    this.changes.beginBatch();
+    try {
+      for (Playable note : distinct) {
+        this.moveNote(note, beats);
+      }
+    }
+    finally {
+      this.changes.endBatch();
+    }
+    return distinct.size();
+  }
+
+  @Override
+  public int transposeNotes(Collection<Playable> notes, int steps) {
+    List<Playable> distinct = checkBulkEdit(this, notes, 0, steps);
+    this.changes.beginBatch();
+    try {
+      for (Playable note : distinct) {
+        this.transposeNote(note, steps);
+      }
+    }
+    finally {
+      this.changes.endBatch();
+    }
+    return distinct.size();
+  }
+
+  @Override
+  public int shiftNotesStartingIn(int startBeat, int endBeat, int beats) {
+    checkRange(startBeat, endBeat);
+    return this.shiftNotes(this.getNotesStartingIn(startBeat, endBeat), beats);
+  }
+
+  @Override
+  public int transposeNotesStartingIn(int startBeat, int endBeat, int steps) {
+    checkRange(startBeat, endBeat);
+    return this.transposeNotes(this.getNotesStartingIn(startBeat, endBeat), steps);
+  }
+
+  @Override
+  public void insertBeats(int beat, int count) {
+    checkRipple(beat, count);
+    this.changes.beginBatch();
+    try {
+      if (beat < this.getLength()) {
+        this.shiftNotesStartingIn(beat, this.getLength(), count);
+      }
+      this.rippleTimeline(beat, beat, count);
+      this.changes.changedFrom(beat);
+    }
+    finally {
+      this.changes.endBatch();
+    }
+  }
+
+  @Override
+  public int deleteBeats(int startBeat, int endBeat) {
+    checkRange(startBeat, endBeat);
+    this.changes.beginBatch();
+    try {
+      int removed = this.removeNotes(this.getNotesStartingIn(startBeat, endBeat));
+      if (endBeat < this.getLength()) {
+        this.shiftNotesStartingIn(endBeat, this.getLength(), startBeat - endBeat);
+      }
+      this.rippleTimeline(startBeat, endBeat, startBeat - endBeat);
+      this.changes.changedFrom(startBeat);
+      return removed;
+    }
+    finally {
+      this.changes.endBatch();
+    }
+  }
+
+  /**
+   * Moves the Links and tempo changes of this song the same way as inserting or deleting beats
+   * moves its notes
+   * @param startBeat the first deleted beat, or the beat at which beats are inserted
+   * @param endBeat   the beat after the last deleted beat, or the beat at which beats are
+   *                  inserted
+   * @param beats     the number of beats that every Link after the range is moved by
+   */
+  void rippleTimeline(int startBeat, int endBeat, int beats) {
+    this.links = rippleLinks(this.links, startBeat, endBeat, beats);
+    this.timeMap = this.timeMap.rippled(startBeat, endBeat, beats);
+  }
+
+  /**
+   * Return the given Links moved the same way as inserting or deleting beats moves the notes of
+   * a song. Links located in the range are dropped, Links after it are moved by the given number
+   * of beats, and Links that jump back into the range jump to its first beat instead.
+   * @param links     the Links keyed by their location beat, which are not changed
+   * @param startBeat the first deleted beat, or the beat at which beats are inserted
+   * @param endBeat   the beat after the last deleted beat, or the beat at which beats are
+   *                  inserted
+   * @param beats     the number of beats that every Link after the range is moved by
+   * @return  the moved Links keyed by their new location beat
+   */
+  static Map<Integer, List<Link>> rippleLinks(Map<Integer, List<Link>> links, int startBeat,
+                                              int endBeat, int beats) {
+    Map<Integer, List<Link>> rippled = new TreeMap<Integer, List<Link>>();
+    for (List<Link> atBeat : links.values()) {
+      for (Link link : atBeat) {
+        int location = link.getLocationBeat();
+        if (location >= startBeat && location < endBeat) {
+          continue;
+        }
+        int newLocation = rippleBeat(location, startBeat, endBeat, beats);
+        int linked = rippleBeat(link.getLinkedBeat(), startBeat, endBeat, beats);
+        if (!rippled.containsKey(newLocation)) {
+          rippled.put(newLocation, new ArrayList<Link>());
+        }
+        // Links cannot be moved, so only the ones that have to move are replaced
+        if (newLocation == location && linked == link.getLinkedBeat()) {
+          rippled.get(newLocation).add(link);
+        }
+        else {
+          rippled.get(newLocation).add(new LinkImpl(newLocation, linked,
+                  link.getPlayIteration()));
+        }
+      }
+    }
+    return rippled;
+  }
+
+  /**
+   * Return where the given beat ends up once beats are inserted or deleted
+   */
+  private static int rippleBeat(int beat, int startBeat, int endBeat, int beats) {
+    if (beat >= endBeat) {
+      return beat + beats;
+    }
+    return beat >= startBeat ? startBeat : beat;
+  }
+
+  /**
+   * Checks that the given number of beats can be inserted at the given beat
+   * @throws IllegalArgumentException if the beat or the number of beats is negative
+   */
+  static void checkRipple(int beat, int count) {
+    if (beat < 0 || count < 0) {
+      throw new IllegalArgumentException("Illegal beat range");
+    }
+  }
+
+  /**
+   * Checks that every one of the given Playables is in this song and can be shifted and
+   * transposed by the given amounts, before a bulk edit changes any of them
+   * @param song  the song that the Playables are in
+   * @param notes the Playables to edit
+   * @param beats the number of beats they will be shifted by
+   * @param steps the number of semitones they will be transposed by
+   * @return  the given Playables without any object that was given more than once
+   * @throws IllegalArgumentException if one of the Playables cannot be edited
+   */
+  static List<Playable> checkBulkEdit(MusicEditorModel song, Collection<Playable> notes,
+                                      int beats, int steps) {
+    Objects.requireNonNull(notes);
+    Set<Playable> seen = Collections.newSetFromMap(new IdentityHashMap<Playable, Boolean>());
+    List<Playable> distinct = new ArrayList<Playable>(notes.size());
+    for (Playable note : notes) {
+      if (!seen.add(note)) {
+        continue;
+      }
+      if (note.getStartBeat() + beats < 0
+          || (steps != 0 && PitchHistogram.midiOf(note) + steps < 0)) {
+        throw new IllegalArgumentException("invalid number of steps");
+      }
+      if (song.getNoteId(note) < 0) {
+        throw new IllegalArgumentException("note does not exist in the music editor model");
+      }
+      distinct.add(note);
+    }
+    return distinct;
+  }
+
+  /**
+   * Shifts and transposes the given Playable itself, without touching any song
+   * @param note  the Playable to edit
+   * @param beats the number of beats to shift it by
+   * @param steps the number of semitones to transpose it by
+   * @return  the edited Playable, which is the given Playable unless it is immutable
+   */
+  static Playable edit(Playable note, int beats, int steps) {
+    Playable edited = note;
+    if (beats != 0) {
+      edited = edited.setStart(edited.getStartBeat() + beats);
+    }
+    if (steps != 0) {
+      edited = edited.setMidi(edited.getMidi() + steps);
+    }
+    return edited;
+  }
+
+  /**
+   * Moves the given Playable from a song counted in one number of ticks per beat to a song
+   * counted in another. A note that does not fall on a tick of the new song starts on the tick
+   * before it and ends on the tick after it, so it never loses its last tick of sound.
+   * @param note  the Playable to retime, which is edited if it is editable
+   * @param from  the number of ticks per beat of the song the Playable comes from
+   * @param to    the number of ticks per beat of the song the Playable goes to
+   * @return  the retimed Playable, which is the given Playable unless it is immutable
+   */
+  static Playable retimed(Playable note, int from, int to) {
+    if (from == to) {
+      return note;
+    }
+    long start = (long) note.getStartBeat() * to / from;
+    long end = ((long) (note.getStartBeat() + note.getDuration()) * to + from - 1) / from;
+    return note.setStart((int) start).setDuration((int) (end - start));
+  }
+
+  /**
+   * Return the given Playable if it can be edited in place, or else an editable {@link Note}
+   * with the same fields, for the songs that store Playable objects and edit them
+   */
+  static Playable editable(Playable note) {
+    return note instanceof NoteValue ? ((NoteValue) note).toNote() : note;
+  }
+
+  /**
+   * Return the IDs of the instruments playing the Playables of the given song, found by
+   * visiting every one of its Playables, for the songs that do not index them by instrument
+   */
+  static SortedSet<Integer> instrumentsOf(MusicEditorModel song) {
+    SortedSet<Integer> instruments = new TreeSet<Integer>();
+    for (Playable note : song.getNotesStartingIn(0, song.getLength())) {
+      instruments.add(note.getInstrumentID());
+    }
+    return instruments;
+  }
+
+  /**
+   * Return a new list of the given Playables that are played by the given instrument, in the
+   * order they are given in
+   */
+  static List<Playable> ofInstrument(List<Playable> notes, int instrumentID) {
+    List<Playable> output = new ArrayList<Playable>();
+    for (Playable note : notes) {
+      if (note.getInstrumentID() == instrumentID) {
+        output.add(note);
+      }
+    }
+    return output;
+  }
+
+  /**
+   * Checks that the given instrument ID can be queried
+   * @throws IllegalArgumentException if the instrument ID is negative
+   */
+  static void checkInstrument(int instrumentID) {
+    if (instrumentID < 0) {
+      throw new IllegalArgumentException("Invalid instrument ID");
+    }
+  }
+
+  /**
+   * Checks that the given range of beats can be queried
+   * @param startBeat the first beat of the range
+   * @param endBeat   the beat after the last beat of the range
+   * @throws IllegalArgumentException if startBeat is negative or endBeat is less than startBeat
+   */
+  static void checkRange(int startBeat, int endBeat) {
+    if (startBeat < 0 || endBeat < startBeat) {
+      throw new IllegalArgumentException("Illegal beat range");
+    }
+  }
+
+  @Override
+  public List<Link> getLinks(int beat) {
+    if (this.links.containsKey(beat)) {
+      return this.links.get(beat);
+    }
+    else {
+      return new ArrayList<Link>();
+    }
+  }
+
+  @Override
+  public void addLink(Link link) {
+    if (this.links.containsKey(link.getLocationBeat())) {
+      this.links.get(link.getLocationBeat()).add(link);
+    }
+    else {
+      this.links.put(link.getLocationBeat(), new ArrayList<Link>());
+      this.links.get(link.getLocationBeat()).add(link);
+    }
+    this.changes.changed(link);
+  }
+
+  @Override
+  public boolean removeLink(Link link) {
+    if (!this.links.containsKey(link.getLocationBeat())) {
+      return false;
+    }
+    if (!this.links.get(link.getLocationBeat()).remove(link)) {
+      return false;
+    }
+    this.changes.changed(link);
+    return true;
+  }
+}
@@ -0,0 +1,182 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents the listeners of a MusicEditorModel together with the region that has changed
+ * since they were last told. Changes made while a batch is open are merged into one region and
+ * only delivered when the outermost batch ends. The region is kept as primitives, so reporting a
+ * change to a model that nobody listens to costs nothing.
+ */
+final class ChangeNotifier {
+  /**
+   * Represents the listeners to tell about changes
+   */
+  private final List<ModelListener> listeners;
+
+  /**
+   * Represents the number of batches that have been begun but not yet ended
+   */
+  private int batchDepth;
+
+  /**
+   * True if a change has been reported that has not been delivered yet
+   */
+  private boolean pending;
+
+  /**
+   * Represents the region changed since the listeners were last told
+   */
+  private int startBeat;
+  private int endBeat;
+  private int lowestMidi;
+  private int highestMidi;
+
+  /**
+   * Constructs a notifier without any listeners
+   */
+  ChangeNotifier() {
+    this.listeners = new ArrayList<ModelListener>();
+  }
+
+  /**
+   * Adds the given listener
+   * @throws NullPointerException if the listener is null
+   */
+  void addListener(ModelListener listener) {
+    this.listeners.add(Objects.requireNonNull(listener));
+  }
+
+  /**
+   * Removes the given listener if it was added
+   */
+  void removeListener(ModelListener listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+   * Starts a batch of changes that are delivered together
+   */
+  void beginBatch() {
+    this.batchDepth++;
+  }
+
+  /**
+   * Ends the batch started by the matching call to {@link #beginBatch()}, delivering every
+   * change made during it if it is the outermost batch
+   * @throws IllegalStateException if no batch has been begun
+   */
+  void endBatch() {
+    if (this.batchDepth == 0) {
+      throw new IllegalStateException("No batch of changes has been begun");
+    }
+    if (--this.batchDepth == 0) {
+      this.deliver();
+    }
+  }
+
+  /**
+   * Reports that every beat the given Playable lasts for has changed at its pitch
+   */
+  void changed(Playable note) {
+    if (!this.listeners.isEmpty()) {
+      int midi = PitchHistogram.midiOf(note);
+      this.changed(note.getStartBeat(), note.getStartBeat() + note.getDuration(), midi, midi);
+    }
+  }
+
+  /**
+   * Reports that the given Playable has just been moved by the given number of beats
+   */
+  void moved(Playable note, int steps) {
+    if (!this.listeners.isEmpty()) {
+      int start = note.getStartBeat();
+      int midi = PitchHistogram.midiOf(note);
+      this.changed(Math.min(start, start - steps),
+              Math.max(start, start - steps) + note.getDuration(), midi, midi);
+    }
+  }
+
+  /**
+   * Reports that the given Playable has just been transposed by the given number of steps
+   */
+  void transposed(Playable note, int steps) {
+    if (!this.listeners.isEmpty()) {
+      int midi = PitchHistogram.midiOf(note);
+      this.changed(note.getStartBeat(), note.getStartBeat() + note.getDuration(),
+              Math.min(midi, midi - steps), Math.max(midi, midi - steps));
+    }
+  }
+
+  /**
+   * Reports that the given Link has changed what is played from its linked beat up to and
+   * including its location beat
+   */
+  void changed(Link link) {
+    int first = Math.min(link.getLocationBeat(), link.getLinkedBeat());
+    int last = Math.max(link.getLocationBeat(), link.getLinkedBeat());
+    this.changed(first, last + 1, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Reports that every pitch has changed from the given beat to the end of the song, such as
+   * when beats are inserted or deleted there
+   */
+  void changedFrom(int beat) {
+    this.changed(beat, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Reports that every beat and pitch has changed
+   */
+  void changedEverything() {
+    this.changed(0, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Reports that the given region has changed
+   * @param startBeat   the first changed beat
+   * @param endBeat     the beat after the last changed beat
+   * @param lowestMidi  the lowest changed MIDI pitch
+   * @param highestMidi the highest changed MIDI pitch
+   */
+  void changed(int startBeat, int endBeat, int lowestMidi, int highestMidi) {
+    if (this.listeners.isEmpty()) {
+      return;
+    }
+    if (this.pending) {
+      this.startBeat = Math.min(this.startBeat, startBeat);
+      this.endBeat = Math.max(this.endBeat, endBeat);
+      this.lowestMidi = Math.min(this.lowestMidi, lowestMidi);
+      this.highestMidi = Math.max(this.highestMidi, highestMidi);
+    }
+    else {
+      this.pending = true;
+      this.startBeat = startBeat;
+      this.endBeat = endBeat;
+      this.lowestMidi = lowestMidi;
+      this.highestMidi = highestMidi;
+    }
+    if (this.batchDepth == 0) {
+      this.deliver();
+    }
+  }
+
+  /**
+   * Tells every listener about the changes that have not been delivered yet
+   */
+  private void deliver() {
+    if (!this.pending) {
+      return;
+    }
+    this.pending = false;
+    ModelChange change = new ModelChange(this.startBeat, this.endBeat, this.lowestMidi,
+            this.highestMidi);
+    // a listener may add or remove listeners while it is being told
+    for (ModelListener listener : new ArrayList<ModelListener>(this.listeners)) {
+      listener.modelChanged(change);
+    }
+  }
+}
@@ -0,0 +1,287 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Represents a view of several songs either played one after another or played at the same
+ * time. The songs of an appended CompositeSong start where the song before them ends, and the
+ * songs of an overlaid CompositeSong all start at the first beat. Every query is answered by
+ * asking each song about the beats it covers, so no Playable is copied unless it has to be
+ * moved to its place in the view.
+ *
+ * <p>The ID of a Playable in a CompositeSong is its ID in its own song times the number of
+ * songs plus the index of its song.</p>
+ */
+final class CompositeSong extends SongView {
+  /**
+   * Represents the songs that make up this view, in order
+   */
+  private final List<MusicEditorModel> songs;
+
+  /**
+   * Represents whether the songs are played one after another rather than all at once
+   */
+  private final boolean appended;
+
+  /**
+   * Represents the adapter reused by forEachNoteAt
+   */
+  private final Placer placer;
+
+  /**
+   * Constructs a view of the given songs
+   * @param songs     the songs to combine, which must not be empty
+   * @param appended  whether the songs are played one after another rather than all at once
+   */
+  CompositeSong(List<MusicEditorModel> songs, boolean appended) {
+    this.songs = songs;
+    this.appended = appended;
+    this.placer = new Placer();
+  }
+
+  /**
+   * Return the beat of this view that the first beat of every song starts at
+   */
+  private int[] offsets() {
+    int[] offsets = new int[this.songs.size()];
+    if (this.appended) {
+      for (int i = 1; i < offsets.length; ++ i) {
+        offsets[i] = offsets[i - 1] + this.songs.get(i - 1).getLength();
+      }
+    }
+    return offsets;
+  }
+
+  @Override
+  List<MusicEditorModel> sources() {
+    return this.songs;
+  }
+
+  @Override
+  ModelChange translate(int source, ModelChange change) {
+    int offset = this.offsets()[source];
+    int end = change.getEndBeat();
+    // a change to any song but the last may change its length and so move every later song
+    if ((this.appended && source < this.songs.size() - 1) || end > Integer.MAX_VALUE - offset) {
+      end = Integer.MAX_VALUE;
+    }
+    else {
+      end += offset;
+    }
+    return new ModelChange(change.getStartBeat() + offset, end,
+            change.getLowestMidi(), change.getHighestMidi());
+  }
+
+  @Override
+  public int getTempo() {
+    return this.songs.get(0).getTempo();
+  }
+
+  @Override
+  public TimeMap getTimeMap() {
+    return this.songs.get(0).getTimeMap();
+  }
+
+  @Override
+  public int getBeatsPerMeasure() {
+    return this.songs.get(0).getBeatsPerMeasure();
+  }
+
+  @Override
+  public int getTicksPerBeat() {
+    return this.songs.get(0).getTicksPerBeat();
+  }
+
+  @Override
+  public List<Playable> getNotes(int beatNum) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    List<Playable> output = new ArrayList<Playable>();
+    int[] offsets = this.offsets();
+    for (int i = 0; i < offsets.length; ++ i) {
+      if (beatNum < offsets[i]) {
+        break;
+      }
+      for (Playable note : this.songs.get(i).getNotes(beatNum - offsets[i])) {
+        output.add(placed(note, offsets[i], 0, Integer.MAX_VALUE));
+      }
+    }
+    return output;
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, Consumer<Playable> action) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    this.placer.to(action);
+    int offset = 0;
+    for (MusicEditorModel song : this.songs) {
+      if (beatNum < offset) {
+        return;
+      }
+      if (offset == 0) {
+        song.forEachNoteAt(beatNum, action);
+      }
+      else {
+        song.forEachNoteAt(beatNum - offset,
+                (Consumer<Playable>) this.placer.place(offset, 0, Integer.MAX_VALUE));
+      }
+      if (this.appended) {
+        offset += song.getLength();
+      }
+    }
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    this.placer.to(visitor);
+    int offset = 0;
+    for (MusicEditorModel song : this.songs) {
+      if (beatNum < offset) {
+        return;
+      }
+      song.forEachNoteAt(beatNum - offset,
+              (NoteVisitor) this.placer.place(offset, 0, Integer.MAX_VALUE));
+      if (this.appended) {
+        offset += song.getLength();
+      }
+    }
+  }
+
+  @Override
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat) {
+    AbstractSong.checkRange(startBeat, endBeat);
+    return this.collect(startBeat, endBeat, false);
+  }
+
+  @Override
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat) {
+    AbstractSong.checkRange(startBeat, endBeat);
+    return this.collect(startBeat, endBeat, true);
+  }
+
+  /**
+   * Return the Playables of every song that start or sound during the given range of this view,
+   * ordered by their start beats
+   */
+  private List<Playable> collect(int startBeat, int endBeat, boolean sounding) {
+    List<Playable> output = new ArrayList<Playable>();
+    int[] offsets = this.offsets();
+    for (int i = 0; i < offsets.length; ++ i) {
+      if (endBeat <= offsets[i]) {
+        break;
+      }
+      int from = Math.max(startBeat - offsets[i], 0);
+      int to = endBeat - offsets[i];
+      MusicEditorModel song = this.songs.get(i);
+      List<Playable> notes = sounding
+              ? song.getNotesSoundingIn(from, to) : song.getNotesStartingIn(from, to);
+      for (Playable note : notes) {
+        output.add(placed(note, offsets[i], 0, Integer.MAX_VALUE));
+      }
+    }
+    // appended songs come out in order already, but overlaid ones have to be merged
+    if (!this.appended && this.songs.size() > 1) {
+      Collections.sort(output, new Comparator<Playable>() {
+        @Override
+        public int compare(Playable a, Playable b) {
+          return Integer.compare(a.getStartBeat(), b.getStartBeat());
+        }
+      });
+    }
+    return output;
+  }
+
+  @Override
+  public long getNoteId(Playable note) {
+    Objects.requireNonNull(note);
+    int[] offsets = this.offsets();
+    for (int i = 0; i < offsets.length; ++ i) {
+      if (note.getStartBeat() < offsets[i]) {
+        break;
+      }
+      Playable local = note;
+      if (offsets[i] != 0) {
+        local = note.copy().setStart(note.getStartBeat() - offsets[i]);
+      }
+      long id = this.songs.get(i).getNoteId(local);
+      if (id >= 0) {
+        return id * this.songs.size() + i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public Playable getNoteById(long id) {
+    if (id < 0) {
+      return null;
+    }
+    int source = (int) (id % this.songs.size());
+    Playable note = this.songs.get(source).getNoteById(id / this.songs.size());
+    return note == null ? null : placed(note, this.offsets()[source], 0, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int getLength() {
+    int length = 0;
+    for (MusicEditorModel song : this.songs) {
+      length = this.appended ? length + song.getLength() : Math.max(length, song.getLength());
+    }
+    return length;
+  }
+
+  @Override
+  public Playable getHighest() {
+    Playable highest = null;
+    int[] offsets = this.offsets();
+    for (int i = 0; i < offsets.length; ++ i) {
+      Playable note = this.songs.get(i).getHighest();
+      if (note != null && (highest == null
+              || PitchHistogram.midiOf(note) > PitchHistogram.midiOf(highest))) {
+        highest = placed(note, offsets[i], 0, Integer.MAX_VALUE);
+      }
+    }
+    return highest;
+  }
+
+  @Override
+  public Playable getLowest() {
+    Playable lowest = null;
+    int[] offsets = this.offsets();
+    for (int i = 0; i < offsets.length; ++ i) {
+      Playable note = this.songs.get(i).getLowest();
+      if (note != null && (lowest == null
+              || PitchHistogram.midiOf(note) < PitchHistogram.midiOf(lowest))) {
+        lowest = placed(note, offsets[i], 0, Integer.MAX_VALUE);
+      }
+    }
+    return lowest;
+  }
+
+  @Override
+  public List<Link> getLinks(int beat) {
+    List<Link> output = new ArrayList<Link>();
+    int[] offsets = this.offsets();
+    for (int i = 0; i < offsets.length; ++ i) {
+      if (beat < offsets[i]) {
+        break;
+      }
+      for (Link link : this.songs.get(i).getLinks(beat - offsets[i])) {
+        output.add(offsets[i] == 0 ? link : new LinkImpl(beat,
+                link.getLinkedBeat() + offsets[i], link.getPlayIteration()));
+      }
+    }
+    return output;
+  }
+}
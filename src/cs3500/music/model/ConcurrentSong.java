@@ -0,0 +1,449 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Represents a song that may be read from any number of threads while it is being edited, such
+ * as by a MIDI scheduler playing it while the controller changes it. Every read is answered by
+ * the immutable {@link SongSnapshot} that was current when the read began, so readers never
+ * take a lock and never see an edit halfway done. Edits take turns on a lock, apply themselves
+ * to a {@link VersionedSong} and then publish its new snapshot for the readers. Listeners are
+ * told about an edit on the thread that made it, once its snapshot has been published.
+ *
+ * <p>Like a VersionedSong, a ConcurrentSong only ever hands out copies of its Playables, so a
+ * list of notes that was read from it can be iterated while other threads edit the song.</p>
+ */
+public final class ConcurrentSong implements MusicEditorModel {
+  /**
+   * Represents the song that the edits are applied to, guarded by itself
+   */
+  private final VersionedSong song;
+
+  /**
+   * Represents the last version of the song that an edit has published
+   */
+  private volatile SongSnapshot published;
+
+  /**
+   * Constructs an empty ConcurrentSong with a default tempo of 120 bpm
+   */
+  public ConcurrentSong() {
+    this.song = new VersionedSong();
+    this.published = this.song.snapshot();
+  }
+
+  /**
+   * Constructs a ConcurrentSong holding copies of the notes, Links, tempo changes, measure
+   * length and ticks per beat of the given song
+   * @param song  the song to copy
+   * @throws NullPointerException if the given song is null
+   */
+  public ConcurrentSong(MusicEditorModel song) {
+    Map<Integer, List<Link>> links = new TreeMap<Integer, List<Link>>();
+    for (int beat = 0; beat <= song.getLength(); beat++) {
+      if (!song.getLinks(beat).isEmpty()) {
+        links.put(beat, new ArrayList<Link>(song.getLinks(beat)));
+      }
+    }
+    this.song = new VersionedSong(song.getNotesStartingIn(0, song.getLength()),
+            song.getTempo(), song.getBeatsPerMeasure(), song.getTicksPerBeat(), links);
+    for (Map.Entry<Integer, Integer> change : song.getTimeMap().getTempoChanges().entrySet()) {
+      this.song.setTempoAt(change.getKey(), change.getValue());
+    }
+    this.published = this.song.snapshot();
+  }
+
+  /**
+   * Publishes the current version of the edited song to the readers and then tells the
+   * listeners about the edit that produced it
+   */
+  private void publish() {
+    this.published = this.song.snapshot();
+    this.song.endBatch();
+  }
+
+  /**
+   * Return the current version of this song, which will not change when this song is edited
+   * @return  the current version of this song
+   */
+  public SongSnapshot snapshot() {
+    return this.published;
+  }
+
+  @Override
+  public long addNote(Playable note) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.addNote(note);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public void setTempo(int tempo) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        this.song.setTempo(tempo);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public void setTempoAt(int beatNum, int tempo) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        this.song.setTempoAt(beatNum, tempo);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public void addListener(ModelListener listener) {
+    synchronized (this.song) {
+      this.song.addListener(listener);
+    }
+  }
+
+  @Override
+  public void removeListener(ModelListener listener) {
+    synchronized (this.song) {
+      this.song.removeListener(listener);
+    }
+  }
+
+  @Override
+  public void beginBatch() {
+    synchronized (this.song) {
+      this.song.beginBatch();
+    }
+  }
+
+  @Override
+  public void endBatch() {
+    synchronized (this.song) {
+      this.song.endBatch();
+    }
+  }
+
+  @Override
+  public int getTempo() {
+    return this.published.getTempo();
+  }
+
+  @Override
+  public TimeMap getTimeMap() {
+    return this.published.getTimeMap();
+  }
+
+  @Override
+  public void setBeatsPerMeasure(int beatsPerMeasure) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        this.song.setBeatsPerMeasure(beatsPerMeasure);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public int getBeatsPerMeasure() {
+    return this.published.getBeatsPerMeasure();
+  }
+
+  @Override
+  public int getTicksPerBeat() {
+    return this.published.getTicksPerBeat();
+  }
+
+  @Override
+  public List<Playable> getNotes(int beatNum) {
+    return this.published.getNotes(beatNum);
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, Consumer<Playable> action) {
+    this.published.forEachNoteAt(beatNum, action);
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor) {
+    this.published.forEachNoteAt(beatNum, visitor);
+  }
+
+  @Override
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat) {
+    return this.published.getNotesStartingIn(startBeat, endBeat);
+  }
+
+  @Override
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat) {
+    return this.published.getNotesSoundingIn(startBeat, endBeat);
+  }
+
+  @Override
+  public SortedSet<Integer> getInstruments() {
+    return this.published.getInstruments();
+  }
+
+  @Override
+  public List<Playable> getTrackNotes(int instrumentID, int beatNum) {
+    return this.published.getTrackNotes(instrumentID, beatNum);
+  }
+
+  @Override
+  public List<Playable> getTrackNotesStartingIn(int instrumentID, int startBeat, int endBeat) {
+    return this.published.getTrackNotesStartingIn(instrumentID, startBeat, endBeat);
+  }
+
+  @Override
+  public Stream<Playable> notes() {
+    return this.published.notes();
+  }
+
+  @Override
+  public boolean removeNote(Playable note) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.removeNote(note);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public int removeNotes(Collection<Playable> notes) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.removeNotes(notes);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public long getNoteId(Playable note) {
+    return this.published.getNoteId(note);
+  }
+
+  @Override
+  public Playable getNoteById(long id) {
+    return this.published.getNoteById(id);
+  }
+
+  @Override
+  public boolean removeNoteById(long id) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.removeNoteById(id);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public void append(MusicEditorModel song) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        this.song.append(song);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public int getLength() {
+    return this.published.getLength();
+  }
+
+  @Override
+  public void overlay(MusicEditorModel song) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        this.song.overlay(song);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public Playable getHighest() {
+    return this.published.getHighest();
+  }
+
+  @Override
+  public Playable getLowest() {
+    return this.published.getLowest();
+  }
+
+  @Override
+  public Playable moveNote(Playable note, int steps) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.moveNote(note, steps);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public Playable transposeNote(Playable note, int steps) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.transposeNote(note, steps);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public int shiftNotes(Collection<Playable> notes, int beats) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.shiftNotes(notes, beats);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public int transposeNotes(Collection<Playable> notes, int steps) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.transposeNotes(notes, steps);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public int shiftNotesStartingIn(int startBeat, int endBeat, int beats) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.shiftNotesStartingIn(startBeat, endBeat, beats);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public int transposeNotesStartingIn(int startBeat, int endBeat, int steps) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.transposeNotesStartingIn(startBeat, endBeat, steps);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public void insertBeats(int beat, int count) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        this.song.insertBeats(beat, count);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public int deleteBeats(int startBeat, int endBeat) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.deleteBeats(startBeat, endBeat);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public List<Link> getLinks(int beat) {
+    return this.published.getLinks(beat);
+  }
+
+  @Override
+  public void addLink(Link link) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        this.song.addLink(link);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+
+  @Override
+  public boolean removeLink(Link link) {
+    synchronized (this.song) {
+      this.song.beginBatch();
+      try {
+        return this.song.removeLink(link);
+      }
+      finally {
+        this.publish();
+      }
+    }
+  }
+}
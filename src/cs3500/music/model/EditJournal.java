@@ -0,0 +1,490 @@
+package cs3500.music.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents the undo and redo history of the edits made to a MusicEditorModel. Every edit is
+ * recorded as a compact delta - the ID of the edited Playable plus the fields that changed - in
+ * a ring buffer of longs that never grows past a fixed memory cap. When the buffer is full the
+ * oldest edits are forgotten. A step of edits that does not fit in the buffer on its own cannot
+ * be undone, so it empties the journal instead of being recorded in part. Undoing or redoing an
+ * edit replays only that delta, so its cost does not depend on the size of the song.
+ *
+ * <p>Edits that are recorded between {@link #beginGroup()} and {@link #endGroup()} are undone
+ * and redone together, such as moving every selected note by one beat. While the journal is
+ * replaying an edit it ignores every edit that it is told to record, so a model may record its
+ * own edits into a journal and still be the target of {@link #undo(MusicEditorModel)}.</p>
+ */
+public final class EditJournal {
+  /**
+   * Represents the memory cap of a journal made with the default constructor, in bytes
+   */
+  public static final int DEFAULT_MEMORY_CAP = 1 << 20;
+
+  // the kinds of edit that can be recorded
+  private static final int ADD = 1;
+  private static final int REMOVE = 2;
+  private static final int MOVE = 3;
+  private static final int TRANSPOSE = 4;
+  private static final int ADD_LINK = 5;
+  private static final int REMOVE_LINK = 6;
+  private static final int RIPPLE = 7;
+
+  /**
+   * Represents the flag set in the first long of the first record of an undo step
+   */
+  private static final long STEP_START = 1L << 8;
+
+  /**
+   * Represents the bits of the last long of a record that hold the ID of the edited Playable
+   */
+  private static final long ID_MASK = (1L << 56) - 1;
+
+  /**
+   * Represents the recorded edits. A record is 2 to 4 longs long: the first long holds its kind,
+   * the step flag and one int field, and the last long holds its kind and the ID of its Playable
+   * so that the record can be read from either end. A record of inserted or deleted beats holds
+   * the first beat where the ID would be.
+   */
+  private final long[] buffer;
+
+  /**
+   * Represents the positions of the oldest record, the end of the last record that can be
+   * undone and the end of the last record that can be redone. They only ever grow, and the
+   * index in the buffer of a position is that position modulo the buffer length.
+   */
+  private long head;
+  private long cursor;
+  private long end;
+
+  /**
+   * Represents the position of the record that is being appended
+   */
+  private long appending;
+
+  /**
+   * Represents the position of the first record of the step that is being recorded
+   */
+  private long stepBegin;
+
+  /**
+   * True if the step that is being recorded outgrew the buffer, so that the rest of it is not
+   * recorded
+   */
+  private boolean discarding;
+
+  /**
+   * Represents the number of groups that have been begun but not yet ended
+   */
+  private int groupDepth;
+
+  /**
+   * True if the next recorded edit is the first edit of a group
+   */
+  private boolean groupStarting;
+
+  /**
+   * True while an edit is being undone or redone
+   */
+  private boolean replaying;
+
+  /**
+   * Represents the IDs that Playables were given when they were added back to the model during
+   * the undo or redo being replayed, keyed by the ID they had when they were removed from it.
+   * Once the replay is done every record is rewritten with the new IDs and the map is emptied,
+   * so the journal holds no more than its ring buffer between edits.
+   */
+  private final Map<Long, Long> readdedIds;
+
+  /**
+   * Constructs an empty journal with a memory cap of {@link #DEFAULT_MEMORY_CAP} bytes
+   */
+  public EditJournal() {
+    this(DEFAULT_MEMORY_CAP);
+  }
+
+  /**
+   * Constructs an empty journal that uses at most the given number of bytes to record edits
+   * @param memoryCap the size of the ring buffer in bytes
+   * @throws IllegalArgumentException if the cap cannot hold the largest single edit
+   */
+  public EditJournal(int memoryCap) {
+    if (memoryCap < 4 * Long.BYTES) {
+      throw new IllegalArgumentException("Memory cap is too small");
+    }
+    this.buffer = new long[memoryCap / Long.BYTES];
+    this.readdedIds = new HashMap<Long, Long>();
+  }
+
+  /**
+   * Starts a group of edits that are undone and redone together. Groups may be nested, in which
+   * case the outermost group decides what is undone together.
+   */
+  public void beginGroup() {
+    if (this.groupDepth++ == 0) {
+      this.groupStarting = true;
+    }
+  }
+
+  /**
+   * Ends the group of edits started by the matching call to {@link #beginGroup()}
+   * @throws IllegalStateException if no group has been begun
+   */
+  public void endGroup() {
+    if (this.groupDepth == 0) {
+      throw new IllegalStateException("No group of edits has been begun");
+    }
+    this.groupDepth--;
+  }
+
+  /**
+   * Records that the given Playable was added to the model with the given ID
+   */
+  public void recordAdd(long id, Playable note) {
+    this.recordNote(ADD, id, note);
+  }
+
+  /**
+   * Records that the given Playable with the given ID was removed from the model
+   */
+  public void recordRemove(long id, Playable note) {
+    this.recordNote(REMOVE, id, note);
+  }
+
+  /**
+   * Records that the Playable with the given ID was moved by the given number of beats
+   */
+  public void recordMove(long id, int steps) {
+    if (this.append(2, MOVE, steps)) {
+      this.put(1, tail(MOVE, id));
+    }
+  }
+
+  /**
+   * Records that the Playable with the given ID was transposed by the given number of steps
+   */
+  public void recordTranspose(long id, int steps) {
+    if (this.append(2, TRANSPOSE, steps)) {
+      this.put(1, tail(TRANSPOSE, id));
+    }
+  }
+
+  /**
+   * Records that the given Link was added to the model
+   */
+  public void recordAddLink(Link link) {
+    this.recordLink(ADD_LINK, link);
+  }
+
+  /**
+   * Records that the given Link was removed from the model
+   */
+  public void recordRemoveLink(Link link) {
+    this.recordLink(REMOVE_LINK, link);
+  }
+
+  /**
+   * Records that the given number of beats were inserted at the given beat
+   */
+  public void recordInsertBeats(int beat, int count) {
+    if (this.append(2, RIPPLE, count)) {
+      this.put(1, tail(RIPPLE, beat));
+    }
+  }
+
+  /**
+   * Records that the given range of beats was deleted, after recording the removal of every
+   * Playable and Link that started in it
+   */
+  public void recordDeleteBeats(int startBeat, int endBeat) {
+    if (this.append(2, RIPPLE, startBeat - endBeat)) {
+      this.put(1, tail(RIPPLE, startBeat));
+    }
+  }
+
+  /**
+   * Return true if there is an edit that can be undone
+   */
+  public boolean canUndo() {
+    return this.cursor > this.head;
+  }
+
+  /**
+   * Return true if there is an undone edit that can be redone
+   */
+  public boolean canRedo() {
+    return this.cursor < this.end;
+  }
+
+  /**
+   * Undoes the last step of edits that has not been undone yet on the given model
+   * @param model the model that the edits were made to
+   * @return      true if there was a step to undo
+   */
+  public boolean undo(MusicEditorModel model) {
+    if (!this.canUndo()) {
+      return false;
+    }
+    this.replaying = true;
+    try {
+      boolean stepStart;
+      do {
+        long last = this.get(this.cursor - 1);
+        int kind = (int) (last >>> 56);
+        long start = this.cursor - length(kind);
+        long first = this.get(start);
+        stepStart = (first & STEP_START) != 0;
+        this.replay(model, kind, start, true);
+        this.cursor = start;
+      } while (!stepStart && this.cursor > this.head);
+    }
+    finally {
+      this.replaying = false;
+      this.rewriteReaddedIds();
+    }
+    return true;
+  }
+
+  /**
+   * Redoes the last step of edits that was undone on the given model
+   * @param model the model that the edits were made to
+   * @return      true if there was a step to redo
+   */
+  public boolean redo(MusicEditorModel model) {
+    if (!this.canRedo()) {
+      return false;
+    }
+    this.replaying = true;
+    try {
+      do {
+        int kind = (int) (this.get(this.cursor) & 0xFF);
+        this.replay(model, kind, this.cursor, false);
+        this.cursor += length(kind);
+      } while (this.cursor < this.end && (this.get(this.cursor) & STEP_START) == 0);
+    }
+    finally {
+      this.replaying = false;
+      this.rewriteReaddedIds();
+    }
+    return true;
+  }
+
+  /**
+   * Forgets every recorded edit
+   */
+  public void clear() {
+    this.head = 0;
+    this.cursor = 0;
+    this.end = 0;
+    this.readdedIds.clear();
+  }
+
+  /**
+   * Records an edit of the given kind to the given Playable
+   */
+  private void recordNote(int kind, long id, Playable note) {
+    if (this.append(4, kind, note.getVolume())) {
+      this.put(1, ((long) note.getStartBeat() << 32) | (note.getDuration() & 0xFFFFFFFFL));
+      this.put(2, ((long) note.getInstrumentID() << 32)
+              | (note.getMidi() & 0xFFFFFFFFL));
+      this.put(3, tail(kind, id));
+    }
+  }
+
+  /**
+   * Records an edit of the given kind to the given Link
+   */
+  private void recordLink(int kind, Link link) {
+    if (this.append(3, kind, link.getPlayIteration())) {
+      this.put(1, ((long) link.getLocationBeat() << 32) | (link.getLinkedBeat() & 0xFFFFFFFFL));
+      this.put(2, tail(kind, 0));
+    }
+  }
+
+  /**
+   * Makes room for a new record of the given length at the end of the undoable edits, which
+   * discards every edit that could have been redone and as many of the oldest steps as needed,
+   * and writes the first long of the record. If the step that the record belongs to does not
+   * fit even once every older step is forgotten, the journal is emptied and the rest of the step
+   * is not recorded.
+   * @return  false if the edit should not be recorded because it is being replayed or its step
+   * does not fit
+   */
+  private boolean append(int length, int kind, int value) {
+    if (this.replaying) {
+      return false;
+    }
+    boolean stepStart = this.groupDepth == 0 || this.groupStarting;
+    this.groupStarting = false;
+    if (stepStart) {
+      this.discarding = false;
+    }
+    else if (this.discarding) {
+      return false;
+    }
+    this.end = this.cursor;
+    if (stepStart) {
+      this.stepBegin = this.end;
+    }
+    while (this.buffer.length - (this.end - this.head) < length) {
+      if (this.head == this.stepBegin) {
+        // the step cannot be undone, and so neither can any step before it
+        this.clear();
+        this.discarding = true;
+        return false;
+      }
+      // forget a whole step at a time so that no step is ever undone halfway
+      do {
+        this.head += length((int) (this.get(this.head) & 0xFF));
+      } while (this.head < this.end && (this.get(this.head) & STEP_START) == 0);
+    }
+    this.appending = this.end;
+    this.put(0, kind | (stepStart ? STEP_START : 0) | ((long) value << 32));
+    this.end += length;
+    this.cursor = this.end;
+    return true;
+  }
+
+  /**
+   * Writes the given long at the given offset of the record that is being appended
+   */
+  private void put(int offset, long value) {
+    this.buffer[(int) ((this.appending + offset) % this.buffer.length)] = value;
+  }
+
+  /**
+   * Return the long at the given position of the buffer
+   */
+  private long get(long position) {
+    return this.buffer[(int) (position % this.buffer.length)];
+  }
+
+  /**
+   * Undoes or redoes the record of the given kind that starts at the given position
+   */
+  private void replay(MusicEditorModel model, int kind, long start, boolean undo) {
+    long first = this.get(start);
+    int value = (int) (first >> 32);
+    long id = this.get(start + length(kind) - 1) & ID_MASK;
+    switch (kind) {
+      case ADD:
+      case REMOVE:
+        if ((kind == ADD) == undo) {
+          model.removeNoteById(this.resolve(id));
+        }
+        else {
+          long timing = this.get(start + 1);
+          long sound = this.get(start + 2);
+          int midi = (int) sound;
+          Playable note = new Note((int) (timing >> 32), (int) timing, Pitch.pitchFromMidi(midi),
+                  Pitch.octaveFromMidi(midi), (int) (sound >> 32), value);
+          long readded = model.addNote(note);
+          if (readded != this.resolve(id)) {
+            this.readdedIds.put(this.resolve(id), readded);
+          }
+        }
+        break;
+      case MOVE:
+      case TRANSPOSE:
+        Playable edited = model.getNoteById(this.resolve(id));
+        // the Playable is gone if the model was edited without recording it
+        if (edited != null && kind == MOVE) {
+          model.moveNote(edited, undo ? -value : value);
+        }
+        else if (edited != null) {
+          model.transposeNote(edited, undo ? -value : value);
+        }
+        break;
+      case ADD_LINK:
+      case REMOVE_LINK:
+        long beats = this.get(start + 1);
+        int location = (int) (beats >> 32);
+        int linked = (int) beats;
+        if ((kind == ADD_LINK) == undo) {
+          for (Link link : model.getLinks(location)) {
+            if (link.getLinkedBeat() == linked) {
+              model.removeLink(link);
+              break;
+            }
+          }
+        }
+        else {
+          model.addLink(new LinkImpl(location, linked, value));
+        }
+        break;
+      case RIPPLE:
+        // a positive count is a number of inserted beats and a negative one of deleted beats
+        int beat = (int) id;
+        int count = undo ? -value : value;
+        if (count >= 0) {
+          model.insertBeats(beat, count);
+        }
+        else {
+          model.deleteBeats(beat, beat - count);
+        }
+        break;
+      default:
+        throw new IllegalStateException("Corrupt edit journal");
+    }
+  }
+
+  /**
+   * Replaces the ID of every record of a Playable that was added back to the model during the
+   * last replay with the ID it has now, in one pass over the buffer, and empties the map of
+   * re-added IDs
+   */
+  private void rewriteReaddedIds() {
+    if (this.readdedIds.isEmpty()) {
+      return;
+    }
+    for (long position = this.head; position < this.end; ) {
+      int kind = (int) (this.get(position) & 0xFF);
+      long last = position + length(kind) - 1;
+      if (kind == ADD || kind == REMOVE || kind == MOVE || kind == TRANSPOSE) {
+        long id = this.get(last) & ID_MASK;
+        if (this.readdedIds.containsKey(id)) {
+          this.buffer[(int) (last % this.buffer.length)] = tail(kind, this.resolve(id));
+        }
+      }
+      position = last + 1;
+    }
+    this.readdedIds.clear();
+  }
+
+  /**
+   * Return the ID that the Playable recorded with the given ID has in the model now
+   */
+  private long resolve(long id) {
+    Long readded = this.readdedIds.get(id);
+    while (readded != null) {
+      id = readded;
+      readded = this.readdedIds.get(id);
+    }
+    return id;
+  }
+
+  /**
+   * Return the last long of a record of the given kind for the Playable with the given ID
+   */
+  private static long tail(int kind, long id) {
+    return ((long) kind << 56) | (id & ID_MASK);
+  }
+
+  /**
+   * Return the number of longs in a record of the given kind
+   */
+  private static int length(int kind) {
+    switch (kind) {
+      case MOVE:
+      case TRANSPOSE:
+      case RIPPLE:
+        return 2;
+      case ADD_LINK:
+      case REMOVE_LINK:
+        return 3;
+      default:
+        return 4;
+    }
+  }
+}
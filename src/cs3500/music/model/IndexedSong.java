@@ -0,0 +1,365 @@
+package cs3500.music.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import cs3500.music.util.IndexedMusicFile;
+
+/**
+ * Represents a read-only MusicEditorModel that reads its notes from a file in the indexed
+ * format of {@link IndexedMusicFile} as they are asked for, so that a score far larger than
+ * memory can be shown a window at a time. Only the index of the file is read when it is
+ * opened. A query reads the blocks of measures that hold the notes it asks for, and keeps them
+ * so that asking about the same measures again does not read the file. The blocks that have
+ * gone longest without being used are dropped whenever those kept take up more than the
+ * memory budget of the song, counted as the size of their decoded notes.
+ *
+ * <p>The ID of a Playable in an IndexedSong is its index in the file, in order of start
+ * beats. Every Playable it returns is a new copy, so editing one does not change the song, and
+ * every method that would edit the song throws an UnsupportedOperationException. An
+ * IndexedSong may be queried from more than one thread at a time, such as by a view playing it
+ * while another draws it: the blocks it keeps are only touched while holding its lock. It must
+ * be closed once it is no longer needed.</p>
+ */
+public final class IndexedSong extends SongView implements Closeable {
+  /**
+   * Represents the number of bytes that a decoded block takes on top of its notes
+   */
+  private static final int BLOCK_OVERHEAD = 16;
+
+  /**
+   * Represents the file that the notes of this song are read from
+   */
+  private final IndexedMusicFile file;
+
+  /**
+   * Represents the number of bytes of decoded blocks that this song keeps at most, apart from
+   * the block it read last
+   */
+  private final long memoryBudget;
+
+  /**
+   * Represents the ID of the first note of every block, followed by the number of notes
+   */
+  private final long[] firstIds;
+
+  /**
+   * Represents the first block with a note still sounding at the first tick of every block
+   */
+  private final int[] firstSounding;
+
+  /**
+   * Represents the decoded blocks that are kept, keyed by their indices and ordered from the
+   * one used longest ago to the one used last. Looking a block up reorders the map, so it is
+   * only used while holding the lock of this song.
+   */
+  private final LinkedHashMap<Integer, int[]> blocks;
+
+  /**
+   * Represents the number of bytes taken by the decoded blocks that are kept, guarded by the
+   * lock of this song
+   */
+  private long cachedBytes;
+
+  /**
+   * Represents the note reused by forEachNoteAt to hand every note to its action, which is
+   * only used while holding its own lock
+   */
+  private final Playable cursor;
+
+  /**
+   * Constructs a song reading the given open file
+   */
+  private IndexedSong(IndexedMusicFile file, long memoryBudget) {
+    this.file = file;
+    this.memoryBudget = memoryBudget;
+    int count = file.getBlockCount();
+    this.firstIds = new long[count + 1];
+    this.firstSounding = new int[count];
+    int first = 0;
+    for (int i = 0; i < count; ++ i) {
+      this.firstIds[i + 1] = this.firstIds[i] + file.getNoteCount(i);
+      // a block that does not reach the start of this block cannot reach any later block
+      while (first < i && file.getBlockEnd(first) <= i * file.getBlockTicks()) {
+        ++ first;
+      }
+      this.firstSounding[i] = first;
+    }
+    this.blocks = new LinkedHashMap<Integer, int[]>(16, 0.75f, true);
+    this.cachedBytes = 0;
+    this.cursor = new Note(0, 1, Pitch.C, 4);
+  }
+
+  /**
+   * Opens the given file in the indexed format as a song
+   * @param path          the file to open
+   * @param memoryBudget  the number of bytes of decoded notes to keep at most
+   * @return  the song, which keeps the file open until it is closed
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the memory budget is negative or the file is not in
+   * the indexed format
+   */
+  public static IndexedSong open(Path path, long memoryBudget) throws IOException {
+    if (memoryBudget < 0) {
+      throw new IllegalArgumentException("Invalid memory budget");
+    }
+    return new IndexedSong(IndexedMusicFile.open(path), memoryBudget);
+  }
+
+  /**
+   * Return the number of bytes taken by the decoded notes that this song keeps
+   * @return  the number of bytes, which is at most the memory budget unless only one block
+   * is kept
+   */
+  public synchronized long getCachedBytes() {
+    return this.cachedBytes;
+  }
+
+  /**
+   * Closes the file that this song reads and drops every block it keeps
+   * @throws IOException if the file cannot be closed
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    this.blocks.clear();
+    this.cachedBytes = 0;
+    this.file.close();
+  }
+
+  /**
+   * Return the decoded notes of the given block, reading them from the file if they are not
+   * kept and then dropping the blocks used longest ago until the rest fit in the budget. The
+   * returned array is never changed, so it may be read after the lock is released.
+   */
+  private synchronized int[] block(int index) {
+    int[] notes = this.blocks.get(index);
+    if (notes != null) {
+      return notes;
+    }
+    try {
+      notes = this.file.readBlock(index);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.blocks.put(index, notes);
+    this.cachedBytes += BLOCK_OVERHEAD + 4L * notes.length;
+    // the block just read is the last in the map, so it is never dropped here
+    Iterator<int[]> eldest = this.blocks.values().iterator();
+    while (this.cachedBytes > this.memoryBudget && this.blocks.size() > 1) {
+      this.cachedBytes -= BLOCK_OVERHEAD + 4L * eldest.next().length;
+      eldest.remove();
+    }
+    return notes;
+  }
+
+  /**
+   * Hands the fields of every note that sounds during the given range of ticks to the given
+   * visitor, in order of their start ticks, reading only the blocks that can hold them
+   * @param start     the first tick of the range
+   * @param end       the tick after the last tick of the range, which is after the first
+   * @param starting  whether to visit only the notes that start in the range
+   * @param visitor   the visitor to hand the fields of the notes to
+   */
+  private void visit(int start, int end, boolean starting, NoteVisitor visitor) {
+    int length = this.file.getLength();
+    if (start >= length) {
+      return;
+    }
+    int blockTicks = this.file.getBlockTicks();
+    int last = Math.min((end - 1) / blockTicks, this.file.getBlockCount() - 1);
+    int first = starting ? start / blockTicks : this.firstSounding[start / blockTicks];
+    for (int i = first; i <= last; ++ i) {
+      if (this.file.getNoteCount(i) == 0 || (!starting && this.file.getBlockEnd(i) <= start)) {
+        continue;
+      }
+      int[] notes = this.block(i);
+      for (int n = 0; n < notes.length; n += IndexedMusicFile.NOTE_INTS) {
+        int noteStart = notes[n];
+        if (noteStart >= end) {
+          break;
+        }
+        if (starting ? noteStart >= start : noteStart + notes[n + 1] > start) {
+          visitor.visit(noteStart, notes[n + 1], notes[n + 2], notes[n + 3], notes[n + 4]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Return a list of new copies of the notes that sound during the given range of ticks, or
+   * only of those that start in it
+   */
+  private List<Playable> collect(int start, int end, boolean starting) {
+    final List<Playable> output = new ArrayList<Playable>();
+    if (start < end) {
+      this.visit(start, end, starting, new NoteVisitor() {
+        @Override
+        public void visit(int startBeat, int duration, int midi, int instrument, int volume) {
+          output.add(new Note(startBeat, duration, Pitch.pitchFromMidi(midi),
+                  Pitch.octaveFromMidi(midi), instrument, volume));
+        }
+      });
+    }
+    return output;
+  }
+
+  @Override
+  List<MusicEditorModel> sources() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  ModelChange translate(int source, ModelChange change) {
+    return null;
+  }
+
+  @Override
+  public int getTempo() {
+    return this.file.getTimeMap().getTempoAt(0);
+  }
+
+  @Override
+  public TimeMap getTimeMap() {
+    return this.file.getTimeMap();
+  }
+
+  @Override
+  public int getBeatsPerMeasure() {
+    return this.file.getBeatsPerMeasure();
+  }
+
+  @Override
+  public int getTicksPerBeat() {
+    return this.file.getTimeMap().getTicksPerBeat();
+  }
+
+  @Override
+  public List<Playable> getNotes(int beatNum) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    return this.collect(beatNum, beatNum + 1, false);
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, final Consumer<Playable> action) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    synchronized (this.cursor) {
+      this.visit(beatNum, beatNum + 1, false, new NoteVisitor() {
+        @Override
+        public void visit(int startBeat, int duration, int midi, int instrument, int volume) {
+          cursor.setStart(startBeat);
+          cursor.setDuration(duration);
+          cursor.setMidi(midi);
+          cursor.setInstrument(instrument);
+          cursor.setVolume(volume);
+          action.accept(cursor);
+        }
+      });
+    }
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    this.visit(beatNum, beatNum + 1, false, visitor);
+  }
+
+  @Override
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat) {
+    AbstractSong.checkRange(startBeat, endBeat);
+    return this.collect(startBeat, endBeat, true);
+  }
+
+  @Override
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat) {
+    AbstractSong.checkRange(startBeat, endBeat);
+    return this.collect(startBeat, endBeat, false);
+  }
+
+  @Override
+  public SortedSet<Integer> getInstruments() {
+    return new TreeSet<Integer>(this.file.getInstruments());
+  }
+
+  @Override
+  public long getNoteId(Playable note) {
+    Objects.requireNonNull(note);
+    int start = note.getStartBeat();
+    if (start < 0 || start >= this.file.getLength()) {
+      return -1;
+    }
+    int index = start / this.file.getBlockTicks();
+    if (this.file.getNoteCount(index) == 0) {
+      return -1;
+    }
+    int[] notes = this.block(index);
+    for (int n = 0; n < notes.length; n += IndexedMusicFile.NOTE_INTS) {
+      if (notes[n] == start && notes[n + 1] == note.getDuration()
+              && notes[n + 2] == note.getMidi() && notes[n + 3] == note.getInstrumentID()
+              && notes[n + 4] == note.getVolume()) {
+        return this.firstIds[index] + n / IndexedMusicFile.NOTE_INTS;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public Playable getNoteById(long id) {
+    if (id < 0 || id >= this.firstIds[this.firstIds.length - 1]) {
+      return null;
+    }
+    // find the last block whose first ID is at most the given one, which holds it
+    int low = 0;
+    int high = this.firstIds.length - 2;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (this.firstIds[middle] <= id) {
+        low = middle;
+      }
+      else {
+        high = middle - 1;
+      }
+    }
+    return IndexedMusicFile.noteOf(this.block(low),
+            (int) (id - this.firstIds[low]) * IndexedMusicFile.NOTE_INTS);
+  }
+
+  @Override
+  public int getLength() {
+    return this.file.getLength();
+  }
+
+  @Override
+  public Playable getHighest() {
+    return this.file.getHighest();
+  }
+
+  @Override
+  public Playable getLowest() {
+    return this.file.getLowest();
+  }
+
+  @Override
+  public List<Link> getLinks(int beat) {
+    List<Link> links = this.file.getLinks().get(beat);
+    return links == null ? new ArrayList<Link>() : new ArrayList<Link>(links);
+  }
+}
@@ -0,0 +1,272 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Represents a song to be edited in a music editor whose Playables are stored in an interval
+ * tree. Unlike {@link Song}, which keeps a reference to a Playable in every beat it lasts for,
+ * an IntervalSong stores every Playable once, so long sustained notes cost no more memory than
+ * short ones and finding the notes at a beat is a stabbing query on the tree.
+ *
+ * <p>Since its memory only grows with the number of notes, an IntervalSong can be counted in
+ * many ticks per beat, such as the 480 pulses per quarter note of a MIDI file, without costing
+ * more than one counted in whole beats.</p>
+ */
+public final class IntervalSong extends AbstractSong {
+  /**
+   * Represents the Playables that comprise this song, each stored once and keyed on the beats
+   * during which it sounds
+   */
+  private final NoteIntervalTree notes;
+
+  /**
+   * Represents the stable IDs of the Playables in this song
+   */
+  private final NoteIds ids;
+
+  /**
+   * Construct an empty IntervalSong with a default tempo of 120 bpm
+   */
+  public IntervalSong() {
+    super();
+    this.notes = new NoteIntervalTree();
+    this.ids = new NoteIds();
+  }
+
+  /**
+   * Construct an empty IntervalSong counted in the given number of ticks per beat, with a
+   * default tempo of 120 bpm
+   * @param ticksPerBeat  the number of ticks in one beat
+   * @throws IllegalArgumentException if ticksPerBeat is not positive
+   */
+  public IntervalSong(int ticksPerBeat) {
+    this(new ArrayList<Playable>(), 120, 4, ticksPerBeat, new TreeMap<Integer, List<Link>>());
+  }
+
+  /**
+   * Construct an IntervalSong based on the notes in the given List of Playables
+   * @param notes the list containing the Notes to be added to this IntervalSong
+   * @param links the Links of the song keyed by their location beat
+   * @throws IllegalArgumentException if the tempo or beatsPerMeasure are not positive
+   */
+  public IntervalSong(List<Playable> notes, int tempo,
+                      int beatsPerMeasure, Map<Integer, List<Link>> links) {
+    this(notes, tempo, beatsPerMeasure, 1, links);
+  }
+
+  /**
+   * Construct an IntervalSong counted in the given number of ticks per beat based on the notes
+   * in the given List of Playables, whose start beats and durations are counted in ticks
+   * @param notes         the list containing the Notes to be added to this IntervalSong
+   * @param ticksPerBeat  the number of ticks in one beat
+   * @param links         the Links of the song keyed by their location tick
+   * @throws IllegalArgumentException if the tempo, beatsPerMeasure or ticksPerBeat are not
+   * positive
+   */
+  public IntervalSong(List<Playable> notes, int tempo, int beatsPerMeasure, int ticksPerBeat,
+                      Map<Integer, List<Link>> links) {
+    super(tempo, beatsPerMeasure, ticksPerBeat, links);
+    this.notes = new NoteIntervalTree();
+    this.ids = new NoteIds();
+    for (Playable note : notes) {
+      this.addNote(note);
+    }
+  }
+
+  /**
+   * Construct an IntervalSong based on the notes in the given List of Playables
+   * @param notes the list containing the Notes to be added to this IntervalSong
+   * @throws IllegalArgumentException if the tempo or beatsPerMeasure are not positive
+   */
+  public IntervalSong(List<Playable> notes, int tempo, int beatsPerMeasure) {
+    this(notes, tempo, beatsPerMeasure, new TreeMap<Integer, List<Link>>());
+  }
+
+  /**
+   * Construct an IntervalSong holding copies of the Playables and Links of the given model and
+   * with the same tempo changes, measure length and ticks per beat
+   * @param model the MusicEditorModel to copy
+   * @throws NullPointerException if the given model is null
+   */
+  public IntervalSong(MusicEditorModel model) {
+    super(Objects.requireNonNull(model).getTempo(), model.getBeatsPerMeasure(),
+            model.getTicksPerBeat(), new TreeMap<Integer, List<Link>>());
+    this.notes = new NoteIntervalTree();
+    this.ids = new NoteIds();
+    this.overlay(model);
+    for (Map.Entry<Integer, Integer> change : model.getTimeMap().getTempoChanges().entrySet()) {
+      this.setTempoAt(change.getKey(), change.getValue());
+    }
+    for (int beat = 0; beat < model.getLength(); ++ beat) {
+      for (Link link : model.getLinks(beat)) {
+        this.addLink(link);
+      }
+    }
+  }
+
+  @Override
+  public long addNote(Playable note) {
+    if (note.getStartBeat() < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    Playable stored = editable(note.copy());
+    long id = this.ids.next();
+    this.notes.insert(stored);
+    this.ids.put(stored, id);
+    this.changes().changed(stored);
+    return id;
+  }
+
+  @Override
+  public List<Playable> getNotes(int beatNum) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    List<Playable> output = new ArrayList<Playable>();
+    this.notes.stab(beatNum, output);
+    return output;
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, Consumer<Playable> action) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    this.notes.forEachAt(beatNum, action);
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    this.notes.forEachAt(beatNum, visitor);
+  }
+
+  @Override
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat) {
+    checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    this.notes.startingIn(startBeat, endBeat, output);
+    return output;
+  }
+
+  @Override
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat) {
+    checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    this.notes.overlapping(startBeat, endBeat, output);
+    return output;
+  }
+
+  @Override
+  public boolean removeNote(Playable note) {
+    Objects.requireNonNull(note);
+    Playable removed = this.notes.remove(note);
+    if (removed == null) {
+      return false;
+    }
+    this.ids.remove(removed);
+    this.changes().changed(removed);
+    return true;
+  }
+
+  @Override
+  public long getNoteId(Playable note) {
+    Objects.requireNonNull(note);
+    if (this.ids.isStored(note)) {
+      return this.ids.idOf(note);
+    }
+    for (Playable stored : this.getNotesStartingIn(note.getStartBeat(),
+            note.getStartBeat() + 1)) {
+      if (note.equals(stored)) {
+        return this.ids.idOf(stored);
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public Playable getNoteById(long id) {
+    return this.ids.get(id);
+  }
+
+  @Override
+  public boolean removeNoteById(long id) {
+    Playable stored = this.ids.get(id);
+    return stored != null && this.removeNote(stored);
+  }
+
+  @Override
+  public int getLength() {
+    return this.notes.maxEnd();
+  }
+
+  @Override
+  public Playable getHighest() {
+    return this.getExtremePlayable(true);
+  }
+
+  @Override
+  public Playable getLowest() {
+    return this.getExtremePlayable(false);
+  }
+
+  @Override
+  public Playable moveNote(Playable note, int steps) {
+    if (note.getStartBeat() + steps < 0) {
+      throw new IllegalArgumentException("invalid number of steps");
+    }
+    Playable stored = this.notes.remove(note);
+    if (stored == null) {
+      throw new IllegalArgumentException("note does not exist in the music editor model");
+    }
+    long id = this.ids.remove(stored);
+    Playable moved = note.setStart(note.getStartBeat() + steps);
+    Playable kept = editable(moved);
+    this.notes.insert(kept);
+    this.ids.put(kept, id);
+    this.changes().moved(moved, steps);
+    return moved;
+  }
+
+  @Override
+  public Playable transposeNote(Playable note, int steps) {
+    Playable stored = this.notes.remove(note);
+    if (stored == null) {
+      throw new IllegalArgumentException("note does not exist in the music editor model");
+    }
+    long id = this.ids.remove(stored);
+    Playable transposed = edit(note, 0, steps);
+    Playable kept = editable(transposed);
+    this.notes.insert(kept);
+    this.ids.put(kept, id);
+    this.changes().transposed(transposed, steps);
+    return transposed;
+  }
+
+  /**
+   * Returns the Playable that is the highest in the song if highest is true or the lowest
+   * in the song otherwise
+   * @param highest boolean selector between highest and lowest values
+   * @return  Playable instance on one extreme of this song, or null if the song is empty
+   */
+  private Playable getExtremePlayable(boolean highest) {
+    List<Playable> all = new ArrayList<Playable>(this.notes.size());
+    this.notes.collect(all);
+    Playable output = null;
+    for (Playable note : all) {
+      // updates the output if the current note is on the appropriate side of
+      // the current output based whether we're looking for the highest or lowest
+      if (output == null || (highest == (note.compareTo(output) >= 0))) {
+        output = note;
+      }
+    }
+    return output == null ? null : NoteValue.of(output);
+  }
+}
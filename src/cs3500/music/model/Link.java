@@ -1,7 +1,8 @@
 package cs3500.music.model;
 
 /**
- * Represents a link connection between two separate times in a music piece
+ * Represents a link connection between two separate times in a music piece. Like every time in
+ * a {@link MusicEditorModel}, the beats of a Link are counted in the ticks of its song.
  */
 public interface Link {
   /**
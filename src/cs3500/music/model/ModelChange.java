@@ -0,0 +1,106 @@
+package cs3500.music.model;
+
+/**
+ * Represents the region of a MusicEditorModel that one or more edits may have changed: a range
+ * of beats and a range of MIDI pitches. Anything outside of the region is unchanged, so a view
+ * or cache only has to update what lies inside it. Edits that change the whole song, such as a
+ * new tempo, change every beat and every pitch.
+ */
+public final class ModelChange {
+  /**
+   * Represents a change to every beat and every pitch of a model
+   */
+  public static final ModelChange EVERYTHING = new ModelChange(0, Integer.MAX_VALUE,
+          Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+  /**
+   * Represents the first changed beat and the beat after the last changed beat
+   */
+  private final int startBeat;
+  private final int endBeat;
+
+  /**
+   * Represents the lowest and highest changed MIDI pitches, inclusive
+   */
+  private final int lowestMidi;
+  private final int highestMidi;
+
+  /**
+   * Constructs a change to the given beats and pitches
+   * @param startBeat   the first changed beat
+   * @param endBeat     the beat after the last changed beat
+   * @param lowestMidi  the lowest changed MIDI pitch
+   * @param highestMidi the highest changed MIDI pitch
+   * @throws IllegalArgumentException if either range is backwards
+   */
+  public ModelChange(int startBeat, int endBeat, int lowestMidi, int highestMidi) {
+    if (endBeat < startBeat || highestMidi < lowestMidi) {
+      throw new IllegalArgumentException("Invalid change region");
+    }
+    this.startBeat = startBeat;
+    this.endBeat = endBeat;
+    this.lowestMidi = lowestMidi;
+    this.highestMidi = highestMidi;
+  }
+
+  /**
+   * Return the first changed beat
+   */
+  public int getStartBeat() {
+    return this.startBeat;
+  }
+
+  /**
+   * Return the beat after the last changed beat
+   */
+  public int getEndBeat() {
+    return this.endBeat;
+  }
+
+  /**
+   * Return the lowest changed MIDI pitch
+   */
+  public int getLowestMidi() {
+    return this.lowestMidi;
+  }
+
+  /**
+   * Return the highest changed MIDI pitch
+   */
+  public int getHighestMidi() {
+    return this.highestMidi;
+  }
+
+  /**
+   * Return true if this change touches the given region
+   * @param startBeat   the first beat of the region
+   * @param endBeat     the beat after the last beat of the region
+   * @param lowestMidi  the lowest MIDI pitch of the region
+   * @param highestMidi the highest MIDI pitch of the region
+   */
+  public boolean overlaps(int startBeat, int endBeat, int lowestMidi, int highestMidi) {
+    return this.startBeat < endBeat && startBeat < this.endBeat
+            && this.lowestMidi <= highestMidi && lowestMidi <= this.highestMidi;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof ModelChange)) {
+      return false;
+    }
+    ModelChange that = (ModelChange) other;
+    return this.startBeat == that.startBeat && this.endBeat == that.endBeat
+            && this.lowestMidi == that.lowestMidi && this.highestMidi == that.highestMidi;
+  }
+
+  @Override
+  public int hashCode() {
+    return ((this.startBeat * 31 + this.endBeat) * 31 + this.lowestMidi) * 31 + this.highestMidi;
+  }
+
+  @Override
+  public String toString() {
+    return "beats " + this.startBeat + "-" + this.endBeat
+            + ", pitches " + this.lowestMidi + "-" + this.highestMidi;
+  }
+}
@@ -0,0 +1,12 @@
+package cs3500.music.model;
+
+/**
+ * Represents an object that is told whenever a MusicEditorModel that it listens to is edited
+ */
+public interface ModelListener {
+  /**
+   * Called after the model has been edited, or after the last edit of a batch of edits
+   * @param change  the region of the model that the edits may have changed
+   */
+  void modelChanged(ModelChange change);
+}
@@ -1,30 +1,59 @@
 package cs3500.music.model;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.SortedSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Represents a model for a music editor application
+ *
+ * <p>Time in a MusicEditorModel is counted in ticks, of which there are
+ * {@link #getTicksPerBeat()} in every beat. The start beats and durations of its Playables,
+ * its length, the locations of its Links and every beat number given to its methods are all
+ * counted in ticks, so a song with one tick per beat counts in whole beats while a song with
+ * 480 ticks per beat can place notes on a 480th of a beat.</p>
  */
 public interface MusicEditorModel {
   /**
    * Adds a copy of the given Playable to this MusicEditorModel
    * @param note  the new Playable to be added
+   * @return  the ID given to the copy, which tells it apart from any equal Playable
    */
-  public void addNote(Playable note);
+  public long addNote(Playable note);
 
   /**
-   * Sets the tempo of this MusicEditorModel to the given value
+   * Sets the tempo that this MusicEditorModel starts at to the given value. Any later tempo
+   * changes are kept.
    * @param tempo the tempo to be set
    * @throws IllegalArgumentException if the tempo is not positive
    */
   public void setTempo(int tempo);
 
   /**
-   * Gets the tempo of this MusicEditorModel
+   * Gets the tempo that this MusicEditorModel starts at
    * @return  the tempo of this MusicEditorModel in beats per minute
    */
   public int getTempo();
 
+  /**
+   * Changes the tempo of this MusicEditorModel to the given value from the given beat until its
+   * next tempo change
+   * @param beatNum the beat at which the tempo changes
+   * @param tempo   the new tempo in beats per minute
+   * @throws IllegalArgumentException if the beat is negative or the tempo is not positive
+   */
+  public void setTempoAt(int beatNum, int tempo);
+
+  /**
+   * Gets the tempo changes of this MusicEditorModel as a {@link TimeMap}, which every view
+   * uses to convert between beats and seconds. The TimeMap does not change when this
+   * MusicEditorModel is edited.
+   * @return  the TimeMap of this MusicEditorModel
+   */
+  public TimeMap getTimeMap();
+
   /**
    * Sets the number of beats in one measure in this MusicEditorModel
    * @param   beatsPerMeasure
@@ -38,6 +67,13 @@ public interface MusicEditorModel {
    */
   public int getBeatsPerMeasure();
 
+  /**
+   * Gets the number of ticks in one beat of this MusicEditorModel, which is the resolution at
+   * which its Playables and Links are placed. It is fixed when the model is made.
+   * @return  the number of ticks in one beat, which is 1 for a model counted in whole beats
+   */
+  public int getTicksPerBeat();
+
   /**
    * Returns a list of all Playables in this MusicEditorModel that are playing at the
    * given beat number
@@ -46,6 +82,88 @@ public interface MusicEditorModel {
    */
   public List<Playable> getNotes(int beatNum);
 
+  /**
+   * Performs the given action on every Playable in this MusicEditorModel that is playing at the
+   * given beat number, without creating a list or any other object. The Playable given to the
+   * action may be reused between calls, so the action must not keep it, and the action must
+   * not edit this MusicEditorModel
+   * @param beatNum the beat number to visit
+   * @param action  the action to perform on every Playable at the beat
+   * @throws IllegalArgumentException if the given beat number is negative
+   */
+  public void forEachNoteAt(int beatNum, Consumer<Playable> action);
+
+  /**
+   * Hands the fields of every Playable in this MusicEditorModel that is playing at the given
+   * beat number to the given visitor, without creating any object. The visitor must not edit
+   * this MusicEditorModel
+   * @param beatNum the beat number to visit
+   * @param visitor the visitor to hand the fields of every Playable at the beat to
+   * @throws IllegalArgumentException if the given beat number is negative
+   */
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor);
+
+  /**
+   * Returns a list of all Playables in this MusicEditorModel that start at a beat in the given
+   * range, ordered by their start beats. Every Playable is in the list once no matter how
+   * long it lasts
+   * @param startBeat the first beat of the range
+   * @param endBeat   the beat after the last beat of the range
+   * @return  List of the Playables starting in the range
+   * @throws IllegalArgumentException if startBeat is negative or endBeat is less than startBeat
+   */
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat);
+
+  /**
+   * Returns a list of all Playables in this MusicEditorModel that are playing during at least
+   * one beat of the given range, ordered by their start beats. Every Playable is in the list
+   * once no matter how many beats of the range it lasts for
+   * @param startBeat the first beat of the range
+   * @param endBeat   the beat after the last beat of the range
+   * @return  List of the Playables sounding in the range
+   * @throws IllegalArgumentException if startBeat is negative or endBeat is less than startBeat
+   */
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat);
+
+  /**
+   * Returns the IDs of the instruments that play at least one Playable in this
+   * MusicEditorModel. The Playables of each instrument make up a track that can be queried on
+   * its own with {@link #getTrackNotes(int, int)} and {@link #getTrackNotesStartingIn}
+   * @return  the instrument IDs in ascending order
+   */
+  public SortedSet<Integer> getInstruments();
+
+  /**
+   * Returns a list of the Playables played by the given instrument that are either beginning
+   * or sustaining at the given beat
+   * @param instrumentID  the instrument of the track
+   * @param beatNum       the beat number to get the Playables at
+   * @return  List of the Playables of the track at the given beat
+   * @throws IllegalArgumentException if the instrument ID or beat number is negative
+   */
+  public List<Playable> getTrackNotes(int instrumentID, int beatNum);
+
+  /**
+   * Returns a list of the Playables played by the given instrument that start at a beat in
+   * the given range, ordered by their start beats
+   * @param instrumentID  the instrument of the track
+   * @param startBeat     the first beat of the range
+   * @param endBeat       the beat after the last beat of the range
+   * @return  List of the Playables of the track starting in the range
+   * @throws IllegalArgumentException if the instrument ID or startBeat is negative or endBeat
+   * is less than startBeat
+   */
+  public List<Playable> getTrackNotesStartingIn(int instrumentID, int startBeat, int endBeat);
+
+  /**
+   * Returns a sequential Stream of every Playable in this MusicEditorModel as it is now,
+   * ordered by start beat. Every Playable is in the Stream once no matter how long it lasts.
+   * The Stream is sized, and when it is made parallel it is split on measure boundaries, so
+   * each part of it works on the Playables starting in whole measures
+   * @return  the Stream of the Playables
+   */
+  public Stream<Playable> notes();
+
   /**
    * Removes the Playable that is exactly the given Playable from this MusicEditorModel
    * @param note  the Playable to be removed
@@ -55,6 +173,39 @@ public interface MusicEditorModel {
    */
   public boolean removeNote(Playable note);
 
+  /**
+   * Removes every one of the given Playables from this MusicEditorModel in a single pass,
+   * matching them the same way as {@link #removeNote(Playable)}
+   * @param notes the Playables to be removed
+   * @return the number of Playables that were found and removed
+   * @throws NullPointerException if the given collection is null
+   */
+  public int removeNotes(Collection<Playable> notes);
+
+  /**
+   * Returns the ID of the stored Playable that is exactly the given Playable or, if there is
+   * none, of the first stored Playable equal to it. A stored Playable keeps the same ID for
+   * as long as it is in this MusicEditorModel, including while it is moved or transposed
+   * @param note  the Playable to look up
+   * @return  the ID of the stored Playable, or -1 if it is not in this MusicEditorModel
+   * @throws NullPointerException if the given Playable is null
+   */
+  public long getNoteId(Playable note);
+
+  /**
+   * Returns the stored Playable with the given ID
+   * @param id  the ID of the Playable
+   * @return  the Playable with the given ID, or null if there is no such Playable
+   */
+  public Playable getNoteById(long id);
+
+  /**
+   * Removes the stored Playable with the given ID from this MusicEditorModel
+   * @param id  the ID of the Playable to be removed
+   * @return  true if a Playable with the given ID was found and removed
+   */
+  public boolean removeNoteById(long id);
+
   /**
    * Appends copies of the Playables in the given MusicEditorModel to the conclusion of
    * this MusicEditorModel. If the given MusicEditorModel is null, nothing is copied
@@ -99,10 +250,92 @@ public interface MusicEditorModel {
    * @param steps the number of steps to shift the Playable by
    * @throws IllegalArgumentException if the given Playable is not in this MusicEditorModel
    * or the requested shift puts the note at a negative beat
-   * @return  the note that has been shifted
+   * @return  the note that has been shifted, which is the given Playable unless it is immutable
    */
   public Playable moveNote(Playable note, int steps);
 
+  /**
+   * Transposes the given note in this MusicEditorModel by the given number of semitones
+   * @param note  the Playable to transpose
+   * @param steps the number of semitones to transpose the Playable by, negative to go down
+   * @throws IllegalArgumentException if the given Playable is not in this MusicEditorModel
+   * @return  the note that has been transposed, which is the given Playable unless it is
+   * immutable
+   */
+  public Playable transposeNote(Playable note, int steps);
+
+  /**
+   * Shifts every one of the given notes in this MusicEditorModel by the given number of beats
+   * at once, reindexing them in a single pass. Each given Playable is shifted like
+   * {@link #moveNote(Playable, int)} would, and the listeners are told about one change.
+   * Nothing is shifted if any of the notes cannot be.
+   * @param notes the Playables to shift
+   * @param beats the number of beats to shift them by
+   * @return  the number of Playables that were shifted
+   * @throws IllegalArgumentException if one of the Playables is not in this MusicEditorModel
+   * or the shift puts one of them at a negative beat
+   */
+  public int shiftNotes(Collection<Playable> notes, int beats);
+
+  /**
+   * Transposes every one of the given notes in this MusicEditorModel by the given number of
+   * semitones at once, reindexing them in a single pass. Each given Playable is transposed like
+   * {@link #transposeNote(Playable, int)} would, and the listeners are told about one change.
+   * Nothing is transposed if any of the notes cannot be.
+   * @param notes the Playables to transpose
+   * @param steps the number of semitones to transpose them by, negative to go down
+   * @return  the number of Playables that were transposed
+   * @throws IllegalArgumentException if one of the Playables is not in this MusicEditorModel
+   * or the transposition puts one of them below the lowest pitch
+   */
+  public int transposeNotes(Collection<Playable> notes, int steps);
+
+  /**
+   * Shifts every note that starts during the given range of beats by the given number of beats
+   * @param startBeat the first beat of the range
+   * @param endBeat   the beat after the last beat of the range
+   * @param beats     the number of beats to shift the notes by
+   * @return  the number of Playables that were shifted
+   * @throws IllegalArgumentException if the range is invalid or the shift puts a note at a
+   * negative beat
+   */
+  public int shiftNotesStartingIn(int startBeat, int endBeat, int beats);
+
+  /**
+   * Transposes every note that starts during the given range of beats by the given number of
+   * semitones
+   * @param startBeat the first beat of the range
+   * @param endBeat   the beat after the last beat of the range
+   * @param steps     the number of semitones to transpose the notes by, negative to go down
+   * @return  the number of Playables that were transposed
+   * @throws IllegalArgumentException if the range is invalid or the transposition puts a note
+   * below the lowest pitch
+   */
+  public int transposeNotesStartingIn(int startBeat, int endBeat, int steps);
+
+  /**
+   * Inserts the given number of empty beats at the given beat, moving every Playable and Link
+   * that starts at or after that beat later by the number of inserted beats. A Playable that
+   * starts before the beat keeps its start and duration even if it sounds across it. Moved
+   * Playables keep their IDs.
+   * @param beat  the beat at which to insert the empty beats
+   * @param count the number of beats to insert
+   * @throws IllegalArgumentException if the beat or the count is negative
+   */
+  public void insertBeats(int beat, int count);
+
+  /**
+   * Deletes the given range of beats, removing every Playable and Link that starts in the range
+   * and moving every Playable and Link that starts after it earlier by the length of the range.
+   * A Playable that starts before the range keeps its start and duration, and a Link that jumps
+   * back into the range jumps to its first beat instead. Moved Playables keep their IDs.
+   * @param startBeat the first beat of the range
+   * @param endBeat   the beat after the last beat of the range
+   * @return  the number of Playables that were removed
+   * @throws IllegalArgumentException if startBeat is negative or endBeat is less than startBeat
+   */
+  public int deleteBeats(int startBeat, int endBeat);
+
   /**
    * Return a list of all the Links associated with the given beat
    * @param beat  the beat at which to retrieve the Links
@@ -123,5 +356,30 @@ public interface MusicEditorModel {
    */
   boolean removeLink(Link link);
 
+  /**
+   * Adds the given listener, which is told the region of this MusicEditorModel that changed
+   * after every edit, or after every batch of edits
+   * @param listener  the listener to add
+   * @throws NullPointerException if the listener is null
+   */
+  void addListener(ModelListener listener);
+
+  /**
+   * Removes the given listener from this MusicEditorModel if it was added
+   * @param listener  the listener to remove
+   */
+  void removeListener(ModelListener listener);
 
+  /**
+   * Starts a batch of edits. The listeners are not told about edits made during a batch until
+   * the batch ends, and are then told about all of them at once. Batches may be nested, in which
+   * case the listeners are told when the outermost batch ends.
+   */
+  void beginBatch();
+
+  /**
+   * Ends the batch of edits started by the matching call to {@link #beginBatch()}
+   * @throws IllegalStateException if no batch has been begun
+   */
+  void endBatch();
 }
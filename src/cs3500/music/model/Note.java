@@ -21,17 +21,10 @@ public final class Note implements Playable {
    */
   private int duration;
   /**
-   * Represents the pitch of this note. Not final because this
-   * note can be moved in the editor.
+   * Represents the MIDI note number of this note, from which its pitch and
+   * octave are derived. Not final because this note can be moved in the editor.
    */
-  private Pitch pitch;
-
-  /**
-   * Represents the octave number that this Note is in
-   *
-   * Note:
-   */
-  private int octave;
+  private int midi;
 
   /**
    * Represents an ID for an instrument that is playing this Note
@@ -60,8 +53,7 @@ public final class Note implements Playable {
     }
     this.startBeat = startBeat;
     this.duration = duration;
-    this.pitch = Objects.requireNonNull(pitch);
-    this.octave = octave;
+    this.midi = Pitch.getMidi(Objects.requireNonNull(pitch), octave);
     this.instrumentID = 0;
   }
 
@@ -90,11 +82,11 @@ public final class Note implements Playable {
    */
   public Note(Note other) {
     Objects.requireNonNull(other);
-    this.pitch = Objects.requireNonNull(other.pitch);
+    this.midi = other.midi;
     this.duration = other.duration;
     this.startBeat = other.startBeat;
-    this.octave = other.octave;
     this.instrumentID = other.instrumentID;
+    this.volume = other.volume;
   }
 
   /**
@@ -121,7 +113,7 @@ public final class Note implements Playable {
    */
   @Override
   public Pitch getPitch() {
-    return pitch;
+    return Pitch.pitchFromMidi(this.midi);
   }
 
   /**
@@ -130,7 +122,16 @@ public final class Note implements Playable {
    */
   @Override
   public int getOctave() {
-    return octave;
+    return Pitch.octaveFromMidi(this.midi);
+  }
+
+  /**
+   * Get the MIDI note number of this Note
+   * @return  the MIDI note number of this Note
+   */
+  @Override
+  public int getMidi() {
+    return this.midi;
   }
 
   /**
@@ -159,7 +160,7 @@ public final class Note implements Playable {
    */
   @Override
   public Playable setPitch(Pitch pitch) {
-    this.pitch = Objects.requireNonNull(pitch);
+    this.midi = Pitch.getMidi(Objects.requireNonNull(pitch), this.getOctave());
     return this;
   }
 
@@ -200,7 +201,18 @@ public final class Note implements Playable {
    */
   @Override
   public Playable setOctave(int octave) {
-    this.octave = octave;
+    this.midi = Pitch.getMidi(this.getPitch(), octave);
+    return this;
+  }
+
+  /**
+   * Sets this Note's pitch and octave to those of the given MIDI note number
+   * @param midi  the new MIDI note number of this Note
+   * @return      this Note
+   */
+  @Override
+  public Playable setMidi(int midi) {
+    this.midi = midi;
     return this;
   }
 
@@ -242,20 +254,31 @@ public final class Note implements Playable {
 
   @Override
   public boolean equals(Object other) {
-    if (!(other instanceof Playable) && other != null) {
+    if (!(other instanceof Playable)) {
       return false;
     }
-    Note otherNote = (Note) other;
-    return this.pitch == otherNote.pitch &&
-            this.startBeat == otherNote.startBeat &&
-            this.duration == otherNote.duration &&
-            this.octave == otherNote.octave &&
-            this.instrumentID == otherNote.instrumentID;
+    Playable otherNote = (Playable) other;
+    return this.midi == otherNote.getMidi() &&
+            this.startBeat == otherNote.getStartBeat() &&
+            this.duration == otherNote.getDuration() &&
+            this.instrumentID == otherNote.getInstrumentID() &&
+            this.volume == otherNote.getVolume();
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(this.pitch, this.duration,
-            this.duration, this.octave, this.instrumentID);
+    return hash(this.startBeat, this.duration, this.midi, this.instrumentID, this.volume);
+  }
+
+  /**
+   * Return the hash code of a note with the given fields, which every Playable that keeps its
+   * own hash code uses so that equal notes hash the same without boxing any of their fields
+   */
+  static int hash(int startBeat, int duration, int midi, int instrumentID, int volume) {
+    int hash = midi;
+    hash = 31 * hash + startBeat;
+    hash = 31 * hash + duration;
+    hash = 31 * hash + instrumentID;
+    return 31 * hash + volume;
   }
 }
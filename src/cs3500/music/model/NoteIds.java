@@ -0,0 +1,104 @@
+package cs3500.music.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Represents the stable IDs of the Playables stored by a song. Every stored Playable object is
+ * given a long ID that never changes while it is stored, and the Playable can be found from its
+ * ID and its ID from the stored object itself without comparing it to any other Playable.
+ */
+final class NoteIds {
+  /**
+   * Represents the stored Playables keyed by their IDs
+   */
+  private final Map<Long, Playable> byId;
+
+  /**
+   * Represents the IDs of the stored Playables keyed by the stored objects themselves
+   */
+  private final IdentityHashMap<Playable, Long> ids;
+
+  /**
+   * Represents the ID to give to the next Playable that is stored
+   */
+  private long nextId;
+
+  /**
+   * Constructs an empty set of note IDs
+   */
+  NoteIds() {
+    this(0);
+  }
+
+  /**
+   * Constructs an empty set of note IDs with room for the given number of Playables
+   */
+  NoteIds(int expectedNotes) {
+    this.byId = new HashMap<Long, Playable>(Math.max(16, expectedNotes / 3 * 4 + 1));
+    this.ids = new IdentityHashMap<Playable, Long>(Math.max(32, expectedNotes));
+    this.nextId = 0;
+  }
+
+  /**
+   * Return a new ID that has never been given out by this object
+   */
+  long next() {
+    return this.nextId++;
+  }
+
+  /**
+   * Records that the given stored Playable has the given ID
+   * @param note  the stored Playable
+   * @param id    its ID
+   */
+  void put(Playable note, long id) {
+    this.byId.put(id, note);
+    this.ids.put(note, id);
+  }
+
+  /**
+   * Forgets the ID of the given stored Playable
+   * @param note  the stored Playable that was removed
+   * @return      the ID it had, or -1 if it had none
+   */
+  long remove(Playable note) {
+    Long id = this.ids.remove(note);
+    if (id == null) {
+      return -1;
+    }
+    this.byId.remove(id);
+    return id;
+  }
+
+  /**
+   * Return true if the given object is itself a stored Playable
+   */
+  boolean isStored(Playable note) {
+    return this.ids.containsKey(note);
+  }
+
+  /**
+   * Return the ID of the given stored Playable, or -1 if it is not a stored Playable
+   */
+  long idOf(Playable note) {
+    Long id = this.ids.get(note);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Return the stored Playable with the given ID, or null if there is none
+   */
+  Playable get(long id) {
+    return this.byId.get(id);
+  }
+
+  /**
+   * Return a live view of every stored Playable
+   */
+  Collection<Playable> notes() {
+    return this.byId.values();
+  }
+}
@@ -0,0 +1,395 @@
+package cs3500.music.model;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Represents an augmented interval tree of Playables where every Playable is stored exactly once
+ * no matter how many beats it lasts for. The tree is a treap ordered by start beat (ties are
+ * broken by insertion order) and every node tracks the largest end beat found in its subtree,
+ * which lets a stabbing query skip every subtree that has already stopped sounding.
+ */
+final class NoteIntervalTree {
+  /**
+   * Represents a single stored Playable in this tree
+   */
+  private static final class Node {
+    /**
+     * Represents the Playable stored in this node
+     */
+    private final Playable note;
+
+    /**
+     * Represents the start beat of the Playable at the time it was inserted. Cached so that the
+     * tree stays well ordered even if a client mutates the Playable it was handed.
+     */
+    private final int start;
+
+    /**
+     * Represents the beat (exclusive) at which the Playable stops sounding
+     */
+    private final int end;
+
+    /**
+     * Represents the insertion sequence number of this node, used to order equal start beats
+     */
+    private final long seq;
+
+    /**
+     * Represents the heap priority of this node
+     */
+    private final int priority;
+
+    /**
+     * Represents the largest end beat of any node in the subtree rooted at this node
+     */
+    private int maxEnd;
+
+    /**
+     * Represents the number of nodes in the subtree rooted at this node
+     */
+    private int size;
+
+    private Node left;
+    private Node right;
+
+    private Node(Playable note, long seq, int priority) {
+      this.note = note;
+      this.start = note.getStartBeat();
+      this.end = note.getStartBeat() + note.getDuration();
+      this.seq = seq;
+      this.priority = priority;
+      this.maxEnd = this.end;
+      this.size = 1;
+    }
+
+    /**
+     * Recomputes the augmented values of this node from its children
+     */
+    private void update() {
+      this.maxEnd = this.end;
+      this.size = 1;
+      if (this.left != null) {
+        this.maxEnd = Math.max(this.maxEnd, this.left.maxEnd);
+        this.size += this.left.size;
+      }
+      if (this.right != null) {
+        this.maxEnd = Math.max(this.maxEnd, this.right.maxEnd);
+        this.size += this.right.size;
+      }
+    }
+
+    /**
+     * Return true if this node is ordered before the given start beat and sequence number
+     */
+    private boolean isBefore(int start, long seq) {
+      return this.start < start || (this.start == start && this.seq < seq);
+    }
+  }
+
+  /**
+   * Represents the root of this tree
+   */
+  private Node root;
+
+  /**
+   * Represents the node holding every stored Playable, keyed by the stored object itself, so
+   * that a stored Playable is found without walking the tree
+   */
+  private final IdentityHashMap<Playable, Node> nodes;
+
+  /**
+   * Represents the sequence number to give to the next inserted node
+   */
+  private long nextSeq;
+
+  /**
+   * Represents the source of heap priorities for new nodes
+   */
+  private final Random random;
+
+  /**
+   * Constructs a new empty NoteIntervalTree
+   */
+  NoteIntervalTree() {
+    this.root = null;
+    this.nodes = new IdentityHashMap<Playable, Node>();
+    this.nextSeq = 0;
+    this.random = new Random();
+  }
+
+  /**
+   * Return the number of Playables stored in this tree
+   */
+  int size() {
+    return this.root == null ? 0 : this.root.size;
+  }
+
+  /**
+   * Return the beat at which the last Playable in this tree stops sounding, or 0 if empty
+   */
+  int maxEnd() {
+    return this.root == null ? 0 : this.root.maxEnd;
+  }
+
+  /**
+   * Inserts the given Playable into this tree without copying it
+   * @param note  the Playable to store
+   * @throws NullPointerException if the given Playable is null
+   */
+  void insert(Playable note) {
+    Objects.requireNonNull(note);
+    Node node = new Node(note, this.nextSeq++, this.random.nextInt());
+    Node[] halves = split(this.root, node.start, node.seq);
+    this.root = merge(merge(halves[0], node), halves[1]);
+    this.nodes.put(note, node);
+  }
+
+  /**
+   * Removes the stored Playable that is the given Playable, or if the given Playable is not
+   * stored in this tree, the first stored Playable that is equal to it
+   * @param note  the Playable to remove
+   * @return      the stored Playable that was removed, or null if none was found
+   */
+  Playable remove(Playable note) {
+    Objects.requireNonNull(note);
+    Node found = this.nodes.get(note);
+    if (found == null) {
+      found = find(this.root, note);
+    }
+    if (found == null) {
+      return null;
+    }
+    this.root = delete(this.root, found.start, found.seq);
+    this.nodes.remove(found.note);
+    return found.note;
+  }
+
+  /**
+   * Adds every stored Playable that is sounding during the given beat to the given list, in
+   * order of their start beats
+   * @param beat  the beat to query
+   * @param out   the list to add the Playables to
+   */
+  void stab(int beat, List<Playable> out) {
+    overlapping(this.root, beat, beat + 1, out);
+  }
+
+  /**
+   * Adds every stored Playable that is sounding during at least one beat of the given range to
+   * the given list, in order of their start beats
+   * @param from  the first beat of the range
+   * @param to    the beat after the last beat of the range
+   * @param out   the list to add the Playables to
+   */
+  void overlapping(int from, int to, List<Playable> out) {
+    if (from < to) {
+      overlapping(this.root, from, to, out);
+    }
+  }
+
+  /**
+   * Adds every stored Playable that starts during the given range of beats to the given list,
+   * in order of their start beats
+   * @param from  the first beat of the range
+   * @param to    the beat after the last beat of the range
+   * @param out   the list to add the Playables to
+   */
+  void startingIn(int from, int to, List<Playable> out) {
+    startingIn(this.root, from, to, out);
+  }
+
+  /**
+   * Performs the given action on every stored Playable that is sounding during the given beat,
+   * in order of their start beats
+   * @param beat    the beat to query
+   * @param action  the action to perform
+   */
+  void forEachAt(int beat, Consumer<Playable> action) {
+    forEachAt(this.root, beat, action);
+  }
+
+  /**
+   * Hands the fields of every stored Playable that is sounding during the given beat to the
+   * given visitor, in order of their start beats
+   * @param beat    the beat to query
+   * @param visitor the visitor to hand the fields to
+   */
+  void forEachAt(int beat, NoteVisitor visitor) {
+    forEachAt(this.root, beat, visitor);
+  }
+
+  /**
+   * Adds every stored Playable to the given list in order of their start beats
+   * @param out the list to add the Playables to
+   */
+  void collect(List<Playable> out) {
+    collect(this.root, out);
+  }
+
+  private static void overlapping(Node node, int from, int to, List<Playable> out) {
+    // no Playable in this subtree is still sounding at the start of the range
+    if (node == null || node.maxEnd <= from) {
+      return;
+    }
+    overlapping(node.left, from, to, out);
+    // everything to the right starts at or after this node, so it can only sound during the
+    // range if this node starts before the range is over
+    if (node.start < to) {
+      if (node.end > from) {
+        out.add(node.note);
+      }
+      overlapping(node.right, from, to, out);
+    }
+  }
+
+  private static void forEachAt(Node node, int beat, Consumer<Playable> action) {
+    if (node == null || node.maxEnd <= beat) {
+      return;
+    }
+    forEachAt(node.left, beat, action);
+    if (node.start <= beat) {
+      if (node.end > beat) {
+        action.accept(node.note);
+      }
+      forEachAt(node.right, beat, action);
+    }
+  }
+
+  private static void forEachAt(Node node, int beat, NoteVisitor visitor) {
+    if (node == null || node.maxEnd <= beat) {
+      return;
+    }
+    forEachAt(node.left, beat, visitor);
+    if (node.start <= beat) {
+      if (node.end > beat) {
+        Playable note = node.note;
+        visitor.visit(node.start, node.end - node.start, PitchHistogram.midiOf(note),
+                note.getInstrumentID(), note.getVolume());
+      }
+      forEachAt(node.right, beat, visitor);
+    }
+  }
+
+  private static void startingIn(Node node, int from, int to, List<Playable> out) {
+    if (node == null) {
+      return;
+    }
+    if (node.start >= from) {
+      startingIn(node.left, from, to, out);
+    }
+    if (node.start >= from && node.start < to) {
+      out.add(node.note);
+    }
+    if (node.start < to) {
+      startingIn(node.right, from, to, out);
+    }
+  }
+
+  private static void collect(Node node, List<Playable> out) {
+    if (node == null) {
+      return;
+    }
+    collect(node.left, out);
+    out.add(node.note);
+    collect(node.right, out);
+  }
+
+  /**
+   * Return the first node with the same start beat as the given Playable that holds a Playable
+   * equal to it, or null if there is none
+   * @param node      the root of the subtree to search
+   * @param note      the Playable to look for
+   */
+  private static Node find(Node node, Playable note) {
+    if (node == null) {
+      return null;
+    }
+    int start = note.getStartBeat();
+    if (start < node.start) {
+      return find(node.left, note);
+    }
+    if (start > node.start) {
+      return find(node.right, note);
+    }
+    // nodes with an equal start beat may be found on both sides of this one
+    Node found = find(node.left, note);
+    if (found == null && note.equals(node.note)) {
+      found = node;
+    }
+    if (found == null) {
+      found = find(node.right, note);
+    }
+    return found;
+  }
+
+  /**
+   * Splits the given subtree into the nodes ordered before the given key and the rest
+   * @return  an array holding the two resulting subtrees
+   */
+  private static Node[] split(Node node, int start, long seq) {
+    if (node == null) {
+      return new Node[] {null, null};
+    }
+    if (node.isBefore(start, seq)) {
+      Node[] halves = split(node.right, start, seq);
+      node.right = halves[0];
+      node.update();
+      halves[0] = node;
+      return halves;
+    }
+    else {
+      Node[] halves = split(node.left, start, seq);
+      node.left = halves[1];
+      node.update();
+      halves[1] = node;
+      return halves;
+    }
+  }
+
+  /**
+   * Merges the two given subtrees where every node of the first is ordered before the second
+   */
+  private static Node merge(Node left, Node right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (left.priority > right.priority) {
+      left.right = merge(left.right, right);
+      left.update();
+      return left;
+    }
+    else {
+      right.left = merge(left, right.left);
+      right.update();
+      return right;
+    }
+  }
+
+  /**
+   * Deletes the node with the given key from the given subtree
+   * @return  the root of the resulting subtree
+   */
+  private static Node delete(Node node, int start, long seq) {
+    if (node == null) {
+      return null;
+    }
+    if (node.start == start && node.seq == seq) {
+      return merge(node.left, node.right);
+    }
+    if (node.isBefore(start, seq)) {
+      node.right = delete(node.right, start, seq);
+    }
+    else {
+      node.left = delete(node.left, start, seq);
+    }
+    node.update();
+    return node;
+  }
+}
@@ -0,0 +1,459 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Represents a timeline of Playables whose start beats can all be moved at once. The notes are
+ * kept in a treap ordered by start beat and ID, and every node stores its start beat relative
+ * to the start beat of its parent instead of as an absolute beat. Adding an offset to the root of
+ * a subtree therefore moves every note in it, so inserting or deleting beats in the middle of the
+ * timeline splits the tree at that beat, offsets the later half and merges it back in O(log n),
+ * no matter how many notes come after it.
+ *
+ * <p>The absolute start beat of a node is the sum of the offsets on its path to the root. Nodes
+ * keep a link to their parent so that the start beat of a note found by its ID can be worked
+ * out by walking up the tree. The Playables stored in the nodes do not keep their start beat up
+ * to date, so a note is only ever handed out as a copy or as a view whose start beat has just
+ * been set.</p>
+ */
+final class NoteRope {
+  /**
+   * Represents a single stored Playable
+   */
+  private static final class Node {
+    private final Playable note;
+    private final long id;
+    private final int duration;
+    private final int midi;
+
+    /**
+     * Represents the start beat of this node relative to the start beat of its parent, or the
+     * absolute start beat if this node is a root
+     */
+    private int offset;
+
+    /**
+     * Represents the largest end beat in the subtree rooted at this node, relative to the start
+     * beat of this node
+     */
+    private int maxEnd;
+
+    /**
+     * Represents the number of nodes in the subtree rooted at this node
+     */
+    private int size;
+
+    /**
+     * Represents the nodes with the highest and lowest pitches in the subtree rooted at this
+     * node
+     */
+    private Node highest;
+    private Node lowest;
+
+    private Node left;
+    private Node right;
+    private Node parent;
+
+    private Node(Playable note, long id) {
+      this.note = note;
+      this.id = id;
+      this.duration = note.getDuration();
+      this.midi = PitchHistogram.midiOf(note);
+      this.offset = note.getStartBeat();
+      this.update();
+    }
+
+    /**
+     * Recomputes the fields that summarize the subtree rooted at this node from its children
+     */
+    private void update() {
+      this.maxEnd = this.duration;
+      this.size = 1;
+      this.highest = this;
+      this.lowest = this;
+      this.include(this.left);
+      this.include(this.right);
+    }
+
+    /**
+     * Adds the summary of the subtree rooted at the given child to the summary of this node
+     */
+    private void include(Node child) {
+      if (child != null) {
+        this.maxEnd = Math.max(this.maxEnd, child.offset + child.maxEnd);
+        this.size += child.size;
+        this.highest = child.highest.midi > this.highest.midi ? child.highest : this.highest;
+        this.lowest = child.lowest.midi < this.lowest.midi ? child.lowest : this.lowest;
+      }
+    }
+  }
+
+  /**
+   * Represents the root of the notes ordered by start beat and ID
+   */
+  private Node root;
+
+  /**
+   * Represents every stored node keyed by its ID
+   */
+  private final Map<Long, Node> byId;
+
+  /**
+   * Constructs an empty timeline
+   */
+  NoteRope() {
+    this.byId = new HashMap<Long, Node>();
+  }
+
+  /**
+   * Return the heap priority of the nodes with the given ID
+   */
+  private static int priority(long id) {
+    long mixed = id * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+
+  /**
+   * Return the number of Playables in this timeline
+   */
+  int size() {
+    return this.root == null ? 0 : this.root.size;
+  }
+
+  /**
+   * Return the beat at which the last Playable in this timeline stops sounding, or 0 if empty
+   */
+  int maxEnd() {
+    return this.root == null ? 0 : this.root.offset + this.root.maxEnd;
+  }
+
+  /**
+   * Return a copy of a Playable with the highest pitch in this timeline, or null if it is empty
+   */
+  Playable highest() {
+    return this.root == null ? null : copyAt(this.root.highest, startOf(this.root.highest));
+  }
+
+  /**
+   * Return a copy of a Playable with the lowest pitch in this timeline, or null if it is empty
+   */
+  Playable lowest() {
+    return this.root == null ? null : copyAt(this.root.lowest, startOf(this.root.lowest));
+  }
+
+  /**
+   * Stores the given Playable with the given ID
+   * @param note  the Playable to store, which must not be mutated afterwards
+   * @param id    the ID of the Playable, which must not already be in this timeline
+   */
+  void insert(Playable note, long id) {
+    Node node = new Node(note, id);
+    Node[] halves = split(this.root, note.getStartBeat(), id);
+    this.root = merge(merge(halves[0], node), halves[1]);
+    this.byId.put(id, node);
+  }
+
+  /**
+   * Removes the Playable with the given ID
+   * @return  a copy of the removed Playable, or null if there was none
+   */
+  Playable remove(long id) {
+    Node node = this.byId.remove(id);
+    if (node == null) {
+      return null;
+    }
+    int start = startOf(node);
+    Node[] before = split(this.root, start, id);
+    Node[] after = split(before[1], start, id + 1);
+    this.root = merge(before[0], after[1]);
+    return copyAt(node, start);
+  }
+
+  /**
+   * Removes every Playable that starts during the given range of beats
+   * @return  copies of the removed Playables in order of their start beats
+   */
+  List<Playable> removeStartingIn(int from, int to) {
+    Node[] before = split(this.root, from, Long.MIN_VALUE);
+    Node[] after = split(before[1], to, Long.MIN_VALUE);
+    List<Playable> removed = new ArrayList<Playable>();
+    collect(after[0], 0, removed, this.byId);
+    this.root = merge(before[0], after[1]);
+    return removed;
+  }
+
+  /**
+   * Moves every Playable that starts at or after the given beat by the given number of beats,
+   * which must not move any of them to or before a Playable that starts before the beat
+   */
+  void shift(int from, int beats) {
+    Node[] halves = split(this.root, from, Long.MIN_VALUE);
+    if (halves[1] != null) {
+      halves[1].offset += beats;
+    }
+    this.root = merge(halves[0], halves[1]);
+  }
+
+  /**
+   * Return a copy of the stored Playable with the given ID, or null if there is none
+   */
+  Playable get(long id) {
+    Node node = this.byId.get(id);
+    return node == null ? null : copyAt(node, startOf(node));
+  }
+
+  /**
+   * Return the ID of the first stored Playable that is equal to the given Playable, or -1 if
+   * there is none
+   */
+  long idOf(Playable note) {
+    Node found = findEqual(this.root, 0, note);
+    return found == null ? -1 : found.id;
+  }
+
+  /**
+   * Adds a copy of every stored Playable that is sounding during at least one beat of the given
+   * range to the given list, in order of their start beats
+   */
+  void overlapping(int from, int to, List<Playable> out) {
+    if (from < to) {
+      overlapping(this.root, 0, from, to, out);
+    }
+  }
+
+  /**
+   * Adds a copy of every stored Playable that starts during the given range of beats to the
+   * given list, in order of their start beats
+   */
+  void startingIn(int from, int to, List<Playable> out) {
+    startingIn(this.root, 0, from, to, out);
+  }
+
+  /**
+   * Performs the given action on every stored Playable that is sounding during the given beat.
+   * The action is given the stored Playable itself with its start beat brought up to date.
+   */
+  void forEachAt(int beat, Consumer<Playable> action) {
+    forEachAt(this.root, 0, beat, action);
+  }
+
+  /**
+   * Hands the fields of every stored Playable that is sounding during the given beat to the
+   * given visitor
+   */
+  void forEachAt(int beat, NoteVisitor visitor) {
+    forEachAt(this.root, 0, beat, visitor);
+  }
+
+  /**
+   * Return the absolute start beat of the given node
+   */
+  private static int startOf(Node node) {
+    int start = 0;
+    for (Node up = node; up != null; up = up.parent) {
+      start += up.offset;
+    }
+    return start;
+  }
+
+  /**
+   * Return a copy of the Playable of the given node that starts at the given beat
+   */
+  private static Playable copyAt(Node node, int start) {
+    Playable copy = node.note.copy();
+    copy.setStart(start);
+    return copy;
+  }
+
+  /**
+   * Return true if the given node, which starts at the given beat, is ordered before the given
+   * start beat and ID
+   */
+  private static boolean isBefore(Node node, int nodeStart, int start, long id) {
+    return nodeStart < start || (nodeStart == start && node.id < id);
+  }
+
+  /**
+   * Makes the given child a root of its own by turning its offset into an absolute start beat
+   * @param parentStart the absolute start beat of the node the child is taken from
+   */
+  private static Node detach(Node child, int parentStart) {
+    if (child != null) {
+      child.offset += parentStart;
+      child.parent = null;
+    }
+    return child;
+  }
+
+  /**
+   * Makes the given root a child of the given parent by turning its absolute start beat into an
+   * offset from the parent
+   * @param parentStart the absolute start beat of the parent
+   */
+  private static Node attach(Node child, Node parent, int parentStart) {
+    if (child != null) {
+      child.offset -= parentStart;
+      child.parent = parent;
+    }
+    return child;
+  }
+
+  /**
+   * Splits the tree with the given root into the nodes ordered before the given start beat and
+   * ID and the rest. The given root must not have a parent.
+   */
+  private static Node[] split(Node node, int start, long id) {
+    if (node == null) {
+      return new Node[] {null, null};
+    }
+    int nodeStart = node.offset;
+    if (isBefore(node, nodeStart, start, id)) {
+      Node[] halves = split(detach(node.right, nodeStart), start, id);
+      node.right = attach(halves[0], node, nodeStart);
+      node.update();
+      halves[0] = node;
+      return halves;
+    }
+    else {
+      Node[] halves = split(detach(node.left, nodeStart), start, id);
+      node.left = attach(halves[1], node, nodeStart);
+      node.update();
+      halves[1] = node;
+      return halves;
+    }
+  }
+
+  /**
+   * Merges the trees with the given roots, every node of the left one being ordered before
+   * every node of the right one. Neither root may have a parent.
+   */
+  private static Node merge(Node left, Node right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (priority(left.id) > priority(right.id)) {
+      int leftStart = left.offset;
+      left.right = attach(merge(detach(left.right, leftStart), right), left, leftStart);
+      left.update();
+      return left;
+    }
+    else {
+      int rightStart = right.offset;
+      right.left = attach(merge(left, detach(right.left, rightStart)), right, rightStart);
+      right.update();
+      return right;
+    }
+  }
+
+  private static void collect(Node node, int base, List<Playable> out, Map<Long, Node> byId) {
+    if (node == null) {
+      return;
+    }
+    int start = base + node.offset;
+    collect(node.left, start, out, byId);
+    out.add(copyAt(node, start));
+    byId.remove(node.id);
+    collect(node.right, start, out, byId);
+  }
+
+  private static Node findEqual(Node node, int base, Playable note) {
+    if (node == null) {
+      return null;
+    }
+    int start = base + node.offset;
+    if (note.getStartBeat() < start) {
+      return findEqual(node.left, start, note);
+    }
+    if (note.getStartBeat() > start) {
+      return findEqual(node.right, start, note);
+    }
+    // nodes with an equal start beat may be found on both sides of this one
+    Node found = findEqual(node.left, start, note);
+    if (found == null && node.duration == note.getDuration()
+            && node.midi == PitchHistogram.midiOf(note)
+            && node.note.getInstrumentID() == note.getInstrumentID()
+            && node.note.getVolume() == note.getVolume()) {
+      found = node;
+    }
+    if (found == null) {
+      found = findEqual(node.right, start, note);
+    }
+    return found;
+  }
+
+  private static void overlapping(Node node, int base, int from, int to, List<Playable> out) {
+    if (node == null) {
+      return;
+    }
+    int start = base + node.offset;
+    if (start + node.maxEnd <= from) {
+      return;
+    }
+    overlapping(node.left, start, from, to, out);
+    if (start < to) {
+      if (start + node.duration > from) {
+        out.add(copyAt(node, start));
+      }
+      overlapping(node.right, start, from, to, out);
+    }
+  }
+
+  private static void startingIn(Node node, int base, int from, int to, List<Playable> out) {
+    if (node == null) {
+      return;
+    }
+    int start = base + node.offset;
+    if (start >= from) {
+      startingIn(node.left, start, from, to, out);
+    }
+    if (start >= from && start < to) {
+      out.add(copyAt(node, start));
+    }
+    if (start < to) {
+      startingIn(node.right, start, from, to, out);
+    }
+  }
+
+  private static void forEachAt(Node node, int base, int beat, Consumer<Playable> action) {
+    if (node == null) {
+      return;
+    }
+    int start = base + node.offset;
+    if (start + node.maxEnd <= beat) {
+      return;
+    }
+    forEachAt(node.left, start, beat, action);
+    if (start <= beat) {
+      if (start + node.duration > beat) {
+        node.note.setStart(start);
+        action.accept(node.note);
+      }
+      forEachAt(node.right, start, beat, action);
+    }
+  }
+
+  private static void forEachAt(Node node, int base, int beat, NoteVisitor visitor) {
+    if (node == null) {
+      return;
+    }
+    int start = base + node.offset;
+    if (start + node.maxEnd <= beat) {
+      return;
+    }
+    forEachAt(node.left, start, beat, visitor);
+    if (start <= beat) {
+      if (start + node.duration > beat) {
+        visitor.visit(start, node.duration, node.midi, node.note.getInstrumentID(),
+                node.note.getVolume());
+      }
+      forEachAt(node.right, start, beat, visitor);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package cs3500.music.model;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Represents a Spliterator over the Playables of a song, each of which is visited once on the
+ * beat it starts no matter how many beats it sustains for. The Playables are taken from the
+ * song once, ordered by start beat, when the Spliterator is made, and every split divides them
+ * on the measure boundary nearest the middle of the remaining Playables, so each part of a
+ * parallel stream works on whole measures of the song.
+ */
+final class NoteSpliterator implements Spliterator<Playable> {
+  /**
+   * Represents the Playables of the song ordered by start beat
+   */
+  private final Playable[] notes;
+
+  /**
+   * Represents the number of ticks in one measure of the song
+   */
+  private final int measure;
+
+  /**
+   * Represents the index of the next Playable to visit
+   */
+  private int index;
+
+  /**
+   * Represents the index after the last Playable that this Spliterator visits
+   */
+  private final int end;
+
+  /**
+   * Constructs a Spliterator over the given range of the given Playables
+   */
+  private NoteSpliterator(Playable[] notes, int measure, int index, int end) {
+    this.notes = notes;
+    this.measure = measure;
+    this.index = index;
+    this.end = end;
+  }
+
+  /**
+   * Return a sequential Stream of the Playables of the given song as they are now, ordered by
+   * start beat
+   * @param song  the song to stream
+   * @return  the Stream, which can be made parallel
+   */
+  static Stream<Playable> notesOf(MusicEditorModel song) {
+    List<Playable> notes = song.getNotesStartingIn(0, song.getLength());
+    int measure = Math.max(1, song.getBeatsPerMeasure() * song.getTicksPerBeat());
+    return StreamSupport.stream(new NoteSpliterator(notes.toArray(new Playable[notes.size()]),
+            measure, 0, notes.size()), false);
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Playable> action) {
+    Objects.requireNonNull(action);
+    if (this.index >= this.end) {
+      return false;
+    }
+    action.accept(this.notes[this.index++]);
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super Playable> action) {
+    Objects.requireNonNull(action);
+    for (int i = this.index; i < this.end; ++ i) {
+      action.accept(this.notes[i]);
+    }
+    this.index = this.end;
+  }
+
+  /**
+   * Splits off the Playables that start before the measure boundary nearest the middle of the
+   * remaining Playables, or returns null if they all start in the same measure
+   */
+  @Override
+  public Spliterator<Playable> trySplit() {
+    if (this.end - this.index < 2) {
+      return null;
+    }
+    int middle = (this.index + this.end) >>> 1;
+    int boundary = this.notes[middle].getStartBeat() / this.measure * this.measure;
+    int split = this.firstStartingAt(boundary);
+    if (split == this.index) {
+      split = this.firstStartingAt(boundary + this.measure);
+    }
+    if (split == this.index || split == this.end) {
+      return null;
+    }
+    NoteSpliterator prefix = new NoteSpliterator(this.notes, this.measure, this.index, split);
+    this.index = split;
+    return prefix;
+  }
+
+  /**
+   * Return the index of the first remaining Playable that starts at or after the given beat
+   */
+  private int firstStartingAt(int beat) {
+    int low = this.index;
+    int high = this.end;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (this.notes[middle].getStartBeat() < beat) {
+        low = middle + 1;
+      }
+      else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  @Override
+  public long estimateSize() {
+    return this.end - this.index;
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | SIZED | SUBSIZED | NONNULL;
+  }
+}
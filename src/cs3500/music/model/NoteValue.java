@@ -0,0 +1,401 @@
+package cs3500.music.model;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Represents an immutable musical note. NoteValues are made by the {@code of} factories, which
+ * intern every note whose fields can be packed as described in {@link PackedNotes}: asking for
+ * a note equal to one that has already been made and is still in use returns the same object,
+ * so a piece that repeats the same notes many times only holds one object for each of them.
+ * A NoteValue that is no longer used anywhere is not kept by the factories. Because a
+ * NoteValue never changes, copying one returns the NoteValue itself, and every setter leaves
+ * the NoteValue as it is and returns the NoteValue with the new field instead.
+ *
+ * <p>A NoteValue is equal to any Playable with the same fields and has the same hash code as a
+ * {@link Note} with those fields.</p>
+ */
+public final class NoteValue implements Playable {
+  /**
+   * Represents the interned NoteValues keyed by their packed fields
+   */
+  private static final Interner INTERNED = new Interner();
+
+  /**
+   * Represents the beat number in the musical piece that this note starts from
+   */
+  private final int startBeat;
+
+  /**
+   * Represents the number of integral beats that this note lasts
+   */
+  private final int duration;
+
+  /**
+   * Represents the MIDI note number of this note, from which its pitch and octave are derived
+   */
+  private final int midi;
+
+  /**
+   * Represents an ID for an instrument that is playing this note
+   */
+  private final int instrumentID;
+
+  /**
+   * Represents the volume of this note
+   */
+  private final int volume;
+
+  /**
+   * Represents the hash code of this note, computed once since it can never change
+   */
+  private final int hash;
+
+  private NoteValue(int startBeat, int duration, int midi, int instrumentID, int volume) {
+    this.startBeat = startBeat;
+    this.duration = duration;
+    this.midi = midi;
+    this.instrumentID = instrumentID;
+    this.volume = volume;
+    this.hash = Note.hash(startBeat, duration, midi, instrumentID, volume);
+  }
+
+  /**
+   * Return the NoteValue with the given fields
+   * @param startBeat     the beat that the note starts on
+   * @param duration      the number of beats that the note lasts
+   * @param pitch         the pitch of the note
+   * @param octave        the octave of the note
+   * @param instrumentID  the instrument playing the note
+   * @param volume        the volume of the note
+   * @return  the NoteValue, which is shared with every other caller if it can be packed
+   * @throws IllegalArgumentException if the start beat, duration or instrument is invalid
+   * @throws NullPointerException if the given pitch is null
+   */
+  public static NoteValue of(int startBeat, int duration, Pitch pitch, int octave,
+                             int instrumentID, int volume) {
+    return ofMidi(startBeat, duration, Pitch.getMidi(Objects.requireNonNull(pitch), octave),
+            instrumentID, volume);
+  }
+
+  /**
+   * Return the NoteValue with the given fields
+   * @param startBeat     the beat that the note starts on
+   * @param duration      the number of beats that the note lasts
+   * @param midi          the MIDI note number of the note
+   * @param instrumentID  the instrument playing the note
+   * @param volume        the volume of the note
+   * @return  the NoteValue, which is shared with every other caller if it can be packed
+   * @throws IllegalArgumentException if the start beat, duration or instrument is invalid
+   */
+  public static NoteValue ofMidi(int startBeat, int duration, int midi, int instrumentID,
+                                 int volume) {
+    if (startBeat < 0 || duration < 1) {
+      throw new IllegalArgumentException("Invalid note duration");
+    }
+    if (instrumentID < 0) {
+      throw new IllegalArgumentException("Invalid instrument ID");
+    }
+    if (!PackedNotes.fits(startBeat, duration, midi, instrumentID, volume)) {
+      return new NoteValue(startBeat, duration, midi, instrumentID, volume);
+    }
+    long packed = PackedNotes.pack(startBeat, duration, midi, instrumentID, volume);
+    NoteValue found = INTERNED.get(packed);
+    if (found != null) {
+      return found;
+    }
+    return INTERNED.putIfAbsent(packed,
+            new NoteValue(startBeat, duration, midi, instrumentID, volume));
+  }
+
+  /**
+   * Return a new NoteValue equal to this one that is not interned, for a song that tells the
+   * equal Playables it stores apart by their identities
+   */
+  NoteValue distinctCopy() {
+    return new NoteValue(this.startBeat, this.duration, this.midi, this.instrumentID,
+            this.volume);
+  }
+
+  /**
+   * Return the NoteValue with the same fields as the given Playable
+   * @param note  the Playable to copy the fields of
+   * @return  the NoteValue, which is the given Playable itself if it is a NoteValue
+   * @throws NullPointerException if the given Playable is null
+   */
+  public static NoteValue of(Playable note) {
+    if (note instanceof NoteValue) {
+      return (NoteValue) note;
+    }
+    return ofMidi(note.getStartBeat(), note.getDuration(), note.getMidi(),
+            note.getInstrumentID(), note.getVolume());
+  }
+
+  /**
+   * Return the NoteValue with the fields packed into the given long
+   * @param packed  a note packed as described in {@link PackedNotes}
+   * @return  the interned NoteValue
+   */
+  public static NoteValue ofPacked(long packed) {
+    NoteValue found = INTERNED.get(packed);
+    if (found != null) {
+      return found;
+    }
+    return INTERNED.putIfAbsent(packed, new NoteValue(PackedNotes.start(packed),
+            PackedNotes.duration(packed), PackedNotes.midi(packed),
+            PackedNotes.instrument(packed), PackedNotes.volume(packed)));
+  }
+
+  /**
+   * Return a new editable {@link Note} with the same fields as this NoteValue
+   */
+  public Note toNote() {
+    return new Note(this.startBeat, this.duration, this.getPitch(), this.getOctave(),
+            this.instrumentID, this.volume);
+  }
+
+  @Override
+  public int getStartBeat() {
+    return this.startBeat;
+  }
+
+  @Override
+  public int getDuration() {
+    return this.duration;
+  }
+
+  @Override
+  public Pitch getPitch() {
+    return Pitch.pitchFromMidi(this.midi);
+  }
+
+  @Override
+  public int getOctave() {
+    return Pitch.octaveFromMidi(this.midi);
+  }
+
+  @Override
+  public int getMidi() {
+    return this.midi;
+  }
+
+  @Override
+  public int getInstrumentID() {
+    return this.instrumentID;
+  }
+
+  @Override
+  public int getVolume() {
+    return this.volume;
+  }
+
+  /**
+   * Return the NoteValue that is this note with the given {@link Pitch}
+   * @throws NullPointerException if the given pitch is null
+   */
+  @Override
+  public Playable setPitch(Pitch pitch) {
+    return ofMidi(this.startBeat, this.duration,
+            Pitch.getMidi(Objects.requireNonNull(pitch), this.getOctave()),
+            this.instrumentID, this.volume);
+  }
+
+  /**
+   * Return the NoteValue that is this note with the given duration
+   * @throws IllegalArgumentException is the given duration is less than 1
+   */
+  @Override
+  public Playable setDuration(int duration) {
+    if (duration < 1) {
+      throw new IllegalArgumentException("invalid note duration");
+    }
+    return ofMidi(this.startBeat, duration, this.midi, this.instrumentID, this.volume);
+  }
+
+  /**
+   * Return the NoteValue that is this note starting at the given beat
+   * @throws IllegalArgumentException if the given start beat is negative
+   */
+  @Override
+  public Playable setStart(int startBeat) {
+    if (startBeat < 0) {
+      throw new IllegalArgumentException("illegal start beat");
+    }
+    return ofMidi(startBeat, this.duration, this.midi, this.instrumentID, this.volume);
+  }
+
+  /**
+   * Return the NoteValue that is this note in the given octave
+   */
+  @Override
+  public Playable setOctave(int octave) {
+    return ofMidi(this.startBeat, this.duration, Pitch.getMidi(this.getPitch(), octave),
+            this.instrumentID, this.volume);
+  }
+
+  /**
+   * Return the NoteValue that is this note at the given MIDI note number
+   */
+  @Override
+  public Playable setMidi(int midi) {
+    return ofMidi(this.startBeat, this.duration, midi, this.instrumentID, this.volume);
+  }
+
+  /**
+   * Return the NoteValue that is this note played by the given instrument
+   * @throws IllegalArgumentException if the given instrument ID is negative
+   */
+  @Override
+  public Playable setInstrument(int instrument) {
+    if (instrument < 0) {
+      throw new IllegalArgumentException("Illegal instrument ID");
+    }
+    return ofMidi(this.startBeat, this.duration, this.midi, instrument, this.volume);
+  }
+
+  /**
+   * Return the NoteValue that is this note at the given volume
+   */
+  @Override
+  public Playable setVolume(int volume) {
+    return ofMidi(this.startBeat, this.duration, this.midi, this.instrumentID, volume);
+  }
+
+  /**
+   * Return this NoteValue, which can be shared since it never changes
+   */
+  @Override
+  public Playable copy() {
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof Playable)) {
+      return false;
+    }
+    Playable otherNote = (Playable) other;
+    return this.midi == otherNote.getMidi() &&
+            this.startBeat == otherNote.getStartBeat() &&
+            this.duration == otherNote.getDuration() &&
+            this.instrumentID == otherNote.getInstrumentID() &&
+            this.volume == otherNote.getVolume();
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hash;
+  }
+
+  /**
+   * Represents a table of NoteValues keyed by their packed fields that holds every NoteValue
+   * weakly, so a NoteValue that is no longer used anywhere else can be collected. Every slot
+   * holds a weak reference along with the packed key it was interned under, so a lookup never
+   * boxes its key, and lookups read the slots without taking any lock. A slot is never emptied
+   * once it is filled: a collected NoteValue leaves its reference behind, which is reused if
+   * the same fields are interned again. Interning takes the lock, and the table is rebuilt
+   * without the collected references whenever half of its slots are filled.
+   */
+  private static final class Interner {
+    private static final int MIN_LENGTH = 1024;
+
+    private volatile AtomicReferenceArray<Entry> slots =
+            new AtomicReferenceArray<Entry>(MIN_LENGTH);
+    private int filled;
+
+    /**
+     * Represents a weak reference to a NoteValue along with its packed fields
+     */
+    private static final class Entry extends WeakReference<NoteValue> {
+      private final long packed;
+
+      Entry(long packed, NoteValue value) {
+        super(value);
+        this.packed = packed;
+      }
+    }
+
+    /**
+     * Return the NoteValue interned under the given packed value, or null if there is none.
+     * This never blocks: a lookup that races with a rebuild may miss a NoteValue, which is
+     * then found again under the lock by putIfAbsent.
+     */
+    NoteValue get(long packed) {
+      AtomicReferenceArray<Entry> slots = this.slots;
+      Entry entry = slots.get(slot(slots, packed));
+      return entry == null ? null : entry.get();
+    }
+
+    /**
+     * Interns the given NoteValue under the given packed value unless one still in use already
+     * is
+     * @return  the NoteValue interned under the packed value
+     */
+    synchronized NoteValue putIfAbsent(long packed, NoteValue value) {
+      AtomicReferenceArray<Entry> slots = this.slots;
+      int slot = slot(slots, packed);
+      Entry entry = slots.get(slot);
+      if (entry != null) {
+        NoteValue found = entry.get();
+        if (found != null) {
+          return found;
+        }
+      }
+      else if (++this.filled * 2 > slots.length()) {
+        this.rebuild();
+        slots = this.slots;
+        slot = slot(slots, packed);
+      }
+      slots.set(slot, new Entry(packed, value));
+      return value;
+    }
+
+    /**
+     * Return the slot of the given table that holds the given packed value, or the empty slot
+     * where it belongs
+     */
+    private static int slot(AtomicReferenceArray<Entry> slots, long packed) {
+      int mask = slots.length() - 1;
+      int slot = (int) ((packed * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+      Entry entry = slots.get(slot);
+      while (entry != null && entry.packed != packed) {
+        slot = (slot + 1) & mask;
+        entry = slots.get(slot);
+      }
+      return slot;
+    }
+
+    /**
+     * Replaces the table with one holding only the NoteValues still in use, at most a quarter
+     * full so that the next rebuild is at least as many internings away
+     */
+    private void rebuild() {
+      AtomicReferenceArray<Entry> old = this.slots;
+      int live = 0;
+      for (int i = 0; i < old.length(); ++ i) {
+        Entry entry = old.get(i);
+        if (entry != null && entry.get() != null) {
+          ++ live;
+        }
+      }
+      int length = MIN_LENGTH;
+      while (length < live * 4) {
+        length *= 2;
+      }
+      AtomicReferenceArray<Entry> slots = new AtomicReferenceArray<Entry>(length);
+      for (int i = 0; i < old.length(); ++ i) {
+        Entry entry = old.get(i);
+        if (entry != null && entry.get() != null) {
+          slots.set(slot(slots, entry.packed), entry);
+        }
+      }
+      // the entry being interned is counted by the caller
+      this.filled = live + 1;
+      this.slots = slots;
+    }
+  }
+}
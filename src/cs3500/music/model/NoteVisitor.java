@@ -0,0 +1,18 @@
+package cs3500.music.model;
+
+/**
+ * Represents an action to take on the fields of a note. A NoteVisitor is handed the fields of
+ * every note as primitives, so visiting the notes of a MusicEditorModel with one does not
+ * create any objects.
+ */
+public interface NoteVisitor {
+  /**
+   * Takes this action on the note with the given fields
+   * @param startBeat   the beat at which the note starts
+   * @param duration    the number of beats the note lasts for
+   * @param midi        the MIDI pitch of the note
+   * @param instrument  the instrument ID of the note
+   * @param volume      the volume of the note
+   */
+  void visit(int startBeat, int duration, int midi, int instrument, int volume);
+}
@@ -0,0 +1,115 @@
+package cs3500.music.model;
+
+import java.util.Arrays;
+
+/**
+ * Represents the packed values of the notes stored by a PackedSong keyed by their IDs, without
+ * boxing either of them. IDs are given out in increasing order, so the IDs are kept in a sorted
+ * array that grows at its end and a value is found with a binary search. The ID of a
+ * removed note stays in the array with no value until enough of them pile up to be worth
+ * squeezing out, which keeps a note that is taken out and put back in at its place.
+ */
+final class PackedIds {
+  /**
+   * Represents the value held for an ID whose note has been removed. No packed note is
+   * negative.
+   */
+  private static final long REMOVED = -1;
+
+  /**
+   * Represents the IDs in ascending order. Only the first size entries are in use.
+   */
+  private long[] ids;
+
+  /**
+   * Represents the packed value of the note with every ID, where values[i] belongs to ids[i]
+   */
+  private long[] values;
+
+  /**
+   * Represents the number of entries in use, including those of removed notes
+   */
+  private int size;
+
+  /**
+   * Represents the number of entries in use that belong to removed notes
+   */
+  private int removed;
+
+  /**
+   * Constructs an empty table with room for the given number of notes
+   */
+  PackedIds(int expectedNotes) {
+    this.ids = new long[Math.max(16, expectedNotes)];
+    this.values = new long[this.ids.length];
+    this.size = 0;
+    this.removed = 0;
+  }
+
+  /**
+   * Return the packed value of the note with the given ID, or -1 if there is no such note
+   */
+  long get(long id) {
+    int index = this.indexOf(id);
+    return index < 0 ? REMOVED : this.values[index];
+  }
+
+  /**
+   * Records that the note with the given ID has the given packed value. An ID greater than
+   * every ID put so far is added at the end of the table, which is how new notes are added.
+   */
+  void put(long id, long packed) {
+    int index = Arrays.binarySearch(this.ids, 0, this.size, id);
+    if (index >= 0) {
+      if (this.values[index] == REMOVED) {
+        this.removed--;
+      }
+      this.values[index] = packed;
+      return;
+    }
+    if (this.size == this.ids.length) {
+      this.ids = Arrays.copyOf(this.ids, this.size * 2);
+      this.values = Arrays.copyOf(this.values, this.ids.length);
+    }
+    // an ID is only put back in the middle if it was squeezed out while its note was moved
+    index = -index - 1;
+    System.arraycopy(this.ids, index, this.ids, index + 1, this.size - index);
+    System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
+    this.ids[index] = id;
+    this.values[index] = packed;
+    this.size++;
+  }
+
+  /**
+   * Forgets the note with the given ID, if there is one
+   */
+  void remove(long id) {
+    int index = this.indexOf(id);
+    if (index < 0 || this.values[index] == REMOVED) {
+      return;
+    }
+    this.values[index] = REMOVED;
+    // squeeze out the removed entries once they are the majority, which costs one pass over
+    // the table per as many removals as there are notes left
+    if (++ this.removed > 8 && this.removed * 2 > this.size) {
+      int kept = 0;
+      for (int i = 0; i < this.size; ++ i) {
+        if (this.values[i] != REMOVED) {
+          this.ids[kept] = this.ids[i];
+          this.values[kept] = this.values[i];
+          kept++;
+        }
+      }
+      this.size = kept;
+      this.removed = 0;
+    }
+  }
+
+  /**
+   * Return the index of the given ID, or -1 if it is not in use
+   */
+  private int indexOf(long id) {
+    int index = Arrays.binarySearch(this.ids, 0, this.size, id);
+    return index < 0 ? -1 : index;
+  }
+}
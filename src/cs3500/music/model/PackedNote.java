@@ -0,0 +1,156 @@
+package cs3500.music.model;
+
+import java.util.Objects;
+
+/**
+ * Represents a lightweight Playable view of a note that is stored packed into a single long by
+ * a {@link PackedSong}. A PackedNote only holds the packed value, so handing one out costs a
+ * single small object. Setting a field changes this view only and not the song it came from.
+ */
+final class PackedNote implements Playable {
+  /**
+   * Represents every field of this note packed as described in {@link PackedNotes}
+   */
+  private long packed;
+
+  /**
+   * Constructs a PackedNote viewing the given packed value
+   * @param packed  the packed note to view
+   */
+  PackedNote(long packed) {
+    this.packed = packed;
+  }
+
+  /**
+   * Return the packed value of this note
+   */
+  long packed() {
+    return this.packed;
+  }
+
+  /**
+   * Makes this note view the given packed value instead, so that one PackedNote can be reused
+   * to look at many stored notes
+   * @param packed  the packed note to view
+   * @return        this note
+   */
+  PackedNote view(long packed) {
+    this.packed = packed;
+    return this;
+  }
+
+  @Override
+  public int getStartBeat() {
+    return PackedNotes.start(this.packed);
+  }
+
+  @Override
+  public int getDuration() {
+    return PackedNotes.duration(this.packed);
+  }
+
+  @Override
+  public Pitch getPitch() {
+    return Pitch.pitchFromMidi(PackedNotes.midi(this.packed));
+  }
+
+  @Override
+  public int getOctave() {
+    return Pitch.octaveFromMidi(PackedNotes.midi(this.packed));
+  }
+
+  @Override
+  public int getMidi() {
+    return PackedNotes.midi(this.packed);
+  }
+
+  @Override
+  public int getInstrumentID() {
+    return PackedNotes.instrument(this.packed);
+  }
+
+  @Override
+  public int getVolume() {
+    return PackedNotes.volume(this.packed);
+  }
+
+  @Override
+  public Playable setPitch(Pitch pitch) {
+    Objects.requireNonNull(pitch);
+    return this.setMidi(Pitch.getMidi(pitch, this.getOctave()));
+  }
+
+  @Override
+  public Playable setDuration(int duration) {
+    if (duration < 1) {
+      throw new IllegalArgumentException("invalid note duration");
+    }
+    this.packed = PackedNotes.pack(this.getStartBeat(), duration,
+            PackedNotes.midi(this.packed), this.getInstrumentID(), this.getVolume());
+    return this;
+  }
+
+  @Override
+  public Playable setStart(int startBeat) {
+    if (startBeat < 0) {
+      throw new IllegalArgumentException("illegal start beat");
+    }
+    this.packed = PackedNotes.pack(startBeat, this.getDuration(),
+            PackedNotes.midi(this.packed), this.getInstrumentID(), this.getVolume());
+    return this;
+  }
+
+  @Override
+  public Playable setOctave(int octave) {
+    return this.setMidi(Pitch.getMidi(this.getPitch(), octave));
+  }
+
+  @Override
+  public Playable setInstrument(int instrument) {
+    if (instrument < 0) {
+      throw new IllegalArgumentException("Illegal instrument ID");
+    }
+    this.packed = PackedNotes.pack(this.getStartBeat(), this.getDuration(),
+            PackedNotes.midi(this.packed), instrument, this.getVolume());
+    return this;
+  }
+
+  @Override
+  public Playable setVolume(int volume) {
+    this.packed = PackedNotes.pack(this.getStartBeat(), this.getDuration(),
+            PackedNotes.midi(this.packed), this.getInstrumentID(), volume);
+    return this;
+  }
+
+  @Override
+  public Playable copy() {
+    return new PackedNote(this.packed);
+  }
+
+  @Override
+  public Playable setMidi(int midi) {
+    this.packed = PackedNotes.pack(this.getStartBeat(), this.getDuration(),
+            midi, this.getInstrumentID(), this.getVolume());
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof Playable)) {
+      return false;
+    }
+    Playable otherNote = (Playable) other;
+    return this.getStartBeat() == otherNote.getStartBeat() &&
+            this.getDuration() == otherNote.getDuration() &&
+            this.getMidi() == otherNote.getMidi() &&
+            this.getInstrumentID() == otherNote.getInstrumentID() &&
+            this.getVolume() == otherNote.getVolume();
+  }
+
+  @Override
+  public int hashCode() {
+    // must agree with Note, which a PackedNote can be equal to
+    return Note.hash(this.getStartBeat(), this.getDuration(), this.getMidi(),
+            this.getInstrumentID(), this.getVolume());
+  }
+}
@@ -0,0 +1,153 @@
+package cs3500.music.model;
+
+/**
+ * Static helpers for packing every field of a Playable into a single long. The fields are laid
+ * out from the most to the least significant bits as:
+ * <ul>
+ *   <li>start beat: 25 bits</li>
+ *   <li>duration: 16 bits</li>
+ *   <li>MIDI pitch: 7 bits</li>
+ *   <li>instrument ID: 8 bits</li>
+ *   <li>volume: 7 bits</li>
+ * </ul>
+ * The sign bit is never set, so sorting packed values numerically sorts them by start beat.
+ * Start beats and durations are counted in ticks, so at 480 ticks per beat and 120 bpm a packed
+ * note may start at most about nine and a half hours in and last at most 136 beats.
+ */
+public final class PackedNotes {
+  private PackedNotes() { } // prevents instantiation
+
+  static final int START_BITS = 25;
+  static final int DURATION_BITS = 16;
+  static final int MIDI_BITS = 7;
+  static final int INSTRUMENT_BITS = 8;
+  static final int VOLUME_BITS = 7;
+
+  private static final int VOLUME_SHIFT = 0;
+  private static final int INSTRUMENT_SHIFT = VOLUME_SHIFT + VOLUME_BITS;
+  private static final int MIDI_SHIFT = INSTRUMENT_SHIFT + INSTRUMENT_BITS;
+  private static final int DURATION_SHIFT = MIDI_SHIFT + MIDI_BITS;
+  private static final int START_SHIFT = DURATION_SHIFT + DURATION_BITS;
+
+  /**
+   * Represents the largest start beat that can be packed
+   */
+  public static final int MAX_START = (1 << START_BITS) - 1;
+
+  /**
+   * Represents the largest duration that can be packed
+   */
+  public static final int MAX_DURATION = (1 << DURATION_BITS) - 1;
+
+  /**
+   * Packs the given note fields into a single long
+   * @param start       the start beat
+   * @param duration    the number of beats the note lasts
+   * @param midi        the MIDI pitch in the range [0, 127]
+   * @param instrument  the instrument ID in the range [0, 255]
+   * @param volume      the volume in the range [0, 127]
+   * @return            the packed note
+   * @throws IllegalArgumentException if any of the fields do not fit in their packed width
+   */
+  public static long pack(int start, int duration, int midi, int instrument, int volume) {
+    if (start < 0 || start > MAX_START) {
+      throw new IllegalArgumentException("start beat cannot be packed: " + start);
+    }
+    if (duration < 1 || duration > MAX_DURATION) {
+      throw new IllegalArgumentException("duration cannot be packed: " + duration);
+    }
+    if (midi < 0 || midi >= (1 << MIDI_BITS)) {
+      throw new IllegalArgumentException("pitch is outside of the MIDI range: " + midi);
+    }
+    if (instrument < 0 || instrument >= (1 << INSTRUMENT_BITS)) {
+      throw new IllegalArgumentException("instrument ID cannot be packed: " + instrument);
+    }
+    if (volume < 0 || volume >= (1 << VOLUME_BITS)) {
+      throw new IllegalArgumentException("volume cannot be packed: " + volume);
+    }
+    return ((long) start << START_SHIFT)
+            | ((long) duration << DURATION_SHIFT)
+            | ((long) midi << MIDI_SHIFT)
+            | ((long) instrument << INSTRUMENT_SHIFT)
+            | ((long) volume << VOLUME_SHIFT);
+  }
+
+  /**
+   * Return true if the given note fields all fit in their packed widths, so that
+   * {@link #pack(int, int, int, int, int)} would not throw
+   */
+  static boolean fits(int start, int duration, int midi, int instrument, int volume) {
+    return start >= 0 && start <= MAX_START
+            && duration >= 1 && duration <= MAX_DURATION
+            && midi >= 0 && midi < (1 << MIDI_BITS)
+            && instrument >= 0 && instrument < (1 << INSTRUMENT_BITS)
+            && volume >= 0 && volume < (1 << VOLUME_BITS);
+  }
+
+  /**
+   * Packs the fields of the given Playable into a single long
+   * @param note  the Playable to pack
+   * @return      the packed note
+   * @throws IllegalArgumentException if any of the fields do not fit in their packed width
+   */
+  public static long pack(Playable note) {
+    return pack(note.getStartBeat(), note.getDuration(), note.getMidi(),
+            note.getInstrumentID(), note.getVolume());
+  }
+
+  /**
+   * Return the start beat of the given packed note
+   */
+  public static int start(long packed) {
+    return field(packed, START_SHIFT, START_BITS);
+  }
+
+  /**
+   * Return the duration of the given packed note
+   */
+  public static int duration(long packed) {
+    return field(packed, DURATION_SHIFT, DURATION_BITS);
+  }
+
+  /**
+   * Return the beat (exclusive) at which the given packed note stops sounding
+   */
+  public static int end(long packed) {
+    return start(packed) + duration(packed);
+  }
+
+  /**
+   * Return the MIDI pitch of the given packed note
+   */
+  public static int midi(long packed) {
+    return field(packed, MIDI_SHIFT, MIDI_BITS);
+  }
+
+  /**
+   * Return the instrument ID of the given packed note
+   */
+  public static int instrument(long packed) {
+    return field(packed, INSTRUMENT_SHIFT, INSTRUMENT_BITS);
+  }
+
+  /**
+   * Return the volume of the given packed note
+   */
+  public static int volume(long packed) {
+    return field(packed, VOLUME_SHIFT, VOLUME_BITS);
+  }
+
+  /**
+   * Return the smallest packed value with the given start beat, useful as a search key
+   */
+  static long lowestAt(int start) {
+    if (start > MAX_START) {
+      return Long.MAX_VALUE;
+    }
+    return (long) Math.max(0, start) << START_SHIFT;
+  }
+
+  private static int field(long packed, int shift, int bits) {
+    return (int) ((packed >>> shift) & ((1L << bits) - 1));
+  }
+}
@@ -0,0 +1,732 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import cs3500.music.util.CompositionBuilder;
+
+/**
+ * Represents a song to be edited in a music editor whose notes are stored as primitive longs
+ * instead of Playable objects. Every note is packed into one long as described in
+ * {@link PackedNotes} and the packed values are kept sorted in a single array, so a stored note
+ * costs 8 bytes and no object header. Playable views of the notes are only created when a
+ * client asks for them.
+ *
+ * <p>Only notes whose fields fit in their packed widths can be stored: pitches must be inside
+ * the MIDI range, instruments in [0, 255] and volumes in [0, 127].</p>
+ *
+ * <p>A PackedSong may be counted in many ticks per beat, since the sorted array grows with the
+ * number of notes and not with the number of ticks they last for. Its start ticks and
+ * durations must still fit in {@link PackedNotes#MAX_START} and
+ * {@link PackedNotes#MAX_DURATION}.</p>
+ */
+public final class PackedSong extends AbstractSong {
+  /**
+   * Represents the packed notes of this song, sorted in ascending order. Only the first size
+   * entries are in use.
+   */
+  private long[] notes;
+
+  /**
+   * Represents the stable IDs of the stored notes, where ids[i] is the ID of notes[i]
+   */
+  private long[] ids;
+
+  /**
+   * Represents the packed value of every stored note keyed by its ID
+   */
+  private final PackedIds packedById;
+
+  /**
+   * Represents the ID to give to the next note added to this song
+   */
+  private long nextId;
+
+  /**
+   * Represents the number of notes stored in this song
+   */
+  private int size;
+
+  /**
+   * Represents the longest duration of any stored note, used to limit how far back a search
+   * for the notes sounding at a beat has to look. It is recomputed when the longest note is
+   * removed, so one long note only widens the search while it is stored.
+   */
+  private int maxDuration;
+
+  /**
+   * Represents the beat at which the last note of this song stops sounding
+   */
+  private int length;
+
+  /**
+   * Represents the view handed to the actions given to forEachNoteAt, reused for every note so
+   * that visiting the notes does not create any object
+   */
+  private final PackedNote cursor;
+
+  /**
+   * Construct an empty PackedSong with a default tempo of 120 bpm
+   */
+  public PackedSong() {
+    super();
+    this.cursor = new PackedNote(0);
+    this.packedById = new PackedIds(16);
+    this.notes = new long[16];
+    this.ids = new long[16];
+    this.nextId = 0;
+    this.size = 0;
+    this.maxDuration = 0;
+    this.length = 0;
+  }
+
+  /**
+   * Construct a PackedSong based on the notes in the given List of Playables
+   * @param notes the list containing the Notes to be added to this PackedSong
+   * @param links the Links of the song keyed by their location beat
+   * @throws IllegalArgumentException if the tempo or beatsPerMeasure are not positive or if
+   * any of the notes cannot be packed
+   */
+  public PackedSong(List<Playable> notes, int tempo,
+                    int beatsPerMeasure, Map<Integer, List<Link>> links) {
+    this(notes, tempo, beatsPerMeasure, 1, links);
+  }
+
+  /**
+   * Construct a PackedSong counted in the given number of ticks per beat based on the notes in
+   * the given List of Playables, whose start beats and durations are counted in ticks
+   * @param notes         the list containing the Notes to be added to this PackedSong
+   * @param ticksPerBeat  the number of ticks in one beat
+   * @param links         the Links of the song keyed by their location tick
+   * @throws IllegalArgumentException if the tempo, beatsPerMeasure or ticksPerBeat are not
+   * positive or if any of the notes cannot be packed
+   */
+  public PackedSong(List<Playable> notes, int tempo, int beatsPerMeasure, int ticksPerBeat,
+                    Map<Integer, List<Link>> links) {
+    super(tempo, beatsPerMeasure, ticksPerBeat, links);
+    this.cursor = new PackedNote(0);
+    this.packedById = new PackedIds(notes.size());
+    long[] packed = new long[Math.max(16, notes.size())];
+    int index = 0;
+    for (Playable note : notes) {
+      packed[index++] = PackedNotes.pack(note);
+    }
+    this.initFrom(packed, index);
+  }
+
+  /**
+   * Construct a PackedSong based on the notes in the given List of Playables
+   * @param notes the list containing the Notes to be added to this PackedSong
+   * @throws IllegalArgumentException if the tempo or beatsPerMeasure are not positive or if
+   * any of the notes cannot be packed
+   */
+  public PackedSong(List<Playable> notes, int tempo, int beatsPerMeasure) {
+    this(notes, tempo, beatsPerMeasure, new TreeMap<Integer, List<Link>>());
+  }
+
+  /**
+   * Construct a PackedSong that takes ownership of the given array of packed notes
+   * @param packed  the packed notes, of which only the first count are used
+   * @param count   the number of packed notes in the array
+   */
+  private PackedSong(long[] packed, int count, int tempo, int beatsPerMeasure,
+                     int ticksPerBeat, Map<Integer, List<Link>> links) {
+    super(tempo, beatsPerMeasure, ticksPerBeat, links);
+    this.cursor = new PackedNote(0);
+    this.packedById = new PackedIds(count);
+    this.initFrom(packed, count);
+  }
+
+  /**
+   * Sorts the given packed notes and makes them the contents of this song
+   */
+  private void initFrom(long[] packed, int count) {
+    Arrays.sort(packed, 0, count);
+    this.notes = packed;
+    this.ids = new long[packed.length];
+    this.size = count;
+    this.nextId = count;
+    this.maxDuration = 0;
+    this.length = 0;
+    for (int i = 0; i < count; ++ i) {
+      this.ids[i] = i;
+      this.packedById.put(i, packed[i]);
+      this.maxDuration = Math.max(this.maxDuration, PackedNotes.duration(packed[i]));
+      this.length = Math.max(this.length, PackedNotes.end(packed[i]));
+    }
+  }
+
+  /**
+   * Return the number of notes stored in this PackedSong
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Adds a copy of the given Playable to this PackedSong
+   * @param note  the new Playable to be added
+   * @throws IllegalArgumentException if the Playable cannot be packed
+   */
+  @Override
+  public long addNote(Playable note) {
+    long packed = PackedNotes.pack(note);
+    long id = this.nextId++;
+    this.insert(packed, id);
+    this.changed(packed);
+    return id;
+  }
+
+  /**
+   * Reports that every beat of the given packed note has changed at its pitch
+   */
+  private void changed(long packed) {
+    int midi = PackedNotes.midi(packed);
+    this.changes().changed(PackedNotes.start(packed), PackedNotes.end(packed), midi, midi);
+  }
+
+  /**
+   * Inserts the given packed note at its sorted position
+   * @param packed  the packed note
+   * @param id      the ID of the note
+   */
+  private void insert(long packed, long id) {
+    if (this.size == this.notes.length) {
+      this.notes = Arrays.copyOf(this.notes, this.notes.length * 2);
+      this.ids = Arrays.copyOf(this.ids, this.notes.length);
+    }
+    int index = this.lowerBound(packed);
+    System.arraycopy(this.notes, index, this.notes, index + 1, this.size - index);
+    System.arraycopy(this.ids, index, this.ids, index + 1, this.size - index);
+    this.notes[index] = packed;
+    this.ids[index] = id;
+    this.packedById.put(id, packed);
+    this.size++;
+    this.maxDuration = Math.max(this.maxDuration, PackedNotes.duration(packed));
+    this.length = Math.max(this.length, PackedNotes.end(packed));
+  }
+
+  /**
+   * Removes one occurrence of the given packed note
+   * @return  the ID of the removed note, or -1 if the packed note was not found
+   */
+  private long delete(long packed) {
+    int index = this.lowerBound(packed);
+    if (index == this.size || this.notes[index] != packed) {
+      return -1;
+    }
+    long id = this.ids[index];
+    this.removeAt(index);
+    return id;
+  }
+
+  /**
+   * Removes the stored note at the given index
+   */
+  private void removeAt(int index) {
+    long packed = this.notes[index];
+    this.packedById.remove(this.ids[index]);
+    System.arraycopy(this.notes, index + 1, this.notes, index, this.size - index - 1);
+    System.arraycopy(this.ids, index + 1, this.ids, index, this.size - index - 1);
+    this.size--;
+    if (PackedNotes.end(packed) == this.length
+            || PackedNotes.duration(packed) == this.maxDuration) {
+      this.recomputeBounds();
+    }
+  }
+
+  /**
+   * Recomputes the length of this song and the longest duration of its notes from its stored
+   * notes
+   */
+  private void recomputeBounds() {
+    this.length = 0;
+    this.maxDuration = 0;
+    for (int i = 0; i < this.size; ++ i) {
+      this.length = Math.max(this.length, PackedNotes.end(this.notes[i]));
+      this.maxDuration = Math.max(this.maxDuration, PackedNotes.duration(this.notes[i]));
+    }
+  }
+
+  /**
+   * Return the index of the first stored note that is not less than the given packed value
+   */
+  private int lowerBound(long packed) {
+    int low = 0;
+    int high = this.size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (this.notes[mid] < packed) {
+        low = mid + 1;
+      }
+      else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  @Override
+  public List<Playable> getNotes(int beatNum) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    List<Playable> output = new ArrayList<Playable>();
+    // only notes that started within the longest duration before this beat can still sound
+    int first = this.lowerBound(PackedNotes.lowestAt(beatNum - this.maxDuration + 1));
+    int last = this.lowerBound(PackedNotes.lowestAt(beatNum + 1));
+    for (int i = first; i < last; ++ i) {
+      if (PackedNotes.end(this.notes[i]) > beatNum) {
+        output.add(new PackedNote(this.notes[i]));
+      }
+    }
+    return output;
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, Consumer<Playable> action) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    int first = this.lowerBound(PackedNotes.lowestAt(beatNum - this.maxDuration + 1));
+    int last = this.lowerBound(PackedNotes.lowestAt(beatNum + 1));
+    for (int i = first; i < last; ++ i) {
+      if (PackedNotes.end(this.notes[i]) > beatNum) {
+        action.accept(this.cursor.view(this.notes[i]));
+      }
+    }
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    int first = this.lowerBound(PackedNotes.lowestAt(beatNum - this.maxDuration + 1));
+    int last = this.lowerBound(PackedNotes.lowestAt(beatNum + 1));
+    for (int i = first; i < last; ++ i) {
+      long packed = this.notes[i];
+      if (PackedNotes.end(packed) > beatNum) {
+        visitor.visit(PackedNotes.start(packed), PackedNotes.duration(packed),
+                PackedNotes.midi(packed), PackedNotes.instrument(packed),
+                PackedNotes.volume(packed));
+      }
+    }
+  }
+
+  @Override
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat) {
+    checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    int first = this.lowerBound(PackedNotes.lowestAt(startBeat));
+    int last = this.lowerBound(PackedNotes.lowestAt(endBeat));
+    for (int i = first; i < last; ++ i) {
+      output.add(new PackedNote(this.notes[i]));
+    }
+    return output;
+  }
+
+  @Override
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat) {
+    checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    if (startBeat == endBeat) {
+      return output;
+    }
+    int first = this.lowerBound(PackedNotes.lowestAt(startBeat - this.maxDuration + 1));
+    int last = this.lowerBound(PackedNotes.lowestAt(endBeat));
+    for (int i = first; i < last; ++ i) {
+      if (PackedNotes.end(this.notes[i]) > startBeat) {
+        output.add(new PackedNote(this.notes[i]));
+      }
+    }
+    return output;
+  }
+
+  @Override
+  public boolean removeNote(Playable note) {
+    Objects.requireNonNull(note);
+    long packed = packOrNegative(note);
+    if (packed < 0 || this.delete(packed) < 0) {
+      return false;
+    }
+    this.changed(packed);
+    return true;
+  }
+
+  /**
+   * Return the packed value of the given Playable, or -1 if it cannot be packed, in which case
+   * it can never have been stored
+   */
+  private static long packOrNegative(Playable note) {
+    try {
+      return PackedNotes.pack(note);
+    }
+    catch (IllegalArgumentException e) {
+      return -1;
+    }
+  }
+
+  @Override
+  public int removeNotes(Collection<Playable> playables) {
+    Objects.requireNonNull(playables);
+    long[] doomed = new long[playables.size()];
+    int count = 0;
+    for (Playable playable : playables) {
+      long packed = packOrNegative(playable);
+      if (packed >= 0) {
+        doomed[count++] = packed;
+      }
+    }
+    Arrays.sort(doomed, 0, count);
+    // walk both sorted arrays together, keeping every stored note that is not matched by one
+    // of the notes to remove, so the whole removal is a single pass over the stored notes
+    int kept = 0;
+    int next = 0;
+    this.changes().beginBatch();
+    for (int i = 0; i < this.size; ++ i) {
+      while (next < count && doomed[next] < this.notes[i]) {
+        next++;
+      }
+      if (next < count && doomed[next] == this.notes[i]) {
+        this.packedById.remove(this.ids[i]);
+        this.changed(this.notes[i]);
+        next++;
+      }
+      else {
+        this.notes[kept] = this.notes[i];
+        this.ids[kept] = this.ids[i];
+        kept++;
+      }
+    }
+    int removed = this.size - kept;
+    this.size = kept;
+    this.recomputeBounds();
+    this.changes().endBatch();
+    return removed;
+  }
+
+  @Override
+  public long getNoteId(Playable note) {
+    Objects.requireNonNull(note);
+    long packed = packOrNegative(note);
+    if (packed < 0) {
+      return -1;
+    }
+    int index = this.lowerBound(packed);
+    if (index == this.size || this.notes[index] != packed) {
+      return -1;
+    }
+    return this.ids[index];
+  }
+
+  @Override
+  public Playable getNoteById(long id) {
+    long packed = this.packedById.get(id);
+    return packed < 0 ? null : new PackedNote(packed);
+  }
+
+  @Override
+  public boolean removeNoteById(long id) {
+    long packed = this.packedById.get(id);
+    if (packed < 0) {
+      return false;
+    }
+    for (int i = this.lowerBound(packed); i < this.size && this.notes[i] == packed; ++ i) {
+      if (this.ids[i] == id) {
+        this.removeAt(i);
+        this.changed(packed);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int getLength() {
+    return this.length;
+  }
+
+  @Override
+  public Playable getHighest() {
+    return this.getExtremePlayable(true);
+  }
+
+  @Override
+  public Playable getLowest() {
+    return this.getExtremePlayable(false);
+  }
+
+  @Override
+  public Playable moveNote(Playable note, int steps) {
+    if (note.getStartBeat() + steps < 0) {
+      throw new IllegalArgumentException("invalid number of steps");
+    }
+    // check the new start before touching the stored note so a failed move changes nothing
+    long shifted = PackedNotes.pack(note.getStartBeat() + steps, note.getDuration(),
+            note.getMidi(), note.getInstrumentID(), note.getVolume());
+    long packed = packOrNegative(note);
+    long id = packed < 0 ? -1 : this.delete(packed);
+    if (id < 0) {
+      throw new IllegalArgumentException("note does not exist in the music editor model");
+    }
+    Playable moved = note.setStart(note.getStartBeat() + steps);
+    this.insert(shifted, id);
+    this.changes().moved(moved, steps);
+    return moved;
+  }
+
+  @Override
+  public Playable transposeNote(Playable note, int steps) {
+    int midi = note.getMidi() + steps;
+    // check the new pitch before touching the stored note so a failed transpose changes nothing
+    long transposed = PackedNotes.pack(note.getStartBeat(), note.getDuration(), midi,
+            note.getInstrumentID(), note.getVolume());
+    long packed = packOrNegative(note);
+    long id = packed < 0 ? -1 : this.delete(packed);
+    if (id < 0) {
+      throw new IllegalArgumentException("note does not exist in the music editor model");
+    }
+    Playable edited = note.setMidi(midi);
+    this.insert(transposed, id);
+    this.changes().transposed(edited, steps);
+    return edited;
+  }
+
+  @Override
+  public int shiftNotes(Collection<Playable> playables, int beats) {
+    return this.reindex(playables, beats, 0);
+  }
+
+  @Override
+  public int transposeNotes(Collection<Playable> playables, int steps) {
+    return this.reindex(playables, 0, steps);
+  }
+
+  /**
+   * Shifts and transposes every one of the given Playables at once with two passes over the
+   * stored notes. Adding the same amount to one field of every edited note keeps them in the
+   * same order, so once they are taken out of the sorted array in the first pass they are
+   * still sorted and can be merged back in with the second.
+   * @param playables the Playables to edit
+   * @param beats     the number of beats to shift them by
+   * @param steps     the number of semitones to transpose them by
+   * @return  the number of Playables that were edited
+   * @throws IllegalArgumentException if one of the edited notes could not be packed
+   */
+  private int reindex(Collection<Playable> playables, int beats, int steps) {
+    List<Playable> given = checkBulkEdit(this, playables, beats, steps);
+    long[] moving = new long[given.size()];
+    for (int i = 0; i < moving.length; ++ i) {
+      moving[i] = PackedNotes.pack(given.get(i));
+    }
+    Arrays.sort(moving);
+    // pack every edited note before touching the stored ones so a failed edit changes nothing
+    long[] edited = new long[moving.length];
+    for (int i = 0; i < moving.length; ++ i) {
+      long packed = moving[i];
+      edited[i] = PackedNotes.pack(PackedNotes.start(packed) + beats,
+              PackedNotes.duration(packed), PackedNotes.midi(packed) + steps,
+              PackedNotes.instrument(packed), PackedNotes.volume(packed));
+    }
+    long[] editedIds = new long[moving.length];
+    int count = 0;
+    int kept = 0;
+    int next = 0;
+    this.changes().beginBatch();
+    try {
+      for (int i = 0; i < this.size; ++ i) {
+        while (next < moving.length && moving[next] < this.notes[i]) {
+          next++;
+        }
+        if (next < moving.length && moving[next] == this.notes[i]) {
+          this.changed(this.notes[i]);
+          edited[count] = edited[next];
+          editedIds[count] = this.ids[i];
+          count++;
+          next++;
+        }
+        else {
+          this.notes[kept] = this.notes[i];
+          this.ids[kept] = this.ids[i];
+          kept++;
+        }
+      }
+      // merge from the back so that the stored notes can stay in the same array
+      int from = kept - 1;
+      int to = kept + count - 1;
+      for (int j = count - 1; j >= 0; --j, --to) {
+        while (from >= 0 && this.notes[from] > edited[j]) {
+          this.notes[to] = this.notes[from];
+          this.ids[to] = this.ids[from];
+          from--;
+          to--;
+        }
+        this.notes[to] = edited[j];
+        this.ids[to] = editedIds[j];
+        this.packedById.put(editedIds[j], edited[j]);
+        this.changed(edited[j]);
+      }
+      this.size = kept + count;
+      this.recomputeBounds();
+      for (Playable note : given) {
+        edit(note, beats, steps);
+      }
+    }
+    finally {
+      this.changes().endBatch();
+    }
+    return count;
+  }
+
+  /**
+   * Returns the Playable that is the highest in the song if highest is true or the lowest
+   * in the song otherwise
+   * @param highest boolean selector between highest and lowest values
+   * @return  Playable instance on one extreme of this song, or null if the song is empty
+   */
+  private Playable getExtremePlayable(boolean highest) {
+    int extreme = -1;
+    for (int i = 0; i < this.size; ++ i) {
+      int midi = PackedNotes.midi(this.notes[i]);
+      if (extreme == -1 || (highest ? midi >= PackedNotes.midi(this.notes[extreme])
+              : midi < PackedNotes.midi(this.notes[extreme]))) {
+        extreme = i;
+      }
+    }
+    return extreme == -1 ? null : new PackedNote(this.notes[extreme]);
+  }
+
+  /**
+   * Return a builder for PackedSongs
+   * @return  a Builder for PackedSongs
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Represents a builder class for PackedSong objects that packs every note as it is added,
+   * so that no Playable objects are created while reading a composition
+   */
+  public static final class Builder implements CompositionBuilder<MusicEditorModel> {
+    /**
+     * Represents the packed notes added so far. Only the first count entries are in use.
+     */
+    private long[] notes;
+
+    /**
+     * Represents the number of notes added so far
+     */
+    private int count;
+
+    /**
+     * Represents the lists of Links to include in this song at the given corresponding
+     * beat numbers
+     */
+    private Map<Integer, List<Link>> links;
+
+    /**
+     * Represents the tempo of this song in beats per minute
+     */
+    private int tempo;
+
+    /**
+     * Represents the number of beats in on measure
+     */
+    private int beatsPerMeasure;
+
+    /**
+     * Represents the number of ticks in one beat
+     */
+    private int ticksPerBeat;
+
+    /**
+     * Represents the tempo changes of this song in beats per minute keyed by their tick
+     */
+    private Map<Integer, Integer> tempoChanges;
+
+    /**
+     * Constructs a new PackedSong Builder object
+     */
+    public Builder() {
+      this.notes = new long[1024];
+      this.count = 0;
+      this.tempo = 120;
+      this.beatsPerMeasure = 4;
+      this.ticksPerBeat = 1;
+      this.tempoChanges = new TreeMap<Integer, Integer>();
+      this.links = new TreeMap<Integer, List<Link>>();
+    }
+
+    @Override
+    public CompositionBuilder<MusicEditorModel> expectNotes(int count) {
+      if (count > this.notes.length) {
+        this.notes = Arrays.copyOf(this.notes, count);
+      }
+      return this;
+    }
+
+    @Override
+    public MusicEditorModel build() {
+      PackedSong song = new PackedSong(this.notes, this.count, this.tempo,
+              this.beatsPerMeasure, this.ticksPerBeat, this.links);
+      for (Map.Entry<Integer, Integer> change : this.tempoChanges.entrySet()) {
+        song.setTempoAt(change.getKey(), change.getValue());
+      }
+      return song;
+    }
+
+    @Override
+    public CompositionBuilder<MusicEditorModel> setTempo(int tempo) {
+      this.tempo = (int) (60000000.0 / tempo);
+      // the starting tempo is whichever of this and a change at tick 0 was set last
+      this.tempoChanges.remove(0);
+      return this;
+    }
+
+    @Override
+    public CompositionBuilder<MusicEditorModel> setTempoAt(int start, int tempo) {
+      if (start < 0 || tempo <= 0) {
+        throw new IllegalArgumentException("Invalid tempo change");
+      }
+      this.tempoChanges.put(start, (int) (60000000.0 / tempo));
+      return this;
+    }
+
+    @Override
+    public CompositionBuilder<MusicEditorModel> setTicksPerBeat(int ticksPerBeat) {
+      if (ticksPerBeat <= 0) {
+        throw new IllegalArgumentException("Ticks per beat must be positive");
+      }
+      this.ticksPerBeat = ticksPerBeat;
+      return this;
+    }
+
+    @Override
+    public CompositionBuilder<MusicEditorModel> addNote(int start, int end, int instrument,
+                                                        int pitch, int volume) {
+      if (this.count == this.notes.length) {
+        this.notes = Arrays.copyOf(this.notes, this.notes.length * 2);
+      }
+      this.notes[this.count++] = PackedNotes.pack(start, end - start, pitch, instrument, volume);
+      return this;
+    }
+
+    @Override
+    public CompositionBuilder<MusicEditorModel> addLink(int beatLocation, int linkedBeat,
+                                                        int iterationNum) {
+      if (!this.links.containsKey(beatLocation)) {
+        this.links.put(beatLocation, new ArrayList<Link>());
+      }
+      this.links.get(beatLocation).add(new LinkImpl(beatLocation, linkedBeat, iterationNum));
+      return this;
+    }
+  }
+}
@@ -0,0 +1,464 @@
+package cs3500.music.model;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Represents an immutable interval tree of Playables. Editing a PersistentNoteTree never changes
+ * it: every edit returns a new tree that shares all but O(log n) of its nodes with the old one,
+ * so keeping an old version around costs almost nothing.
+ *
+ * <p>The notes are kept in a treap ordered by start beat and ID, where every node also tracks
+ * the largest end beat and the highest and lowest pitches found in its subtree. A second treap
+ * maps every ID to the start beat of its note so that a note can be found from its ID. The heap
+ * priorities are derived from the IDs, so the shape of a tree only depends on its contents.</p>
+ *
+ * <p>The stored Playables must never be mutated once they are in a tree.</p>
+ */
+final class PersistentNoteTree {
+  /**
+   * Represents the tree with no notes in it
+   */
+  static final PersistentNoteTree EMPTY = new PersistentNoteTree(null, null);
+
+  /**
+   * Represents a single stored Playable
+   */
+  private static final class Node {
+    private final Playable note;
+    private final int start;
+    private final int end;
+    private final int midi;
+    private final long id;
+    private final Node left;
+    private final Node right;
+
+    /**
+     * Represents the largest end beat of any node in the subtree rooted at this node
+     */
+    private final int maxEnd;
+
+    /**
+     * Represents the number of nodes in the subtree rooted at this node
+     */
+    private final int size;
+
+    /**
+     * Represents the nodes with the highest and lowest pitches in the subtree rooted at this
+     * node
+     */
+    private final Node highest;
+    private final Node lowest;
+
+    private Node(Playable note, long id, Node left, Node right) {
+      this(note, note.getStartBeat(), note.getStartBeat() + note.getDuration(),
+              PitchHistogram.midiOf(note), id, left, right);
+    }
+
+    private Node(Playable note, int start, int end, int midi, long id, Node left, Node right) {
+      this.note = note;
+      this.start = start;
+      this.end = end;
+      this.midi = midi;
+      this.id = id;
+      this.left = left;
+      this.right = right;
+      int maxEnd = end;
+      int size = 1;
+      Node highest = this;
+      Node lowest = this;
+      if (left != null) {
+        maxEnd = Math.max(maxEnd, left.maxEnd);
+        size += left.size;
+        highest = left.highest.midi > highest.midi ? left.highest : highest;
+        lowest = left.lowest.midi < lowest.midi ? left.lowest : lowest;
+      }
+      if (right != null) {
+        maxEnd = Math.max(maxEnd, right.maxEnd);
+        size += right.size;
+        highest = right.highest.midi > highest.midi ? right.highest : highest;
+        lowest = right.lowest.midi < lowest.midi ? right.lowest : lowest;
+      }
+      this.maxEnd = maxEnd;
+      this.size = size;
+      this.highest = highest;
+      this.lowest = lowest;
+    }
+
+    /**
+     * Return a copy of this node with the given children
+     */
+    private Node with(Node left, Node right) {
+      return new Node(this.note, this.start, this.end, this.midi, this.id, left, right);
+    }
+
+    /**
+     * Return true if this node is ordered before the given start beat and ID
+     */
+    private boolean isBefore(int start, long id) {
+      return this.start < start || (this.start == start && this.id < id);
+    }
+  }
+
+  /**
+   * Represents the start beat of the note with one ID
+   */
+  private static final class IdNode {
+    private final long id;
+    private final int start;
+    private final IdNode left;
+    private final IdNode right;
+
+    private IdNode(long id, int start, IdNode left, IdNode right) {
+      this.id = id;
+      this.start = start;
+      this.left = left;
+      this.right = right;
+    }
+  }
+
+  /**
+   * Represents the root of the notes ordered by start beat and ID
+   */
+  private final Node root;
+
+  /**
+   * Represents the root of the start beats ordered by ID
+   */
+  private final IdNode ids;
+
+  private PersistentNoteTree(Node root, IdNode ids) {
+    this.root = root;
+    this.ids = ids;
+  }
+
+  /**
+   * Return the heap priority of the nodes with the given ID
+   */
+  private static int priority(long id) {
+    long mixed = id * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+
+  /**
+   * Return the number of Playables in this tree
+   */
+  int size() {
+    return this.root == null ? 0 : this.root.size;
+  }
+
+  /**
+   * Return the beat at which the last Playable in this tree stops sounding, or 0 if empty
+   */
+  int maxEnd() {
+    return this.root == null ? 0 : this.root.maxEnd;
+  }
+
+  /**
+   * Return a Playable with the highest pitch in this tree, or null if it is empty
+   */
+  Playable highest() {
+    return this.root == null ? null : this.root.highest.note;
+  }
+
+  /**
+   * Return a Playable with the lowest pitch in this tree, or null if it is empty
+   */
+  Playable lowest() {
+    return this.root == null ? null : this.root.lowest.note;
+  }
+
+  /**
+   * Return a tree that also holds the given Playable with the given ID
+   * @param note  the Playable to store, which must not be mutated afterwards
+   * @param id    the ID of the Playable, which must not already be in this tree
+   */
+  PersistentNoteTree insert(Playable note, long id) {
+    Node node = new Node(note, id, null, null);
+    return new PersistentNoteTree(insert(this.root, node),
+            insertId(this.ids, id, note.getStartBeat()));
+  }
+
+  /**
+   * Return a tree without the Playable with the given ID, or this tree if there is none
+   */
+  PersistentNoteTree remove(long id) {
+    IdNode found = findId(this.ids, id);
+    if (found == null) {
+      return this;
+    }
+    return new PersistentNoteTree(delete(this.root, found.start, id), deleteId(this.ids, id));
+  }
+
+  /**
+   * Return the stored Playable with the given ID, or null if there is none
+   */
+  Playable get(long id) {
+    IdNode found = findId(this.ids, id);
+    if (found == null) {
+      return null;
+    }
+    Node node = find(this.root, found.start, id);
+    return node == null ? null : node.note;
+  }
+
+  /**
+   * Return the ID of the first stored Playable that is equal to the given Playable, or -1 if
+   * there is none
+   */
+  long idOf(Playable note) {
+    Node found = findEqual(this.root, note);
+    return found == null ? -1 : found.id;
+  }
+
+  /**
+   * Adds every stored Playable that is sounding during at least one beat of the given range to
+   * the given list, in order of their start beats
+   */
+  void overlapping(int from, int to, List<Playable> out) {
+    if (from < to) {
+      overlapping(this.root, from, to, out);
+    }
+  }
+
+  /**
+   * Adds every stored Playable that starts during the given range of beats to the given list,
+   * in order of their start beats
+   */
+  void startingIn(int from, int to, List<Playable> out) {
+    startingIn(this.root, from, to, out);
+  }
+
+  /**
+   * Performs the given action on every stored Playable that is sounding during the given beat
+   */
+  void forEachAt(int beat, Consumer<Playable> action) {
+    forEachAt(this.root, beat, action);
+  }
+
+  /**
+   * Hands the fields of every stored Playable that is sounding during the given beat to the
+   * given visitor
+   */
+  void forEachAt(int beat, NoteVisitor visitor) {
+    forEachAt(this.root, beat, visitor);
+  }
+
+  private static Node insert(Node node, Node added) {
+    if (node == null) {
+      return added;
+    }
+    if (priority(added.id) > priority(node.id)) {
+      Node[] halves = split(node, added.start, added.id);
+      return added.with(halves[0], halves[1]);
+    }
+    if (node.isBefore(added.start, added.id)) {
+      return node.with(node.left, insert(node.right, added));
+    }
+    else {
+      return node.with(insert(node.left, added), node.right);
+    }
+  }
+
+  private static Node[] split(Node node, int start, long id) {
+    if (node == null) {
+      return new Node[] {null, null};
+    }
+    if (node.isBefore(start, id)) {
+      Node[] halves = split(node.right, start, id);
+      halves[0] = node.with(node.left, halves[0]);
+      return halves;
+    }
+    else {
+      Node[] halves = split(node.left, start, id);
+      halves[1] = node.with(halves[1], node.right);
+      return halves;
+    }
+  }
+
+  private static Node merge(Node left, Node right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (priority(left.id) > priority(right.id)) {
+      return left.with(left.left, merge(left.right, right));
+    }
+    else {
+      return right.with(merge(left, right.left), right.right);
+    }
+  }
+
+  private static Node delete(Node node, int start, long id) {
+    if (node == null) {
+      return null;
+    }
+    if (node.start == start && node.id == id) {
+      return merge(node.left, node.right);
+    }
+    if (node.isBefore(start, id)) {
+      return node.with(node.left, delete(node.right, start, id));
+    }
+    else {
+      return node.with(delete(node.left, start, id), node.right);
+    }
+  }
+
+  private static Node find(Node node, int start, long id) {
+    while (node != null) {
+      if (node.start == start && node.id == id) {
+        return node;
+      }
+      node = node.isBefore(start, id) ? node.right : node.left;
+    }
+    return null;
+  }
+
+  private static Node findEqual(Node node, Playable note) {
+    if (node == null) {
+      return null;
+    }
+    int start = note.getStartBeat();
+    if (start < node.start) {
+      return findEqual(node.left, note);
+    }
+    if (start > node.start) {
+      return findEqual(node.right, note);
+    }
+    // nodes with an equal start beat may be found on both sides of this one
+    Node found = findEqual(node.left, note);
+    if (found == null && note.equals(node.note)) {
+      found = node;
+    }
+    if (found == null) {
+      found = findEqual(node.right, note);
+    }
+    return found;
+  }
+
+  private static void overlapping(Node node, int from, int to, List<Playable> out) {
+    if (node == null || node.maxEnd <= from) {
+      return;
+    }
+    overlapping(node.left, from, to, out);
+    if (node.start < to) {
+      if (node.end > from) {
+        out.add(node.note);
+      }
+      overlapping(node.right, from, to, out);
+    }
+  }
+
+  private static void startingIn(Node node, int from, int to, List<Playable> out) {
+    if (node == null) {
+      return;
+    }
+    if (node.start >= from) {
+      startingIn(node.left, from, to, out);
+    }
+    if (node.start >= from && node.start < to) {
+      out.add(node.note);
+    }
+    if (node.start < to) {
+      startingIn(node.right, from, to, out);
+    }
+  }
+
+  private static void forEachAt(Node node, int beat, Consumer<Playable> action) {
+    if (node == null || node.maxEnd <= beat) {
+      return;
+    }
+    forEachAt(node.left, beat, action);
+    if (node.start <= beat) {
+      if (node.end > beat) {
+        action.accept(node.note);
+      }
+      forEachAt(node.right, beat, action);
+    }
+  }
+
+  private static void forEachAt(Node node, int beat, NoteVisitor visitor) {
+    if (node == null || node.maxEnd <= beat) {
+      return;
+    }
+    forEachAt(node.left, beat, visitor);
+    if (node.start <= beat) {
+      if (node.end > beat) {
+        visitor.visit(node.start, node.end - node.start, node.midi,
+                node.note.getInstrumentID(), node.note.getVolume());
+      }
+      forEachAt(node.right, beat, visitor);
+    }
+  }
+
+  private static IdNode insertId(IdNode node, long id, int start) {
+    if (node == null) {
+      return new IdNode(id, start, null, null);
+    }
+    if (priority(id) > priority(node.id)) {
+      IdNode[] halves = splitId(node, id);
+      return new IdNode(id, start, halves[0], halves[1]);
+    }
+    if (node.id < id) {
+      return new IdNode(node.id, node.start, node.left, insertId(node.right, id, start));
+    }
+    else {
+      return new IdNode(node.id, node.start, insertId(node.left, id, start), node.right);
+    }
+  }
+
+  private static IdNode[] splitId(IdNode node, long id) {
+    if (node == null) {
+      return new IdNode[] {null, null};
+    }
+    if (node.id < id) {
+      IdNode[] halves = splitId(node.right, id);
+      halves[0] = new IdNode(node.id, node.start, node.left, halves[0]);
+      return halves;
+    }
+    else {
+      IdNode[] halves = splitId(node.left, id);
+      halves[1] = new IdNode(node.id, node.start, halves[1], node.right);
+      return halves;
+    }
+  }
+
+  private static IdNode mergeIds(IdNode left, IdNode right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (priority(left.id) > priority(right.id)) {
+      return new IdNode(left.id, left.start, left.left, mergeIds(left.right, right));
+    }
+    else {
+      return new IdNode(right.id, right.start, mergeIds(left, right.left), right.right);
+    }
+  }
+
+  private static IdNode deleteId(IdNode node, long id) {
+    if (node == null) {
+      return null;
+    }
+    if (node.id == id) {
+      return mergeIds(node.left, node.right);
+    }
+    if (node.id < id) {
+      return new IdNode(node.id, node.start, node.left, deleteId(node.right, id));
+    }
+    else {
+      return new IdNode(node.id, node.start, deleteId(node.left, id), node.right);
+    }
+  }
+
+  private static IdNode findId(IdNode node, long id) {
+    while (node != null && node.id != id) {
+      node = node.id < id ? node.right : node.left;
+    }
+    return node;
+  }
+}
@@ -3,10 +3,53 @@ package cs3500.music.model;
 /**
  * Represents the twelve musical pitches
  * Note: sharps are represented using "s" instead of the traditional "#"
+ *
+ * <p>The model works with MIDI note numbers, in which middle C (C4) is 60 and every semitone
+ * adds one, and only turns them into a Pitch and an octave where a caller asks for them. The
+ * Pitch, octave and label of each of the 128 MIDI notes are looked up in tables built once, so
+ * none of the static methods below copies the array of values.</p>
  */
 public enum Pitch {
   C, Cs, D, Ds, E, F, Fs, G, Gs, A, As, B;
 
+  /**
+   * Represents the number of pitches in an octave
+   */
+  public static final int COUNT = 12;
+
+  /**
+   * Represents the number of notes that MIDI can play, numbered from 0
+   */
+  private static final int MIDI_NOTES = 128;
+
+  /**
+   * Represents the pitches in order, shared so that they are never copied
+   */
+  private static final Pitch[] PITCHES = values();
+
+  /**
+   * Represents the Pitch of every MIDI note
+   */
+  private static final Pitch[] PITCH_OF_MIDI = new Pitch[MIDI_NOTES];
+
+  /**
+   * Represents the octave of every MIDI note
+   */
+  private static final int[] OCTAVE_OF_MIDI = new int[MIDI_NOTES];
+
+  /**
+   * Represents the label of every MIDI note, such as "C#4"
+   */
+  private static final String[] LABEL_OF_MIDI = new String[MIDI_NOTES];
+
+  static {
+    for (int midi = 0; midi < MIDI_NOTES; ++ midi) {
+      PITCH_OF_MIDI[midi] = PITCHES[midi % COUNT];
+      OCTAVE_OF_MIDI[midi] = midi / COUNT - 1;
+      LABEL_OF_MIDI[midi] = PITCH_OF_MIDI[midi].toString() + OCTAVE_OF_MIDI[midi];
+    }
+  }
+
   @Override
   public String toString() {
     return this.name().replace("s", "#");
@@ -21,18 +64,52 @@ public enum Pitch {
    * @return      the distance from the first note to the second note
    */
   public static int distance(Pitch p1, int oct1, Pitch p2, int oct2) {
-    return (Pitch.values().length * (oct2 - oct1)) + (p2.ordinal() - p1.ordinal());
+    return (COUNT * (oct2 - oct1)) + (p2.ordinal() - p1.ordinal());
   }
 
+  /**
+   * Return the MIDI note number of the given Pitch in the given octave
+   * @param pitch   the Pitch of the note
+   * @param octave  the octave of the note
+   * @return        the MIDI note number, which is 60 for C4
+   */
   public static int getMidi(Pitch pitch, int octave) {
-    return 60 + Pitch.distance(Pitch.C, 4, pitch, octave);
+    return COUNT * (octave + 1) + pitch.ordinal();
   }
 
+  /**
+   * Return the Pitch of the given MIDI note number
+   * @param midi  the MIDI note number, which may be outside of the range that MIDI can play
+   * @return      the Pitch of the note
+   */
   public static Pitch pitchFromMidi(int midi) {
-    return Pitch.values()[midi % Pitch.values().length];
+    if (midi >= 0 && midi < MIDI_NOTES) {
+      return PITCH_OF_MIDI[midi];
+    }
+    return PITCHES[Math.floorMod(midi, COUNT)];
   }
 
+  /**
+   * Return the octave of the given MIDI note number
+   * @param midi  the MIDI note number, which may be outside of the range that MIDI can play
+   * @return      the octave of the note
+   */
   public static int octaveFromMidi(int midi) {
-    return (midi / Pitch.values().length) - 1;
+    if (midi >= 0 && midi < MIDI_NOTES) {
+      return OCTAVE_OF_MIDI[midi];
+    }
+    return Math.floorDiv(midi, COUNT) - 1;
+  }
+
+  /**
+   * Return the label of the given MIDI note number, made of its Pitch and its octave
+   * @param midi  the MIDI note number, which may be outside of the range that MIDI can play
+   * @return      the label of the note, such as "C#4"
+   */
+  public static String label(int midi) {
+    if (midi >= 0 && midi < MIDI_NOTES) {
+      return LABEL_OF_MIDI[midi];
+    }
+    return pitchFromMidi(midi).toString() + octaveFromMidi(midi);
   }
 }
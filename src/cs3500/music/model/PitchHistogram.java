@@ -0,0 +1,159 @@
+package cs3500.music.model;
+
+import java.util.Arrays;
+
+/**
+ * Represents a count of the stored Playables at every MIDI pitch, so that the highest and
+ * lowest pitches of a song can be read without looking at its notes. The histogram covers the
+ * MIDI range [0, 127] and grows if a pitch outside of that range is added.
+ *
+ * <p>For every pitch with a non-zero count the histogram also remembers one Playable at that
+ * pitch as a sample. The sample is forgotten when that Playable is removed, in which case the
+ * owner has to find and set a new one.</p>
+ */
+final class PitchHistogram {
+  /**
+   * Represents the number of stored Playables at every pitch, offset by lowestIndexed
+   */
+  private int[] counts;
+
+  /**
+   * Represents one stored Playable at every pitch, offset by lowestIndexed
+   */
+  private Playable[] samples;
+
+  /**
+   * Represents the MIDI pitch that is counted at index 0
+   */
+  private int lowestIndexed;
+
+  /**
+   * Represents the total number of Playables counted by this histogram
+   */
+  private int total;
+
+  /**
+   * Constructs an empty PitchHistogram covering the MIDI range
+   */
+  PitchHistogram() {
+    this.counts = new int[128];
+    this.samples = new Playable[128];
+    this.lowestIndexed = 0;
+    this.total = 0;
+  }
+
+  /**
+   * Return the MIDI pitch of the given Playable
+   */
+  static int midiOf(Playable note) {
+    return note.getMidi();
+  }
+
+  /**
+   * Counts the given stored Playable at its current pitch
+   * @param note  the Playable that was stored
+   */
+  void add(Playable note) {
+    int midi = midiOf(note);
+    this.ensureCovers(midi);
+    int index = midi - this.lowestIndexed;
+    this.counts[index]++;
+    if (this.samples[index] == null) {
+      this.samples[index] = note;
+    }
+    this.total++;
+  }
+
+  /**
+   * Stops counting the given stored Playable at the given pitch, which must be the pitch it
+   * was counted at
+   * @param note  the Playable that was removed
+   * @param midi  the pitch that the Playable was counted at
+   */
+  void remove(Playable note, int midi) {
+    int index = midi - this.lowestIndexed;
+    if (index < 0 || index >= this.counts.length || this.counts[index] == 0) {
+      return;
+    }
+    this.counts[index]--;
+    if (this.counts[index] == 0 || this.samples[index] == note) {
+      this.samples[index] = null;
+    }
+    this.total--;
+  }
+
+  /**
+   * Return true if nothing is counted by this histogram
+   */
+  boolean isEmpty() {
+    return this.total == 0;
+  }
+
+  /**
+   * Return the highest counted pitch
+   * @throws IllegalStateException if this histogram is empty
+   */
+  int highest() {
+    for (int index = this.counts.length - 1; index >= 0; -- index) {
+      if (this.counts[index] > 0) {
+        return index + this.lowestIndexed;
+      }
+    }
+    throw new IllegalStateException("empty pitch histogram");
+  }
+
+  /**
+   * Return the lowest counted pitch
+   * @throws IllegalStateException if this histogram is empty
+   */
+  int lowest() {
+    for (int index = 0; index < this.counts.length; ++ index) {
+      if (this.counts[index] > 0) {
+        return index + this.lowestIndexed;
+      }
+    }
+    throw new IllegalStateException("empty pitch histogram");
+  }
+
+  /**
+   * Return the remembered Playable at the given pitch, or null if it has to be found again
+   */
+  Playable sample(int midi) {
+    int index = midi - this.lowestIndexed;
+    if (index < 0 || index >= this.samples.length) {
+      return null;
+    }
+    return this.samples[index];
+  }
+
+  /**
+   * Remembers the given stored Playable as the sample at its pitch
+   */
+  void setSample(Playable note) {
+    int index = midiOf(note) - this.lowestIndexed;
+    if (index >= 0 && index < this.samples.length && this.counts[index] > 0) {
+      this.samples[index] = note;
+    }
+  }
+
+  /**
+   * Grows the arrays of this histogram so that they cover the given pitch
+   */
+  private void ensureCovers(int midi) {
+    if (midi < this.lowestIndexed) {
+      int grow = this.lowestIndexed - midi;
+      int[] newCounts = new int[this.counts.length + grow];
+      Playable[] newSamples = new Playable[this.samples.length + grow];
+      System.arraycopy(this.counts, 0, newCounts, grow, this.counts.length);
+      System.arraycopy(this.samples, 0, newSamples, grow, this.samples.length);
+      this.counts = newCounts;
+      this.samples = newSamples;
+      this.lowestIndexed = midi;
+    }
+    else if (midi - this.lowestIndexed >= this.counts.length) {
+      int size = midi - this.lowestIndexed + 1;
+      this.counts = Arrays.copyOf(this.counts, size);
+      this.samples = Arrays.copyOf(this.samples, size);
+    }
+  }
+}
@@ -4,6 +4,14 @@ import java.util.Objects;
 
 /**
  * Represents an object that can be played in a music composition
+ *
+ * <p>A Playable is either editable, in which case its setters change it and return it, or
+ * immutable like {@link NoteValue}, in which case its setters leave it unchanged and return
+ * the Playable with the new value instead. Code that must work with both uses the Playable
+ * returned by a setter rather than the one it was called on.</p>
+ *
+ * <p>The start beat and duration of a Playable are counted in the ticks of the song that holds
+ * it, as described by {@link MusicEditorModel#getTicksPerBeat()}.</p>
  */
 public interface Playable extends Comparable {
   /**
@@ -30,6 +38,12 @@ public interface Playable extends Comparable {
    */
   int getOctave();
 
+  /**
+   * Get the MIDI note number of this Playable, which combines its Pitch and its octave
+   * @return  the MIDI note number of this Playable, which is 60 for C4
+   */
+  int getMidi();
+
   /**
    * Get the instrument ID of this Playable
    * @return the instrument ID of this Playable
@@ -73,6 +87,14 @@ public interface Playable extends Comparable {
    */
   Playable setOctave(int octave);
 
+  /**
+   * Sets this Playable's Pitch and octave to those of the given MIDI note number and returns a
+   * reference to this Playable
+   * @param midi  the new MIDI note number of this Playable
+   * @return      this Playable
+   */
+  Playable setMidi(int midi);
+
   /**
    * Sets this Playable's instrument ID and returns a reference to this Playable
    * @param instrument  the new start beat of this Playable
@@ -114,8 +136,7 @@ public interface Playable extends Comparable {
     }
     else {
       Playable other = (Playable) o;
-      return Pitch.distance(other.getPitch(), other.getOctave(),
-              this.getPitch(), this.getOctave());
+      return this.getMidi() - other.getMidi();
     }
   }
 }
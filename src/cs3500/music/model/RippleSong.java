@@ -0,0 +1,226 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Represents a song to be edited in a music editor whose Playables are stored in a
+ * {@link NoteRope}, which keeps every start beat relative to its neighbours in a balanced tree.
+ * Inserting or deleting beats in the middle of a RippleSong moves every later note without
+ * visiting any of them, so ripple edits cost O(log n) plus the number of notes deleted, where
+ * a {@link Song} has to rekey every later beat.
+ *
+ * <p>Like a VersionedSong, a RippleSong only ever hands out copies of its Playables, since the
+ * stored ones do not know where they start.</p>
+ */
+public final class RippleSong extends AbstractSong {
+  /**
+   * Represents the Playables that comprise this song
+   */
+  private final NoteRope notes;
+
+  /**
+   * Represents the ID to give to the next Playable added to this song
+   */
+  private long nextId;
+
+  /**
+   * Construct an empty RippleSong with a default tempo of 120 bpm
+   */
+  public RippleSong() {
+    super();
+    this.notes = new NoteRope();
+    this.nextId = 0;
+  }
+
+  /**
+   * Construct a RippleSong based on the notes in the given List of Playables
+   * @param notes the list containing the Notes to be added to this RippleSong
+   * @param links the Links of the song keyed by their location beat
+   * @throws IllegalArgumentException if the tempo or beatsPerMeasure are not positive
+   */
+  public RippleSong(List<Playable> notes, int tempo,
+                    int beatsPerMeasure, Map<Integer, List<Link>> links) {
+    super(tempo, beatsPerMeasure, links);
+    this.notes = new NoteRope();
+    this.nextId = 0;
+    for (Playable note : notes) {
+      this.addNote(note);
+    }
+  }
+
+  /**
+   * Construct a RippleSong based on the notes in the given List of Playables
+   * @param notes the list containing the Notes to be added to this RippleSong
+   * @throws IllegalArgumentException if the tempo or beatsPerMeasure are not positive
+   */
+  public RippleSong(List<Playable> notes, int tempo, int beatsPerMeasure) {
+    this(notes, tempo, beatsPerMeasure, new TreeMap<Integer, List<Link>>());
+  }
+
+  @Override
+  public long addNote(Playable note) {
+    if (note.getStartBeat() < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    long id = this.nextId++;
+    this.notes.insert(editable(note.copy()), id);
+    this.changes().changed(note);
+    return id;
+  }
+
+  @Override
+  public List<Playable> getNotes(int beatNum) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    List<Playable> output = new ArrayList<Playable>();
+    this.notes.overlapping(beatNum, beatNum + 1, output);
+    return output;
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, Consumer<Playable> action) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    this.notes.forEachAt(beatNum, action);
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    this.notes.forEachAt(beatNum, visitor);
+  }
+
+  @Override
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat) {
+    checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    this.notes.startingIn(startBeat, endBeat, output);
+    return output;
+  }
+
+  @Override
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat) {
+    checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    this.notes.overlapping(startBeat, endBeat, output);
+    return output;
+  }
+
+  @Override
+  public boolean removeNote(Playable note) {
+    Objects.requireNonNull(note);
+    long id = this.notes.idOf(note);
+    return id >= 0 && this.removeNoteById(id);
+  }
+
+  @Override
+  public long getNoteId(Playable note) {
+    Objects.requireNonNull(note);
+    return this.notes.idOf(note);
+  }
+
+  @Override
+  public Playable getNoteById(long id) {
+    return this.notes.get(id);
+  }
+
+  @Override
+  public boolean removeNoteById(long id) {
+    Playable removed = this.notes.remove(id);
+    if (removed == null) {
+      return false;
+    }
+    this.changes().changed(removed);
+    return true;
+  }
+
+  @Override
+  public int getLength() {
+    return this.notes.maxEnd();
+  }
+
+  @Override
+  public Playable getHighest() {
+    return this.notes.highest();
+  }
+
+  @Override
+  public Playable getLowest() {
+    return this.notes.lowest();
+  }
+
+  @Override
+  public Playable moveNote(Playable note, int steps) {
+    if (note.getStartBeat() + steps < 0) {
+      throw new IllegalArgumentException("invalid number of steps");
+    }
+    long id = this.findStored(note);
+    this.notes.remove(id);
+    Playable moved = note.setStart(note.getStartBeat() + steps);
+    this.notes.insert(editable(moved.copy()), id);
+    this.changes().moved(moved, steps);
+    return moved;
+  }
+
+  @Override
+  public Playable transposeNote(Playable note, int steps) {
+    long id = this.findStored(note);
+    // the stored copy is found by its ID, so the given Playable can be edited first
+    Playable transposed = edit(note, 0, steps);
+    this.notes.remove(id);
+    this.notes.insert(editable(transposed.copy()), id);
+    this.changes().transposed(transposed, steps);
+    return transposed;
+  }
+
+  @Override
+  public void insertBeats(int beat, int count) {
+    checkRipple(beat, count);
+    this.changes().beginBatch();
+    try {
+      this.notes.shift(beat, count);
+      this.rippleTimeline(beat, beat, count);
+      this.changes().changedFrom(beat);
+    }
+    finally {
+      this.changes().endBatch();
+    }
+  }
+
+  @Override
+  public int deleteBeats(int startBeat, int endBeat) {
+    checkRange(startBeat, endBeat);
+    this.changes().beginBatch();
+    try {
+      int removed = this.notes.removeStartingIn(startBeat, endBeat).size();
+      this.notes.shift(endBeat, startBeat - endBeat);
+      this.rippleTimeline(startBeat, endBeat, startBeat - endBeat);
+      this.changes().changedFrom(startBeat);
+      return removed;
+    }
+    finally {
+      this.changes().endBatch();
+    }
+  }
+
+  /**
+   * Return the ID of the stored Playable equal to the given Playable
+   * @throws IllegalArgumentException if there is no such Playable
+   */
+  private long findStored(Playable note) {
+    long id = this.notes.idOf(note);
+    if (id < 0) {
+      throw new IllegalArgumentException("note does not exist in the music editor model");
+    }
+    return id;
+  }
+}
@@ -0,0 +1,245 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Represents a view of a range of beats of another song. The first beat of the range is the
+ * first beat of a SlicedSong, and a Playable that sounds across either end of the range is cut
+ * down to the beats inside it. Playables that start before the range are shown as starting at
+ * its first beat.
+ *
+ * <p>The ID of a Playable in a SlicedSong is its ID in the song it is sliced from.</p>
+ */
+final class SlicedSong extends SongView {
+  /**
+   * Represents the song that this view shows a range of
+   */
+  private final MusicEditorModel song;
+
+  /**
+   * Represents the first beat of the song that is shown
+   */
+  private final int from;
+
+  /**
+   * Represents the beat after the last beat of the song that is shown
+   */
+  private final int to;
+
+  /**
+   * Represents the adapter reused by forEachNoteAt
+   */
+  private final Placer placer;
+
+  /**
+   * Constructs a view of the given range of beats of the given song
+   * @param song  the song to slice
+   * @param from  the first beat of the range
+   * @param to    the beat after the last beat of the range
+   */
+  SlicedSong(MusicEditorModel song, int from, int to) {
+    this.song = song;
+    this.from = from;
+    this.to = to;
+    this.placer = new Placer();
+  }
+
+  @Override
+  List<MusicEditorModel> sources() {
+    return Collections.singletonList(this.song);
+  }
+
+  @Override
+  ModelChange translate(int source, ModelChange change) {
+    int start = Math.max(change.getStartBeat(), this.from);
+    int end = Math.min(change.getEndBeat(), this.to);
+    if (start >= end) {
+      return null;
+    }
+    return new ModelChange(start - this.from, end - this.from,
+            change.getLowestMidi(), change.getHighestMidi());
+  }
+
+  /**
+   * Return the given Playable of the song as it is shown in this view
+   */
+  private Playable placed(Playable note) {
+    return placed(note, -this.from, this.from, this.to);
+  }
+
+  /**
+   * Return whether the given beat of this view is one of the beats of the song it shows
+   */
+  private boolean shows(int beatNum) {
+    return beatNum < this.to - this.from;
+  }
+
+  @Override
+  public int getTempo() {
+    return this.getTimeMap().getTempoAt(0);
+  }
+
+  @Override
+  public TimeMap getTimeMap() {
+    return this.song.getTimeMap().startingAt(this.from);
+  }
+
+  @Override
+  public int getBeatsPerMeasure() {
+    return this.song.getBeatsPerMeasure();
+  }
+
+  @Override
+  public int getTicksPerBeat() {
+    return this.song.getTicksPerBeat();
+  }
+
+  @Override
+  public List<Playable> getNotes(int beatNum) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    List<Playable> output = new ArrayList<Playable>();
+    if (this.shows(beatNum)) {
+      for (Playable note : this.song.getNotes(beatNum + this.from)) {
+        output.add(this.placed(note));
+      }
+    }
+    return output;
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, Consumer<Playable> action) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    if (this.shows(beatNum)) {
+      this.song.forEachNoteAt(beatNum + this.from,
+              (Consumer<Playable>) this.placer.to(action).place(-this.from, this.from, this.to));
+    }
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    if (this.shows(beatNum)) {
+      this.song.forEachNoteAt(beatNum + this.from,
+              (NoteVisitor) this.placer.to(visitor).place(-this.from, this.from, this.to));
+    }
+  }
+
+  @Override
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat) {
+    AbstractSong.checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    int start = startBeat + this.from;
+    int end = Math.min(endBeat + this.from, this.to);
+    if (start >= end) {
+      return output;
+    }
+    // the notes cut by the first beat of the view start at it too
+    List<Playable> notes = start == this.from
+            ? this.song.getNotesSoundingIn(start, end) : this.song.getNotesStartingIn(start, end);
+    for (Playable note : notes) {
+      output.add(this.placed(note));
+    }
+    return output;
+  }
+
+  @Override
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat) {
+    AbstractSong.checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    int start = startBeat + this.from;
+    int end = Math.min(endBeat + this.from, this.to);
+    if (start >= end) {
+      return output;
+    }
+    for (Playable note : this.song.getNotesSoundingIn(start, end)) {
+      output.add(this.placed(note));
+    }
+    return output;
+  }
+
+  @Override
+  public long getNoteId(Playable note) {
+    Objects.requireNonNull(note);
+    if (!this.shows(note.getStartBeat())) {
+      return -1;
+    }
+    Playable exact = null;
+    Playable equal = null;
+    for (Playable stored : this.song.getNotes(note.getStartBeat() + this.from)) {
+      Playable shown = this.placed(stored);
+      if (shown == note) {
+        exact = stored;
+        break;
+      }
+      if (equal == null && shown.equals(note)) {
+        equal = stored;
+      }
+    }
+    Playable found = exact == null ? equal : exact;
+    return found == null ? -1 : this.song.getNoteId(found);
+  }
+
+  @Override
+  public Playable getNoteById(long id) {
+    Playable note = this.song.getNoteById(id);
+    if (note == null || note.getStartBeat() >= this.to
+            || note.getStartBeat() + note.getDuration() <= this.from) {
+      return null;
+    }
+    return this.placed(note);
+  }
+
+  @Override
+  public int getLength() {
+    int length = 0;
+    for (Playable note : this.song.getNotesSoundingIn(this.from, this.to)) {
+      length = Math.max(length, Math.min(note.getStartBeat() + note.getDuration(), this.to));
+    }
+    return Math.max(length - this.from, 0);
+  }
+
+  @Override
+  public Playable getHighest() {
+    Playable highest = null;
+    for (Playable note : this.song.getNotesSoundingIn(this.from, this.to)) {
+      if (highest == null || PitchHistogram.midiOf(note) > PitchHistogram.midiOf(highest)) {
+        highest = note;
+      }
+    }
+    return highest == null ? null : this.placed(highest);
+  }
+
+  @Override
+  public Playable getLowest() {
+    Playable lowest = null;
+    for (Playable note : this.song.getNotesSoundingIn(this.from, this.to)) {
+      if (lowest == null || PitchHistogram.midiOf(note) < PitchHistogram.midiOf(lowest)) {
+        lowest = note;
+      }
+    }
+    return lowest == null ? null : this.placed(lowest);
+  }
+
+  @Override
+  public List<Link> getLinks(int beat) {
+    List<Link> output = new ArrayList<Link>();
+    if (beat < 0 || !this.shows(beat)) {
+      return output;
+    }
+    for (Link link : this.song.getLinks(beat + this.from)) {
+      output.add(this.from == 0 ? link : new LinkImpl(beat,
+              Math.max(link.getLinkedBeat() - this.from, 0), link.getPlayIteration()));
+    }
+    return output;
+  }
+}
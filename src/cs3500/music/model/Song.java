@@ -2,53 +2,90 @@ package cs3500.music.model;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
 import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 import cs3500.music.util.CompositionBuilder;
 
 /**
  * Represents a song to be edited in a music editor
+ *
+ * <p>A Song stores its Playables as interned {@link NoteValue}s, so reading a piece allocates
+ * no mutable note per Playable and equal Playables in different songs share one object. A
+ * Playable equal to one that is already stored is given a NoteValue of its own, since the
+ * Playables of a Song are told apart by their identities. Moving or transposing a Playable
+ * stores the edited NoteValue in its place.</p>
+ *
+ * <p>A Song indexes its Playables by keeping a {@link Track} for every instrument that
+ * indexes the Playables of that instrument alone, so the track queries of a Song never look at
+ * the Playables of any other instrument. The Tracks are the only index: a query about the
+ * whole song combines the answers of every Track, so every Playable is kept in one list per
+ * beat and an edit only updates the lists of one Track.</p>
  */
-public final class Song implements MusicEditorModel {
+public final class Song extends AbstractSong {
   /**
-   * Represents the Playables the comprise this song as a map where the beat number is the key and
-   * the values are the lists of Playables that are either beginning or sustaining during that beat
+   * Represents the order of Playables by their start beats
    */
-  private TreeMap<Integer, List<Playable>> notes;
+  private static final Comparator<Playable> BY_START = new Comparator<Playable>() {
+    @Override
+    public int compare(Playable o1, Playable o2) {
+      return o1.getStartBeat() - o2.getStartBeat();
+    }
+  };
+
+  /**
+   * Represents the number of beats until the last Playable in this song stops sounding, kept up
+   * to date on every edit
+   */
+  private int length;
+
+  /**
+   * Represents the number of Playables in this song at every MIDI pitch, kept up to date on
+   * every edit so that the highest and lowest Playables can be found without a scan
+   */
+  private final PitchHistogram pitches;
 
   /**
-   * Represents the tempo of this song in beats per minute
+   * Represents the stable IDs of the Playables in this song, so that a stored Playable handed
+   * out by this Song is found without comparing it to anything
    */
-  private int tempo;
+  private final NoteIds ids;
 
   /**
-   * Represents the number of beats in on measure
+   * Represents the Playables of this song partitioned into one Track per instrument, keyed by
+   * instrument ID
+   *
+   * Invariant: the map never holds an empty Track
    */
-  private int beatsPerMeasure;
+  private final TreeMap<Integer, Track> tracks;
 
   /**
-   * Represents the Links found in this song as a map where the keys are beat numbers and the
-   * values are lists of Links found at that beat
+   * Represents the Tracks of this song in order of their instrument IDs, kept in step with
+   * the map of tracks so that the Playables at a beat can be visited without an Iterator
    */
-  private Map<Integer, List<Link>> links;
+  private Track[] trackList;
 
   /**
    * Construct an empty Song with a default tempo of 120 bpm
    */
   public Song() {
-    this.notes = new TreeMap<Integer, List<Playable>>();
-    this.tempo = 120;
-    this.beatsPerMeasure = 4;
-    this.links = new TreeMap<Integer, List<Link>>();
-  }
-
-  private Song(TreeMap<Integer, List<Playable>> notes, int tempo, int beatsPerMeasure) {
-    this.notes = (TreeMap<Integer, List<Playable>>) notes.clone();
-    this.tempo = tempo;
-    this.beatsPerMeasure = beatsPerMeasure;
-    this.links = new TreeMap<Integer, List<Link>>();
+    super();
+    this.length = 0;
+    this.pitches = new PitchHistogram();
+    this.ids = new NoteIds();
+    this.tracks = new TreeMap<Integer, Track>();
+    this.trackList = new Track[0];
   }
 
   /**
@@ -58,16 +95,28 @@ public final class Song implements MusicEditorModel {
    */
   public Song(List<Playable> notes, int tempo,
               int beatsPerMeasure, Map<Integer, List<Link>> links) {
-    if (tempo <= 0 || beatsPerMeasure <= 0) {
-      throw new IllegalArgumentException("Invalid song construction arguments");
-    }
-    this.notes = new TreeMap<Integer, List<Playable>>();
+    super(tempo, beatsPerMeasure, links);
+    this.length = 0;
+    this.pitches = new PitchHistogram();
+    this.ids = new NoteIds();
+    this.tracks = new TreeMap<Integer, Track>();
+    this.trackList = new Track[0];
     for (Playable note : notes) {
       this.addNote(note);
     }
-    this.tempo = tempo;
-    this.beatsPerMeasure = beatsPerMeasure;
-    this.links = links;
+  }
+
+  /**
+   * Construct an empty Song that shares the given map of Links and has room for the given
+   * number of Playables, for a Builder to index notes into
+   */
+  private Song(int expectedNotes, Map<Integer, List<Link>> links) {
+    super(120, 4, links);
+    this.length = 0;
+    this.pitches = new PitchHistogram();
+    this.ids = new NoteIds(expectedNotes);
+    this.tracks = new TreeMap<Integer, Track>();
+    this.trackList = new Track[0];
   }
 
   /**
@@ -79,141 +128,348 @@ public final class Song implements MusicEditorModel {
     this(notes, tempo, beatsPerMeasure, new TreeMap<Integer, List<Link>>());
   }
 
+  /**
+   * Construct a Song that stores the NoteValues of the given Playables, building its index in a
+   * single pass
+   * @param notes the Playables of the song, ordered by their start beats
+   * @throws IllegalArgumentException if the tempo or beatsPerMeasure are not positive or a
+   * Playable starts at a negative beat
+   */
+  static Song ofSorted(Playable[] notes, int tempo, int beatsPerMeasure) {
+    Song song = new Song(new ArrayList<Playable>(), tempo, beatsPerMeasure);
+    for (Playable note : notes) {
+      if (note.getStartBeat() < 0) {
+        throw new IllegalArgumentException("Illegal beat number");
+      }
+      // every Track is appended to in order, so none of its lists are looked up
+      song.insert(song.valueOf(note), song.ids.next());
+    }
+    return song;
+  }
+
   @Override
-  public void addNote(Playable note) {
-    int endBeat = note.getStartBeat() + note.getDuration();
-    Playable copy = note.copy();
-    for (int beat = note.getStartBeat(); beat < endBeat; ++ beat) {
-      this.ensureInit(beat);
-      this.notes.get(beat).add(copy);
+  public long addNote(Playable note) {
+    if (note.getStartBeat() < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
     }
+    Playable stored = this.valueOf(note);
+    long id = this.ids.next();
+    this.insert(stored, id);
+    this.changes().changed(stored);
+    return id;
   }
 
   /**
-   * Checks that the notes map containing this Song's notes at the given beat is
-   * already initialized and if not, it initializes it to a new empty list of Playables
-   * @param beatNum the number of the beat to ensure exists in this Song
-   * @throws IllegalArgumentException if the given beat number is negative
+   * Return the NoteValue to store for the given Playable, which is the interned one unless an
+   * equal Playable is already stored
    */
-  private void ensureInit(int beatNum) {
-    if (beatNum < 0) {
+  private NoteValue valueOf(Playable note) {
+    NoteValue value = NoteValue.of(note);
+    return this.ids.isStored(value) ? value.distinctCopy() : value;
+  }
+
+  /**
+   * Stores the given Playable, without copying it, in every beat that it lasts for
+   * @param note  the Playable to store
+   * @param id    the ID of the stored Playable
+   */
+  private void insert(Playable note, long id) {
+    this.pitches.add(note);
+    this.length = Math.max(this.length, note.getStartBeat() + note.getDuration());
+    this.ids.put(note, id);
+    this.track(note);
+  }
+
+  /**
+   * Stores the given new NoteValue, without copying it or telling any listener, for a Builder
+   * that indexes notes as they are read. A Playable that starts no earlier than every stored
+   * Playable of its instrument is appended to its Track without looking up any list.
+   * @param value the NoteValue to store
+   * @throws IllegalArgumentException if the NoteValue starts at a negative beat
+   */
+  private void index(NoteValue value) {
+    if (value.getStartBeat() < 0) {
       throw new IllegalArgumentException("Illegal beat number");
     }
-    if (!this.notes.containsKey(beatNum)) {
-      this.notes.put(beatNum, new ArrayList<Playable>());
+    this.insert(this.valueOf(value), this.ids.next());
+  }
+
+  /**
+   * Adds the given stored Playable to the Track of its instrument
+   */
+  private void track(Playable note) {
+    Track track = this.tracks.get(note.getInstrumentID());
+    if (track == null) {
+      track = new Track();
+      this.tracks.put(note.getInstrumentID(), track);
+      this.trackList = this.tracks.values().toArray(new Track[this.tracks.size()]);
+    }
+    track.add(note);
+  }
+
+  /**
+   * Removes the given stored Playable from the Track of its instrument
+   */
+  private void untrack(Playable stored) {
+    Track track = this.tracks.get(stored.getInstrumentID());
+    if (track != null && track.remove(stored) && track.isEmpty()) {
+      this.tracks.remove(stored.getInstrumentID());
+      this.trackList = this.tracks.values().toArray(new Track[this.tracks.size()]);
     }
   }
 
+  /**
+   * Takes the given stored Playable out of everything but the lists of its Track, for an edit
+   * that filters those lists once for all of the Playables it takes out
+   * @param stored  the stored Playable to take out
+   * @param beats   the beats to filter keyed by instrument ID, which every beat the Playable
+   *                lasts for is added to
+   */
+  private void takeOut(Playable stored, Map<Integer, Set<Integer>> beats) {
+    Set<Integer> trackBeats = beats.get(stored.getInstrumentID());
+    if (trackBeats == null) {
+      trackBeats = new HashSet<Integer>();
+      beats.put(stored.getInstrumentID(), trackBeats);
+    }
+    int endBeat = stored.getStartBeat() + stored.getDuration();
+    for (int beat = stored.getStartBeat(); beat < endBeat; ++ beat) {
+      trackBeats.add(beat);
+    }
+    this.pitches.remove(stored, PitchHistogram.midiOf(stored));
+    this.ids.remove(stored);
+  }
 
-  @Override
-  public int getTempo() {
-    return this.tempo;
+  /**
+   * Removes the given stored Playables from the lists of the Tracks, filtering every list once
+   * no matter how many of its Playables are being removed
+   * @param beats   the beats to filter keyed by instrument ID
+   * @param removed the stored Playables to remove
+   */
+  private void filterTracks(Map<Integer, Set<Integer>> beats, Set<Playable> removed) {
+    for (Map.Entry<Integer, Set<Integer>> entry : beats.entrySet()) {
+      Track track = this.tracks.get(entry.getKey());
+      track.removeAll(entry.getValue(), removed);
+      if (track.isEmpty()) {
+        this.tracks.remove(entry.getKey());
+      }
+    }
+    this.trackList = this.tracks.values().toArray(new Track[this.tracks.size()]);
+    this.updateLength();
   }
 
-  @Override
-  public void setTempo(int tempo) {
-    if (tempo <= 0) {
-      throw new IllegalArgumentException("Tempo must be positive");
+  /**
+   * Finds the number of beats until the last Playable stops sounding from the lengths of the
+   * Tracks
+   */
+  private void updateLength() {
+    this.length = 0;
+    for (Track track : this.trackList) {
+      this.length = Math.max(this.length, track.getLength());
+    }
+  }
+
+  /**
+   * Return the stored Playable that is exactly the given Playable, or if the given Playable is
+   * not stored in this Song, the first stored Playable that is equal to it
+   * @param note  the Playable to look for
+   * @return      the stored Playable or null if none was found
+   */
+  private Playable findStored(Playable note) {
+    return this.findStored(note, null);
+  }
+
+  /**
+   * Return the stored Playable that is exactly the given Playable, or if the given Playable is
+   * not stored in this Song, the first stored Playable that is equal to it and not excluded
+   * @param note      the Playable to look for
+   * @param excluded  the stored Playables to skip, or null to skip none
+   * @return          the stored Playable or null if none was found
+   */
+  private Playable findStored(Playable note, Set<Playable> excluded) {
+    if (this.ids.isStored(note)) {
+      return note;
+    }
+    Track track = this.tracks.get(note.getInstrumentID());
+    return track == null ? null : track.find(note, excluded);
+  }
+
+  /**
+   * Removes exactly the given stored Playable from every beat that it lasts for
+   * @param stored  the stored Playable to remove
+   * @param midi    the MIDI pitch that the stored Playable was counted at
+   */
+  private void delete(Playable stored, int midi) {
+    this.pitches.remove(stored, midi);
+    this.ids.remove(stored);
+    this.untrack(stored);
+    if (stored.getStartBeat() + stored.getDuration() >= this.length) {
+      this.updateLength();
     }
-    this.tempo = tempo;
   }
 
   @Override
-  public int getBeatsPerMeasure() {
-    return this.beatsPerMeasure;
+  public List<Playable> getNotes(int beatNum) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    List<Playable> output = new ArrayList<Playable>();
+    for (Track track : this.trackList) {
+      List<Playable> atBeat = track.at(beatNum);
+      if (atBeat != null) {
+        output.addAll(atBeat);
+      }
+    }
+    return output;
   }
 
   @Override
-  public void setBeatsPerMeasure(int beatsPerMeasure) {
-    if (beatsPerMeasure <= 0) {
-      throw new IllegalArgumentException("Invalid number of beats per measure");
+  public void forEachNoteAt(int beatNum, Consumer<Playable> action) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    for (Track track : this.trackList) {
+      List<Playable> atBeat = track.at(beatNum);
+      if (atBeat == null) {
+        continue;
+      }
+      // index instead of iterating so that no Iterator is created
+      for (int i = 0; i < atBeat.size(); ++ i) {
+        action.accept(atBeat.get(i));
+      }
     }
-    this.beatsPerMeasure = beatsPerMeasure;
   }
 
   @Override
-  public List<Playable> getNotes(int beatNum) {
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor) {
     if (beatNum < 0) {
       throw new IllegalArgumentException("Illegal beat number");
     }
-    // note: don't use ensureInit here as that causes lots of performance
-    // issues in the GUI if it puts a large key in the map
-    if (this.notes.containsKey(beatNum)) {
-      return this.notes.get(beatNum);
+    for (Track track : this.trackList) {
+      List<Playable> atBeat = track.at(beatNum);
+      if (atBeat == null) {
+        continue;
+      }
+      for (int i = 0; i < atBeat.size(); ++ i) {
+        Playable note = atBeat.get(i);
+        visitor.visit(note.getStartBeat(), note.getDuration(), PitchHistogram.midiOf(note),
+                note.getInstrumentID(), note.getVolume());
+      }
+    }
+  }
+
+  @Override
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat) {
+    checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    for (Track track : this.trackList) {
+      track.addStartingIn(startBeat, endBeat, output);
+    }
+    if (this.trackList.length > 1) {
+      // the list is one sorted run per Track, which a stable sort merges in a pass per run
+      output.sort(BY_START);
     }
-    else {
-      return new ArrayList<Playable>();
+    return output;
+  }
+
+  @Override
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat) {
+    checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    if (startBeat == endBeat) {
+      return output;
+    }
+    // the notes that started earlier and are still sounding are all in the first beat's list
+    for (Playable note : this.getNotes(startBeat)) {
+      if (note.getStartBeat() < startBeat) {
+        output.add(note);
+      }
     }
+    Collections.sort(output, BY_START);
+    output.addAll(this.getNotesStartingIn(startBeat, endBeat));
+    return output;
   }
 
+  @Override
+  public SortedSet<Integer> getInstruments() {
+    return new TreeSet<Integer>(this.tracks.keySet());
+  }
+
+  @Override
+  public List<Playable> getTrackNotes(int instrumentID, int beatNum) {
+    checkInstrument(instrumentID);
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    Track track = this.tracks.get(instrumentID);
+    return track == null ? new ArrayList<Playable>() : track.soundingAt(beatNum);
+  }
+
+  @Override
+  public List<Playable> getTrackNotesStartingIn(int instrumentID, int startBeat, int endBeat) {
+    checkInstrument(instrumentID);
+    checkRange(startBeat, endBeat);
+    Track track = this.tracks.get(instrumentID);
+    return track == null ? new ArrayList<Playable>() : track.startingIn(startBeat, endBeat);
+  }
 
   @Override
   public boolean removeNote(Playable playable) {
     Objects.requireNonNull(playable);
-    boolean success = true;
-    int endBeat = playable.getStartBeat() + playable.getDuration();
-    for (int beat = playable.getStartBeat(); beat < endBeat; ++ beat) {
-      this.ensureInit(beat);
-      success &= this.notes.get(beat).remove(playable);
+    Playable stored = this.findStored(playable);
+    if (stored == null) {
+      return false;
     }
-    return success;
+    this.delete(stored, PitchHistogram.midiOf(stored));
+    this.changes().changed(stored);
+    return true;
   }
 
   @Override
-  public void append(MusicEditorModel song) {
-    if (song == null) {
-      return;
-    }
-    int offset = this.getLength();
-    int otherLength = song.getLength();
-    for (int beat = 0; beat < otherLength; ++ beat) {
-      for (Playable note : song.getNotes(beat)) {
-        // make sure to only copy notes that start at a given beat
-        if (note.getStartBeat() == beat) {
-          this.ensureInit(beat + offset);
-          Playable newPlayable = note.copy();
-          newPlayable.setStart(newPlayable.getStartBeat() + offset);
-          this.addNote(newPlayable);
-        }
+  public int removeNotes(Collection<Playable> playables) {
+    Objects.requireNonNull(playables);
+    final Set<Playable> removed = Collections.newSetFromMap(
+            new IdentityHashMap<Playable, Boolean>());
+    Map<Integer, Set<Integer>> beats = new HashMap<Integer, Set<Integer>>();
+    this.changes().beginBatch();
+    for (Playable playable : playables) {
+      Playable stored = this.findStored(playable, removed);
+      if (stored == null || !removed.add(stored)) {
+        continue;
       }
+      this.changes().changed(stored);
+      this.takeOut(stored, beats);
     }
+    this.filterTracks(beats, removed);
+    this.changes().endBatch();
+    return removed.size();
   }
 
   @Override
-  public int getLength() {
-    // ensure that any lists of notes at the end of the piece are not included in the
-    // length if they are empty lists
-    if (this.notes.size() == 0) {
-      return 0;
-    }
-    int lastBeat = this.notes.lastKey();
-    ensureInit(lastBeat);
-    while (this.notes.get(lastBeat).size() == 0) {
-      -- lastBeat;
-      ensureInit(lastBeat);
-      if (lastBeat <= 0) {
-        return 0;
-      }
-    }
-    return lastBeat + 1;
+  public long getNoteId(Playable note) {
+    Objects.requireNonNull(note);
+    Playable stored = this.findStored(note);
+    return stored == null ? -1 : this.ids.idOf(stored);
   }
 
   @Override
-  public void overlay(MusicEditorModel song) {
-    if (song == null) {
-      return;
-    }
-    int length = Math.max(this.getLength(), song.getLength());
-    for (int beat = 0; beat < length; ++ beat) {
-      for (Playable note : song.getNotes(beat)) {
-        // make sure to only copy notes that start at a given beat
-        if (note.getStartBeat() == beat) {
-          Playable newPlayable = note.copy();
-          this.ensureInit(beat);
-          this.addNote(newPlayable);
-        }
-      }
+  public Playable getNoteById(long id) {
+    return this.ids.get(id);
+  }
+
+  @Override
+  public boolean removeNoteById(long id) {
+    Playable stored = this.ids.get(id);
+    if (stored == null) {
+      return false;
     }
+    this.delete(stored, PitchHistogram.midiOf(stored));
+    this.changes().changed(stored);
+    return true;
+  }
+
+  @Override
+  public int getLength() {
+    return this.length;
   }
 
   @Override
@@ -228,55 +484,84 @@ public final class Song implements MusicEditorModel {
 
   @Override
   public Playable moveNote(Playable note, int steps) {
-    int startBeat = note.getStartBeat();
-    if (startBeat + steps < 0) {
+    if (note.getStartBeat() + steps < 0) {
       throw new IllegalArgumentException("invalid number of steps");
     }
-
-    int duration = note.getDuration();
-
-    boolean found = false;
-    for (int i = startBeat; i < startBeat + duration; i ++) {
-      found |= this.notes.get(i).remove(note);
-    }
-    if (!found) {
+    Playable stored = this.findStored(note);
+    if (stored == null) {
       throw new IllegalArgumentException("note does not exist in the music editor model");
     }
-    note.setStart(note.getStartBeat() + steps);
-    for (int i = startBeat + steps; i < startBeat + steps + duration; i ++ ) {
-      ensureInit(i);
-      this.notes.get(i).add(note);
-    }
-    return note;
+    long id = this.ids.idOf(stored);
+    this.delete(stored, PitchHistogram.midiOf(stored));
+    Playable moved = note.setStart(note.getStartBeat() + steps);
+    this.insert(this.valueOf(moved), id);
+    this.changes().moved(moved, steps);
+    return moved;
   }
 
   @Override
-  public List<Link> getLinks(int beat) {
-    if (this.links.containsKey(beat)) {
-      return this.links.get(beat);
-    }
-    else {
-      return new ArrayList<Link>();
+  public Playable transposeNote(Playable note, int steps) {
+    Playable stored = this.findStored(note);
+    if (stored == null) {
+      throw new IllegalArgumentException("note does not exist in the music editor model");
     }
+    long id = this.ids.idOf(stored);
+    this.delete(stored, PitchHistogram.midiOf(stored));
+    Playable transposed = edit(note, 0, steps);
+    this.insert(this.valueOf(transposed), id);
+    this.changes().transposed(transposed, steps);
+    return transposed;
   }
 
   @Override
-  public void addLink(Link link) {
-    if (this.links.containsKey(link.getLocationBeat())) {
-      this.links.get(link.getLocationBeat()).add(link);
-    }
-    else {
-      this.links.put(link.getLocationBeat(), new ArrayList<Link>());
-      this.links.get(link.getLocationBeat()).add(link);
-    }
+  public int shiftNotes(Collection<Playable> playables, int beats) {
+    return this.reindex(playables, beats, 0);
   }
 
   @Override
-  public boolean removeLink(Link link) {
-    if (!this.links.containsKey(link.getLocationBeat())) {
-      return false;
+  public int transposeNotes(Collection<Playable> playables, int steps) {
+    return this.reindex(playables, 0, steps);
+  }
+
+  /**
+   * Shifts and transposes every one of the given Playables at once. All of them are taken out
+   * of the Tracks with one filtering pass per affected beat, edited, and then stored again, so
+   * the cost does not grow with the number of Playables sharing a beat with each edited one.
+   * @param playables the Playables to edit
+   * @param beats     the number of beats to shift them by
+   * @param steps     the number of semitones to transpose them by
+   * @return  the number of Playables that were edited
+   */
+  private int reindex(Collection<Playable> playables, int beats, int steps) {
+    List<Playable> given = checkBulkEdit(this, playables, beats, steps);
+    final Set<Playable> removed = Collections.newSetFromMap(
+            new IdentityHashMap<Playable, Boolean>());
+    List<Playable> edited = new ArrayList<Playable>(given.size());
+    List<Long> editedIds = new ArrayList<Long>(given.size());
+    Map<Integer, Set<Integer>> beatsToFilter = new HashMap<Integer, Set<Integer>>();
+    this.changes().beginBatch();
+    try {
+      for (Playable note : given) {
+        Playable stored = this.findStored(note, removed);
+        if (stored == null || !removed.add(stored)) {
+          continue;
+        }
+        this.changes().changed(stored);
+        edited.add(note);
+        editedIds.add(this.ids.idOf(stored));
+        this.takeOut(stored, beatsToFilter);
+      }
+      this.filterTracks(beatsToFilter, removed);
+      for (int i = 0; i < edited.size(); ++ i) {
+        Playable note = edit(edited.get(i), beats, steps);
+        this.insert(this.valueOf(note), editedIds.get(i));
+        this.changes().changed(note);
+      }
+    }
+    finally {
+      this.changes().endBatch();
     }
-    return this.links.get(link.getLocationBeat()).remove(link);
+    return edited.size();
   }
 
   /**
@@ -286,17 +571,22 @@ public final class Song implements MusicEditorModel {
    * @return  Playable instance on one extreme of this song, or null if the song is empty
    */
   public Playable getExtremePlayable(boolean highest) {
-    Playable output = null;
-    for (int beat = 0; beat < this.getLength(); ++ beat) {
-      for (Playable note : this.getNotes(beat)) {
-        // updates the output if the current note is on the appropriate side of
-        // the current output based whether we're looking for the highest or lowest
-        if (output == null || (highest == (note.compareTo(output) >= 0))) {
-          output = note.copy();
+    if (this.pitches.isEmpty()) {
+      return null;
+    }
+    int midi = highest ? this.pitches.highest() : this.pitches.lowest();
+    Playable sample = this.pitches.sample(midi);
+    if (sample == null) {
+      // the remembered Playable at this pitch was removed, so find another one
+      for (Playable note : this.ids.notes()) {
+        if (PitchHistogram.midiOf(note) == midi) {
+          sample = note;
+          break;
         }
       }
+      this.pitches.setSample(sample);
     }
-    return output;
+    return NoteValue.of(sample);
   }
 
   /**
@@ -307,16 +597,29 @@ public final class Song implements MusicEditorModel {
     return new Builder();
   }
   /**
-   * Represents a builder class for Song objects
+   * Represents a builder class for Song objects that indexes every note into the Song it
+   * builds as soon as the note is added, so no note is ever copied or kept in a second list.
+   * Notes added in order of their start beats, as they are in most files, take a faster path
+   * than notes added out of order.
    */
   public static final class Builder implements CompositionBuilder<MusicEditorModel> {
 
     /**
-     * Represents the Playables the comprise this song as a map where the beat number is the
-     * key and the values are the lists of Playables that are either beginning or sustaining
-     * during that beat
+     * Represents the Song that the notes are indexed into, or null until the first note is
+     * added
+     */
+    private Song song;
+
+    /**
+     * Represents the notes added while the piece is counted in more than one tick per beat,
+     * which are built into an {@link IntervalSong} rather than indexed into a Song
      */
-    private List<Playable> notes;
+    private List<Playable> fineNotes;
+
+    /**
+     * Represents the number of notes that the Song is made with room for
+     */
+    private int expectedNotes;
 
     /**
      * Represents the lists of Links to include in this song at the given corresponding
@@ -334,24 +637,69 @@ public final class Song implements MusicEditorModel {
      */
     private int beatsPerMeasure;
 
+    /**
+     * Represents the number of ticks in one beat
+     */
+    private int ticksPerBeat;
+
+    /**
+     * Represents the tempo changes of this song in beats per minute keyed by their tick
+     */
+    private Map<Integer, Integer> tempoChanges;
+
     /**
      * Constructs a new Song Builder object
      */
     public Builder() {
-      this.notes = new ArrayList<Playable>();
+      this(0);
+    }
+
+    /**
+     * Constructs a new Song Builder object that makes room for the given number of notes
+     * @param expectedNotes the number of notes expected to be added
+     */
+    public Builder(int expectedNotes) {
+      this.song = null;
+      this.fineNotes = new ArrayList<Playable>();
+      this.expectedNotes = expectedNotes;
       this.tempo = 120;
       this.beatsPerMeasure = 4;
+      this.ticksPerBeat = 1;
+      this.tempoChanges = new TreeMap<Integer, Integer>();
       this.links = new TreeMap<Integer, List<Link>>();
     }
 
     /**
-     * Constructs an actual composition, given the notes that have been added
+     * Constructs an actual composition, given the notes that have been added. A composition
+     * counted in more than one tick per beat is built as an {@link IntervalSong}, since a Song
+     * would keep a reference to every note in every tick it lasts for. The builder starts a
+     * new, empty song afterwards.
      *
      * @return The new composition
      */
     @Override
     public MusicEditorModel build() {
-      return new Song(this.notes, this.tempo, this.beatsPerMeasure, this.links);
+      Song indexed = this.song();
+      this.song = null;
+      MusicEditorModel song;
+      if (this.ticksPerBeat > 1) {
+        // notes indexed before the resolution was set are copied out of the Song
+        List<Playable> notes = indexed.getNotesStartingIn(0, indexed.getLength());
+        notes.addAll(this.fineNotes);
+        this.fineNotes = new ArrayList<Playable>();
+        song = new IntervalSong(notes, this.tempo, this.beatsPerMeasure, this.ticksPerBeat,
+                this.links);
+      }
+      else {
+        indexed.setTempo(this.tempo);
+        indexed.setBeatsPerMeasure(this.beatsPerMeasure);
+        song = indexed;
+      }
+      this.links = new TreeMap<Integer, List<Link>>();
+      for (Map.Entry<Integer, Integer> change : this.tempoChanges.entrySet()) {
+        song.setTempoAt(change.getKey(), change.getValue());
+      }
+      return song;
     }
 
     /**
@@ -364,14 +712,47 @@ public final class Song implements MusicEditorModel {
     public CompositionBuilder<MusicEditorModel> setTempo(int tempo) {
       int bpm = (int) (60000000.0 / tempo);
       this.tempo = bpm;
+      // the starting tempo is whichever of this and a change at tick 0 was set last
+      this.tempoChanges.remove(0);
+      return this;
+    }
+
+    /**
+     * Changes the tempo of the piece from the given time until the next tempo change
+     *
+     * @param start The time at which the tempo changes, in ticks
+     * @param tempo The speed from then on, in microseconds per beat
+     * @return This builder
+     */
+    @Override
+    public CompositionBuilder<MusicEditorModel> setTempoAt(int start, int tempo) {
+      if (start < 0 || tempo <= 0) {
+        throw new IllegalArgumentException("Invalid tempo change");
+      }
+      this.tempoChanges.put(start, (int) (60000000.0 / tempo));
+      return this;
+    }
+
+    /**
+     * Sets the number of ticks in one beat of the piece
+     *
+     * @param ticksPerBeat The number of ticks in one beat
+     * @return This builder
+     */
+    @Override
+    public CompositionBuilder<MusicEditorModel> setTicksPerBeat(int ticksPerBeat) {
+      if (ticksPerBeat <= 0) {
+        throw new IllegalArgumentException("Ticks per beat must be positive");
+      }
+      this.ticksPerBeat = ticksPerBeat;
       return this;
     }
 
     /**
      * Adds a new note to the piece
      *
-     * @param start      The start time of the note, in beats
-     * @param end        The end time of the note, in beats
+     * @param start      The start time of the note, in ticks
+     * @param end        The end time of the note, in ticks
      * @param instrument The instrument number (to be interpreted by MIDI)
      * @param pitch      The pitch (in the range [0, 127], where 60 represents C4,
      *                   the middle-C on a piano)
@@ -380,11 +761,40 @@ public final class Song implements MusicEditorModel {
     @Override
     public CompositionBuilder<MusicEditorModel> addNote(int start, int end, int instrument,
                                                         int pitch, int volume) {
-      this.notes.add(new Note(start, end - start, Pitch.pitchFromMidi(pitch),
-              Pitch.octaveFromMidi(pitch), instrument, volume));
+      NoteValue note = NoteValue.ofMidi(start, end - start, pitch, instrument, volume);
+      if (this.ticksPerBeat > 1) {
+        this.fineNotes.add(note);
+      }
+      else {
+        this.song().index(note);
+      }
       return this;
     }
 
+    /**
+     * Makes room for the given number of notes, if no note has been added yet
+     *
+     * @param count The number of notes expected
+     * @return This builder
+     */
+    @Override
+    public CompositionBuilder<MusicEditorModel> expectNotes(int count) {
+      if (this.song == null) {
+        this.expectedNotes = count;
+      }
+      return this;
+    }
+
+    /**
+     * Return the Song that the notes are indexed into, making it if it does not exist yet
+     */
+    private Song song() {
+      if (this.song == null) {
+        this.song = new Song(this.expectedNotes, this.links);
+      }
+      return this.song;
+    }
+
     /**
      * Adds a new link to the piece
      *
@@ -0,0 +1,386 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Represents one immutable version of a {@link VersionedSong}. A SongSnapshot never changes, so
+ * it can be played or rendered while the song it came from keeps being edited, and it can be
+ * handed back to {@link VersionedSong#restore(SongSnapshot)} to undo every edit made since.
+ *
+ * <p>Taking a snapshot is O(1) since consecutive versions of a song share all of their
+ * unchanged structure. Every Playable returned by a snapshot is an immutable, interned
+ * {@link NoteValue} that is handed out without being copied, and every method that would edit
+ * a snapshot throws an UnsupportedOperationException.</p>
+ */
+public final class SongSnapshot implements MusicEditorModel {
+  /**
+   * Represents the empty snapshot with a tempo of 120 bpm and 4 beats per measure
+   */
+  static final SongSnapshot EMPTY = new SongSnapshot(PersistentNoteTree.EMPTY,
+          TimeMap.of(120, 1), 4, Collections.<Integer, List<Link>>emptyMap(), 0);
+
+  /**
+   * Represents the Playables of this version of the song
+   */
+  private final PersistentNoteTree notes;
+
+  /**
+   * Represents the tempo changes and the number of ticks per beat of this version of the song
+   */
+  private final TimeMap timeMap;
+
+  /**
+   * Represents the number of beats in one measure of this version of the song
+   */
+  private final int beatsPerMeasure;
+
+  /**
+   * Represents the Links of this version of the song keyed by their location beats. Neither
+   * the map nor its lists are ever modified.
+   */
+  private final Map<Integer, List<Link>> links;
+
+  /**
+   * Represents an ID that is larger than the ID of every Playable in this version
+   */
+  private final long nextId;
+
+  /**
+   * Constructs a snapshot holding the given state
+   */
+  private SongSnapshot(PersistentNoteTree notes, TimeMap timeMap, int beatsPerMeasure,
+                       Map<Integer, List<Link>> links, long nextId) {
+    this.notes = notes;
+    this.timeMap = timeMap;
+    this.beatsPerMeasure = beatsPerMeasure;
+    this.links = links;
+    this.nextId = nextId;
+  }
+
+  /**
+   * Return the Playables of this snapshot
+   */
+  PersistentNoteTree noteTree() {
+    return this.notes;
+  }
+
+  /**
+   * Return an ID that is larger than the ID of every Playable in this snapshot
+   */
+  long nextId() {
+    return this.nextId;
+  }
+
+  /**
+   * Return a snapshot like this one but holding the given Playables
+   */
+  SongSnapshot withNotes(PersistentNoteTree notes, long nextId) {
+    return new SongSnapshot(notes, this.timeMap, this.beatsPerMeasure, this.links,
+            Math.max(this.nextId, nextId));
+  }
+
+  /**
+   * Return a snapshot like this one but with the tempo changed from the given beat on
+   * @throws IllegalArgumentException if the beat is negative or the tempo is not positive
+   */
+  SongSnapshot withTempoAt(int beat, int tempo) {
+    return new SongSnapshot(this.notes, this.timeMap.withTempoAt(beat, tempo),
+            this.beatsPerMeasure, this.links, this.nextId);
+  }
+
+  /**
+   * Return a snapshot like this one but with the given number of beats per measure
+   * @throws IllegalArgumentException if the number of beats is not positive
+   */
+  SongSnapshot withBeatsPerMeasure(int beatsPerMeasure) {
+    if (beatsPerMeasure <= 0) {
+      throw new IllegalArgumentException("Invalid number of beats per measure");
+    }
+    return new SongSnapshot(this.notes, this.timeMap, beatsPerMeasure, this.links,
+            this.nextId);
+  }
+
+  /**
+   * Return a snapshot like this one but counted in the given number of ticks per beat, without
+   * moving any of its Playables or Links
+   * @throws IllegalArgumentException if the number of ticks is not positive
+   */
+  SongSnapshot withTicksPerBeat(int ticksPerBeat) {
+    return new SongSnapshot(this.notes, this.timeMap.withTicksPerBeat(ticksPerBeat),
+            this.beatsPerMeasure, this.links, this.nextId);
+  }
+
+  /**
+   * Return a snapshot like this one but with its Links and tempo changes moved the way
+   * inserting or deleting the given beats moves them, as described by
+   * {@link AbstractSong#rippleLinks} and {@link TimeMap#rippled}
+   */
+  SongSnapshot withRippledTimeline(int startBeat, int endBeat, int beats) {
+    Map<Integer, List<Link>> links = AbstractSong.rippleLinks(this.links, startBeat, endBeat,
+            beats);
+    for (Map.Entry<Integer, List<Link>> entry : links.entrySet()) {
+      entry.setValue(Collections.unmodifiableList(entry.getValue()));
+    }
+    return new SongSnapshot(this.notes, this.timeMap.rippled(startBeat, endBeat, beats),
+            this.beatsPerMeasure, Collections.unmodifiableMap(links), this.nextId);
+  }
+
+  /**
+   * Return a snapshot like this one but with the Links at the given beat replaced by the given
+   * list. Only the list at that beat is copied, every other list is shared.
+   */
+  SongSnapshot withLinks(int beat, List<Link> atBeat) {
+    Map<Integer, List<Link>> links = new TreeMap<Integer, List<Link>>(this.links);
+    if (atBeat.isEmpty()) {
+      links.remove(beat);
+    }
+    else {
+      links.put(beat, Collections.unmodifiableList(new ArrayList<Link>(atBeat)));
+    }
+    return new SongSnapshot(this.notes, this.timeMap, this.beatsPerMeasure,
+            Collections.unmodifiableMap(links), this.nextId);
+  }
+
+  @Override
+  public int getTempo() {
+    return this.timeMap.getTempoAt(0);
+  }
+
+  @Override
+  public TimeMap getTimeMap() {
+    return this.timeMap;
+  }
+
+  @Override
+  public int getBeatsPerMeasure() {
+    return this.beatsPerMeasure;
+  }
+
+  @Override
+  public int getTicksPerBeat() {
+    return this.timeMap.getTicksPerBeat();
+  }
+
+  @Override
+  public List<Playable> getNotes(int beatNum) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    List<Playable> output = new ArrayList<Playable>();
+    this.notes.overlapping(beatNum, beatNum + 1, output);
+    return output;
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, Consumer<Playable> action) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    this.notes.forEachAt(beatNum, action);
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor) {
+    if (beatNum < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    this.notes.forEachAt(beatNum, visitor);
+  }
+
+  @Override
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat) {
+    AbstractSong.checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    this.notes.startingIn(startBeat, endBeat, output);
+    return output;
+  }
+
+  @Override
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat) {
+    AbstractSong.checkRange(startBeat, endBeat);
+    List<Playable> output = new ArrayList<Playable>();
+    this.notes.overlapping(startBeat, endBeat, output);
+    return output;
+  }
+
+  @Override
+  public SortedSet<Integer> getInstruments() {
+    return AbstractSong.instrumentsOf(this);
+  }
+
+  @Override
+  public List<Playable> getTrackNotes(int instrumentID, int beatNum) {
+    AbstractSong.checkInstrument(instrumentID);
+    return AbstractSong.ofInstrument(this.getNotes(beatNum), instrumentID);
+  }
+
+  @Override
+  public List<Playable> getTrackNotesStartingIn(int instrumentID, int startBeat, int endBeat) {
+    AbstractSong.checkInstrument(instrumentID);
+    return AbstractSong.ofInstrument(this.getNotesStartingIn(startBeat, endBeat), instrumentID);
+  }
+
+  @Override
+  public Stream<Playable> notes() {
+    return NoteSpliterator.notesOf(this);
+  }
+
+  @Override
+  public long getNoteId(Playable note) {
+    Objects.requireNonNull(note);
+    return this.notes.idOf(note);
+  }
+
+  @Override
+  public Playable getNoteById(long id) {
+    return this.notes.get(id);
+  }
+
+  @Override
+  public int getLength() {
+    return this.notes.maxEnd();
+  }
+
+  @Override
+  public Playable getHighest() {
+    return this.notes.highest();
+  }
+
+  @Override
+  public Playable getLowest() {
+    return this.notes.lowest();
+  }
+
+  @Override
+  public List<Link> getLinks(int beat) {
+    List<Link> atBeat = this.links.get(beat);
+    return atBeat == null ? new ArrayList<Link>() : atBeat;
+  }
+
+  /**
+   * Does nothing but check the listener, since a snapshot never changes
+   */
+  @Override
+  public void addListener(ModelListener listener) {
+    Objects.requireNonNull(listener);
+  }
+
+  @Override
+  public void removeListener(ModelListener listener) {
+    // a snapshot never keeps its listeners since it never changes
+  }
+
+  @Override
+  public void beginBatch() {
+    // a snapshot cannot be edited, so there is nothing to batch
+  }
+
+  @Override
+  public void endBatch() {
+    // a snapshot cannot be edited, so there is nothing to batch
+  }
+
+  @Override
+  public long addNote(Playable note) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public void setTempo(int tempo) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public void setTempoAt(int beatNum, int tempo) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public void setBeatsPerMeasure(int beatsPerMeasure) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public boolean removeNote(Playable note) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public int removeNotes(Collection<Playable> notes) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public boolean removeNoteById(long id) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public void append(MusicEditorModel song) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public void overlay(MusicEditorModel song) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public Playable moveNote(Playable note, int steps) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public Playable transposeNote(Playable note, int steps) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public int shiftNotes(Collection<Playable> notes, int beats) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public int transposeNotes(Collection<Playable> notes, int steps) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public int shiftNotesStartingIn(int startBeat, int endBeat, int beats) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public int transposeNotesStartingIn(int startBeat, int endBeat, int steps) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public void insertBeats(int beat, int count) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public int deleteBeats(int startBeat, int endBeat) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public void addLink(Link link) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+
+  @Override
+  public boolean removeLink(Link link) {
+    throw new UnsupportedOperationException("a snapshot cannot be edited");
+  }
+}
@@ -0,0 +1,292 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Represents a read-only MusicEditorModel that is computed from other models, its sources,
+ * whenever it is queried instead of holding notes of its own. A view shares all of its storage
+ * with its sources and so always shows their current contents. The Playables it hands out are
+ * either the sources' own or copies that have been moved or cut to fit the view, and must not
+ * be edited.
+ *
+ * <p>Listeners added to a view are told about the changes made to its sources, translated to
+ * the beats of the view. A view is not safe to query from more than one thread at a time.</p>
+ */
+abstract class SongView implements MusicEditorModel {
+  /**
+   * Represents the listeners added to each source on behalf of every listener of this view
+   */
+  private final Map<ModelListener, List<ModelListener>> forwarders;
+
+  /**
+   * Constructs a view without any listeners
+   */
+  SongView() {
+    this.forwarders = new HashMap<ModelListener, List<ModelListener>>();
+  }
+
+  /**
+   * Return the models that this view is computed from
+   */
+  abstract List<MusicEditorModel> sources();
+
+  /**
+   * Return the region of this view covered by the given change to the source at the given
+   * index, or null if the change cannot be seen in this view
+   */
+  abstract ModelChange translate(int source, ModelChange change);
+
+  /**
+   * Return the given Playable as it is shown by a view: cut down to the given range of beats of
+   * its source and then moved by the given number of beats. The Playable itself is returned if
+   * neither changes it.
+   * @param note    the Playable of the source, which must sound during the range
+   * @param beats   the number of beats to move it by
+   * @param from    the first beat of the source that is shown
+   * @param to      the beat after the last beat of the source that is shown
+   */
+  static Playable placed(Playable note, int beats, int from, int to) {
+    int start = Math.max(note.getStartBeat(), from);
+    int end = Math.min(note.getStartBeat() + note.getDuration(), to);
+    if (beats == 0 && start == note.getStartBeat()
+            && end == note.getStartBeat() + note.getDuration()) {
+      return note;
+    }
+    return note.copy().setStart(start + beats).setDuration(end - start);
+  }
+
+  /**
+   * Represents the adapter that hands the Playables of a source to the action or visitor given
+   * to forEachNoteAt, cut and moved the way a view shows them. A view keeps one and reuses it
+   * for every call, so that visiting its notes creates no object.
+   */
+  static final class Placer implements Consumer<Playable>, NoteVisitor {
+    private final Playable cursor = new Note(0, 1, Pitch.C, 4);
+    private Consumer<Playable> action;
+    private NoteVisitor visitor;
+    private int beats;
+    private int from;
+    private int to;
+
+    /**
+     * Sets how the Playables handed to this Placer are cut and moved
+     * @return  this Placer
+     */
+    Placer place(int beats, int from, int to) {
+      this.beats = beats;
+      this.from = from;
+      this.to = to;
+      return this;
+    }
+
+    /**
+     * Sets the action that is given every Playable handed to this Placer
+     * @return  this Placer
+     */
+    Placer to(Consumer<Playable> action) {
+      this.action = action;
+      return this;
+    }
+
+    /**
+     * Sets the visitor that is given the fields of every Playable handed to this Placer
+     * @return  this Placer
+     */
+    Placer to(NoteVisitor visitor) {
+      this.visitor = visitor;
+      return this;
+    }
+
+    @Override
+    public void accept(Playable note) {
+      int start = Math.max(note.getStartBeat(), this.from);
+      int end = Math.min(note.getStartBeat() + note.getDuration(), this.to);
+      this.cursor.setStart(start + this.beats);
+      this.cursor.setDuration(end - start);
+      this.cursor.setPitch(note.getPitch());
+      this.cursor.setOctave(note.getOctave());
+      this.cursor.setInstrument(note.getInstrumentID());
+      this.cursor.setVolume(note.getVolume());
+      this.action.accept(this.cursor);
+    }
+
+    @Override
+    public void visit(int startBeat, int duration, int midi, int instrument, int volume) {
+      int start = Math.max(startBeat, this.from);
+      int end = Math.min(startBeat + duration, this.to);
+      this.visitor.visit(start + this.beats, end - start, midi, instrument, volume);
+    }
+  }
+
+  @Override
+  public SortedSet<Integer> getInstruments() {
+    return AbstractSong.instrumentsOf(this);
+  }
+
+  @Override
+  public List<Playable> getTrackNotes(int instrumentID, int beatNum) {
+    AbstractSong.checkInstrument(instrumentID);
+    return AbstractSong.ofInstrument(this.getNotes(beatNum), instrumentID);
+  }
+
+  @Override
+  public List<Playable> getTrackNotesStartingIn(int instrumentID, int startBeat, int endBeat) {
+    AbstractSong.checkInstrument(instrumentID);
+    return AbstractSong.ofInstrument(this.getNotesStartingIn(startBeat, endBeat), instrumentID);
+  }
+
+  @Override
+  public Stream<Playable> notes() {
+    return NoteSpliterator.notesOf(this);
+  }
+
+  @Override
+  public void addListener(ModelListener listener) {
+    Objects.requireNonNull(listener);
+    if (this.forwarders.containsKey(listener)) {
+      return;
+    }
+    List<ModelListener> added = new ArrayList<ModelListener>();
+    List<MusicEditorModel> sources = this.sources();
+    for (int i = 0; i < sources.size(); ++ i) {
+      final int source = i;
+      ModelListener forwarder = new ModelListener() {
+        @Override
+        public void modelChanged(ModelChange change) {
+          ModelChange translated = translate(source, change);
+          if (translated != null) {
+            listener.modelChanged(translated);
+          }
+        }
+      };
+      sources.get(i).addListener(forwarder);
+      added.add(forwarder);
+    }
+    this.forwarders.put(listener, added);
+  }
+
+  @Override
+  public void removeListener(ModelListener listener) {
+    List<ModelListener> added = this.forwarders.remove(listener);
+    if (added == null) {
+      return;
+    }
+    List<MusicEditorModel> sources = this.sources();
+    for (int i = 0; i < sources.size(); ++ i) {
+      sources.get(i).removeListener(added.get(i));
+    }
+  }
+
+  @Override
+  public void beginBatch() {
+    // a view cannot be edited, so there is nothing to batch
+  }
+
+  @Override
+  public void endBatch() {
+    // a view cannot be edited, so there is nothing to batch
+  }
+
+  @Override
+  public long addNote(Playable note) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public void setTempo(int tempo) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public void setTempoAt(int beatNum, int tempo) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public void setBeatsPerMeasure(int beatsPerMeasure) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public boolean removeNote(Playable note) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public int removeNotes(Collection<Playable> notes) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public boolean removeNoteById(long id) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public void append(MusicEditorModel song) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public void overlay(MusicEditorModel song) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public Playable moveNote(Playable note, int steps) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public Playable transposeNote(Playable note, int steps) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public int shiftNotes(Collection<Playable> notes, int beats) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public int transposeNotes(Collection<Playable> notes, int steps) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public int shiftNotesStartingIn(int startBeat, int endBeat, int beats) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public int transposeNotesStartingIn(int startBeat, int endBeat, int steps) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public void insertBeats(int beat, int count) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public int deleteBeats(int startBeat, int endBeat) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public void addLink(Link link) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+
+  @Override
+  public boolean removeLink(Link link) {
+    throw new UnsupportedOperationException("a view cannot be edited");
+  }
+}
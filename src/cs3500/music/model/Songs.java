@@ -0,0 +1,221 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Static factories for read-only views that combine or cut songs without copying their notes.
+ * Where {@link MusicEditorModel#append(MusicEditorModel)} and
+ * {@link MusicEditorModel#overlay(MusicEditorModel)} copy every Playable of the given song, a
+ * view shares its storage with the songs it is made from, answers every query by asking them,
+ * and so always shows their current contents. Views may be made from other views, and
+ * {@link #copyOf(MusicEditorModel)} turns any of them into an editable Song when one is needed.
+ * {@link #overlayAll(List)} builds an editable Song from many songs at once.
+ *
+ * <p>Every edit of a view throws an UnsupportedOperationException, while its listeners are told
+ * about the edits made to the songs it shows.</p>
+ */
+public final class Songs {
+  private Songs() { } // prevents instantiation
+
+  /**
+   * Return a view of the given songs played one after another, each starting on the beat that
+   * the one before it ends. The view takes its tempo and beats per measure from the first song.
+   * @param songs the songs to play in order
+   * @return  the appended view
+   * @throws IllegalArgumentException if no song is given or the songs are not all counted in
+   * the same number of ticks per beat
+   * @throws NullPointerException if any of the songs is null
+   */
+  public static MusicEditorModel appended(List<MusicEditorModel> songs) {
+    return new CompositeSong(checkSongs(songs), true);
+  }
+
+  /**
+   * Return a view of the given songs played one after another
+   * @see #appended(List)
+   */
+  public static MusicEditorModel appended(MusicEditorModel... songs) {
+    return appended(Arrays.asList(songs));
+  }
+
+  /**
+   * Return a view of the given songs all played from the first beat, with the notes of every
+   * song merged at the time they are queried. The view takes its tempo and beats per measure
+   * from the first song.
+   * @param songs the songs to play together
+   * @return  the overlaid view
+   * @throws IllegalArgumentException if no song is given or the songs are not all counted in
+   * the same number of ticks per beat
+   * @throws NullPointerException if any of the songs is null
+   */
+  public static MusicEditorModel overlaid(List<MusicEditorModel> songs) {
+    return new CompositeSong(checkSongs(songs), false);
+  }
+
+  /**
+   * Return a view of the given songs all played from the first beat
+   * @see #overlaid(List)
+   */
+  public static MusicEditorModel overlaid(MusicEditorModel... songs) {
+    return overlaid(Arrays.asList(songs));
+  }
+
+  /**
+   * Return a view of the given range of beats of the given song, in which the first beat of the
+   * range is the first beat. Playables sounding across either end of the range are cut down to
+   * the beats inside it.
+   * @param song      the song to slice
+   * @param startBeat the first beat of the range
+   * @param endBeat   the beat after the last beat of the range
+   * @return  the sliced view
+   * @throws IllegalArgumentException if startBeat is negative or endBeat is less than startBeat
+   * @throws NullPointerException if the song is null
+   */
+  public static MusicEditorModel sliced(MusicEditorModel song, int startBeat, int endBeat) {
+    Objects.requireNonNull(song);
+    AbstractSong.checkRange(startBeat, endBeat);
+    return new SlicedSong(song, startBeat, endBeat);
+  }
+
+  /**
+   * Return a new Song holding copies of the notes of every one of the given songs, as if each
+   * of them had been overlaid onto an empty Song in turn. The notes of every song are copied
+   * and merged by start beat in parallel, by splitting the list of songs in half until each
+   * part is a single song and merging the sorted halves back together, and the index of the
+   * Song is built once from the merged notes. The Song takes its tempo and beats per measure
+   * from the first song. The given songs must not be edited while they are overlaid.
+   * @param songs the songs to overlay
+   * @return  the Song holding all of their notes
+   * @throws IllegalArgumentException if no song is given or if any of the songs is counted in
+   * more than one tick per beat, which a Song cannot hold
+   * @throws NullPointerException if any of the songs is null
+   */
+  public static Song overlayAll(List<MusicEditorModel> songs) {
+    List<MusicEditorModel> checked = checkSongs(songs);
+    checkWholeBeats(checked.get(0));
+    Playable[] merged = ForkJoinPool.commonPool().invoke(new OverlayTask(checked, 0,
+            checked.size()));
+    return Song.ofSorted(merged, checked.get(0).getTempo(),
+            checked.get(0).getBeatsPerMeasure());
+  }
+
+  /**
+   * Represents the task of copying the notes of a range of songs into one array ordered by
+   * start beat, where the notes of earlier songs come first among notes starting on the same
+   * beat
+   */
+  @SuppressWarnings("serial") // a task is never serialized
+  private static final class OverlayTask extends RecursiveTask<Playable[]> {
+    private final List<MusicEditorModel> songs;
+    private final int from;
+    private final int to;
+
+    /**
+     * Constructs the task for the songs at the indices from the given first index up to but
+     * not including the given last index
+     */
+    OverlayTask(List<MusicEditorModel> songs, int from, int to) {
+      this.songs = songs;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Playable[] compute() {
+      if (this.to - this.from == 1) {
+        MusicEditorModel song = this.songs.get(this.from);
+        List<Playable> notes = song.getNotesStartingIn(0, song.getLength());
+        Playable[] copies = new Playable[notes.size()];
+        for (int i = 0; i < copies.length; ++ i) {
+          copies[i] = NoteValue.of(notes.get(i));
+        }
+        return copies;
+      }
+      int middle = (this.from + this.to) >>> 1;
+      OverlayTask left = new OverlayTask(this.songs, this.from, middle);
+      left.fork();
+      Playable[] right = new OverlayTask(this.songs, middle, this.to).compute();
+      return merge(left.join(), right);
+    }
+
+    /**
+     * Return the notes of both arrays ordered by start beat, taking the notes of the left
+     * array first when two start on the same beat
+     */
+    private static Playable[] merge(Playable[] left, Playable[] right) {
+      Playable[] merged = new Playable[left.length + right.length];
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < left.length && j < right.length) {
+        if (right[j].getStartBeat() < left[i].getStartBeat()) {
+          merged[k++] = right[j++];
+        }
+        else {
+          merged[k++] = left[i++];
+        }
+      }
+      System.arraycopy(left, i, merged, k, left.length - i);
+      System.arraycopy(right, j, merged, k + left.length - i, right.length - j);
+      return merged;
+    }
+  }
+
+  /**
+   * Return a new Song holding copies of the notes, Links and tempo changes of the given song, as
+   * it is now
+   * @param song  the song or view to copy
+   * @return  the editable copy
+   * @throws IllegalArgumentException if the song is counted in more than one tick per beat,
+   * which a Song cannot hold
+   * @throws NullPointerException if the song is null
+   */
+  public static Song copyOf(MusicEditorModel song) {
+    checkWholeBeats(Objects.requireNonNull(song));
+    int length = song.getLength();
+    Map<Integer, List<Link>> links = new TreeMap<Integer, List<Link>>();
+    for (int beat = 0; beat <= length; ++ beat) {
+      List<Link> atBeat = song.getLinks(beat);
+      if (!atBeat.isEmpty()) {
+        links.put(beat, new ArrayList<Link>(atBeat));
+      }
+    }
+    Song copy = new Song(song.getNotesStartingIn(0, length), song.getTempo(),
+            song.getBeatsPerMeasure(), links);
+    for (Map.Entry<Integer, Integer> change : song.getTimeMap().getTempoChanges().entrySet()) {
+      copy.setTempoAt(change.getKey(), change.getValue());
+    }
+    return copy;
+  }
+
+  /**
+   * Return a copy of the given list of songs after checking that it can make up a view
+   */
+  private static List<MusicEditorModel> checkSongs(List<MusicEditorModel> songs) {
+    if (songs.isEmpty()) {
+      throw new IllegalArgumentException("a view needs at least one song");
+    }
+    for (MusicEditorModel song : songs) {
+      if (Objects.requireNonNull(song).getTicksPerBeat() != songs.get(0).getTicksPerBeat()) {
+        throw new IllegalArgumentException("the songs of a view must have the same resolution");
+      }
+    }
+    return new ArrayList<MusicEditorModel>(songs);
+  }
+
+  /**
+   * Checks that the given song is counted in whole beats, so that a Song can hold its notes
+   */
+  private static void checkWholeBeats(MusicEditorModel song) {
+    if (song.getTicksPerBeat() != 1) {
+      throw new IllegalArgumentException("a Song can only hold notes counted in whole beats");
+    }
+  }
+}
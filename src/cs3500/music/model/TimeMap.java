@@ -0,0 +1,283 @@
+package cs3500.music.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Represents the tempo of a song over time and converts between its ticks and the seconds at
+ * which they are played. A TimeMap holds every tempo change of a song sorted by tick together
+ * with the time in seconds at which each change is reached, summed up once when the TimeMap is
+ * made, so converting a tick to seconds or seconds to a tick is a binary search for the change
+ * in effect followed by one multiplication.
+ *
+ * <p>A TimeMap never changes: every method that changes a tempo returns a new TimeMap, so a
+ * view can keep converting with the TimeMap it was given while the song is edited. There is
+ * always a tempo change at tick 0, which sets the tempo that the song starts at.</p>
+ */
+public final class TimeMap {
+  /**
+   * Represents the number of ticks in one beat
+   */
+  private final int ticksPerBeat;
+
+  /**
+   * Represents the ticks at which the tempo changes, in ascending order and starting with 0
+   */
+  private final int[] ticks;
+
+  /**
+   * Represents the tempo in beats per minute from each tick in ticks until the next one
+   */
+  private final int[] tempos;
+
+  /**
+   * Represents the time in seconds at which each tick in ticks is played
+   */
+  private final double[] seconds;
+
+  /**
+   * Constructs a TimeMap from the given tempo changes and sums up the time of each of them
+   */
+  private TimeMap(int ticksPerBeat, int[] ticks, int[] tempos) {
+    this.ticksPerBeat = ticksPerBeat;
+    this.ticks = ticks;
+    this.tempos = tempos;
+    this.seconds = new double[ticks.length];
+    for (int i = 1; i < ticks.length; ++ i) {
+      this.seconds[i] = this.seconds[i - 1]
+              + (ticks[i] - ticks[i - 1]) * this.secondsPerTick(i - 1);
+    }
+  }
+
+  /**
+   * Return a TimeMap that keeps the given tempo from the start of a song to its end
+   * @param tempo         the tempo in beats per minute
+   * @param ticksPerBeat  the number of ticks in one beat
+   * @return  the TimeMap with a single tempo
+   * @throws IllegalArgumentException if the tempo or ticksPerBeat are not positive
+   */
+  public static TimeMap of(int tempo, int ticksPerBeat) {
+    if (tempo <= 0 || ticksPerBeat <= 0) {
+      throw new IllegalArgumentException("Invalid time map arguments");
+    }
+    return new TimeMap(ticksPerBeat, new int[] {0}, new int[] {tempo});
+  }
+
+  /**
+   * Return the number of ticks in one beat of this TimeMap
+   */
+  public int getTicksPerBeat() {
+    return this.ticksPerBeat;
+  }
+
+  /**
+   * Return the tempo in beats per minute at the given tick
+   * @param tick  the tick to find the tempo at
+   * @return  the tempo of the last change at or before the tick
+   * @throws IllegalArgumentException if the tick is negative
+   */
+  public int getTempoAt(int tick) {
+    if (tick < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    return this.tempos[this.changeAtTick(tick)];
+  }
+
+  /**
+   * Return every tempo change of this TimeMap
+   * @return  a new map from the tick of each change to the tempo from that tick on
+   */
+  public SortedMap<Integer, Integer> getTempoChanges() {
+    SortedMap<Integer, Integer> changes = new TreeMap<Integer, Integer>();
+    for (int i = 0; i < this.ticks.length; ++ i) {
+      changes.put(this.ticks[i], this.tempos[i]);
+    }
+    return Collections.unmodifiableSortedMap(changes);
+  }
+
+  /**
+   * Return a TimeMap like this one but with the tempo changed to the given tempo from the given
+   * tick until the next change after it
+   * @param tick  the tick at which the tempo changes
+   * @param tempo the new tempo in beats per minute
+   * @return  the changed TimeMap
+   * @throws IllegalArgumentException if the tick is negative or the tempo is not positive
+   */
+  public TimeMap withTempoAt(int tick, int tempo) {
+    if (tick < 0 || tempo <= 0) {
+      throw new IllegalArgumentException("Invalid tempo change");
+    }
+    int index = this.changeAtTick(tick);
+    if (this.ticks[index] == tick) {
+      int[] tempos = this.tempos.clone();
+      tempos[index] = tempo;
+      return new TimeMap(this.ticksPerBeat, this.ticks, tempos);
+    }
+    int[] ticks = new int[this.ticks.length + 1];
+    int[] tempos = new int[this.ticks.length + 1];
+    System.arraycopy(this.ticks, 0, ticks, 0, index + 1);
+    System.arraycopy(this.tempos, 0, tempos, 0, index + 1);
+    ticks[index + 1] = tick;
+    tempos[index + 1] = tempo;
+    System.arraycopy(this.ticks, index + 1, ticks, index + 2, this.ticks.length - index - 1);
+    System.arraycopy(this.tempos, index + 1, tempos, index + 2, this.ticks.length - index - 1);
+    return new TimeMap(this.ticksPerBeat, ticks, tempos);
+  }
+
+  /**
+   * Return the time in seconds at which the given tick is played. A tick before the start of
+   * the song is timed at the tempo the song starts at.
+   * @param tick  the tick, which may fall between two ticks
+   * @return  the time of the tick in seconds
+   */
+  public double toSeconds(double tick) {
+    int index = this.changeAtTick(tick);
+    return this.seconds[index] + (tick - this.ticks[index]) * this.secondsPerTick(index);
+  }
+
+  /**
+   * Return the time in microseconds at which the given tick is played, as MIDI messages are
+   * timed
+   * @param tick  the tick
+   * @return  the time of the tick rounded to the nearest microsecond
+   */
+  public long toMicros(int tick) {
+    return Math.round(this.toSeconds(tick) * 1000000);
+  }
+
+  /**
+   * Return the tick that is played at the given time in seconds
+   * @param seconds the time in seconds
+   * @return  the tick played at that time, which may fall between two ticks
+   */
+  public double toTick(double seconds) {
+    int low = 0;
+    int high = this.seconds.length - 1;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (this.seconds[middle] <= seconds) {
+        low = middle;
+      }
+      else {
+        high = middle - 1;
+      }
+    }
+    return this.ticks[low] + (seconds - this.seconds[low]) / this.secondsPerTick(low);
+  }
+
+  /**
+   * Return a TimeMap like this one but counted in the given number of ticks per beat, with
+   * every tempo change left at the same tick
+   * @throws IllegalArgumentException if ticksPerBeat is not positive
+   */
+  TimeMap withTicksPerBeat(int ticksPerBeat) {
+    if (ticksPerBeat <= 0) {
+      throw new IllegalArgumentException("Ticks per beat must be positive");
+    }
+    return new TimeMap(ticksPerBeat, this.ticks, this.tempos);
+  }
+
+  /**
+   * Return a TimeMap like this one but with its tempo changes moved the way inserting or
+   * deleting ticks moves Links, as described by {@link AbstractSong#rippleLinks}. The changes
+   * inside deleted ticks are dropped except for the last of them, which then takes effect at
+   * the first tick after the deleted ones, and inserted ticks keep the tempo of the tick
+   * before them.
+   * @param startTick the first tick that is inserted or deleted
+   * @param endTick   the tick after the last deleted tick, or startTick when inserting
+   * @param ticks     the number of ticks inserted, or minus the number deleted
+   */
+  TimeMap rippled(int startTick, int endTick, int ticks) {
+    TreeMap<Integer, Integer> changes = new TreeMap<Integer, Integer>();
+    for (int i = 0; i < this.ticks.length; ++ i) {
+      int tick = this.ticks[i];
+      if (tick < startTick) {
+        changes.put(tick, this.tempos[i]);
+      }
+      else if (tick < endTick) {
+        changes.put(startTick, this.tempos[i]);
+      }
+      else {
+        changes.put(tick + ticks, this.tempos[i]);
+      }
+    }
+    if (!changes.containsKey(0)) {
+      changes.put(0, this.tempos[0]);
+    }
+    return fromChanges(this.ticksPerBeat, changes);
+  }
+
+  /**
+   * Return the TimeMap of the part of a song that starts at the given tick of this one
+   * @param tick  the tick that is the first tick of the part
+   */
+  TimeMap startingAt(int tick) {
+    if (tick == 0) {
+      return this;
+    }
+    TreeMap<Integer, Integer> changes = new TreeMap<Integer, Integer>();
+    changes.put(0, this.getTempoAt(tick));
+    for (int i = this.changeAtTick(tick) + 1; i < this.ticks.length; ++ i) {
+      changes.put(this.ticks[i] - tick, this.tempos[i]);
+    }
+    return fromChanges(this.ticksPerBeat, changes);
+  }
+
+  /**
+   * Return the TimeMap with the given tempo changes, which must include one at tick 0
+   */
+  private static TimeMap fromChanges(int ticksPerBeat, SortedMap<Integer, Integer> changes) {
+    int[] ticks = new int[changes.size()];
+    int[] tempos = new int[changes.size()];
+    int i = 0;
+    for (SortedMap.Entry<Integer, Integer> change : changes.entrySet()) {
+      ticks[i] = change.getKey();
+      tempos[i++] = change.getValue();
+    }
+    return new TimeMap(ticksPerBeat, ticks, tempos);
+  }
+
+  /**
+   * Return the index of the last tempo change at or before the given tick, or 0 if the tick is
+   * before every change
+   */
+  private int changeAtTick(double tick) {
+    int low = 0;
+    int high = this.ticks.length - 1;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (this.ticks[middle] <= tick) {
+        low = middle;
+      }
+      else {
+        high = middle - 1;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Return the length of one tick in seconds at the tempo of the change at the given index
+   */
+  private double secondsPerTick(int index) {
+    return 60.0 / ((double) this.tempos[index] * this.ticksPerBeat);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof TimeMap)) {
+      return false;
+    }
+    TimeMap that = (TimeMap) other;
+    return this.ticksPerBeat == that.ticksPerBeat && Arrays.equals(this.ticks, that.ticks)
+            && Arrays.equals(this.tempos, that.tempos);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * this.ticksPerBeat + Arrays.hashCode(this.ticks))
+            + Arrays.hashCode(this.tempos);
+  }
+}
@@ -0,0 +1,247 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Represents the index of the Playables of one instrument in a {@link Song}. A Track keeps the
+ * stored Playables of its instrument by every beat that they sound in and by the beat that they
+ * start on, so a query about one instrument only looks at the Playables of that instrument.
+ * The Tracks of a Song are its only index, and the Song answers a query about every
+ * instrument by combining the answers of its Tracks. A Track holds the very Playable objects
+ * stored by its Song and never copies them.
+ */
+final class Track {
+  /**
+   * Represents the Playables of this track keyed by every beat that they are beginning or
+   * sustaining during
+   *
+   * Invariant: the map never holds an empty list
+   */
+  private final TreeMap<Integer, List<Playable>> notes;
+
+  /**
+   * Represents the Playables of this track keyed by the beat that they begin during
+   *
+   * Invariant: the map never holds an empty list
+   */
+  private final TreeMap<Integer, List<Playable>> onsets;
+
+  /**
+   * Represents the number of Playables in this track
+   */
+  private int size;
+
+  /**
+   * Represents the number of beats until the last Playable in this track stops sounding
+   */
+  private int length;
+
+  /**
+   * Constructs an empty Track
+   */
+  Track() {
+    this.notes = new TreeMap<Integer, List<Playable>>();
+    this.onsets = new TreeMap<Integer, List<Playable>>();
+    this.size = 0;
+    this.length = 0;
+  }
+
+  /**
+   * Stores the given Playable in every beat that it lasts for. No beat at or after the end of
+   * the track has a list yet, so those lists are created without looking them up, and a
+   * Playable that starts no earlier than every other one is added to the last list of onsets,
+   * which makes adding Playables in order of their start beats cheap.
+   */
+  void add(Playable note) {
+    int startBeat = note.getStartBeat();
+    int endBeat = startBeat + note.getDuration();
+    for (int beat = startBeat; beat < endBeat; ++ beat) {
+      List<Playable> atBeat = beat < this.length ? this.notes.get(beat) : null;
+      if (atBeat == null) {
+        atBeat = new ArrayList<Playable>();
+        this.notes.put(beat, atBeat);
+      }
+      atBeat.add(note);
+    }
+    Map.Entry<Integer, List<Playable>> lastOnset = this.onsets.lastEntry();
+    if (lastOnset != null && lastOnset.getKey() == startBeat) {
+      lastOnset.getValue().add(note);
+    }
+    else if (lastOnset == null || lastOnset.getKey() < startBeat) {
+      List<Playable> onset = new ArrayList<Playable>();
+      onset.add(note);
+      this.onsets.put(startBeat, onset);
+    }
+    else {
+      add(this.onsets, startBeat, note);
+    }
+    this.length = Math.max(this.length, endBeat);
+    ++ this.size;
+  }
+
+  /**
+   * Removes exactly the given stored Playable from every beat that it lasts for
+   * @return  true if the Playable was in this track
+   */
+  boolean remove(Playable stored) {
+    if (!remove(this.onsets, stored.getStartBeat(), stored)) {
+      return false;
+    }
+    int endBeat = stored.getStartBeat() + stored.getDuration();
+    for (int beat = stored.getStartBeat(); beat < endBeat; ++ beat) {
+      remove(this.notes, beat, stored);
+    }
+    -- this.size;
+    if (endBeat >= this.length) {
+      this.length = this.notes.isEmpty() ? 0 : this.notes.lastKey() + 1;
+    }
+    return true;
+  }
+
+  /**
+   * Removes the given stored Playables from the lists of the given beats, filtering every list
+   * once no matter how many of its Playables are being removed
+   * @param beats   every beat that one of the removed Playables of this track lasts for
+   * @param removed the stored Playables to remove, which may include those of other tracks
+   */
+  void removeAll(Collection<Integer> beats, Set<Playable> removed) {
+    for (int beat : beats) {
+      removeAll(this.notes, beat, removed);
+      List<Playable> atBeat = this.onsets.get(beat);
+      if (atBeat != null) {
+        int before = atBeat.size();
+        removeAll(this.onsets, beat, removed);
+        this.size -= before - atBeat.size();
+      }
+    }
+    this.length = this.notes.isEmpty() ? 0 : this.notes.lastKey() + 1;
+  }
+
+  /**
+   * Return true if this track holds no Playables
+   */
+  boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Return the number of beats until the last Playable in this track stops sounding
+   */
+  int getLength() {
+    return this.length;
+  }
+
+  /**
+   * Return the stored Playable that is exactly the given Playable, or if the given Playable is
+   * not stored in this track, the first stored Playable that is equal to it and not excluded
+   * @param note      the Playable to look for
+   * @param excluded  the stored Playables to skip, or null to skip none
+   * @return          the stored Playable or null if none was found
+   */
+  Playable find(Playable note, Set<Playable> excluded) {
+    List<Playable> atStart = this.onsets.get(note.getStartBeat());
+    if (atStart == null) {
+      return null;
+    }
+    for (Playable stored : atStart) {
+      if (note.equals(stored) && (excluded == null || !excluded.contains(stored))) {
+        return stored;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return the list of the Playables of this track that are beginning or sustaining during the
+   * given beat, or null if there are none. The list is the one kept by this track, so the
+   * caller must not edit it.
+   */
+  List<Playable> at(int beat) {
+    return this.notes.get(beat);
+  }
+
+  /**
+   * Return a new list of the Playables of this track that are beginning or sustaining during
+   * the given beat
+   */
+  List<Playable> soundingAt(int beat) {
+    List<Playable> atBeat = this.notes.get(beat);
+    return atBeat == null ? new ArrayList<Playable>() : new ArrayList<Playable>(atBeat);
+  }
+
+  /**
+   * Return a new list of the Playables of this track that begin in the given range of beats,
+   * ordered by start beat
+   */
+  List<Playable> startingIn(int startBeat, int endBeat) {
+    List<Playable> output = new ArrayList<Playable>();
+    this.addStartingIn(startBeat, endBeat, output);
+    return output;
+  }
+
+  /**
+   * Adds the Playables of this track that begin in the given range of beats to the given list,
+   * ordered by start beat
+   */
+  void addStartingIn(int startBeat, int endBeat, List<Playable> output) {
+    for (List<Playable> atBeat : this.onsets.subMap(startBeat, endBeat).values()) {
+      output.addAll(atBeat);
+    }
+  }
+
+  /**
+   * Adds the given Playable to the list at the given beat of the given map
+   */
+  private static void add(TreeMap<Integer, List<Playable>> map, int beat, Playable note) {
+    List<Playable> atBeat = map.get(beat);
+    if (atBeat == null) {
+      atBeat = new ArrayList<Playable>();
+      map.put(beat, atBeat);
+    }
+    atBeat.add(note);
+  }
+
+  /**
+   * Removes exactly the given Playable from the list at the given beat of the given map, and
+   * removes the list from the map if that leaves it empty
+   * @return  true if the Playable was in the list
+   */
+  private static boolean remove(TreeMap<Integer, List<Playable>> map, int beat,
+                                Playable stored) {
+    List<Playable> atBeat = map.get(beat);
+    if (atBeat == null) {
+      return false;
+    }
+    for (int i = 0; i < atBeat.size(); ++ i) {
+      if (atBeat.get(i) == stored) {
+        atBeat.remove(i);
+        if (atBeat.isEmpty()) {
+          map.remove(beat);
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes the given Playables from the list at the given beat of the given map, and removes
+   * the list from the map if that leaves it empty
+   */
+  private static void removeAll(TreeMap<Integer, List<Playable>> map, int beat,
+                                final Set<Playable> removed) {
+    List<Playable> atBeat = map.get(beat);
+    if (atBeat == null) {
+      return;
+    }
+    atBeat.removeIf(note -> removed.contains(note));
+    if (atBeat.isEmpty()) {
+      map.remove(beat);
+    }
+  }
+}
@@ -0,0 +1,496 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Represents a song to be edited in a music editor whose every version is kept as an immutable
+ * {@link SongSnapshot}. An edit never changes the current version: it builds the next one in
+ * O(log n) time and space by copying only the path of the tree that it touches and sharing
+ * everything else. Reading the current version with {@link #snapshot()} is O(1), which makes a
+ * stable copy for playback, undo or autosave nearly free.
+ *
+ * <p>Like the snapshots it is made of, a VersionedSong stores its Playables as interned
+ * {@link NoteValue}s and hands them out without copying them, since they can never change.</p>
+ */
+public final class VersionedSong implements MusicEditorModel {
+  /**
+   * Represents the current version of this song
+   */
+  private SongSnapshot current;
+
+  /**
+   * Represents the ID to give to the next Playable added to this song
+   */
+  private long nextId;
+
+  /**
+   * Represents the listeners of this song and the changes they have not been told about yet
+   */
+  private final ChangeNotifier changes;
+
+  /**
+   * Construct an empty VersionedSong with a default tempo of 120 bpm
+   */
+  public VersionedSong() {
+    this.current = SongSnapshot.EMPTY;
+    this.nextId = 0;
+    this.changes = new ChangeNotifier();
+  }
+
+  /**
+   * Construct a VersionedSong based on the notes in the given List of Playables
+   * @param notes the list containing the Notes to be added to this VersionedSong
+   * @param links the Links of the song keyed by their location beat
+   * @throws IllegalArgumentException if the tempo or beatsPerMeasure are not positive
+   */
+  public VersionedSong(List<Playable> notes, int tempo,
+                       int beatsPerMeasure, Map<Integer, List<Link>> links) {
+    this(notes, tempo, beatsPerMeasure, 1, links);
+  }
+
+  /**
+   * Construct a VersionedSong counted in the given number of ticks per beat based on the notes
+   * in the given List of Playables, whose start beats and durations are counted in ticks
+   * @param notes         the list containing the Notes to be added to this VersionedSong
+   * @param ticksPerBeat  the number of ticks in one beat
+   * @param links         the Links of the song keyed by their location tick
+   * @throws IllegalArgumentException if the tempo, beatsPerMeasure or ticksPerBeat are not
+   * positive
+   */
+  public VersionedSong(List<Playable> notes, int tempo, int beatsPerMeasure, int ticksPerBeat,
+                       Map<Integer, List<Link>> links) {
+    this();
+    if (tempo <= 0 || beatsPerMeasure <= 0 || ticksPerBeat <= 0) {
+      throw new IllegalArgumentException("Invalid song construction arguments");
+    }
+    this.current = this.current.withTempoAt(0, tempo).withBeatsPerMeasure(beatsPerMeasure)
+            .withTicksPerBeat(ticksPerBeat);
+    for (Playable note : notes) {
+      this.addNote(note);
+    }
+    for (List<Link> atBeat : links.values()) {
+      for (Link link : atBeat) {
+        this.addLink(link);
+      }
+    }
+  }
+
+  /**
+   * Construct a VersionedSong based on the notes in the given List of Playables
+   * @param notes the list containing the Notes to be added to this VersionedSong
+   * @throws IllegalArgumentException if the tempo or beatsPerMeasure are not positive
+   */
+  public VersionedSong(List<Playable> notes, int tempo, int beatsPerMeasure) {
+    this(notes, tempo, beatsPerMeasure, new TreeMap<Integer, List<Link>>());
+  }
+
+  /**
+   * Return the current version of this song, which will not change when this song is edited
+   * @return  the current version of this song
+   */
+  public SongSnapshot snapshot() {
+    return this.current;
+  }
+
+  /**
+   * Makes the given version the current version of this song, undoing or redoing every edit
+   * made between the two versions
+   * @param snapshot  the version to return to
+   * @throws NullPointerException if the given snapshot is null
+   */
+  public void restore(SongSnapshot snapshot) {
+    this.current = Objects.requireNonNull(snapshot);
+    // never hand out an ID again that a Playable of any version has had
+    this.nextId = Math.max(this.nextId, snapshot.nextId());
+    this.changes.changedEverything();
+  }
+
+  /**
+   * Makes the given tree of Playables part of the next version of this song
+   */
+  private void commit(PersistentNoteTree notes) {
+    this.current = this.current.withNotes(notes, this.nextId);
+  }
+
+  /**
+   * Return the ID of the stored Playable equal to the given Playable
+   * @throws IllegalArgumentException if there is no such Playable
+   */
+  private long findStored(Playable note) {
+    long id = this.current.noteTree().idOf(note);
+    if (id < 0) {
+      throw new IllegalArgumentException("note does not exist in the music editor model");
+    }
+    return id;
+  }
+
+  @Override
+  public long addNote(Playable note) {
+    if (note.getStartBeat() < 0) {
+      throw new IllegalArgumentException("Illegal beat number");
+    }
+    long id = this.nextId++;
+    this.commit(this.current.noteTree().insert(NoteValue.of(note), id));
+    this.changes.changed(note);
+    return id;
+  }
+
+  @Override
+  public void addListener(ModelListener listener) {
+    this.changes.addListener(listener);
+  }
+
+  @Override
+  public void removeListener(ModelListener listener) {
+    this.changes.removeListener(listener);
+  }
+
+  @Override
+  public void beginBatch() {
+    this.changes.beginBatch();
+  }
+
+  @Override
+  public void endBatch() {
+    this.changes.endBatch();
+  }
+
+  @Override
+  public void setTempo(int tempo) {
+    this.current = this.current.withTempoAt(0, tempo);
+    this.changes.changedEverything();
+  }
+
+  @Override
+  public void setTempoAt(int beatNum, int tempo) {
+    this.current = this.current.withTempoAt(beatNum, tempo);
+    this.changes.changedEverything();
+  }
+
+  @Override
+  public TimeMap getTimeMap() {
+    return this.current.getTimeMap();
+  }
+
+  @Override
+  public int getTempo() {
+    return this.current.getTempo();
+  }
+
+  @Override
+  public void setBeatsPerMeasure(int beatsPerMeasure) {
+    this.current = this.current.withBeatsPerMeasure(beatsPerMeasure);
+    this.changes.changedEverything();
+  }
+
+  @Override
+  public int getBeatsPerMeasure() {
+    return this.current.getBeatsPerMeasure();
+  }
+
+  @Override
+  public int getTicksPerBeat() {
+    return this.current.getTicksPerBeat();
+  }
+
+  @Override
+  public List<Playable> getNotes(int beatNum) {
+    return this.current.getNotes(beatNum);
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, Consumer<Playable> action) {
+    this.current.forEachNoteAt(beatNum, action);
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor) {
+    this.current.forEachNoteAt(beatNum, visitor);
+  }
+
+  @Override
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat) {
+    return this.current.getNotesStartingIn(startBeat, endBeat);
+  }
+
+  @Override
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat) {
+    return this.current.getNotesSoundingIn(startBeat, endBeat);
+  }
+
+  @Override
+  public SortedSet<Integer> getInstruments() {
+    return this.current.getInstruments();
+  }
+
+  @Override
+  public List<Playable> getTrackNotes(int instrumentID, int beatNum) {
+    return this.current.getTrackNotes(instrumentID, beatNum);
+  }
+
+  @Override
+  public List<Playable> getTrackNotesStartingIn(int instrumentID, int startBeat, int endBeat) {
+    return this.current.getTrackNotesStartingIn(instrumentID, startBeat, endBeat);
+  }
+
+  @Override
+  public Stream<Playable> notes() {
+    return this.current.notes();
+  }
+
+  @Override
+  public boolean removeNote(Playable note) {
+    Objects.requireNonNull(note);
+    long id = this.current.noteTree().idOf(note);
+    if (id < 0) {
+      return false;
+    }
+    this.commit(this.current.noteTree().remove(id));
+    this.changes.changed(note);
+    return true;
+  }
+
+  @Override
+  public int removeNotes(Collection<Playable> notes) {
+    Objects.requireNonNull(notes);
+    PersistentNoteTree tree = this.current.noteTree();
+    int removed = 0;
+    this.changes.beginBatch();
+    for (Playable note : notes) {
+      long id = tree.idOf(note);
+      if (id >= 0) {
+        tree = tree.remove(id);
+        removed++;
+        this.changes.changed(note);
+      }
+    }
+    // the intermediate trees are never published, only the final one becomes a version
+    this.commit(tree);
+    this.changes.endBatch();
+    return removed;
+  }
+
+  @Override
+  public long getNoteId(Playable note) {
+    return this.current.getNoteId(note);
+  }
+
+  @Override
+  public Playable getNoteById(long id) {
+    return this.current.getNoteById(id);
+  }
+
+  @Override
+  public boolean removeNoteById(long id) {
+    PersistentNoteTree notes = this.current.noteTree();
+    PersistentNoteTree removed = notes.remove(id);
+    if (removed == notes) {
+      return false;
+    }
+    Playable note = notes.get(id);
+    this.commit(removed);
+    this.changes.changed(note);
+    return true;
+  }
+
+  @Override
+  public void append(MusicEditorModel song) {
+    if (song == null) {
+      return;
+    }
+    int offset = this.getLength();
+    int from = song.getTicksPerBeat();
+    this.changes.beginBatch();
+    try {
+      for (Playable note : song.getNotesStartingIn(0, song.getLength())) {
+        Playable value = AbstractSong.retimed(NoteValue.of(note), from, this.getTicksPerBeat());
+        this.addNote(value.setStart(value.getStartBeat() + offset));
+      }
+    }
+    finally {
+      this.changes.endBatch();
+    }
+  }
+
+  @Override
+  public int getLength() {
+    return this.current.getLength();
+  }
+
+  @Override
+  public void overlay(MusicEditorModel song) {
+    if (song == null) {
+      return;
+    }
+    this.changes.beginBatch();
+    try {
+      int from = song.getTicksPerBeat();
+      for (Playable note : song.getNotesStartingIn(0, song.getLength())) {
+        this.addNote(AbstractSong.retimed(NoteValue.of(note), from, this.getTicksPerBeat()));
+      }
+    }
+    finally {
+      this.changes.endBatch();
+    }
+  }
+
+  @Override
+  public Playable getHighest() {
+    return this.current.getHighest();
+  }
+
+  @Override
+  public Playable getLowest() {
+    return this.current.getLowest();
+  }
+
+  @Override
+  public Playable moveNote(Playable note, int steps) {
+    if (note.getStartBeat() + steps < 0) {
+      throw new IllegalArgumentException("invalid number of steps");
+    }
+    long id = this.findStored(note);
+    Playable moved = note.setStart(note.getStartBeat() + steps);
+    this.commit(this.current.noteTree().remove(id).insert(NoteValue.of(moved), id));
+    this.changes.moved(moved, steps);
+    return moved;
+  }
+
+  @Override
+  public Playable transposeNote(Playable note, int steps) {
+    long id = this.findStored(note);
+    Playable transposed = AbstractSong.edit(note, 0, steps);
+    this.commit(this.current.noteTree().remove(id).insert(NoteValue.of(transposed), id));
+    this.changes.transposed(transposed, steps);
+    return transposed;
+  }
+
+  @Override
+  public int shiftNotes(Collection<Playable> notes, int beats) {
+    return this.reindex(notes, beats, 0);
+  }
+
+  @Override
+  public int transposeNotes(Collection<Playable> notes, int steps) {
+    return this.reindex(notes, 0, steps);
+  }
+
+  @Override
+  public int shiftNotesStartingIn(int startBeat, int endBeat, int beats) {
+    return this.shiftNotes(this.getNotesStartingIn(startBeat, endBeat), beats);
+  }
+
+  @Override
+  public int transposeNotesStartingIn(int startBeat, int endBeat, int steps) {
+    return this.transposeNotes(this.getNotesStartingIn(startBeat, endBeat), steps);
+  }
+
+  @Override
+  public void insertBeats(int beat, int count) {
+    AbstractSong.checkRipple(beat, count);
+    this.changes.beginBatch();
+    try {
+      if (beat < this.getLength()) {
+        this.shiftNotesStartingIn(beat, this.getLength(), count);
+      }
+      this.current = this.current.withRippledTimeline(beat, beat, count);
+      this.changes.changedFrom(beat);
+    }
+    finally {
+      this.changes.endBatch();
+    }
+  }
+
+  @Override
+  public int deleteBeats(int startBeat, int endBeat) {
+    AbstractSong.checkRange(startBeat, endBeat);
+    this.changes.beginBatch();
+    try {
+      int removed = this.removeNotes(this.getNotesStartingIn(startBeat, endBeat));
+      if (endBeat < this.getLength()) {
+        this.shiftNotesStartingIn(endBeat, this.getLength(), startBeat - endBeat);
+      }
+      this.current = this.current.withRippledTimeline(startBeat, endBeat, startBeat - endBeat);
+      this.changes.changedFrom(startBeat);
+      return removed;
+    }
+    finally {
+      this.changes.endBatch();
+    }
+  }
+
+  /**
+   * Shifts and transposes every one of the given Playables in one new version of this song.
+   * Every Playable is found in the current version before any of them is edited, and only the
+   * final tree becomes a version.
+   * @param notes the Playables to edit
+   * @param beats the number of beats to shift them by
+   * @param steps the number of semitones to transpose them by
+   * @return  the number of Playables that were edited
+   */
+  private int reindex(Collection<Playable> notes, int beats, int steps) {
+    PersistentNoteTree tree = this.current.noteTree();
+    AbstractSong.checkBulkEdit(this, notes, beats, steps);
+    // equal stored Playables are handed out as one interned NoteValue, so every occurrence of
+    // it is found in a tree without the ones already found and is given an ID of its own
+    PersistentNoteTree unclaimed = tree;
+    Map<Long, Playable> edited = new LinkedHashMap<Long, Playable>();
+    for (Playable note : notes) {
+      long id = unclaimed.idOf(note);
+      if (id >= 0) {
+        unclaimed = unclaimed.remove(id);
+        edited.put(id, note);
+      }
+    }
+    this.changes.beginBatch();
+    try {
+      for (Map.Entry<Long, Playable> entry : edited.entrySet()) {
+        this.changes.changed(entry.getValue());
+        tree = tree.remove(entry.getKey());
+        entry.setValue(AbstractSong.edit(entry.getValue(), beats, steps));
+        this.changes.changed(entry.getValue());
+      }
+      for (Map.Entry<Long, Playable> entry : edited.entrySet()) {
+        tree = tree.insert(NoteValue.of(entry.getValue()), entry.getKey());
+      }
+      this.commit(tree);
+    }
+    finally {
+      this.changes.endBatch();
+    }
+    return edited.size();
+  }
+
+  @Override
+  public List<Link> getLinks(int beat) {
+    return this.current.getLinks(beat);
+  }
+
+  @Override
+  public void addLink(Link link) {
+    List<Link> atBeat = new ArrayList<Link>(this.getLinks(link.getLocationBeat()));
+    atBeat.add(link);
+    this.current = this.current.withLinks(link.getLocationBeat(), atBeat);
+    this.changes.changed(link);
+  }
+
+  @Override
+  public boolean removeLink(Link link) {
+    List<Link> atBeat = new ArrayList<Link>(this.getLinks(link.getLocationBeat()));
+    if (!atBeat.remove(link)) {
+      return false;
+    }
+    this.current = this.current.withLinks(link.getLocationBeat(), atBeat);
+    this.changes.changed(link);
+    return true;
+  }
+}
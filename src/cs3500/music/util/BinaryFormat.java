@@ -0,0 +1,93 @@
+package cs3500.music.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Represents the constants of the binary music file format written by
+ * {@link BinaryMusicWriter} and read by {@link BinaryMusicReader}.
+ *
+ * <p>A file starts with the four bytes {@code MUSB} and a version byte, followed by records
+ * that each start with a tag byte and end with the record {@link #END}. Every number in a
+ * record is a varint: seven bits per byte, least significant group first, with the high bit
+ * of every byte but the last set, so the numbers below 128 that make up most of a song take
+ * one byte each.</p>
+ * <ul>
+ *   <li>{@link #RESOLUTION}: the number of ticks per beat</li>
+ *   <li>{@link #TEMPO}: the tempo in microseconds per beat and the tick it starts at</li>
+ *   <li>{@link #LINK}: the location tick, linked tick and iteration number of a Link</li>
+ *   <li>{@link #NOTES}: a count followed by that many notes ordered by start tick. Each note
+ *   is written as the ticks since the start of the note before it, shifted left by one bit
+ *   whose value is 1 if the note has the same instrument and volume as the note before it,
+ *   then its duration and its MIDI pitch, and then its instrument and volume only if that
+ *   bit is 0</li>
+ * </ul>
+ *
+ * <p>The seekable format written and read by {@link IndexedMusicFile} starts with the four
+ * bytes {@code MUSI} and a version byte instead. It holds the notes of each block of measures
+ * encoded the same way, the block of a note being the one that it starts in, followed by an
+ * index of everything else and of the blocks, and ends with the position of the index as
+ * eight bytes and the four bytes {@code MUSI} again, so that a reader can find the index
+ * without reading the notes.</p>
+ */
+final class BinaryFormat {
+  private BinaryFormat() { } // prevents instantiation
+
+  /**
+   * Represents the bytes that every binary music file starts with
+   */
+  static final byte[] MAGIC = {'M', 'U', 'S', 'B'};
+
+  /**
+   * Represents the version of the format written by this program
+   */
+  static final int VERSION = 1;
+
+  /**
+   * Represents the bytes that every indexed music file starts and ends with
+   */
+  static final byte[] INDEXED_MAGIC = {'M', 'U', 'S', 'I'};
+
+  /**
+   * Represents the largest number of bytes a varint takes
+   */
+  static final int MAX_VARINT = 5;
+
+  /**
+   * Represents the tags of the records of the format
+   */
+  static final int END = 0;
+  static final int RESOLUTION = 1;
+  static final int TEMPO = 2;
+  static final int LINK = 3;
+  static final int NOTES = 4;
+
+  /**
+   * Puts the given number in the given buffer as a varint
+   */
+  static void putVarint(ByteBuffer buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  /**
+   * Return the varint at the position of the given buffer
+   * @throws IllegalArgumentException if the buffer ends in the middle of the varint
+   */
+  static int getVarint(ByteBuffer buffer) {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      if (!buffer.hasRemaining()) {
+        break;
+      }
+      int b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Truncated binary music file");
+  }
+}
@@ -0,0 +1,136 @@
+package cs3500.music.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A helper to read a music composition written in the compact binary format described in
+ * {@link BinaryFormat} by {@link BinaryMusicWriter}.
+ */
+public final class BinaryMusicReader {
+  private BinaryMusicReader() { } // prevents instantiation
+
+  /**
+   * Represents the number of bytes read from the channel at once
+   */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * A factory for producing new music compositions from the binary format, making the same
+   * builder calls that {@link MusicReader} makes for the text format. The number of notes is
+   * passed to {@link CompositionBuilder#expectNotes(int)} before any note is added.
+   * @param channel The source of data for the music composition, which is not closed
+   * @param piece A builder for helping to construct a new composition
+   * @param <T> The main model interface type describing music compositions
+   * @return the composition built by the builder
+   * @throws IOException if the channel cannot be read
+   * @throws IllegalArgumentException if the data is not in the binary format, is of a newer
+   * version, or is cut short
+   */
+  public static <T> T parse(ReadableByteChannel channel, CompositionBuilder<T> piece)
+          throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    buffer.flip();
+    fill(buffer, channel, BinaryFormat.MAGIC.length + 1);
+    if (buffer.remaining() < BinaryFormat.MAGIC.length + 1) {
+      throw new IllegalArgumentException("Not a binary music file");
+    }
+    for (byte b : BinaryFormat.MAGIC) {
+      if (buffer.get() != b) {
+        throw new IllegalArgumentException("Not a binary music file");
+      }
+    }
+    int version = buffer.get();
+    if (version != BinaryFormat.VERSION) {
+      throw new IllegalArgumentException("Unsupported binary music version: " + version);
+    }
+    while (true) {
+      fill(buffer, channel, 1);
+      int tag = buffer.get();
+      switch (tag) {
+        case BinaryFormat.END:
+          return piece.build();
+        case BinaryFormat.RESOLUTION:
+          piece.setTicksPerBeat(getVarint(buffer, channel));
+          break;
+        case BinaryFormat.TEMPO:
+          int tempo = getVarint(buffer, channel);
+          int start = getVarint(buffer, channel);
+          if (start == 0) {
+            piece.setTempo(tempo);
+          }
+          else {
+            piece.setTempoAt(start, tempo);
+          }
+          break;
+        case BinaryFormat.LINK:
+          int locatedBeat = getVarint(buffer, channel);
+          int linkedBeat = getVarint(buffer, channel);
+          piece.addLink(locatedBeat, linkedBeat, getVarint(buffer, channel));
+          break;
+        case BinaryFormat.NOTES:
+          int count = getVarint(buffer, channel);
+          piece.expectNotes(count);
+          int startBeat = 0;
+          int instrument = 0;
+          int volume = 0;
+          for (int i = 0; i < count; ++ i) {
+            // have the whole note in the buffer before decoding any of its fields
+            fill(buffer, channel, 5 * BinaryFormat.MAX_VARINT);
+            int delta = getVarint(buffer, channel);
+            startBeat += delta >>> 1;
+            int duration = getVarint(buffer, channel);
+            int pitch = getVarint(buffer, channel);
+            if ((delta & 1) == 0) {
+              instrument = getVarint(buffer, channel);
+              volume = getVarint(buffer, channel);
+            }
+            piece.addNote(startBeat, startBeat + duration, instrument, pitch, volume);
+          }
+          break;
+        default:
+          throw new IllegalArgumentException("Bad binary music record: " + tag);
+      }
+    }
+  }
+
+  /**
+   * Return the varint at the position of the given buffer, reading more of the channel first
+   * if the buffer might hold only part of it
+   * @throws IllegalArgumentException if the data ends in the middle of the varint
+   */
+  private static int getVarint(ByteBuffer buffer, ReadableByteChannel channel)
+          throws IOException {
+    if (buffer.remaining() < BinaryFormat.MAX_VARINT) {
+      fill(buffer, channel, BinaryFormat.MAX_VARINT);
+    }
+    return BinaryFormat.getVarint(buffer);
+  }
+
+  /**
+   * Reads from the channel until at least the given number of bytes are unread in the buffer
+   * or the channel has no more bytes
+   * @throws IllegalArgumentException if not even one byte is left to read
+   */
+  private static void fill(ByteBuffer buffer, ReadableByteChannel channel, int count)
+          throws IOException {
+    if (buffer.remaining() >= count) {
+      return;
+    }
+    buffer.compact();
+    try {
+      while (buffer.position() < count) {
+        if (channel.read(buffer) < 0) {
+          break;
+        }
+      }
+    }
+    finally {
+      buffer.flip();
+    }
+    if (!buffer.hasRemaining()) {
+      throw new IllegalArgumentException("Truncated binary music file");
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package cs3500.music.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Map;
+
+import cs3500.music.model.Link;
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Playable;
+
+/**
+ * A helper to write a music composition in the compact binary format described in
+ * {@link BinaryFormat}, which {@link BinaryMusicReader} reads back.
+ */
+public final class BinaryMusicWriter {
+  private BinaryMusicWriter() { } // prevents instantiation
+
+  /**
+   * Represents the number of bytes written to the channel at once
+   */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * Writes the given composition to the given channel. Its notes are written in order of their
+   * start ticks, each as the number of ticks since the start of the one before it and without
+   * its instrument and volume when they are those of the note before it, so a note usually
+   * takes three bytes.
+   * @param song    the composition to write
+   * @param channel the channel to write it to, which is not closed
+   * @throws IOException if the channel cannot be written
+   */
+  public static void write(MusicEditorModel song, WritableByteChannel channel)
+          throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    buffer.put(BinaryFormat.MAGIC).put((byte) BinaryFormat.VERSION);
+    buffer.put((byte) BinaryFormat.RESOLUTION);
+    BinaryFormat.putVarint(buffer, song.getTicksPerBeat());
+    for (Map.Entry<Integer, Integer> change
+            : song.getTimeMap().getTempoChanges().entrySet()) {
+      buffer.put((byte) BinaryFormat.TEMPO);
+      BinaryFormat.putVarint(buffer, (int) (60000000.0 / change.getValue()));
+      BinaryFormat.putVarint(buffer, change.getKey());
+      flushIfFull(buffer, channel, 3 * BinaryFormat.MAX_VARINT);
+    }
+    int length = song.getLength();
+    for (int beat = 0; beat <= length; ++ beat) {
+      for (Link link : song.getLinks(beat)) {
+        buffer.put((byte) BinaryFormat.LINK);
+        BinaryFormat.putVarint(buffer, link.getLocationBeat());
+        BinaryFormat.putVarint(buffer, link.getLinkedBeat());
+        BinaryFormat.putVarint(buffer, link.getPlayIteration());
+        flushIfFull(buffer, channel, 4 * BinaryFormat.MAX_VARINT);
+      }
+    }
+    List<Playable> notes = song.getNotesStartingIn(0, length);
+    buffer.put((byte) BinaryFormat.NOTES);
+    BinaryFormat.putVarint(buffer, notes.size());
+    int previousStart = 0;
+    int previousInstrument = -1;
+    int previousVolume = 0;
+    for (Playable note : notes) {
+      flushIfFull(buffer, channel, 5 * BinaryFormat.MAX_VARINT);
+      boolean repeated = note.getInstrumentID() == previousInstrument
+              && note.getVolume() == previousVolume;
+      BinaryFormat.putVarint(buffer,
+              (note.getStartBeat() - previousStart) << 1 | (repeated ? 1 : 0));
+      BinaryFormat.putVarint(buffer, note.getDuration());
+      BinaryFormat.putVarint(buffer, note.getMidi());
+      if (!repeated) {
+        BinaryFormat.putVarint(buffer, note.getInstrumentID());
+        BinaryFormat.putVarint(buffer, note.getVolume());
+      }
+      previousStart = note.getStartBeat();
+      previousInstrument = note.getInstrumentID();
+      previousVolume = note.getVolume();
+    }
+    flushIfFull(buffer, channel, 1);
+    buffer.put((byte) BinaryFormat.END);
+    flush(buffer, channel);
+  }
+
+  /**
+   * Writes out the given buffer if it has less than the given number of bytes free
+   */
+  private static void flushIfFull(ByteBuffer buffer, WritableByteChannel channel, int needed)
+          throws IOException {
+    if (buffer.remaining() < needed) {
+      flush(buffer, channel);
+    }
+  }
+
+  /**
+   * Writes every byte put in the given buffer to the given channel and empties the buffer
+   */
+  private static void flush(ByteBuffer buffer, WritableByteChannel channel)
+          throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
@@ -21,10 +21,30 @@ public interface CompositionBuilder<T> {
    */
   CompositionBuilder<T> setTempo(int tempo);
 
+  /**
+   * Changes the tempo of the piece from the given time until the next tempo change
+   * @param start The time at which the tempo changes, in ticks
+   * @param tempo The speed from then on, in microseconds per beat
+   * @return This builder
+   * @throws IllegalArgumentException if the time is negative or the tempo is not positive
+   */
+  CompositionBuilder<T> setTempoAt(int start, int tempo);
+
+  /**
+   * Sets the number of ticks in one beat of the piece, which the times given to
+   * {@link #addNote} and {@link #addLink} are counted in. A piece has one tick per beat unless
+   * this is called.
+   * @param ticksPerBeat The number of ticks in one beat, such as the 480 pulses per quarter
+   *                     note of a MIDI file
+   * @return This builder
+   * @throws IllegalArgumentException if ticksPerBeat is not positive
+   */
+  CompositionBuilder<T> setTicksPerBeat(int ticksPerBeat);
+
   /**
    * Adds a new note to the piece
-   * @param start The start time of the note, in beats
-   * @param end The end time of the note, in beats
+   * @param start The start time of the note, in ticks
+   * @param end The end time of the note, in ticks
    * @param instrument The instrument number (to be interpreted by MIDI)
    * @param pitch The pitch (in the range [0, 127], where 60 represents C4,
    *              the middle-C on a piano)
@@ -35,10 +55,18 @@ public interface CompositionBuilder<T> {
 
   /**
    * Adds a new link to the piece
-   * @param beatLocation  the beat where the link originates from
-   * @param linkedBeat    the beat that the link points to
+   * @param beatLocation  the tick where the link originates from
+   * @param linkedBeat    the tick that the link points to
    * @param iterationNum  the iteration number that the link is active for
    * @return              this builder
    */
   CompositionBuilder<T> addLink(int beatLocation, int linkedBeat, int iterationNum);
+
+  /**
+   * Tells the builder how many notes are about to be added, so that it can make room for all
+   * of them at once. The hint is optional and never changes the composition that is built.
+   * @param count The number of notes expected
+   * @return This builder
+   */
+  CompositionBuilder<T> expectNotes(int count);
 }
\ No newline at end of file
@@ -0,0 +1,499 @@
+package cs3500.music.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import cs3500.music.model.Link;
+import cs3500.music.model.LinkImpl;
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Note;
+import cs3500.music.model.Pitch;
+import cs3500.music.model.Playable;
+import cs3500.music.model.TimeMap;
+
+/**
+ * Represents an open music file in the seekable format described in {@link BinaryFormat},
+ * which splits the notes of a composition into blocks of whole measures so that the notes
+ * starting in any range of beats can be read without reading the rest of the file. Opening a
+ * file reads only its index, which holds the tempo changes, Links, instruments, highest and
+ * lowest notes of the composition along with the size and reach of every block, and
+ * {@link #readBlock(int)} then reads the notes of one block at a time.
+ *
+ * <p>Blocks are read with positional reads, so an IndexedMusicFile may be read from more than
+ * one thread at a time.</p>
+ */
+public final class IndexedMusicFile implements Closeable {
+  /**
+   * Represents the number of ints that a note takes in the array returned by readBlock
+   */
+  public static final int NOTE_INTS = 5;
+
+  /**
+   * Represents the number of bytes written to the channel at once
+   */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * Represents the number of bytes after the index: its position and the magic bytes
+   */
+  private static final int TRAILER_SIZE = 8 + 4;
+
+  /**
+   * Represents the file that this IndexedMusicFile reads
+   */
+  private final FileChannel channel;
+
+  /**
+   * Represents the tempo changes and the number of ticks per beat of the composition
+   */
+  private final TimeMap timeMap;
+
+  /**
+   * Represents the number of beats in one measure of the composition
+   */
+  private final int beatsPerMeasure;
+
+  /**
+   * Represents the tick at which the last note of the composition stops sounding
+   */
+  private final int length;
+
+  /**
+   * Represents the Links of the composition keyed by their location ticks
+   */
+  private final Map<Integer, List<Link>> links;
+
+  /**
+   * Represents the IDs of the instruments that play the composition
+   */
+  private final SortedSet<Integer> instruments;
+
+  /**
+   * Represents the fields of the highest and the lowest note of the composition, or null if
+   * it has no notes
+   */
+  private final int[] highest;
+  private final int[] lowest;
+
+  /**
+   * Represents the number of ticks in every block
+   */
+  private final int blockTicks;
+
+  /**
+   * Represents the position of every block in the file, followed by the position of the index
+   */
+  private final long[] offsets;
+
+  /**
+   * Represents the number of notes starting in every block
+   */
+  private final int[] noteCounts;
+
+  /**
+   * Represents the tick at which the last note starting in every block stops sounding, which
+   * is the first tick of the block if none do
+   */
+  private final int[] ends;
+
+  /**
+   * Constructs an IndexedMusicFile reading the index in the given buffer
+   */
+  private IndexedMusicFile(FileChannel channel, ByteBuffer index) {
+    this.channel = channel;
+    int ticksPerBeat = BinaryFormat.getVarint(index);
+    this.beatsPerMeasure = BinaryFormat.getVarint(index);
+    this.blockTicks = BinaryFormat.getVarint(index);
+    this.length = BinaryFormat.getVarint(index);
+    TimeMap timeMap = TimeMap.of(120, ticksPerBeat);
+    for (int i = BinaryFormat.getVarint(index); i > 0; -- i) {
+      int tempo = BinaryFormat.getVarint(index);
+      timeMap = timeMap.withTempoAt(BinaryFormat.getVarint(index), tempo);
+    }
+    this.timeMap = timeMap;
+    this.links = new TreeMap<Integer, List<Link>>();
+    for (int i = BinaryFormat.getVarint(index); i > 0; -- i) {
+      int location = BinaryFormat.getVarint(index);
+      int linked = BinaryFormat.getVarint(index);
+      Link link = new LinkImpl(location, linked, BinaryFormat.getVarint(index));
+      if (!this.links.containsKey(location)) {
+        this.links.put(location, new ArrayList<Link>());
+      }
+      this.links.get(location).add(link);
+    }
+    this.instruments = new TreeSet<Integer>();
+    for (int i = BinaryFormat.getVarint(index); i > 0; -- i) {
+      this.instruments.add(BinaryFormat.getVarint(index));
+    }
+    if (this.instruments.isEmpty()) {
+      this.highest = null;
+      this.lowest = null;
+    }
+    else {
+      this.highest = getNote(index);
+      this.lowest = getNote(index);
+    }
+    int blocks = BinaryFormat.getVarint(index);
+    this.offsets = new long[blocks + 1];
+    this.noteCounts = new int[blocks];
+    this.ends = new int[blocks];
+    this.offsets[0] = BinaryFormat.INDEXED_MAGIC.length + 1;
+    for (int i = 0; i < blocks; ++ i) {
+      this.offsets[i + 1] = this.offsets[i] + BinaryFormat.getVarint(index);
+      this.noteCounts[i] = BinaryFormat.getVarint(index);
+      this.ends[i] = i * this.blockTicks + BinaryFormat.getVarint(index);
+    }
+  }
+
+  /**
+   * Opens the given file for reading, reading its index
+   * @param path  the file to open
+   * @return  the open file
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the file is not in the indexed format or is of a newer
+   * version
+   */
+  public static IndexedMusicFile open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      long size = channel.size();
+      int header = BinaryFormat.INDEXED_MAGIC.length + 1;
+      if (size < header + TRAILER_SIZE) {
+        throw new IllegalArgumentException("Not an indexed music file");
+      }
+      ByteBuffer start = read(channel, 0, header);
+      ByteBuffer trailer = read(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+      long indexOffset = trailer.getLong();
+      for (byte b : BinaryFormat.INDEXED_MAGIC) {
+        if (start.get() != b || trailer.get() != b) {
+          throw new IllegalArgumentException("Not an indexed music file");
+        }
+      }
+      int version = start.get();
+      if (version != BinaryFormat.VERSION) {
+        throw new IllegalArgumentException("Unsupported indexed music version: " + version);
+      }
+      if (indexOffset < header || indexOffset > size - TRAILER_SIZE) {
+        throw new IllegalArgumentException("Truncated binary music file");
+      }
+      ByteBuffer index = read(channel, indexOffset, (int) (size - TRAILER_SIZE - indexOffset));
+      IndexedMusicFile file = new IndexedMusicFile(channel, index);
+      if (file.offsets[file.offsets.length - 1] != indexOffset) {
+        throw new IllegalArgumentException("Truncated binary music file");
+      }
+      return file;
+    }
+    catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Writes the given composition to the given file in the indexed format, replacing the file if
+   * it exists. Every block holds the notes that start in the given number of measures.
+   * @param song              the composition to write
+   * @param path              the file to write it to
+   * @param measuresPerBlock  the number of measures in every block
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if the number of measures per block is not positive
+   */
+  public static void write(MusicEditorModel song, Path path, int measuresPerBlock)
+          throws IOException {
+    if (measuresPerBlock < 1) {
+      throw new IllegalArgumentException("Invalid measures per block");
+    }
+    int blockTicks = measuresPerBlock * song.getBeatsPerMeasure() * song.getTicksPerBeat();
+    int length = song.getLength();
+    int blocks = (int) ((length + (long) blockTicks - 1) / blockTicks);
+    int[] sizes = new int[blocks];
+    int[] noteCounts = new int[blocks];
+    int[] reaches = new int[blocks];
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      buffer.put(BinaryFormat.INDEXED_MAGIC).put((byte) BinaryFormat.VERSION);
+      // the number of bytes of the file that have been flushed
+      long flushed = 0;
+      for (int block = 0; block < blocks; ++ block) {
+        long blockStart = flushed + buffer.position();
+        int first = block * blockTicks;
+        List<Playable> notes = song.getNotesStartingIn(first,
+                (int) Math.min((long) first + blockTicks, length));
+        int previousStart = first;
+        int previousInstrument = -1;
+        int previousVolume = 0;
+        for (Playable note : notes) {
+          if (buffer.remaining() < 5 * BinaryFormat.MAX_VARINT) {
+            flushed += flush(buffer, channel);
+          }
+          boolean repeated = note.getInstrumentID() == previousInstrument
+                  && note.getVolume() == previousVolume;
+          BinaryFormat.putVarint(buffer,
+                  (note.getStartBeat() - previousStart) << 1 | (repeated ? 1 : 0));
+          BinaryFormat.putVarint(buffer, note.getDuration());
+          BinaryFormat.putVarint(buffer, note.getMidi());
+          if (!repeated) {
+            BinaryFormat.putVarint(buffer, note.getInstrumentID());
+            BinaryFormat.putVarint(buffer, note.getVolume());
+          }
+          previousStart = note.getStartBeat();
+          previousInstrument = note.getInstrumentID();
+          previousVolume = note.getVolume();
+          reaches[block] = Math.max(reaches[block],
+                  note.getStartBeat() + note.getDuration() - first);
+        }
+        sizes[block] = (int) (flushed + buffer.position() - blockStart);
+        noteCounts[block] = notes.size();
+      }
+      long indexOffset = flushed + buffer.position();
+      put(buffer, channel, song.getTicksPerBeat());
+      put(buffer, channel, song.getBeatsPerMeasure());
+      put(buffer, channel, blockTicks);
+      put(buffer, channel, length);
+      Map<Integer, Integer> tempoChanges = song.getTimeMap().getTempoChanges();
+      put(buffer, channel, tempoChanges.size());
+      for (Map.Entry<Integer, Integer> change : tempoChanges.entrySet()) {
+        put(buffer, channel, change.getValue());
+        put(buffer, channel, change.getKey());
+      }
+      List<Link> links = new ArrayList<Link>();
+      for (int beat = 0; beat <= length; ++ beat) {
+        links.addAll(song.getLinks(beat));
+      }
+      put(buffer, channel, links.size());
+      for (Link link : links) {
+        put(buffer, channel, link.getLocationBeat());
+        put(buffer, channel, link.getLinkedBeat());
+        put(buffer, channel, link.getPlayIteration());
+      }
+      SortedSet<Integer> instruments = song.getInstruments();
+      put(buffer, channel, instruments.size());
+      for (int instrument : instruments) {
+        put(buffer, channel, instrument);
+      }
+      if (!instruments.isEmpty()) {
+        for (Playable note : new Playable[] {song.getHighest(), song.getLowest()}) {
+          put(buffer, channel, note.getStartBeat());
+          put(buffer, channel, note.getDuration());
+          put(buffer, channel, note.getMidi());
+          put(buffer, channel, note.getInstrumentID());
+          put(buffer, channel, note.getVolume());
+        }
+      }
+      put(buffer, channel, blocks);
+      for (int block = 0; block < blocks; ++ block) {
+        put(buffer, channel, sizes[block]);
+        put(buffer, channel, noteCounts[block]);
+        put(buffer, channel, reaches[block]);
+      }
+      if (buffer.remaining() < TRAILER_SIZE) {
+        flush(buffer, channel);
+      }
+      buffer.putLong(indexOffset).put(BinaryFormat.INDEXED_MAGIC);
+      flush(buffer, channel);
+    }
+  }
+
+  /**
+   * Return the tempo changes and the number of ticks per beat of the composition
+   */
+  public TimeMap getTimeMap() {
+    return this.timeMap;
+  }
+
+  /**
+   * Return the number of beats in one measure of the composition
+   */
+  public int getBeatsPerMeasure() {
+    return this.beatsPerMeasure;
+  }
+
+  /**
+   * Return the tick at which the last note of the composition stops sounding
+   */
+  public int getLength() {
+    return this.length;
+  }
+
+  /**
+   * Return the Links of the composition keyed by their location ticks
+   */
+  public Map<Integer, List<Link>> getLinks() {
+    return Collections.unmodifiableMap(this.links);
+  }
+
+  /**
+   * Return the IDs of the instruments that play at least one note of the composition
+   */
+  public SortedSet<Integer> getInstruments() {
+    return Collections.unmodifiableSortedSet(this.instruments);
+  }
+
+  /**
+   * Return a copy of the highest note of the composition, or null if it has no notes
+   */
+  public Playable getHighest() {
+    return this.highest == null ? null : noteOf(this.highest, 0);
+  }
+
+  /**
+   * Return a copy of the lowest note of the composition, or null if it has no notes
+   */
+  public Playable getLowest() {
+    return this.lowest == null ? null : noteOf(this.lowest, 0);
+  }
+
+  /**
+   * Return the number of ticks in every block, which is a whole number of measures
+   */
+  public int getBlockTicks() {
+    return this.blockTicks;
+  }
+
+  /**
+   * Return the number of blocks, the last of which holds the last note to start
+   */
+  public int getBlockCount() {
+    return this.noteCounts.length;
+  }
+
+  /**
+   * Return the number of notes that start in the given block
+   * @throws IndexOutOfBoundsException if there is no such block
+   */
+  public int getNoteCount(int block) {
+    return this.noteCounts[block];
+  }
+
+  /**
+   * Return the tick at which the last note that starts in the given block stops sounding, or
+   * the first tick of the block if no note starts in it
+   * @throws IndexOutOfBoundsException if there is no such block
+   */
+  public int getBlockEnd(int block) {
+    return this.ends[block];
+  }
+
+  /**
+   * Reads the notes that start in the given block, ordered by their start ticks. The notes are
+   * returned in one array in which the {@link #NOTE_INTS} ints of every note are its start
+   * tick, duration, MIDI pitch, instrument and volume.
+   * @param block the index of the block
+   * @return  the notes of the block
+   * @throws IOException if the file cannot be read
+   * @throws IndexOutOfBoundsException if there is no such block
+   * @throws IllegalArgumentException if the block is cut short
+   */
+  public int[] readBlock(int block) throws IOException {
+    int[] notes = new int[this.noteCounts[block] * NOTE_INTS];
+    if (notes.length == 0) {
+      return notes;
+    }
+    ByteBuffer buffer = read(this.channel, this.offsets[block],
+            (int) (this.offsets[block + 1] - this.offsets[block]));
+    int startBeat = block * this.blockTicks;
+    int instrument = 0;
+    int volume = 0;
+    for (int i = 0; i < notes.length; i += NOTE_INTS) {
+      int delta = BinaryFormat.getVarint(buffer);
+      startBeat += delta >>> 1;
+      notes[i] = startBeat;
+      notes[i + 1] = BinaryFormat.getVarint(buffer);
+      notes[i + 2] = BinaryFormat.getVarint(buffer);
+      if ((delta & 1) == 0) {
+        instrument = BinaryFormat.getVarint(buffer);
+        volume = BinaryFormat.getVarint(buffer);
+      }
+      notes[i + 3] = instrument;
+      notes[i + 4] = volume;
+    }
+    return notes;
+  }
+
+  /**
+   * Return a new Playable with the fields of the note at the given index of the given array of
+   * notes as returned by {@link #readBlock(int)}
+   * @param notes the array of notes
+   * @param index the index of the first int of the note
+   * @return  the Playable
+   */
+  public static Playable noteOf(int[] notes, int index) {
+    int midi = notes[index + 2];
+    return new Note(notes[index], notes[index + 1], Pitch.pitchFromMidi(midi),
+            Pitch.octaveFromMidi(midi), notes[index + 3], notes[index + 4]);
+  }
+
+  /**
+   * Closes the file
+   * @throws IOException if the file cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  /**
+   * Puts the given number in the given buffer as a varint, first writing out the buffer if it
+   * might not have room for it
+   */
+  private static void put(ByteBuffer buffer, FileChannel channel, int value)
+          throws IOException {
+    if (buffer.remaining() < BinaryFormat.MAX_VARINT) {
+      flush(buffer, channel);
+    }
+    BinaryFormat.putVarint(buffer, value);
+  }
+
+  /**
+   * Return the note put in the given buffer as its five fields
+   */
+  private static int[] getNote(ByteBuffer buffer) {
+    int[] note = new int[NOTE_INTS];
+    for (int i = 0; i < NOTE_INTS; ++ i) {
+      note[i] = BinaryFormat.getVarint(buffer);
+    }
+    return note;
+  }
+
+  /**
+   * Return the given number of bytes of the given channel starting at the given position
+   * @throws IllegalArgumentException if the channel ends before all of them are read
+   */
+  private static ByteBuffer read(FileChannel channel, long position, int count)
+          throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(count);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IllegalArgumentException("Truncated binary music file");
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Writes every byte put in the given buffer to the given channel and empties the buffer
+   * @return  the number of bytes written
+   */
+  private static int flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+    buffer.flip();
+    int count = buffer.remaining();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+    return count;
+  }
+}
@@ -0,0 +1,291 @@
+package cs3500.music.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a tokenizer for the music file format read by {@link MusicReader}. A MusicParser
+ * reads its input through one reusable ByteBuffer and decodes the keywords and ASCII integers
+ * of the format byte by byte, so reading a line creates no objects: keywords are matched
+ * against constant byte arrays and integers are accumulated digit by digit. Like a Scanner,
+ * it splits its input into tokens separated by whitespace, and a method that does not find the
+ * token it expects throws a NoSuchElementException without consuming that token.
+ */
+final class MusicParser {
+  /**
+   * Represents the keywords of the format, which start each line
+   */
+  static final byte[] TEMPO = ascii("tempo");
+  static final byte[] RESOLUTION = ascii("resolution");
+  static final byte[] NOTE = ascii("note");
+  static final byte[] LINK = ascii("link");
+
+  /**
+   * Represents the source of the bytes, or null if every byte is already in the buffer
+   */
+  private final ReadableByteChannel channel;
+
+  /**
+   * Represents the bytes read from the channel, of which the ones between the position and the
+   * limit have not been parsed yet
+   */
+  private final ByteBuffer buffer;
+
+  /**
+   * Represents whether the channel has no more bytes
+   */
+  private boolean eof;
+
+  /**
+   * Constructs a MusicParser that reads from the given channel
+   * @param channel     the source of the bytes
+   * @param bufferSize  the number of bytes to read from the channel at once
+   */
+  MusicParser(ReadableByteChannel channel, int bufferSize) {
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocate(bufferSize);
+    this.buffer.flip();
+    this.eof = false;
+  }
+
+  /**
+   * Constructs a MusicParser that reads the bytes between the position and the limit of the
+   * given buffer, moving its position as they are parsed
+   * @param bytes the bytes to parse
+   */
+  MusicParser(ByteBuffer bytes) {
+    this.channel = null;
+    this.buffer = bytes;
+    this.eof = true;
+  }
+
+  /**
+   * Return true if there is another token in the input
+   * @throws IOException if the channel cannot be read
+   */
+  boolean hasNext() throws IOException {
+    this.skipWhitespace();
+    return this.peek() >= 0;
+  }
+
+  /**
+   * Return true if the next token in the input is the given keyword, in which case it is
+   * consumed, or false if it is not, in which case nothing is consumed
+   * @throws IOException if the channel cannot be read
+   */
+  boolean nextIs(byte[] keyword) throws IOException {
+    this.skipWhitespace();
+    if (!this.fill(keyword.length + 1)) {
+      if (this.buffer.remaining() < keyword.length) {
+        return false;
+      }
+    }
+    int start = this.buffer.position();
+    for (int i = 0; i < keyword.length; ++ i) {
+      if (this.buffer.get(start + i) != keyword[i]) {
+        return false;
+      }
+    }
+    if (this.buffer.remaining() > keyword.length
+            && !isWhitespace(this.buffer.get(start + keyword.length))) {
+      return false;
+    }
+    this.buffer.position(start + keyword.length);
+    return true;
+  }
+
+  /**
+   * Return true if the next token in the input starts like an integer
+   * @throws IOException if the channel cannot be read
+   */
+  boolean hasNextInt() throws IOException {
+    this.skipWhitespace();
+    int next = this.peek();
+    return next == '-' || next == '+' || (next >= '0' && next <= '9');
+  }
+
+  /**
+   * Return the integer that is the next token in the input
+   * @throws NoSuchElementException if the next token is not an integer that fits in an int,
+   * in which case it is not consumed
+   * @throws IOException if the channel cannot be read
+   */
+  int nextInt() throws IOException {
+    this.skipWhitespace();
+    // an int is at most 11 characters, so one that fits is always in the buffer at once
+    this.fill(12);
+    int index = this.buffer.position();
+    int limit = this.buffer.limit();
+    boolean negative = false;
+    if (index < limit && (this.buffer.get(index) == '-' || this.buffer.get(index) == '+')) {
+      negative = this.buffer.get(index) == '-';
+      ++ index;
+    }
+    int digitsStart = index;
+    long value = 0;
+    while (index < limit && index - digitsStart < 11) {
+      int digit = this.buffer.get(index) - '0';
+      if (digit < 0 || digit > 9) {
+        break;
+      }
+      value = value * 10 + digit;
+      ++ index;
+    }
+    if (negative) {
+      value = -value;
+    }
+    if (index == digitsStart || (index < limit && !isWhitespace(this.buffer.get(index)))
+            || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+      throw new NoSuchElementException();
+    }
+    this.buffer.position(index);
+    return (int) value;
+  }
+
+  /**
+   * Return the next token in the input and consume it, for reporting an unexpected token
+   * @throws IOException if the channel cannot be read
+   */
+  String next() throws IOException {
+    this.skipWhitespace();
+    StringBuilder token = new StringBuilder();
+    for (int next = this.peek(); next >= 0 && !isWhitespace((byte) next); next = this.peek()) {
+      token.append((char) next);
+      this.buffer.get();
+    }
+    return token.toString();
+  }
+
+  /**
+   * Return the rest of the current line of the input and consume it, for reporting a
+   * malformed line
+   * @throws IOException if the channel cannot be read
+   */
+  String nextLine() throws IOException {
+    StringBuilder line = new StringBuilder();
+    for (int next = this.peek(); next >= 0; next = this.peek()) {
+      this.buffer.get();
+      if (next == '\n') {
+        break;
+      }
+      if (next != '\r') {
+        line.append((char) next);
+      }
+    }
+    return line.toString();
+  }
+
+  /**
+   * Consumes the whitespace at the start of the unparsed input
+   */
+  private void skipWhitespace() throws IOException {
+    for (int next = this.peek(); next >= 0 && isWhitespace((byte) next); next = this.peek()) {
+      this.buffer.get();
+    }
+  }
+
+  /**
+   * Return the next byte of the input without consuming it, or -1 at the end of the input
+   */
+  private int peek() throws IOException {
+    if (!this.buffer.hasRemaining() && !this.fill(1)) {
+      return -1;
+    }
+    return this.buffer.get(this.buffer.position()) & 0xFF;
+  }
+
+  /**
+   * Reads from the channel until at least the given number of bytes are unparsed or the
+   * channel has no more bytes, keeping the unparsed bytes at the start of the buffer
+   * @return  true if the given number of bytes are unparsed
+   */
+  private boolean fill(int count) throws IOException {
+    if (this.buffer.remaining() >= count) {
+      return true;
+    }
+    if (this.eof) {
+      return false;
+    }
+    this.buffer.compact();
+    try {
+      while (this.buffer.position() < count) {
+        if (this.channel.read(this.buffer) < 0) {
+          this.eof = true;
+          break;
+        }
+      }
+    }
+    finally {
+      this.buffer.flip();
+    }
+    return this.buffer.remaining() >= count;
+  }
+
+  /**
+   * Return true if the given byte is ASCII whitespace
+   */
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f';
+  }
+
+  /**
+   * Return the ASCII bytes of the given keyword
+   */
+  private static byte[] ascii(String keyword) {
+    byte[] bytes = new byte[keyword.length()];
+    for (int i = 0; i < bytes.length; ++ i) {
+      bytes[i] = (byte) keyword.charAt(i);
+    }
+    return bytes;
+  }
+
+  /**
+   * Represents a ReadableByteChannel over a Readable, which passes on each ASCII character it
+   * reads as one byte and replaces any other character with a question mark
+   */
+  static final class ReadableChannel implements ReadableByteChannel {
+    private final Readable readable;
+    private final CharBuffer chars;
+    private boolean open;
+
+    /**
+     * Constructs a channel that reads the characters of the given Readable
+     */
+    ReadableChannel(Readable readable, int bufferSize) {
+      this.readable = readable;
+      this.chars = CharBuffer.allocate(bufferSize);
+      this.open = true;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      this.chars.clear();
+      if (dst.remaining() < this.chars.capacity()) {
+        this.chars.limit(dst.remaining());
+      }
+      int read = this.readable.read(this.chars);
+      if (read <= 0) {
+        return read;
+      }
+      this.chars.flip();
+      while (this.chars.hasRemaining()) {
+        char c = this.chars.get();
+        dst.put(c < 128 ? (byte) c : (byte) '?');
+      }
+      return read;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return this.open;
+    }
+
+    @Override
+    public void close() {
+      this.open = false;
+    }
+  }
+}
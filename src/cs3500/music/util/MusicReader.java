@@ -3,13 +3,35 @@ package cs3500.music.util;
 import cs3500.music.model.*;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.NoSuchElementException;
-import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * A helper to read music data and construct a music composition from it.
  */
 public class MusicReader {
+  /**
+   * Represents the number of bytes read from the source of a composition at once
+   */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * Represents the smallest number of bytes worth parsing on its own thread
+   */
+  private static final long MIN_CHUNK = 1 << 20;
+
+  /**
+   * Represents the largest number of bytes in one chunk, which must fit in one mapping
+   */
+  private static final long MAX_CHUNK = 1 << 30;
+
   /**
    * A factory for producing new music compositions, given a source of music and a
    * builder for constructing compositions.
@@ -18,57 +40,236 @@ public class MusicReader {
    *   The input file format consists of two types of lines:
    *   <ul>
    *     <li>Tempo lines: the keyword "tempo" followed by a number,
-   *      describing the tempo in microseconds per beat</li>
+   *      describing the tempo in microseconds per beat, and optionally by the
+   *      tick from which that tempo is played. A tempo line without a tick sets
+   *      the tempo the piece starts at, and tempo lines may appear anywhere in
+   *      the file</li>
+   *     <li>Resolution lines: the keyword "resolution" followed by a number,
+   *      describing the number of ticks in one beat that the note and link lines
+   *      are counted in</li>
    *     <li>Note lines: the keyword "note" followed by five numbers indicating
-   *      the start and end times of the note, the instrument,
+   *      the start and end ticks of the note, the instrument,
    *      the pitch, and the volume</li>
    *   </ul>
    * </p>
    * @param readable The source of data for the music composition
    * @param piece A builder for helping to construct a new composition
    * @param <T> The main model interface type describing music compositions
-   * @return
+   * @return the composition built by the builder
+   * @throws IllegalArgumentException if the data is malformed
+   * @throws UncheckedIOException if the data cannot be read
    */
   public static <T> T parseFile(Readable readable, CompositionBuilder<T> piece) {
-    Scanner scanner = new Scanner(readable);
-    while (scanner.hasNext()) {
-      String lineType = scanner.next();
-      switch (lineType) {
-        case "tempo":
-          try {
-            piece.setTempo(scanner.nextInt());
-          } catch (NoSuchElementException e) {
-            throw new IllegalArgumentException("Malformed tempo line: " + scanner.nextLine());
-          }
-          break;
-        case "note":
-          try {
-            int startBeat = scanner.nextInt();
-            int endBeat = scanner.nextInt();
-            int instrument = scanner.nextInt();
-            int pitch = scanner.nextInt();
-            int volume = scanner.nextInt();
-            piece.addNote(startBeat, endBeat, instrument, pitch, volume);
-          } catch (NoSuchElementException e) {
-            throw new IllegalArgumentException("Malformed note line: " + scanner.nextLine());
+    try {
+      return parseChannel(new MusicParser.ReadableChannel(readable, BUFFER_SIZE), piece);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * A factory for producing new music compositions from the bytes of the format described in
+   * {@link #parseFile(Readable, CompositionBuilder)}, read through the given channel. The bytes
+   * are read into one reusable buffer and decoded by hand, so parsing a line creates no
+   * objects, which makes this the fastest way to read a large file.
+   * @param channel The source of data for the music composition, which is not closed
+   * @param piece A builder for helping to construct a new composition
+   * @param <T> The main model interface type describing music compositions
+   * @return the composition built by the builder
+   * @throws IOException if the channel cannot be read
+   * @throws IllegalArgumentException if the data is malformed
+   */
+  public static <T> T parseChannel(ReadableByteChannel channel, CompositionBuilder<T> piece)
+          throws IOException {
+    parseLines(new MusicParser(channel, BUFFER_SIZE), piece);
+    return piece.build();
+  }
+
+  /**
+   * A factory for producing new music compositions from a file in the format described in
+   * {@link #parseFile(Readable, CompositionBuilder)}, parsed in parallel. The file is split at
+   * line breaks into chunks of at least {@value #MIN_CHUNK} bytes, each chunk is memory-mapped
+   * and parsed on the common fork-join pool into a {@link ParsedChunk} of primitive arrays, and
+   * the chunks are then passed to the given builder in file order, so the builder sees exactly
+   * the calls that {@link #parseChannel} would make, tempo and link lines included. Since
+   * chunks are split at line breaks, every line must hold all of its numbers.
+   * @param file The file holding the data for the music composition
+   * @param piece A builder for helping to construct a new composition
+   * @param <T> The main model interface type describing music compositions
+   * @return the composition built by the builder
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the data is malformed, reporting the first malformed
+   * line in the file
+   */
+  public static <T> T parseMapped(Path file, CompositionBuilder<T> piece) throws IOException {
+    ByteBuffer[] chunks;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long[] bounds = chunkBounds(channel);
+      chunks = new ByteBuffer[bounds.length - 1];
+      for (int i = 0; i < chunks.length; ++ i) {
+        chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, bounds[i],
+                bounds[i + 1] - bounds[i]);
+      }
+    }
+    ParsedChunk[] parsed = new ParsedChunk[chunks.length];
+    IllegalArgumentException[] errors = new IllegalArgumentException[chunks.length];
+    ForkJoinPool.commonPool().invoke(new ChunkTask(chunks, parsed, errors, 0, chunks.length));
+    for (IllegalArgumentException error : errors) {
+      if (error != null) {
+        throw error;
+      }
+    }
+    int notes = 0;
+    for (ParsedChunk chunk : parsed) {
+      notes += chunk.noteCount();
+    }
+    piece.expectNotes(notes);
+    for (ParsedChunk chunk : parsed) {
+      chunk.replay(piece);
+    }
+    return piece.build();
+  }
+
+  /**
+   * Return the offsets at which the file read by the given channel is split into chunks,
+   * starting with 0 and ending with the size of the file. Each chunk ends just after a line
+   * break, or at the end of the file.
+   */
+  private static long[] chunkBounds(FileChannel channel) throws IOException {
+    long size = channel.size();
+    long count = Math.min(size / MIN_CHUNK, ForkJoinPool.getCommonPoolParallelism() * 4L);
+    count = Math.max(count, Math.max(1, size / MAX_CHUNK + 1));
+    long[] bounds = new long[(int) count + 1];
+    ByteBuffer window = ByteBuffer.allocate(4096);
+    for (int i = 1; i < count; ++ i) {
+      long bound = Math.max(size * i / count, bounds[i - 1]);
+      // move the bound just past the next line break
+      found:
+      while (bound < size) {
+        window.clear();
+        int read = channel.read(window, bound);
+        for (int j = 0; j < read; ++ j) {
+          if (window.get(j) == '\n') {
+            bound += j + 1;
+            break found;
           }
-          break;
-        case "link":
-          try {
-            int locatedBeat = scanner.nextInt();
-            int linkedBeat = scanner.nextInt();
-            int iterationNumber = scanner.nextInt();
-            piece.addLink(locatedBeat, linkedBeat, iterationNumber);
+        }
+        bound += Math.max(read, 0);
+      }
+      bounds[i] = Math.min(bound, size);
+    }
+    bounds[(int) count] = size;
+    return bounds;
+  }
+
+  /**
+   * Represents the task of parsing a range of the chunks of a file, each into its own
+   * ParsedChunk, or into the error describing its first malformed line
+   */
+  @SuppressWarnings("serial") // a task is never serialized
+  private static final class ChunkTask extends RecursiveAction {
+    private final ByteBuffer[] chunks;
+    private final ParsedChunk[] parsed;
+    private final IllegalArgumentException[] errors;
+    private final int from;
+    private final int to;
+
+    /**
+     * Constructs the task for the chunks at the indices from the given first index up to but
+     * not including the given last index
+     */
+    ChunkTask(ByteBuffer[] chunks, ParsedChunk[] parsed, IllegalArgumentException[] errors,
+              int from, int to) {
+      this.chunks = chunks;
+      this.parsed = parsed;
+      this.errors = errors;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from == 1) {
+        ByteBuffer chunk = this.chunks[this.from];
+        // a note line is rarely shorter than 16 bytes
+        ParsedChunk notes = new ParsedChunk(chunk.remaining() / 16);
+        try {
+          parseLines(new MusicParser(chunk), notes);
+        }
+        catch (IllegalArgumentException e) {
+          // kept rather than thrown, since a task rethrows a copy with a different message
+          this.errors[this.from] = e;
+        }
+        catch (IOException e) {
+          // a parser over a buffer never reads from a channel
+          throw new UncheckedIOException(e);
+        }
+        this.parsed[this.from] = notes;
+        return;
+      }
+      int middle = (this.from + this.to) >>> 1;
+      ChunkTask left = new ChunkTask(this.chunks, this.parsed, this.errors, this.from, middle);
+      left.fork();
+      new ChunkTask(this.chunks, this.parsed, this.errors, middle, this.to).compute();
+      left.join();
+    }
+  }
+
+  /**
+   * Passes every line read by the given parser to the given builder
+   * @throws IOException if the source of the parser cannot be read
+   * @throws IllegalArgumentException if a line is malformed
+   */
+  private static void parseLines(MusicParser parser, CompositionBuilder<?> piece)
+          throws IOException {
+    while (parser.hasNext()) {
+      if (parser.nextIs(MusicParser.TEMPO)) {
+        try {
+          int tempo = parser.nextInt();
+          if (parser.hasNextInt()) {
+            piece.setTempoAt(parser.nextInt(), tempo);
           }
-          catch (NoSuchElementException e) {
-            throw new IllegalArgumentException("Malformed note line: " + scanner.nextLine());
+          else {
+            piece.setTempo(tempo);
           }
-          break;
-        default:
-          throw new IllegalArgumentException("Bad line type: " + lineType);
+        } catch (NoSuchElementException e) {
+          throw new IllegalArgumentException("Malformed tempo line: " + parser.nextLine());
+        }
+      }
+      else if (parser.nextIs(MusicParser.RESOLUTION)) {
+        try {
+          piece.setTicksPerBeat(parser.nextInt());
+        } catch (NoSuchElementException e) {
+          throw new IllegalArgumentException("Malformed resolution line: " + parser.nextLine());
+        }
+      }
+      else if (parser.nextIs(MusicParser.NOTE)) {
+        try {
+          int startBeat = parser.nextInt();
+          int endBeat = parser.nextInt();
+          int instrument = parser.nextInt();
+          int pitch = parser.nextInt();
+          int volume = parser.nextInt();
+          piece.addNote(startBeat, endBeat, instrument, pitch, volume);
+        } catch (NoSuchElementException e) {
+          throw new IllegalArgumentException("Malformed note line: " + parser.nextLine());
+        }
+      }
+      else if (parser.nextIs(MusicParser.LINK)) {
+        try {
+          int locatedBeat = parser.nextInt();
+          int linkedBeat = parser.nextInt();
+          int iterationNumber = parser.nextInt();
+          piece.addLink(locatedBeat, linkedBeat, iterationNumber);
+        }
+        catch (NoSuchElementException e) {
+          throw new IllegalArgumentException("Malformed note line: " + parser.nextLine());
+        }
+      }
+      else {
+        throw new IllegalArgumentException("Bad line type: " + parser.next());
       }
     }
-
-    return piece.build();
   }
-}
\ No newline at end of file
+}
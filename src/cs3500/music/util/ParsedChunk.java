@@ -0,0 +1,165 @@
+package cs3500.music.util;
+
+import java.util.Arrays;
+
+/**
+ * Represents the lines parsed from one chunk of a music file, recorded in primitive arrays so
+ * that chunks can be parsed in parallel and later passed to the real builder in file order. A
+ * ParsedChunk is itself a CompositionBuilder: every call is recorded instead of checked, and
+ * {@link #replay(CompositionBuilder)} makes the same calls on another builder in the same
+ * order, so the result is exactly the one that parsing the whole file with that builder gives.
+ */
+final class ParsedChunk implements CompositionBuilder<ParsedChunk> {
+  /**
+   * Represents the kinds of calls other than addNote that a chunk records
+   */
+  private static final int TEMPO = 0;
+  private static final int TEMPO_AT = 1;
+  private static final int TICKS_PER_BEAT = 2;
+  private static final int LINK = 3;
+
+  /**
+   * Represents the number of ints recorded for every note and for every other call
+   */
+  private static final int NOTE_INTS = 5;
+  private static final int CALL_INTS = 5;
+
+  /**
+   * Represents the start, end, instrument, pitch and volume of every note in this chunk
+   */
+  private int[] notes;
+
+  /**
+   * Represents the number of notes in this chunk
+   */
+  private int noteCount;
+
+  /**
+   * Represents every other call in this chunk as its kind, the number of notes added before
+   * it, and up to three arguments
+   */
+  private int[] calls;
+
+  /**
+   * Represents the number of other calls in this chunk
+   */
+  private int callCount;
+
+  /**
+   * Constructs an empty chunk with room for about the given number of notes
+   */
+  ParsedChunk(int expectedNotes) {
+    this.notes = new int[Math.max(1, expectedNotes) * NOTE_INTS];
+    this.noteCount = 0;
+    this.calls = new int[4 * CALL_INTS];
+    this.callCount = 0;
+  }
+
+  /**
+   * Return the number of notes in this chunk
+   */
+  int noteCount() {
+    return this.noteCount;
+  }
+
+  /**
+   * Makes every call recorded by this chunk on the given builder, in the order they were made
+   * @param piece the builder to pass the chunk to
+   */
+  void replay(CompositionBuilder<?> piece) {
+    int note = 0;
+    for (int call = 0; call <= this.callCount; ++ call) {
+      int notesBefore = call < this.callCount ? this.calls[call * CALL_INTS + 1] : this.noteCount;
+      for (; note < notesBefore; ++ note) {
+        int i = note * NOTE_INTS;
+        piece.addNote(this.notes[i], this.notes[i + 1], this.notes[i + 2], this.notes[i + 3],
+                this.notes[i + 4]);
+      }
+      if (call == this.callCount) {
+        break;
+      }
+      int i = call * CALL_INTS;
+      switch (this.calls[i]) {
+        case TEMPO:
+          piece.setTempo(this.calls[i + 2]);
+          break;
+        case TEMPO_AT:
+          piece.setTempoAt(this.calls[i + 2], this.calls[i + 3]);
+          break;
+        case TICKS_PER_BEAT:
+          piece.setTicksPerBeat(this.calls[i + 2]);
+          break;
+        default:
+          piece.addLink(this.calls[i + 2], this.calls[i + 3], this.calls[i + 4]);
+      }
+    }
+  }
+
+  /**
+   * Records a call other than addNote
+   */
+  private ParsedChunk record(int kind, int a, int b, int c) {
+    if ((this.callCount + 1) * CALL_INTS > this.calls.length) {
+      this.calls = Arrays.copyOf(this.calls, this.calls.length * 2);
+    }
+    int i = this.callCount++ * CALL_INTS;
+    this.calls[i] = kind;
+    this.calls[i + 1] = this.noteCount;
+    this.calls[i + 2] = a;
+    this.calls[i + 3] = b;
+    this.calls[i + 4] = c;
+    return this;
+  }
+
+  /**
+   * Return this chunk
+   */
+  @Override
+  public ParsedChunk build() {
+    return this;
+  }
+
+  @Override
+  public CompositionBuilder<ParsedChunk> setTempo(int tempo) {
+    return this.record(TEMPO, tempo, 0, 0);
+  }
+
+  @Override
+  public CompositionBuilder<ParsedChunk> setTempoAt(int start, int tempo) {
+    return this.record(TEMPO_AT, start, tempo, 0);
+  }
+
+  @Override
+  public CompositionBuilder<ParsedChunk> setTicksPerBeat(int ticksPerBeat) {
+    return this.record(TICKS_PER_BEAT, ticksPerBeat, 0, 0);
+  }
+
+  @Override
+  public CompositionBuilder<ParsedChunk> addNote(int start, int end, int instrument, int pitch,
+                                                 int volume) {
+    if ((this.noteCount + 1) * NOTE_INTS > this.notes.length) {
+      this.notes = Arrays.copyOf(this.notes, this.notes.length * 2);
+    }
+    int i = this.noteCount++ * NOTE_INTS;
+    this.notes[i] = start;
+    this.notes[i + 1] = end;
+    this.notes[i + 2] = instrument;
+    this.notes[i + 3] = pitch;
+    this.notes[i + 4] = volume;
+    return this;
+  }
+
+  @Override
+  public CompositionBuilder<ParsedChunk> expectNotes(int count) {
+    if (count * NOTE_INTS > this.notes.length) {
+      this.notes = Arrays.copyOf(this.notes, count * NOTE_INTS);
+    }
+    return this;
+  }
+
+  @Override
+  public CompositionBuilder<ParsedChunk> addLink(int beatLocation, int linkedBeat,
+                                                 int iterationNum) {
+    return this.record(LINK, beatLocation, linkedBeat, iterationNum);
+  }
+}
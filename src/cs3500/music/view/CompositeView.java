@@ -234,11 +234,11 @@ public class CompositeView extends Application implements GuiView {
               public void handle(ActionEvent event) {
                 if (getViewModel().isPlaying()) {
                   getViewModel().setCurrentTime(Math.max(0, time));
-                  int beatNum = (int) Math.round(((time / 60.0) * getViewModel().getTempo()));
+                  int beatNum = (int) Math.round(getViewModel().getTimeMap().toTick(time));
                   for (Link link : getViewModel().getLinks(beatNum)) {
                     if (link.getPlayIteration() == getViewModel().getIteration()) {
                       getViewModel().setCurrentTime(
-                              link.getLinkedBeat() * 60.0 / getViewModel().getTempo() - 0.005);
+                              getViewModel().getTimeMap().toSeconds(link.getLinkedBeat()) - 0.005);
                       getViewModel().setIteration(getViewModel().getIteration() + 1);
                     }
                   }
@@ -80,15 +80,12 @@ public class ConsoleView implements View {
     Playable highest = model.getHighest();
 
 
-    // get the pitches and octaves of the highest and lowest notes
-    int lowestOctave = lowest.getOctave();
-    Pitch lowestPitch = lowest.getPitch();
-    int highestOctave = highest.getOctave();
-    Pitch highestPitch = highest.getPitch();
+    // get the MIDI note numbers of the highest and lowest notes
+    int lowestMidi = lowest.getMidi();
+    int highestMidi = highest.getMidi();
 
     // computes the width of the console needed to display the notes in this song
-    int width = Math.abs(Pitch.distance(lowestPitch, lowestOctave,
-            highestPitch, highestOctave)) + 1;
+    int width = Math.abs(highestMidi - lowestMidi) + 1;
 
     // initialize a List of Arrays containing the characters to print for each line
     List<String[]> output = new ArrayList<String[]>();
@@ -98,23 +95,20 @@ public class ConsoleView implements View {
 
 
     // mark each of the arrays where a Note is with either a "X" or a "|"
-    for (int beat = 0; beat < length; ++ beat) {
-      List<Playable> notes = model.getNotes(beat);
-      for (Playable playable : notes) {
-        int startBeat = playable.getStartBeat();
-        int endBeat = startBeat + playable.getDuration();
-
-        // finds the column to print the symbol in
-        int noteIndex = Pitch.values().length * (playable.getOctave() - lowestOctave) +
-                (playable.getPitch().ordinal() - lowestPitch.ordinal());
-
-        // iterate through every beat that the note sustains for and add the appropriate symbol
-        for (int noteBeat = startBeat; noteBeat < endBeat; noteBeat++) {
-          String symbol = (noteBeat == startBeat) ? "X" : "|";
-          // only overwrite the symbol that is currently there if it is not an "X"
-          if (output.get(noteBeat)[noteIndex] != "X") {
-            output.get(noteBeat)[noteIndex] = symbol;
-          }
+    // every note is visited once at its onset and marks all of the beats it sustains for
+    for (Playable playable : model.getNotesStartingIn(0, length)) {
+      int startBeat = playable.getStartBeat();
+      int endBeat = startBeat + playable.getDuration();
+
+      // finds the column to print the symbol in
+      int noteIndex = playable.getMidi() - lowestMidi;
+
+      // iterate through every beat that the note sustains for and add the appropriate symbol
+      for (int noteBeat = startBeat; noteBeat < endBeat; noteBeat++) {
+        String symbol = (noteBeat == startBeat) ? "X" : "|";
+        // only overwrite the symbol that is currently there if it is not an "X"
+        if (output.get(noteBeat)[noteIndex] != "X") {
+          output.get(noteBeat)[noteIndex] = symbol;
         }
       }
     }
@@ -125,7 +119,6 @@ public class ConsoleView implements View {
     // construct the String to be returned based on the symbols in the List of Arrays
     StringBuilder outputString = new StringBuilder();
     outputString.append(String.format("%" + Integer.toString(lineNumberLength) + "s", ""));
-    Pitch[] pitches = Pitch.values();
 
     // track the width of each column in order to print notes with the correct spacing
     // in case one column must be labeled with 4 characters
@@ -133,11 +126,7 @@ public class ConsoleView implements View {
 
     // add every necessary label to the top of the output string
     for (int i = 0; i < width; i++) {
-      StringBuilder label = new StringBuilder();
-      Pitch pitch = pitches[(i + lowestPitch.ordinal()) % pitches.length];
-      label.append(pitch.toString());
-      label.append(Integer.toString(
-              Pitch.octaveFromMidi(Pitch.getMidi(lowestPitch, lowestOctave) + i)));
+      StringBuilder label = new StringBuilder(Pitch.label(lowestMidi + i));
       // add a leading space to extend labels of length 2 to be 3 characters long
       if (label.length() == 2) {
         label.insert(0, " ");
@@ -13,6 +13,7 @@ import java.util.Objects;
 import cs3500.music.model.Link;
 import cs3500.music.model.MusicEditorModel;
 import cs3500.music.model.Note;
+import cs3500.music.model.NoteVisitor;
 import cs3500.music.model.Pitch;
 import cs3500.music.model.Playable;
 import javafx.animation.Animation;
@@ -89,6 +90,12 @@ public class MainGUI implements GuiView {
    */
   private Timeline timeline;
 
+  /**
+   * Represents the visitor that draws the notes at one beat, reused for every beat of every
+   * frame so that drawing the notes does not create any objects
+   */
+  private final NotePainter painter;
+
   /**
    * Constructs an instance of a MainGUI and sets the class's static model
    * field to whatever value was passed into the Constructor
@@ -103,8 +110,18 @@ public class MainGUI implements GuiView {
     this.timestamp = 0;
     this.colors = new HashMap<Integer, LinearGradient>();
     this.timeline = null;
-    this.highBound = model.getHighest();
-    this.lowBound = model.getLowest();
+    this.painter = new NotePainter();
+    this.highBound = editableBound(model.getHighest());
+    this.lowBound = editableBound(model.getLowest());
+  }
+
+  /**
+   * Return an editable copy of the given Playable, or null if it is null, since the bounds of
+   * the view window are moved by editing them and a model may hand out immutable Playables
+   */
+  private static Playable editableBound(Playable note) {
+    return note == null ? null : new Note(note.getStartBeat(), note.getDuration(),
+            note.getPitch(), note.getOctave(), note.getInstrumentID(), note.getVolume());
   }
 
   /**
@@ -175,6 +192,21 @@ public class MainGUI implements GuiView {
     return this.timeline;
   }
 
+  /**
+   * Return the number of ticks in one measure of the model, which the grid is laid out in
+   */
+  private int ticksPerMeasure() {
+    return model.getBeatsPerMeasure() * model.getTicksPerBeat();
+  }
+
+  /**
+   * Return the width in pixels of one tick of the grid, so that a measure is always as wide no
+   * matter how many ticks there are in a beat
+   */
+  private double tickWidth() {
+    return (double) GUIConstants.MEASURE_WIDTH / this.ticksPerMeasure();
+  }
+
   /**
    * Return a dummy Playable value with the Pitch, octave, and start beat that was clicked on
    * @param x x coordinate of the mouse click
@@ -189,24 +221,20 @@ public class MainGUI implements GuiView {
     Playable highest = getHighBound();
 
     // find the beat that is located at the clicked location
-    double leftmostBeat = Math.max((model.getTempo() * model.getCurrentTime() / 60.0)
-            - GUIConstants.MAX_BAR_LOCATION * model.getBeatsPerMeasure(), 0);
+    double leftmostBeat = Math.max(model.getTimeMap().toTick(model.getCurrentTime())
+            - GUIConstants.MAX_BAR_LOCATION * this.ticksPerMeasure(), 0);
 
-    int beatNum = x / (GUIConstants.MEASURE_WIDTH / model.getBeatsPerMeasure());
+    int beatNum = (int) (x / this.tickWidth());
     double beat = beatNum + leftmostBeat;
 
     int pitchNum = y / GUIConstants.GRID_SPACING_VERT;
 
-    // finds the pitch that is located at the clicked location
-    Pitch pitch = Pitch.pitchFromMidi(
-            Pitch.getMidi(highest.getPitch(), highest.getOctave()) - pitchNum);
-
-    // finds the octave that is located at the clicked location
-    int octave = Pitch.octaveFromMidi(
-            Pitch.getMidi(highest.getPitch(), highest.getOctave()) - pitchNum);
+    // finds the MIDI note number that is located at the clicked location
+    int midi = highest.getMidi() - pitchNum;
 
 
-    return new Note((int) Math.round(beat), 1, pitch, octave);
+    return new Note((int) Math.round(beat), 1, Pitch.pitchFromMidi(midi),
+            Pitch.octaveFromMidi(midi));
   }
 
   /**
@@ -221,28 +249,23 @@ public class MainGUI implements GuiView {
     x -= GUIConstants.GRID_PADDING_LEFT;
 
     Playable highest = getHighBound();
-    double leftmostBeat = Math.max((model.getTempo() * model.getCurrentTime() / 60.0)
-            - GUIConstants.MAX_BAR_LOCATION * model.getBeatsPerMeasure(), 0);
+    double leftmostBeat = Math.max(model.getTimeMap().toTick(model.getCurrentTime())
+            - GUIConstants.MAX_BAR_LOCATION * this.ticksPerMeasure(), 0);
 
 
-    int beatNum = x / (GUIConstants.MEASURE_WIDTH / model.getBeatsPerMeasure());
+    int beatNum = (int) (x / this.tickWidth());
     int pitchNum = y / GUIConstants.GRID_SPACING_VERT;
 
 
-    // finds the pitch that is located at the clicked location
-    Pitch pitch = Pitch.pitchFromMidi(
-            Pitch.getMidi(highest.getPitch(), highest.getOctave()) - pitchNum);
-
-    // finds the octave that is located at the clicked location
-    int octave = Pitch.octaveFromMidi(
-            Pitch.getMidi(highest.getPitch(), highest.getOctave()) - pitchNum);
+    // finds the MIDI note number that is located at the clicked location
+    int midi = highest.getMidi() - pitchNum;
 
     // find the beat that is located at the clicked location
     double exactBeat = beatNum + leftmostBeat;
     int beat = (int) Math.round(exactBeat);
 
     for (Playable note : model.getNotes(beat)) {
-      if (note.getPitch() == pitch && note.getOctave() == octave) {
+      if (note.getMidi() == midi) {
         return note;
       }
     }
@@ -312,12 +335,12 @@ public class MainGUI implements GuiView {
     linkDurations.add(new Pair<>(lastStartBeat, Integer.MAX_VALUE));
 
 
-    int beatNum = (int) Math.ceil((timestamp / 60.0) * model.getTempo());
+    int beatNum = (int) Math.ceil(model.getTimeMap().toTick(timestamp));
     for (Link link : model.getLinks(beatNum)) {
       if (link.getPlayIteration() == model.getIteration()) {
-        model.setCurrentTime(link.getLinkedBeat() * 60.0 / model.getTempo());
+        model.setCurrentTime(model.getTimeMap().toSeconds(link.getLinkedBeat()));
         model.setIteration(model.getIteration() + 1);
-        seconds = link.getLinkedBeat() * 60.0 / model.getTempo();
+        seconds = model.getTimeMap().toSeconds(link.getLinkedBeat());
       }
     }
 
@@ -325,24 +348,28 @@ public class MainGUI implements GuiView {
     gc.fillRect(0, 0, GUIConstants.WINDOW_WIDTH, GUIConstants.WINDOW_HEIGHT);
 
     Objects.requireNonNull(gc);
-    double beat = model.getTempo() * seconds / 60.0;
+    double beat = model.getTimeMap().toTick(seconds);
 
+    // the grid is laid out in ticks, and a column of it is never narrower than a pixel so that a
+    // fine resolution does not draw many columns on top of each other
+    int ticksPerMeasure = this.ticksPerMeasure();
+    double tickWidth = this.tickWidth();
+    int ticksPerColumn = Math.max(1, (int) (1 / tickWidth));
 
     // determine the fraction of a measure that this time corresponds to
     double measureFracOffset = 0;
     int minMeasure = 0;
     double minBeat = 0;
-    if ((beat / (double) model.getBeatsPerMeasure()) > GUIConstants.MAX_BAR_LOCATION) {
-      measureFracOffset = (beat / model.getBeatsPerMeasure()) % 1.0;
-      minMeasure = (int) beat / model.getBeatsPerMeasure() - (int) GUIConstants.MAX_BAR_LOCATION;
-      minBeat = (beat / (double) model.getBeatsPerMeasure() - GUIConstants.MAX_BAR_LOCATION)
-              * model.getBeatsPerMeasure();
+    if ((beat / (double) ticksPerMeasure) > GUIConstants.MAX_BAR_LOCATION) {
+      measureFracOffset = (beat / ticksPerMeasure) % 1.0;
+      minMeasure = (int) beat / ticksPerMeasure - (int) GUIConstants.MAX_BAR_LOCATION;
+      minBeat = (beat / (double) ticksPerMeasure - GUIConstants.MAX_BAR_LOCATION)
+              * ticksPerMeasure;
     }
 
 
     // determines position of beat tracking bar
-    double xPos = Math.min((double) GUIConstants.GRID_PADDING_LEFT + beat *
-                    ((double) GUIConstants.MEASURE_WIDTH / (double) model.getBeatsPerMeasure()),
+    double xPos = Math.min((double) GUIConstants.GRID_PADDING_LEFT + beat * tickWidth,
             GUIConstants.MEASURE_WIDTH * GUIConstants.MAX_BAR_LOCATION +
                     GUIConstants.GRID_PADDING_LEFT);
 
@@ -351,32 +378,24 @@ public class MainGUI implements GuiView {
     Playable lowest = getLowBound();
     Playable highest = getHighBound();
 
-    // get the pitches and octaves of the highest and lowest notes
-    int lowestOctave;
-    Pitch lowestPitch;
-    int highestOctave;
-    Pitch highestPitch;
+    // get the MIDI note numbers of the highest and lowest notes
+    int lowestMidi;
+    int highestMidi;
     try {
-      lowestOctave = lowest.getOctave();
-      lowestPitch = lowest.getPitch();
-      highestOctave = highest.getOctave();
-      highestPitch = highest.getPitch();
+      lowestMidi = lowest.getMidi();
+      highestMidi = highest.getMidi();
     }
     catch (NullPointerException e) {
-      lowestOctave = 4;
-      lowestPitch = Pitch.C;
-      highestOctave = 5;
-      highestPitch = Pitch.C;
+      lowestMidi = Pitch.getMidi(Pitch.C, 4);
+      highestMidi = Pitch.getMidi(Pitch.C, 5);
     }
 
 
     // computes the width of the console needed to display the notes in this song
-    int width = Math.abs(Pitch.distance(lowestPitch, lowestOctave,
-            highestPitch, highestOctave)) + 1;
+    int width = Math.abs(highestMidi - lowestMidi) + 1;
 
 
     // draw horizontal grid lines and label them with a pitch
-    Pitch[] pitches = Pitch.values();
     gc.setTextBaseline(VPos.CENTER);
     gc.setTextAlign(TextAlignment.CENTER);
     gc.setFill(Color.BLACK);
@@ -390,9 +409,7 @@ public class MainGUI implements GuiView {
 
       // only label the pitch if it is between two grid lines
       if (i < width) {
-        Pitch pitch = pitches[(i + lowestPitch.ordinal()) % pitches.length];
-        gc.fillText(pitch.toString() + Integer.toString(
-                        Pitch.octaveFromMidi(Pitch.getMidi(lowestPitch, lowestOctave) + i)),
+        gc.fillText(Pitch.label(lowestMidi + i),
                 GUIConstants.LABEL_PADDING_LEFT,
                 (width - i) * GUIConstants.GRID_SPACING_VERT +
                         GUIConstants.GRID_PADDING_TOP -
@@ -406,17 +423,14 @@ public class MainGUI implements GuiView {
       if (note.compareTo(getHighBound()) > 0 || note.compareTo(getLowBound()) < 0) {
         continue;
       }
-      int pitchNum = Pitch.distance(lowestPitch, lowestOctave,
-              note.getPitch(), note.getOctave());
+      int pitchNum = note.getMidi() - lowestMidi;
 
       // calculate the position and width to use to draw the note
-      double start = (note.getStartBeat() - minBeat) *
-              GUIConstants.MEASURE_WIDTH / model.getBeatsPerMeasure()
+      double start = (note.getStartBeat() - minBeat) * tickWidth
               + GUIConstants.GRID_PADDING_LEFT;
 
       double displayStart = Math.max(start, GUIConstants.GRID_PADDING_LEFT);
-      double displayWidth = (GUIConstants.MEASURE_WIDTH /model.getBeatsPerMeasure()) -
-              (displayStart - start);
+      double displayWidth = ticksPerColumn * tickWidth - (displayStart - start);
       gc.setFill(GUIConstants.SELECT_COLOR);
       gc.fillRect(displayStart - 4, GUIConstants.GRID_PADDING_TOP +
                       GUIConstants.GRID_SPACING_VERT * (width - pitchNum - 1) - 4,
@@ -425,46 +439,19 @@ public class MainGUI implements GuiView {
     }
 
     // draw notes at all visible beats
-    for (int curBeat = (int) minBeat;
-         curBeat < (int) beat + model.getBeatsPerMeasure() * GUIConstants.MAX_MEASURES_ON_SCREEN;
-         curBeat++) {
-      List<Playable> notes = model.getNotes(curBeat);
+    for (int curBeat = (int) minBeat - (int) minBeat % ticksPerColumn;
+         curBeat < (int) beat + ticksPerMeasure * GUIConstants.MAX_MEASURES_ON_SCREEN;
+         curBeat += ticksPerColumn) {
       // calculate the position and width to use to draw the note
-      double start = (curBeat - minBeat) *
-              GUIConstants.MEASURE_WIDTH / model.getBeatsPerMeasure()
-              + GUIConstants.GRID_PADDING_LEFT;
+      double start = (curBeat - minBeat) * tickWidth + GUIConstants.GRID_PADDING_LEFT;
       double displayStart = Math.max(start, GUIConstants.GRID_PADDING_LEFT);
-      double displayWidth = (GUIConstants.MEASURE_WIDTH /model.getBeatsPerMeasure()) -
-              (displayStart - start);
+      double displayWidth = ticksPerColumn * tickWidth - (displayStart - start);
 
-      // draw every note at the given beat
+      // draw every note at the given beat without creating any objects per note
+      this.painter.prepare(gc, curBeat, ticksPerColumn, displayStart, displayWidth, width,
+              lowestMidi, highestMidi);
+      model.forEachNoteAt(curBeat, this.painter);
 
-      for (Playable note : notes) {
-        // don't draw the note if it is above or below the bounds of the window being rendered
-        if (note.compareTo(getHighBound()) > 0 || note.compareTo(getLowBound()) < 0) {
-          continue;
-        }
-
-        // set the color of the block based on whether the note is starting or sustaining
-        if (!colors.containsKey(note.getInstrumentID())) {
-          colors.put(note.getInstrumentID(), GUIConstants.getNewColor());
-        }
-        if (note.getStartBeat() == curBeat) {
-          gc.setFill(GUIConstants.NOTE_START_COLOR);
-        }
-        else {
-          gc.setFill(colors.get(note.getInstrumentID()));
-        }
-
-        int pitchNum = Pitch.distance(lowestPitch, lowestOctave,
-                note.getPitch(), note.getOctave());
-
-
-        gc.fillRect(displayStart, GUIConstants.GRID_PADDING_TOP +
-                        GUIConstants.GRID_SPACING_VERT * (width - pitchNum - 1),
-                displayWidth,
-                GUIConstants.GRID_SPACING_VERT);
-      }
       // draw the link paths
       double height = GUIConstants.GRID_PADDING_TOP + (1 + getHighBound().compareTo(getLowBound()))
               * GUIConstants.GRID_SPACING_VERT;
@@ -495,7 +482,7 @@ public class MainGUI implements GuiView {
                 GUIConstants.GRID_PADDING_TOP,
                 linePos,
                 GUIConstants.GRID_SPACING_VERT * (width + 2));
-        gc.fillText(Integer.toString(measure * model.getBeatsPerMeasure()),
+        gc.fillText(Integer.toString(measure * ticksPerMeasure),
                 linePos,
                 GUIConstants.MEASURE_LABEL_PADDING);
       }
@@ -520,6 +507,70 @@ public class MainGUI implements GuiView {
     }
   }
 
+  /**
+   * Represents a NoteVisitor that draws every note it visits as one block of the grid at the
+   * beat it was last prepared for
+   */
+  private final class NotePainter implements NoteVisitor {
+    private GraphicsContext gc;
+    private int beat;
+    private int ticks;
+    private double displayStart;
+    private double displayWidth;
+    private int width;
+    private int lowestMidi;
+    private int highestMidi;
+
+    /**
+     * Sets up this NotePainter to draw the notes at the given beat
+     * @param gc            the GraphicsContext to draw to
+     * @param beat          the beat whose notes are going to be visited
+     * @param ticks         the number of ticks drawn as one column starting at the beat
+     * @param displayStart  the x position of the blocks at the beat
+     * @param displayWidth  the width of the blocks at the beat
+     * @param width         the number of pitch rows in the grid
+     * @param lowestMidi    the MIDI pitch of the lowest row of the grid
+     * @param highestMidi   the MIDI pitch of the highest row of the grid
+     */
+    private void prepare(GraphicsContext gc, int beat, int ticks, double displayStart,
+                         double displayWidth, int width, int lowestMidi, int highestMidi) {
+      this.gc = gc;
+      this.beat = beat;
+      this.ticks = ticks;
+      this.displayStart = displayStart;
+      this.displayWidth = displayWidth;
+      this.width = width;
+      this.lowestMidi = lowestMidi;
+      this.highestMidi = highestMidi;
+    }
+
+    @Override
+    public void visit(int startBeat, int duration, int midi, int instrument, int volume) {
+      // don't draw the note if it is above or below the bounds of the window being rendered
+      if (midi > this.highestMidi || midi < this.lowestMidi) {
+        return;
+      }
+
+      // set the color of the block based on whether the note is starting or sustaining
+      if (!colors.containsKey(instrument)) {
+        colors.put(instrument, GUIConstants.getNewColor());
+      }
+      // a note starting between two columns is drawn as starting in the first column it reaches
+      if (startBeat > this.beat - this.ticks) {
+        gc.setFill(GUIConstants.NOTE_START_COLOR);
+      }
+      else {
+        gc.setFill(colors.get(instrument));
+      }
+
+      int pitchNum = midi - this.lowestMidi;
+      gc.fillRect(this.displayStart, GUIConstants.GRID_PADDING_TOP +
+                      GUIConstants.GRID_SPACING_VERT * (this.width - pitchNum - 1),
+              this.displayWidth,
+              GUIConstants.GRID_SPACING_VERT);
+    }
+  }
+
   @Override
   public Canvas getCanvas() {
     return this.canvas;
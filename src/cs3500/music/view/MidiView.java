@@ -3,6 +3,8 @@ package cs3500.music.view;
 import java.util.Objects;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.sound.midi.InvalidMidiDataException;
 import javax.sound.midi.MidiMessage;
@@ -14,8 +16,8 @@ import javax.sound.midi.Synthesizer;
 
 import cs3500.music.model.Link;
 import cs3500.music.model.MusicEditorModel;
-import cs3500.music.model.Pitch;
-import cs3500.music.model.Playable;
+import cs3500.music.model.NoteVisitor;
+import cs3500.music.model.TimeMap;
 
 /**
  * represents the view of a musical editor through sound of the song
@@ -30,6 +32,22 @@ public class MidiView implements View {
    */
   private int lastBeat;
 
+  /**
+   * Represents the visitor that starts and stops the notes of the current beat during playback
+   */
+  private final NotePlayer player = new NotePlayer();
+
+  /**
+   * Represents the thread that looks up and sends the notes of every beat during playback, so
+   * that rendering never waits on the synthesizer. The model should be safe to read from
+   * another thread, such as a ConcurrentSong, if it is edited during playback.
+   */
+  private final ExecutorService scheduler = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "midi-scheduler");
+    thread.setDaemon(true);
+    return thread;
+  });
+
   /**
    * Constructs a default MidiView by constructing a synthesizer and
    * receiver, and turning the synthesizer open. If a MidiSystem is unavailable,
@@ -95,23 +113,30 @@ public class MidiView implements View {
   }
 
   /**
-   * Renders the MidiView based on the given model, by playing all of the notes
-   * in the model
+   * Represents a NoteVisitor that starts every visited note that starts at the beat it was
+   * last set to and stops every one that sounds for the last time during it, reused for every
+   * beat so that playback does not create a list of notes. A note is only stopped once its last
+   * beat is reached, since a receiver may act on a message as soon as it is sent no matter
+   * what time it carries.
    */
-  private void playNotes(int beat) throws InvalidMidiDataException {
-    for (Playable p : this.model.getNotes(beat)) {
-      if (p.getStartBeat() == beat) {
-        MidiMessage start = new ShortMessage(
-                ShortMessage.NOTE_ON, p.getInstrumentID() - 1,
-                Pitch.getMidi(p.getPitch(), p.getOctave()), 100);
-        this.receiver.send(start, p.getStartBeat() * (60000000 / model.getTempo()));
+  private final class NotePlayer implements NoteVisitor {
+    private int beat;
+
+    @Override
+    public void visit(int startBeat, int duration, int midi, int instrument, int volume) {
+      TimeMap times = MidiView.this.model.getTimeMap();
+      try {
+        if (startBeat == this.beat) {
+          MidiMessage start = new ShortMessage(ShortMessage.NOTE_ON, instrument - 1, midi, 100);
+          MidiView.this.receiver.send(start, times.toMicros(startBeat));
+        }
+        if (startBeat + duration == this.beat + 1) {
+          MidiMessage stop = new ShortMessage(ShortMessage.NOTE_OFF, instrument - 1, midi, 100);
+          MidiView.this.receiver.send(stop, times.toMicros(startBeat + duration));
+        }
       }
-      if (p.getStartBeat() + p.getDuration() == beat + 1) {
-        MidiMessage stop = new ShortMessage(
-                ShortMessage.NOTE_OFF, p.getInstrumentID() - 1,
-                Pitch.getMidi(p.getPitch(), p.getOctave()), 100);
-        this.receiver.send(stop, (p.getStartBeat() +
-                p.getDuration()) * (60000000 / model.getTempo()));
+      catch (InvalidMidiDataException e) {
+        // a note that cannot be sent is skipped
       }
     }
   }
@@ -119,34 +144,32 @@ public class MidiView implements View {
   @Override
   public void render(double timestamp) {
     Objects.requireNonNull(this.model);
-    try {
-      int beatNum = (int) Math.round((timestamp / 60.0) * model.getTempo());
-      for (Link link : model.getLinks(beatNum)) {
-        if (link.getPlayIteration() == model.getIteration()) {
-          model.setCurrentTime(link.getLinkedBeat() * 60.0 / model.getTempo());
-          model.setIteration(model.getIteration() + 1);
-          return;
-        }
-      }
-      if (beatNum != this.lastBeat) {
-        this.playNotes(beatNum);
-        this.lastBeat = beatNum;
+    int beatNum = (int) Math.round(model.getTimeMap().toTick(timestamp));
+    for (Link link : model.getLinks(beatNum)) {
+      if (link.getPlayIteration() == model.getIteration()) {
+        model.setCurrentTime(model.getTimeMap().toSeconds(link.getLinkedBeat()));
+        model.setIteration(model.getIteration() + 1);
+        return;
       }
     }
-    catch (InvalidMidiDataException e){
-
+    if (beatNum != this.lastBeat) {
+      final ViewModel playing = this.model;
+      final int beat = beatNum;
+      // the player is only ever used on the scheduler thread
+      this.scheduler.execute(() -> {
+        this.player.beat = beat;
+        playing.forEachNoteAt(beat, this.player);
+      });
+      this.lastBeat = beatNum;
     }
   }
 
   public void playAll() {
     Objects.requireNonNull(this.model);
-    try {
-      for (int beat = 0; beat < model.getLength(); beat++) {
-        this.playNotes(beat);
-      }
-    }
-    catch (InvalidMidiDataException e){
-
+    NotePlayer all = new NotePlayer();
+    for (int beat = 0; beat < model.getLength(); beat++) {
+      all.beat = beat;
+      model.forEachNoteAt(beat, all);
     }
 
     this.receiver.close();
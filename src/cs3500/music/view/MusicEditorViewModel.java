@@ -3,15 +3,26 @@ package cs3500.music.view;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import cs3500.music.model.EditJournal;
 import cs3500.music.model.Link;
 import cs3500.music.model.LinkImpl;
+import cs3500.music.model.ModelListener;
 import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.NoteVisitor;
 import cs3500.music.model.Playable;
+import cs3500.music.model.TimeMap;
 
 /**
  * Represents a view model for use in the GUI view
@@ -64,6 +75,11 @@ public class MusicEditorViewModel implements ViewModel {
    */
   private Integer linkStart;
 
+  /**
+   * Represents the undo and redo history of the edits made through this ViewModel
+   */
+  private final EditJournal journal;
+
   /**
    * Constructs a new MusicEditorViewModel based on the given MusicEditorModel
    * @param model the MusicEditorModel to adapt to the ViewModel interface
@@ -84,6 +100,7 @@ public class MusicEditorViewModel implements ViewModel {
     }
     sortLinkList();
     this.linkStart = null;
+    this.journal = new EditJournal();
   }
 
   @Override
@@ -154,7 +171,7 @@ public class MusicEditorViewModel implements ViewModel {
 
   @Override
   public void resetIteration() {
-    int curBeat = (int) Math.round(((currentTime / 60.0) * getTempo()));
+    int curBeat = (int) Math.round(getTimeMap().toTick(currentTime));
     for (Link link : sortedLinkList) {
       if (link.getLocationBeat() >= curBeat) {
         setIteration(link.getPlayIteration());
@@ -177,8 +194,65 @@ public class MusicEditorViewModel implements ViewModel {
   }
 
   @Override
-  public void addNote(Playable note) {
-    model.addNote(note);
+  public EditJournal getJournal() {
+    return this.journal;
+  }
+
+  @Override
+  public boolean undo() {
+    // the selected Playables may no longer be stored once the edits are replayed
+    model.beginBatch();
+    try {
+      return this.journal.undo(this);
+    }
+    finally {
+      model.endBatch();
+      this.selected.clear();
+    }
+  }
+
+  @Override
+  public boolean redo() {
+    model.beginBatch();
+    try {
+      return this.journal.redo(this);
+    }
+    finally {
+      model.endBatch();
+      this.selected.clear();
+    }
+  }
+
+  @Override
+  public void addListener(ModelListener listener) {
+    model.addListener(listener);
+  }
+
+  @Override
+  public void removeListener(ModelListener listener) {
+    model.removeListener(listener);
+  }
+
+  /**
+   * Starts a batch of edits, which are also undone and redone together
+   */
+  @Override
+  public void beginBatch() {
+    journal.beginGroup();
+    model.beginBatch();
+  }
+
+  @Override
+  public void endBatch() {
+    model.endBatch();
+    journal.endGroup();
+  }
+
+  @Override
+  public long addNote(Playable note) {
+    long id = model.addNote(note);
+    journal.recordAdd(id, note);
+    return id;
   }
 
 
@@ -193,6 +267,16 @@ public class MusicEditorViewModel implements ViewModel {
     return model.getTempo();
   }
 
+  @Override
+  public void setTempoAt(int beatNum, int tempo) {
+    model.setTempoAt(beatNum, tempo);
+  }
+
+  @Override
+  public TimeMap getTimeMap() {
+    return model.getTimeMap();
+  }
+
   @Override
   public void setBeatsPerMeasure(int beatsPerMeasure) {
     model.setBeatsPerMeasure(beatsPerMeasure);
@@ -203,16 +287,104 @@ public class MusicEditorViewModel implements ViewModel {
     return model.getBeatsPerMeasure();
   }
 
+  @Override
+  public int getTicksPerBeat() {
+    return model.getTicksPerBeat();
+  }
+
 
   @Override
   public List<Playable> getNotes(int beatNum) {
     return model.getNotes(beatNum);
   }
 
+  @Override
+  public void forEachNoteAt(int beatNum, Consumer<Playable> action) {
+    model.forEachNoteAt(beatNum, action);
+  }
+
+  @Override
+  public void forEachNoteAt(int beatNum, NoteVisitor visitor) {
+    model.forEachNoteAt(beatNum, visitor);
+  }
+
+  @Override
+  public List<Playable> getNotesStartingIn(int startBeat, int endBeat) {
+    return model.getNotesStartingIn(startBeat, endBeat);
+  }
+
+  @Override
+  public List<Playable> getNotesSoundingIn(int startBeat, int endBeat) {
+    return model.getNotesSoundingIn(startBeat, endBeat);
+  }
+
+  @Override
+  public SortedSet<Integer> getInstruments() {
+    return model.getInstruments();
+  }
+
+  @Override
+  public List<Playable> getTrackNotes(int instrumentID, int beatNum) {
+    return model.getTrackNotes(instrumentID, beatNum);
+  }
+
+  @Override
+  public List<Playable> getTrackNotesStartingIn(int instrumentID, int startBeat, int endBeat) {
+    return model.getTrackNotesStartingIn(instrumentID, startBeat, endBeat);
+  }
+
+  @Override
+  public Stream<Playable> notes() {
+    return model.notes();
+  }
+
   @Override
   public boolean removeNote(Playable note) {
     selected.remove(note);
-    return model.removeNote(note);
+    long id = model.getNoteId(note);
+    if (id < 0) {
+      return false;
+    }
+    journal.recordRemove(id, note);
+    return model.removeNoteById(id);
+  }
+
+  @Override
+  public int removeNotes(Collection<Playable> notes) {
+    journal.beginGroup();
+    for (Playable note : notes) {
+      long id = model.getNoteId(note);
+      if (id >= 0) {
+        journal.recordRemove(id, note);
+      }
+    }
+    journal.endGroup();
+    // filter the selection once instead of searching it for every removed note, and only after
+    // removing the notes in case the given collection is the selection itself
+    final Set<Playable> removed = new HashSet<Playable>(notes);
+    int count = model.removeNotes(notes);
+    selected.removeIf(note -> removed.contains(note));
+    return count;
+  }
+
+  @Override
+  public long getNoteId(Playable note) {
+    return model.getNoteId(note);
+  }
+
+  @Override
+  public Playable getNoteById(long id) {
+    return model.getNoteById(id);
+  }
+
+  @Override
+  public boolean removeNoteById(long id) {
+    Playable note = model.getNoteById(id);
+    if (note != null) {
+      selected.remove(note);
+      journal.recordRemove(id, note);
+    }
+    return model.removeNoteById(id);
   }
 
   @Override
@@ -243,12 +415,132 @@ public class MusicEditorViewModel implements ViewModel {
 
   @Override
   public Playable moveNote(Playable note, int steps) {
-    this.selected.remove(note);
+    // a model storing values replaces the edited one, so the ID is found before the edit
+    long id = model.getNoteId(note);
     Playable newNote = model.moveNote(note, steps);
-    this.selected.add(newNote);
+    this.journal.recordMove(id, steps);
+    this.selected.remove(note);
+    this.selected.add(model.getNoteById(id));
+    return newNote;
+  }
+
+  @Override
+  public Playable transposeNote(Playable note, int steps) {
+    long id = model.getNoteId(note);
+    Playable newNote = model.transposeNote(note, steps);
+    this.journal.recordTranspose(id, steps);
+    this.selected.remove(note);
+    this.selected.add(model.getNoteById(id));
     return newNote;
   }
 
+  @Override
+  public int shiftNotes(Collection<Playable> notes, int beats) {
+    return this.bulkEdit(notes, beats, 0);
+  }
+
+  @Override
+  public int transposeNotes(Collection<Playable> notes, int steps) {
+    return this.bulkEdit(notes, 0, steps);
+  }
+
+  @Override
+  public int shiftNotesStartingIn(int startBeat, int endBeat, int beats) {
+    return this.shiftNotes(model.getNotesStartingIn(startBeat, endBeat), beats);
+  }
+
+  @Override
+  public int transposeNotesStartingIn(int startBeat, int endBeat, int steps) {
+    return this.transposeNotes(model.getNotesStartingIn(startBeat, endBeat), steps);
+  }
+
+  @Override
+  public void insertBeats(int beat, int count) {
+    model.insertBeats(beat, count);
+    journal.recordInsertBeats(beat, count);
+    this.afterRipple();
+  }
+
+  @Override
+  public int deleteBeats(int startBeat, int endBeat) {
+    List<Playable> doomed = model.getNotesStartingIn(startBeat, endBeat);
+    journal.beginGroup();
+    try {
+      for (Playable note : doomed) {
+        journal.recordRemove(model.getNoteId(note), note);
+      }
+      for (Link link : sortedLinkList) {
+        if (link.getLocationBeat() >= startBeat && link.getLocationBeat() < endBeat) {
+          journal.recordRemoveLink(link);
+        }
+      }
+      int removed = model.deleteBeats(startBeat, endBeat);
+      journal.recordDeleteBeats(startBeat, endBeat);
+      return removed;
+    }
+    finally {
+      journal.endGroup();
+      this.afterRipple();
+    }
+  }
+
+  /**
+   * Catches up with beats that were inserted into or deleted from the model. The selected
+   * Playables may no longer be stored, and the Links have been replaced by moved copies.
+   */
+  private void afterRipple() {
+    this.selected.clear();
+    this.sortedLinkList.clear();
+    for (int beat = 0; beat < model.getLength(); beat++) {
+      this.sortedLinkList.addAll(getLinks(beat));
+    }
+    sortLinkList();
+  }
+
+  /**
+   * Shifts or transposes every one of the given Playables and records the edit as one step of
+   * the journal. The IDs of the Playables are found before the model edits them, since a model
+   * storing values replaces every edited one, and the edited Playables are then selected in
+   * place of the given ones.
+   */
+  private int bulkEdit(Collection<Playable> notes, int beats, int steps) {
+    // equal Playables of a model storing values share one ID, so only one of them is edited
+    Set<Long> claimed = new HashSet<Long>();
+    List<Long> ids = new ArrayList<Long>();
+    List<Playable> distinct = new ArrayList<Playable>();
+    for (Playable note : notes) {
+      long id = model.getNoteId(note);
+      if (id < 0) {
+        // the model rejects the whole edit
+        distinct.add(note);
+      }
+      else if (claimed.add(id)) {
+        distinct.add(note);
+        ids.add(id);
+      }
+    }
+    int count = beats != 0 ? model.shiftNotes(distinct, beats)
+            : model.transposeNotes(distinct, steps);
+    journal.beginGroup();
+    for (long id : ids) {
+      if (beats != 0) {
+        journal.recordMove(id, beats);
+      }
+      if (steps != 0) {
+        journal.recordTranspose(id, steps);
+      }
+    }
+    journal.endGroup();
+    final Set<Playable> edited =
+            Collections.newSetFromMap(new IdentityHashMap<Playable, Boolean>());
+    edited.addAll(distinct);
+    selected.removeIf(note -> edited.contains(note));
+    for (long id : ids) {
+      selected.add(model.getNoteById(id));
+    }
+    return count;
+  }
+
   @Override
   public List<Link> getLinks(int beat) {
     return model.getLinks(beat);
@@ -262,12 +554,17 @@ public class MusicEditorViewModel implements ViewModel {
     model.addLink(link);
     this.sortedLinkList.add(link);
     sortLinkList();
+    this.journal.recordAddLink(link);
   }
 
   @Override
   public boolean removeLink(Link link) {
     this.sortedLinkList.remove(link);
-    return model.removeLink(link);
+    if (!model.removeLink(link)) {
+      return false;
+    }
+    this.journal.recordRemoveLink(link);
+    return true;
   }
 
   /**
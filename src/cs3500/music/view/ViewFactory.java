@@ -2,6 +2,7 @@ package cs3500.music.view;
 
 import cs3500.music.controller.Controller;
 import cs3500.music.controller.GUIController;
+import cs3500.music.model.ConcurrentSong;
 import cs3500.music.model.MusicEditorModel;
 
 /**
@@ -14,8 +15,10 @@ public final class ViewFactory {
       case "visual":  return new MainGUI(model);
       case "midi":    return new MidiView(model);
       case "":
-      case "full":    GuiView gui = new MainGUI(model);
-                      View midi = new MidiView(model);
+      case "full":    // the MIDI view plays on its own thread while the controller edits
+                      MusicEditorModel shared = new ConcurrentSong(model);
+                      GuiView gui = new MainGUI(shared);
+                      View midi = new MidiView(shared);
                       CompositeView.setViews(gui, midi);
                       GuiView view = new CompositeView(gui, midi);
                       Controller controller = new GUIController(view);
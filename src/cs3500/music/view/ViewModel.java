@@ -5,6 +5,7 @@ import com.sun.istack.internal.Nullable;
 import java.lang.reflect.Array;
 import java.util.List;
 
+import cs3500.music.model.EditJournal;
 import cs3500.music.model.Link;
 import cs3500.music.model.MusicEditorModel;
 import cs3500.music.model.Playable;
@@ -101,4 +102,22 @@ public interface ViewModel extends MusicEditorModel {
    */
   void setLinkStart(Integer beat);
 
+  /**
+   * Return the journal that records the edits made through this ViewModel
+   * @return  the EditJournal of this ViewModel
+   */
+  EditJournal getJournal();
+
+  /**
+   * Undoes the last step of edits made through this ViewModel and clears the selection
+   * @return  true if there was a step to undo
+   */
+  boolean undo();
+
+  /**
+   * Redoes the last step of edits undone by {@link #undo()} and clears the selection
+   * @return  true if there was a step to redo
+   */
+  boolean redo();
+
 }
@@ -0,0 +1,138 @@
+package cs3500.music.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import cs3500.music.model.ConcurrentSong;
+import cs3500.music.model.LinkImpl;
+import cs3500.music.model.ModelChange;
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Note;
+import cs3500.music.model.Pitch;
+import cs3500.music.model.Playable;
+import cs3500.music.model.Song;
+import cs3500.music.model.SongSnapshot;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the ConcurrentSong implementation of the MusicEditorModel
+ */
+public class ConcurrentSongTest {
+
+  MusicEditorModel song;
+  ConcurrentSong m3;
+
+  Playable n1;
+  Playable n2;
+  Playable n3;
+
+  /**
+   * Initialize all MusicEditorModels in this test class with appropriate testing data
+   */
+  private void init() {
+    n1 = new Note(1, 3, Pitch.Cs, 5);
+    n2 = new Note(8, 1, Pitch.A, 3);
+    n3 = new Note(6, 16, Pitch.Fs, 2);
+
+    song = new Song(Arrays.asList(n1, n2, n3), 100, 3);
+    song.addLink(new LinkImpl(4, 0, 0));
+    m3 = new ConcurrentSong(song);
+  }
+
+  @Test
+  public void testCopiesSong() {
+    init();
+    assertEquals(m3.getTempo(), 100);
+    assertEquals(m3.getBeatsPerMeasure(), 3);
+    assertEquals(m3.getLength(), 22);
+    assertEquals(m3.getNotes(8).size(), 2);
+    assertEquals(m3.getLinks(4).size(), 1);
+
+    // editing the copy leaves the original alone
+    m3.removeNote(n3);
+    assertEquals(m3.getLength(), 9);
+    assertEquals(song.getLength(), 22);
+  }
+
+  @Test
+  public void testEdits() {
+    init();
+    SongSnapshot before = m3.snapshot();
+    Playable moved = m3.moveNote(m3.getNotes(1).get(0), 2);
+    assertEquals(moved.getStartBeat(), 3);
+    assertEquals(m3.getNotes(3).get(0), moved);
+    m3.transposeNote(moved, -1);
+    assertEquals(m3.getNotes(3).get(0), new Note(3, 3, Pitch.C, 5));
+    assertEquals(m3.removeNotes(Arrays.asList(n2, n3)), 2);
+    assertEquals(m3.getLength(), 6);
+    assertEquals(before.getLength(), 22);
+    assertEquals(before.getNotes(1).get(0), n1);
+  }
+
+  @Test
+  public void testReadWhileEditing() throws InterruptedException {
+    init();
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    Thread editor = new Thread(() -> {
+      try {
+        for (int i = 0; i < 2000; i++) {
+          Playable added = new Note(i % 50, 4, Pitch.C, 4);
+          m3.addNote(added);
+          m3.moveNote(added, 1);
+          m3.removeNote(added);
+        }
+      }
+      catch (Throwable t) {
+        failure.set(t);
+      }
+    });
+    editor.start();
+    while (editor.isAlive()) {
+      for (int beat = 0; beat < 60; beat++) {
+        // every list read is a copy that no edit can change while it is iterated
+        List<Playable> notes = m3.getNotes(beat);
+        int count = 0;
+        for (Playable note : notes) {
+          assert (note.getStartBeat() <= beat);
+          count++;
+        }
+        assertEquals(count, notes.size());
+        final List<Playable> visited = new ArrayList<Playable>();
+        m3.forEachNoteAt(beat, (Playable note) -> visited.add(note));
+      }
+    }
+    editor.join();
+    assertEquals(failure.get(), null);
+    assertEquals(m3.getNotesStartingIn(0, m3.getLength()).size(), 3);
+  }
+
+  @Test
+  public void testListenerSeesPublishedEdit() {
+    init();
+    final List<Integer> seen = new ArrayList<Integer>();
+    m3.addListener((ModelChange change) -> seen.add(m3.getNotes(change.getStartBeat()).size()));
+    m3.addNote(new Note(1, 1, Pitch.C, 4));
+    assertEquals(seen.size(), 1);
+    assertEquals(2, (int) seen.get(0));
+  }
+
+  @Test
+  public void testRippleDuplicateNotes() {
+    init();
+    ConcurrentSong song = new ConcurrentSong();
+    song.addNote(new Note(2, 4, Pitch.C, 4));
+    song.addNote(new Note(2, 4, Pitch.C, 4));
+    song.insertBeats(2, 4);
+    assertEquals(song.getNotesStartingIn(0, 6).size(), 0);
+    assertEquals(song.getNotesStartingIn(6, 7).size(), 2);
+    song.addNote(new Note(1, 1, Pitch.D, 4));
+    song.deleteBeats(1, 3);
+    assertEquals(song.getNotesStartingIn(0, 4).size(), 0);
+    assertEquals(song.getNotesStartingIn(4, 5).size(), 2);
+  }
+}
@@ -240,6 +240,8 @@ public class ControllerTest {
     KeyEvent s = new KeyEvent(new Box(0), 0, 0, 0, 54, ' ');
 
     composite.getViewModel().select(c4, cs7);
+    long c4Id = vm.getNoteId(c4);
+    long cs7Id = vm.getNoteId(cs7);
     assertEquals(c4.getPitch(), Pitch.C);
     assertEquals(c4.getOctave(), 4);
     assertEquals(cs7.getPitch(), Pitch.Cs);
@@ -249,20 +251,20 @@ public class ControllerTest {
     keyListener.keyPressed(w);
     keyListener.keyPressed(w);
     keyListener.keyPressed(w);
-    assertEquals(c4.getPitch(), Pitch.Ds);
-    assertEquals(c4.getOctave(), 4);
-    assertEquals(cs7.getPitch(), Pitch.E);
-    assertEquals(cs7.getOctave(), 7);
+    assertEquals(vm.getNoteById(c4Id).getPitch(), Pitch.Ds);
+    assertEquals(vm.getNoteById(c4Id).getOctave(), 4);
+    assertEquals(vm.getNoteById(cs7Id).getPitch(), Pitch.E);
+    assertEquals(vm.getNoteById(cs7Id).getOctave(), 7);
 
     // transpose down 4 times
     keyListener.keyPressed(s);
     keyListener.keyPressed(s);
     keyListener.keyPressed(s);
     keyListener.keyPressed(s);
-    assertEquals(c4.getPitch(), Pitch.B);
-    assertEquals(c4.getOctave(), 3);
-    assertEquals(cs7.getPitch(), Pitch.C);
-    assertEquals(cs7.getOctave(), 7);
+    assertEquals(vm.getNoteById(c4Id).getPitch(), Pitch.B);
+    assertEquals(vm.getNoteById(c4Id).getOctave(), 3);
+    assertEquals(vm.getNoteById(cs7Id).getPitch(), Pitch.C);
+    assertEquals(vm.getNoteById(cs7Id).getOctave(), 7);
   }
 
   @Test
@@ -0,0 +1,186 @@
+package cs3500.music.tests;
+
+import org.junit.Test;
+
+import cs3500.music.model.EditJournal;
+import cs3500.music.model.LinkImpl;
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Note;
+import cs3500.music.model.Pitch;
+import cs3500.music.model.Playable;
+import cs3500.music.model.Song;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the EditJournal that records the undo and redo history of a MusicEditorModel
+ */
+public class EditJournalTest {
+
+  MusicEditorModel song;
+  EditJournal journal;
+  Playable n1;
+  Playable n2;
+
+  /**
+   * Initialize the testing data
+   */
+  private void init(int memoryCap) {
+    song = new Song();
+    journal = new EditJournal(memoryCap);
+    n1 = new Note(1, 3, Pitch.Cs, 5);
+    n2 = new Note(8, 1, Pitch.A, 3, 2, 90);
+  }
+
+  /**
+   * Adds the given note to the song and records it in the journal
+   */
+  private void add(Playable note) {
+    journal.recordAdd(song.addNote(note), note);
+  }
+
+  /**
+   * Moves the stored note with the given ID and records it in the journal
+   */
+  private void move(long id, int steps) {
+    song.moveNote(song.getNoteById(id), steps);
+    journal.recordMove(id, steps);
+  }
+
+  @Test
+  public void testUndoRedo() {
+    init(EditJournal.DEFAULT_MEMORY_CAP);
+    assertEquals(journal.canUndo(), false);
+    add(n1);
+    add(n2);
+    move(song.getNoteId(n1), 4);
+    assertEquals(song.getNotes(5).size(), 1);
+
+    assertEquals(journal.undo(song), true);
+    assertEquals(song.getNotes(1).get(0), n1);
+    assertEquals(journal.undo(song), true);
+    assertEquals(song.getNotes(8).size(), 0);
+    assertEquals(journal.canRedo(), true);
+    assertEquals(journal.redo(song), true);
+    // the volume and instrument of the note are restored too
+    assertEquals(song.getNotes(8).get(0), n2);
+
+    // a new edit discards the edits that could have been redone
+    journal.recordTranspose(song.getNoteId(n2), 0);
+    assertEquals(journal.canRedo(), false);
+  }
+
+  @Test
+  public void testGroup() {
+    init(EditJournal.DEFAULT_MEMORY_CAP);
+    journal.beginGroup();
+    add(n1);
+    add(n2);
+    journal.endGroup();
+    add(new Note(0, 1, Pitch.C, 4));
+    journal.undo(song);
+    assertEquals(song.getLength(), 9);
+    journal.undo(song);
+    assertEquals(song.getLength(), 0);
+    assertEquals(journal.canUndo(), false);
+    journal.redo(song);
+    assertEquals(song.getLength(), 9);
+  }
+
+  @Test
+  public void testReaddedNoteKeepsHistory() {
+    init(EditJournal.DEFAULT_MEMORY_CAP);
+    add(n1);
+    move(song.getNoteId(n1), 2);
+    Playable moved = song.getNotes(3).get(0);
+    journal.recordRemove(song.getNoteId(moved), moved);
+    song.removeNote(moved);
+
+    // undoing the removal adds the note back with a new ID, which the move must still find
+    journal.undo(song);
+    journal.undo(song);
+    assertEquals(song.getNotes(1).get(0), n1);
+    journal.redo(song);
+    journal.redo(song);
+    assertEquals(song.getLength(), 0);
+  }
+
+  @Test
+  public void testLinks() {
+    init(EditJournal.DEFAULT_MEMORY_CAP);
+    song.addLink(new LinkImpl(4, 0, 1));
+    journal.recordAddLink(song.getLinks(4).get(0));
+    journal.undo(song);
+    assertEquals(song.getLinks(4).size(), 0);
+    journal.redo(song);
+    assertEquals(song.getLinks(4).get(0).getLinkedBeat(), 0);
+    assertEquals(song.getLinks(4).get(0).getPlayIteration(), 1);
+  }
+
+  @Test
+  public void testMemoryCap() {
+    // room for one note and two moves
+    init(8 * 8);
+    add(n1);
+    long id = song.getNoteId(n1);
+    move(id, 1);
+    move(id, 1);
+    move(id, 1);
+    // the add was forgotten to make room for the last move
+    assertEquals(journal.undo(song), true);
+    assertEquals(journal.undo(song), true);
+    assertEquals(journal.undo(song), true);
+    assertEquals(journal.undo(song), false);
+    assertEquals(song.getNotes(1).get(0), n1);
+  }
+
+  @Test
+  public void testStepLargerThanCap() {
+    // room for two notes
+    init(8 * 8);
+    add(n1);
+    journal.beginGroup();
+    add(n2);
+    add(new Note(0, 1, Pitch.C, 4));
+    add(new Note(2, 1, Pitch.D, 4));
+    journal.endGroup();
+    // the group does not fit, so neither it nor the edit before it can be undone
+    assertEquals(journal.canUndo(), false);
+    assertEquals(journal.undo(song), false);
+    assertEquals(song.getNotes(8).get(0), n2);
+
+    // the next step is recorded as usual
+    move(song.getNoteId(n2), 1);
+    assertEquals(journal.undo(song), true);
+    assertEquals(song.getNotes(8).get(0), n2);
+    assertEquals(journal.undo(song), false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTinyMemoryCap() {
+    new EditJournal(8);
+  }
+
+  @Test
+  public void testUndoEqualNotes() {
+    init(EditJournal.DEFAULT_MEMORY_CAP);
+    long first = song.addNote(n1);
+    journal.recordAdd(first, n1);
+    long secondId = song.addNote(n1);
+    journal.recordAdd(secondId, n1);
+    song.removeNoteById(secondId);
+    journal.recordRemove(secondId, n1);
+    assertEquals(song.getNotes(1).size(), 1);
+
+    // the note added back gets a new ID, which the earlier add is then undone by
+    assertEquals(journal.undo(song), true);
+    assertEquals(song.getNotes(1).size(), 2);
+    assertEquals(journal.undo(song), true);
+    assertEquals(song.getNotes(1).size(), 1);
+    assertNotNull(song.getNoteById(first));
+    assertEquals(journal.redo(song), true);
+    assertEquals(journal.redo(song), true);
+    assertEquals(song.getNotes(1).size(), 1);
+    assertNotNull(song.getNoteById(first));
+  }
+}
@@ -0,0 +1,324 @@
+package cs3500.music.tests;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+
+import cs3500.music.model.IntervalSong;
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Note;
+import cs3500.music.model.NoteVisitor;
+import cs3500.music.model.PackedSong;
+import cs3500.music.model.Pitch;
+import cs3500.music.model.Playable;
+import cs3500.music.model.Song;
+import cs3500.music.util.MusicReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the interval tree backed implementation of the MusicEditorModel
+ */
+public class IntervalSongTest {
+
+  MusicEditorModel m0;
+  MusicEditorModel m3;
+
+  Playable n0;
+  Playable n1;
+  Playable n2;
+  Playable n3;
+  Playable n4;
+  Playable n5;
+
+  /**
+   * Initialize all MusicEditorModels in this test class with appropriate testing data
+   */
+  private void init() {
+    n0 = new Note(0, 4, Pitch.C, 4);
+    n1 = new Note(1, 3, Pitch.Cs, 5);
+    n2 = new Note(8, 1, Pitch.A, 3);
+    n3 = new Note(6, 16, Pitch.Fs, 2);
+    n4 = new Note(5, 3, Pitch.G, 4, 2, 100);
+    n5 = new Note(6, 7, Pitch.B, 5, 0, 100);
+
+    m0 = new IntervalSong();
+    m3 = new IntervalSong(Arrays.asList(n1, n2, n3, n4, n5), 120, 3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalTempo() {
+    new IntervalSong(new ArrayList<Playable>(), 0, 3);
+  }
+
+  @Test
+  public void testAddNote() {
+    init();
+    assertEquals(m0.getNotes(0).size(), 0);
+    m0.addNote(n0);
+    assertEquals(m0.getNotes(0).size(), 1);
+    assertEquals(m0.getNotes(3).size(), 1);
+    assertEquals(m0.getNotes(4).size(), 0);
+    assertEquals(m0.getNotes(0).get(0), n0);
+    // check that the note is copied and not aliased
+    assert (!(m0.getNotes(0).get(0) == n0));
+  }
+
+  @Test
+  public void testGetNotes() {
+    init();
+    assert (m3.getNotes(1).contains(n1));
+    assert (m3.getNotes(5).contains(n4));
+    assertEquals(m3.getNotes(6).size(), 3);
+    assert (m3.getNotes(6).containsAll(Arrays.asList(n3, n4, n5)));
+    assert (m3.getNotes(15).contains(n3));
+    assertEquals(m3.getNotes(99).size(), 0);
+  }
+
+  @Test
+  public void testGetNotesOrderedByStart() {
+    init();
+    m0.addNote(new Note(3, 5, Pitch.E, 4));
+    m0.addNote(new Note(0, 10, Pitch.C, 4));
+    m0.addNote(new Note(4, 1, Pitch.G, 4));
+    m0.addNote(new Note(3, 2, Pitch.D, 4));
+    assertEquals(m0.getNotes(4).size(), 4);
+    assertEquals(m0.getNotes(4).get(0).getPitch(), Pitch.C);
+    assertEquals(m0.getNotes(4).get(1).getPitch(), Pitch.E);
+    assertEquals(m0.getNotes(4).get(2).getPitch(), Pitch.D);
+    assertEquals(m0.getNotes(4).get(3).getPitch(), Pitch.G);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalGetNotes() {
+    init();
+    m0.getNotes(-1);
+  }
+
+  @Test
+  public void testForEachNoteAt() {
+    init();
+    final List<Playable> visited = new ArrayList<Playable>();
+    m3.forEachNoteAt(6, new Consumer<Playable>() {
+      @Override
+      public void accept(Playable note) {
+        visited.add(note.copy());
+      }
+    });
+    assertEquals(visited.size(), 3);
+    m0.forEachNoteAt(6, new Consumer<Playable>() {
+      @Override
+      public void accept(Playable note) {
+        visited.add(note.copy());
+      }
+    });
+    assertEquals(visited.size(), 3);
+
+    final int[] sum = new int[2];
+    m3.forEachNoteAt(7, new NoteVisitor() {
+      @Override
+      public void visit(int startBeat, int duration, int midi, int instrument, int volume) {
+        sum[0] += startBeat;
+        sum[1] += midi;
+      }
+    });
+    assertEquals(sum[0], 17);
+    assertEquals(sum[1], Pitch.getMidi(Pitch.Fs, 2) + Pitch.getMidi(Pitch.G, 4) +
+            Pitch.getMidi(Pitch.B, 5));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalForEachNoteAt() {
+    init();
+    m3.forEachNoteAt(-1, new Consumer<Playable>() {
+      @Override
+      public void accept(Playable note) {
+      }
+    });
+  }
+
+  @Test
+  public void testNoteIds() {
+    init();
+    Playable stored = m3.getNotes(5).get(0);
+    long id = m3.getNoteId(stored);
+    assert (id >= 0);
+    assertEquals(m3.getNoteId(n4), id);
+    assertEquals(m3.getNoteById(id), n4);
+    assertEquals(m0.getNoteId(n4), -1);
+    assertEquals(m3.getNoteById(999), null);
+
+    // the ID stays the same when the note is edited
+    Playable moved = m3.moveNote(stored, 2);
+    assertEquals(m3.getNoteId(moved), id);
+    assertEquals(m3.getNoteById(id).getStartBeat(), 7);
+
+    assertEquals(m3.removeNoteById(id), true);
+    assertEquals(m3.removeNoteById(id), false);
+    assertEquals(m3.getNoteById(id), null);
+    assertEquals(m3.getNotes(7).size(), 2);
+  }
+
+  @Test
+  public void testRemoveNotes() {
+    init();
+    assertEquals(m3.removeNotes(Arrays.asList(n1, n3, n5, n0)), 3);
+    assertEquals(m3.getNotes(6).size(), 1);
+    assertEquals(m3.getNotes(10).size(), 0);
+    assertEquals(m3.getLength(), 9);
+    assertEquals(m3.removeNotes(new ArrayList<Playable>(m3.getNotesStartingIn(0, 9))), 2);
+    assertEquals(m3.getLength(), 0);
+  }
+
+  @Test
+  public void testGetNotesStartingIn() {
+    init();
+    assertEquals(m0.getNotesStartingIn(0, 10).size(), 0);
+    assertEquals(m3.getNotesStartingIn(0, 20).size(), 5);
+    assertEquals(m3.getNotesStartingIn(2, 5).size(), 0);
+    assertEquals(m3.getNotesStartingIn(6, 6).size(), 0);
+    List<Playable> notes = m3.getNotesStartingIn(5, 8);
+    assertEquals(notes.size(), 3);
+    assertEquals(notes.get(0).getStartBeat(), 5);
+    assertEquals(notes.get(1).getStartBeat(), 6);
+    assertEquals(notes.get(2).getStartBeat(), 6);
+  }
+
+  @Test
+  public void testGetNotesSoundingIn() {
+    init();
+    assertEquals(m0.getNotesSoundingIn(0, 10).size(), 0);
+    assertEquals(m3.getNotesSoundingIn(2, 3).size(), 1);
+    assertEquals(m3.getNotesSoundingIn(4, 5).size(), 0);
+    assertEquals(m3.getNotesSoundingIn(7, 7).size(), 0);
+    List<Playable> notes = m3.getNotesSoundingIn(7, 9);
+    assertEquals(notes.size(), 4);
+    assertEquals(notes.get(0).getStartBeat(), 5);
+    assertEquals(notes.get(3).getStartBeat(), 8);
+    assertEquals(m3.getNotesSoundingIn(20, 30).size(), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalBeatRange() {
+    init();
+    m3.getNotesSoundingIn(5, 4);
+  }
+
+  @Test
+  public void testRemoveNote() {
+    init();
+    assertEquals(m0.removeNote(n0), false);
+    assertEquals(m3.removeNote(n1), true);
+    assert (!m3.getNotes(1).contains(n1));
+    assert (!m3.getNotes(3).contains(n1));
+    assertEquals(m3.removeNote(n1), false);
+  }
+
+  @Test
+  public void testMoveNote() {
+    init();
+    Playable stored = m3.getNotes(8).get(2);
+    assertEquals(stored, n2);
+    assertSame(m3.moveNote(stored, 10), stored);
+    assertEquals(m3.getNotes(8).size(), 2);
+    assertSame(m3.getNotes(18).get(1), stored);
+    assertEquals(stored.getStartBeat(), 18);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalMoveNote() {
+    init();
+    m3.moveNote(n0, 1);
+  }
+
+  @Test
+  public void testGetLength() {
+    init();
+    assertEquals(m0.getLength(), 0);
+    assertEquals(m3.getLength(), 22);
+    m0.addNote(new Note(100, 200, Pitch.C, 99));
+    assertEquals(m0.getLength(), 300);
+    m3.removeNote(n3);
+    assertEquals(m3.getLength(), 13);
+  }
+
+  @Test
+  public void testAppendAndOverlay() {
+    init();
+    m3.append(m3);
+    assertEquals(m3.getLength(), 44);
+    assertEquals(m3.getNotes(28).size(), 3);
+
+    m0.overlay(new Song(Arrays.asList(n0, n1), 120, 4));
+    assertEquals(m0.getNotes(2).size(), 2);
+    assertEquals(m0.getLength(), 4);
+  }
+
+  @Test
+  public void testGetExtreme() {
+    init();
+    assertEquals(m0.getHighest(), null);
+    assertEquals(m0.getLowest(), null);
+    assertEquals(m3.getHighest(), n5);
+    assertEquals(m3.getLowest(), n3);
+  }
+
+  @Test
+  public void testCopyOfModel() {
+    init();
+    MusicEditorModel copy = new IntervalSong(new Song(Arrays.asList(n0, n3), 90, 3));
+    assertEquals(copy.getTempo(), 90);
+    assertEquals(copy.getBeatsPerMeasure(), 3);
+    assertEquals(copy.getLength(), 22);
+    assertEquals(copy.getNotes(3).size(), 1);
+    assertEquals(copy.getNotes(6).get(0), n3);
+  }
+
+  @Test
+  public void testTicksPerBeat() {
+    init();
+    assertEquals(m3.getTicksPerBeat(), 1);
+    MusicEditorModel fine = new IntervalSong(480);
+    assertEquals(fine.getTicksPerBeat(), 480);
+    // an eighth note on the second half of the first beat
+    fine.addNote(new Note(240, 240, Pitch.E, 4));
+    assertEquals(fine.getLength(), 480);
+    assertEquals(fine.getNotes(300).size(), 1);
+    assertEquals(fine.getNotes(200).size(), 0);
+    assertEquals(fine.getNotesStartingIn(0, 480).size(), 1);
+
+    // notes from a song counted in whole beats are moved onto the ticks of this one
+    fine.append(new Song(Arrays.asList(n0), 120, 4));
+    assertEquals(fine.getNotes(480).get(0), new Note(480, 1920, Pitch.C, 4));
+    assertEquals(fine.getLength(), 2400);
+
+    // a note that falls between beats keeps sounding for the whole beat it is part of
+    m0.overlay(fine);
+    assertEquals(m0.getNotes(0).get(0), new Note(0, 1, Pitch.E, 4));
+    assertEquals(m0.getLength(), 5);
+    assertEquals(new IntervalSong(fine).getTicksPerBeat(), 480);
+  }
+
+  @Test
+  public void testReadTicksPerBeat() {
+    String piece = "resolution 480\ntempo 500000\nnote 240 360 1 64 100\nlink 480 0 0\n";
+    MusicEditorModel song = MusicReader.parseFile(new StringReader(piece), Song.builder());
+    assertEquals(song.getTicksPerBeat(), 480);
+    assertEquals(song.getTempo(), 120);
+    assertEquals(song.getNotes(300).get(0), new Note(240, 120, Pitch.E, 4, 1, 100));
+    assertEquals(song.getLinks(480).size(), 1);
+    MusicEditorModel packed = MusicReader.parseFile(new StringReader(piece),
+            new PackedSong.Builder());
+    assertEquals(packed.getTicksPerBeat(), 480);
+    assertEquals(packed.getNotes(300).size(), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalTicksPerBeat() {
+    new IntervalSong(0);
+  }
+}
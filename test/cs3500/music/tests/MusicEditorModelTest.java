@@ -4,16 +4,29 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 import org.junit.Test;
 
 import cs3500.music.view.MidiView;
 import cs3500.music.view.View;
+import cs3500.music.model.LinkImpl;
+import cs3500.music.model.ModelChange;
+import cs3500.music.model.ModelListener;
 import cs3500.music.model.MusicEditorModel;
 import cs3500.music.model.Note;
+import cs3500.music.model.PackedSong;
+import cs3500.music.model.NoteVisitor;
 import cs3500.music.model.Pitch;
 import cs3500.music.model.Playable;
 import cs3500.music.model.Song;
+import cs3500.music.model.Songs;
+import cs3500.music.model.VersionedSong;
 import cs3500.music.util.MusicReader;
 
 import static org.junit.Assert.*;
@@ -132,6 +145,115 @@ public class MusicEditorModelTest {
     m0.getNotes(-1);
   }
 
+  @Test
+  public void testForEachNoteAt() {
+    init();
+    final List<Playable> visited = new ArrayList<Playable>();
+    m3.forEachNoteAt(6, new Consumer<Playable>() {
+      @Override
+      public void accept(Playable note) {
+        visited.add(note.copy());
+      }
+    });
+    assertEquals(visited.size(), 3);
+    m0.forEachNoteAt(6, new Consumer<Playable>() {
+      @Override
+      public void accept(Playable note) {
+        visited.add(note.copy());
+      }
+    });
+    assertEquals(visited.size(), 3);
+
+    final int[] sum = new int[2];
+    m3.forEachNoteAt(7, new NoteVisitor() {
+      @Override
+      public void visit(int startBeat, int duration, int midi, int instrument, int volume) {
+        sum[0] += startBeat;
+        sum[1] += midi;
+      }
+    });
+    assertEquals(sum[0], 17);
+    assertEquals(sum[1], Pitch.getMidi(Pitch.Fs, 2) + Pitch.getMidi(Pitch.G, 4) +
+            Pitch.getMidi(Pitch.B, 5));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalForEachNoteAt() {
+    init();
+    m3.forEachNoteAt(-1, new Consumer<Playable>() {
+      @Override
+      public void accept(Playable note) {
+      }
+    });
+  }
+
+  @Test
+  public void testNoteIds() {
+    init();
+    Playable stored = m3.getNotes(5).get(0);
+    long id = m3.getNoteId(stored);
+    assert (id >= 0);
+    assertEquals(m3.getNoteId(n4), id);
+    assertEquals(m3.getNoteById(id), n4);
+    assertEquals(m0.getNoteId(n4), -1);
+    assertEquals(m3.getNoteById(999), null);
+
+    // the ID stays the same when the note is edited
+    Playable moved = m3.moveNote(stored, 2);
+    assertEquals(m3.getNoteId(moved), id);
+    assertEquals(m3.getNoteById(id).getStartBeat(), 7);
+
+    assertEquals(m3.removeNoteById(id), true);
+    assertEquals(m3.removeNoteById(id), false);
+    assertEquals(m3.getNoteById(id), null);
+    assertEquals(m3.getNotes(7).size(), 2);
+  }
+
+  @Test
+  public void testRemoveNotes() {
+    init();
+    assertEquals(m3.removeNotes(Arrays.asList(n1, n3, n5, n0)), 3);
+    assertEquals(m3.getNotes(6).size(), 1);
+    assertEquals(m3.getNotes(10).size(), 0);
+    assertEquals(m3.getLength(), 9);
+    assertEquals(m3.removeNotes(new ArrayList<Playable>(m3.getNotesStartingIn(0, 9))), 2);
+    assertEquals(m3.getLength(), 0);
+  }
+
+  @Test
+  public void testGetNotesStartingIn() {
+    init();
+    assertEquals(m0.getNotesStartingIn(0, 10).size(), 0);
+    assertEquals(m3.getNotesStartingIn(0, 20).size(), 5);
+    assertEquals(m3.getNotesStartingIn(2, 5).size(), 0);
+    assertEquals(m3.getNotesStartingIn(6, 6).size(), 0);
+    List<Playable> notes = m3.getNotesStartingIn(5, 8);
+    assertEquals(notes.size(), 3);
+    assertEquals(notes.get(0).getStartBeat(), 5);
+    assertEquals(notes.get(1).getStartBeat(), 6);
+    assertEquals(notes.get(2).getStartBeat(), 6);
+  }
+
+  @Test
+  public void testGetNotesSoundingIn() {
+    init();
+    assertEquals(m0.getNotesSoundingIn(0, 10).size(), 0);
+    assertEquals(m3.getNotesSoundingIn(2, 3).size(), 1);
+    assertEquals(m3.getNotesSoundingIn(4, 5).size(), 0);
+    assertEquals(m3.getNotesSoundingIn(7, 7).size(), 0);
+    List<Playable> notes = m3.getNotesSoundingIn(7, 9);
+    assertEquals(notes.size(), 4);
+    assertEquals(notes.get(0).getStartBeat(), 5);
+    assertEquals(notes.get(3).getStartBeat(), 8);
+    assertEquals(m3.getNotesSoundingIn(20, 30).size(), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalBeatRange() {
+    init();
+    m3.getNotesSoundingIn(5, 4);
+  }
+
   @Test
   public void testSetBeatsPerMeasure() {
     init();
@@ -188,8 +310,8 @@ public class MusicEditorModelTest {
 
     // ensure that only the note's start beat was changed
     assertNotEquals(m3.getNotes(1).get(0), m3.getNotes(23).get(0));
-    m3.getNotes(1).get(0).setStart(m3.getNotes(23).get(0).getStartBeat());
-    assertEquals(m3.getNotes(1).get(0), m3.getNotes(23).get(0));
+    assertEquals(m3.getNotes(1).get(0).setStart(m3.getNotes(23).get(0).getStartBeat()),
+            m3.getNotes(23).get(0));
 
     assertEquals(m2.getNotes(5).size(), 0);
     m2.append(m3);
@@ -249,4 +371,255 @@ public class MusicEditorModelTest {
     assertEquals(m3.getLowest(), n3);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testLengthAfterRemoval() {
+    init();
+    assertEquals(m3.getLength(), 22);
+    m3.removeNote(n3);
+    assertEquals(m3.getLength(), 13);
+    m3.moveNote(m3.getNotes(8).get(1), 20);
+    assertEquals(m3.getLength(), 33);
+    m0.addNote(n0);
+    m0.removeNote(n0);
+    assertEquals(m0.getLength(), 0);
+  }
+
+  @Test
+  public void testExtremesAfterEdits() {
+    init();
+    m3.removeNote(n5);
+    assertEquals(m3.getHighest(), n1);
+    m3.removeNote(n3);
+    assertEquals(m3.getLowest(), n2);
+    m3.addNote(new Note(30, 1, Pitch.C, 9));
+    assertEquals(m3.getHighest().getOctave(), 9);
+    assertEquals(m3.getLength(), 31);
+  }
+
+  @Test
+  public void testTransposeNote() {
+    init();
+    Playable stored = m3.transposeNote(m3.getNotes(1).get(0), 13);
+    // the transposed value is stored in place of the old one
+    assertSame(m3.getNotes(1).get(0), stored);
+    assertEquals(stored.getPitch(), Pitch.D);
+    assertEquals(stored.getOctave(), 6);
+    assertEquals(m3.getHighest(), stored);
+    stored = m3.transposeNote(stored, -26);
+    assertEquals(stored.getPitch(), Pitch.C);
+    assertEquals(stored.getOctave(), 4);
+    assertEquals(m3.getHighest(), n5);
+    assertEquals(m3.getNotes(1).size(), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalTransposeNote() {
+    init();
+    m3.transposeNote(n0, 1);
+  }
+
+  @Test
+  public void testBulkEdits() {
+    init();
+    final List<ModelChange> changes = new ArrayList<ModelChange>();
+    m3.addListener((ModelChange change) -> changes.add(change));
+    List<Playable> moving = m3.getNotesStartingIn(5, 7);
+    long id = m3.getNoteId(moving.get(0));
+    assertEquals(m3.shiftNotes(moving, 2), 3);
+    assertEquals(m3.getNotesStartingIn(5, 7).size(), 0);
+    assertEquals(m3.getNotesStartingIn(7, 9).size(), 4);
+    assertEquals(m3.getNoteById(id).getStartBeat(), moving.get(0).getStartBeat() + 2);
+    assertEquals(m3.getLength(), 24);
+    // the whole edit is reported once
+    assertEquals(changes.size(), 1);
+    assertEquals(changes.get(0), new ModelChange(5, 24, 42, 83));
+
+    assertEquals(m3.transposeNotesStartingIn(0, 2, 12), 1);
+    assertEquals(m3.getHighest().getPitch(), Pitch.Cs);
+    assertEquals(m3.getHighest().getOctave(), 6);
+    assertEquals(m3.getNotes(1).size(), 1);
+    // nothing is reported when no note was edited
+    assertEquals(m3.shiftNotesStartingIn(20, 30, 1), 0);
+    assertEquals(changes.size(), 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalBulkShift() {
+    init();
+    m3.shiftNotesStartingIn(0, 10, -2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBulkTransposeMissingNote() {
+    init();
+    m3.transposeNotes(Arrays.asList(m3.getNotes(8).get(0), n0), 1);
+  }
+
+  @Test
+  public void testRippleEdits() {
+    init();
+    m3.addLink(new LinkImpl(10, 6, 0));
+    long id = m3.getNoteId(m3.getNotes(8).get(0));
+    m3.insertBeats(5, 4);
+    assertEquals(m3.getNotesStartingIn(5, 9).size(), 0);
+    assertEquals(m3.getNotes(10).size(), 3);
+    assertEquals(m3.getLength(), 26);
+    assertEquals(m3.getNoteById(id).getStartBeat(), 12);
+    assertEquals(m3.getLinks(14).get(0).getLinkedBeat(), 10);
+
+    assertEquals(m3.deleteBeats(9, 11), 3);
+    assertEquals(m3.getNotes(10).get(0), m3.getNoteById(id));
+    assertEquals(m3.getNoteById(id).getStartBeat(), 10);
+    assertEquals(m3.getLinks(12).get(0).getLinkedBeat(), 9);
+    assertEquals(m3.getLength(), 11);
+  }
+
+  @Test
+  public void testListeners() {
+    init();
+    final List<ModelChange> changes = new ArrayList<ModelChange>();
+    ModelListener listener = (ModelChange change) -> changes.add(change);
+    m3.addListener(listener);
+    m3.addNote(n0);
+    assertEquals(changes.get(0), new ModelChange(0, 4, 60, 60));
+    // a moved note changes the beats it left as well as the beats it moved to
+    m3.moveNote(n2, 2);
+    assertEquals(changes.get(1), new ModelChange(8, 11, 57, 57));
+    m3.transposeNote(n1, -2);
+    assertEquals(changes.get(2), new ModelChange(1, 4, 71, 73));
+
+    // the edits of a batch are delivered together once it ends
+    m3.beginBatch();
+    m3.removeNote(n4);
+    m3.removeNote(n5);
+    assertEquals(changes.size(), 3);
+    m3.endBatch();
+    assertEquals(changes.size(), 4);
+    assertEquals(changes.get(3), new ModelChange(5, 13, 67, 83));
+    assertEquals(m3.removeNotes(Arrays.asList(n0, n3)), 2);
+    assertEquals(changes.get(4), new ModelChange(0, 22, 42, 60));
+    m3.setTempo(60);
+    assertEquals(changes.get(5), ModelChange.EVERYTHING);
+
+    m3.removeListener(listener);
+    m3.addNote(n0);
+    assertEquals(changes.size(), 6);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testEndBatchWithoutBegin() {
+    init();
+    m3.endBatch();
+  }
+
+  @Test
+  public void testTracks() {
+    init();
+    assertEquals(m3.getInstruments().toString(), "[0, 2]");
+    assertEquals(m3.getTrackNotes(2, 6), Arrays.asList(n4));
+    assertEquals(m3.getTrackNotes(0, 6).size(), 2);
+    assertEquals(m3.getTrackNotes(5, 6).size(), 0);
+    assertEquals(m3.getTrackNotesStartingIn(0, 0, 7), Arrays.asList(n1, n3, n5));
+    m3.removeNote(n4);
+    assertEquals(m3.getInstruments().toString(), "[0]");
+    m3.shiftNotes(Arrays.asList(n1, n5), 2);
+    assertEquals(m3.getTrackNotesStartingIn(0, 0, 7), Arrays.asList(n1, n3));
+    assertEquals(m3.getTrackNotes(0, 14).size(), 2);
+    m3.addNote(new Note(0, 2, Pitch.E, 4, 9, 100));
+    assertEquals(m3.getInstruments().toString(), "[0, 9]");
+  }
+
+  @Test
+  public void testWholeSongFromTracks() {
+    init();
+    // the notes of every instrument are merged in order of their start beats
+    assertEquals(m3.getNotesStartingIn(0, 22), Arrays.asList(n1, n4, n3, n5, n2));
+    assertEquals(m3.getNotes(6).size(), 3);
+    assertEquals(m3.getNotesSoundingIn(6, 8), Arrays.asList(n4, n3, n5));
+    Playable late = new Note(30, 1, Pitch.C, 4, 2, 100);
+    m3.addNote(late);
+    assertEquals(m3.getLength(), 31);
+    m3.removeNote(late);
+    assertEquals(m3.getLength(), 22);
+    assertEquals(m3.removeNotes(Arrays.asList(n4, n2)), 2);
+    assertEquals(m3.getInstruments().toString(), "[0]");
+    assertEquals(m3.getNotes(5).size(), 0);
+    assertEquals(m3.getNotesStartingIn(0, 22), Arrays.asList(n1, n3, n5));
+  }
+
+  @Test
+  public void testTracksOfEveryBackend() {
+    init();
+    List<MusicEditorModel> songs = Arrays.asList(new VersionedSong(), new PackedSong(),
+            Songs.overlaid(m3));
+    for (MusicEditorModel song : songs) {
+      if (song != songs.get(2)) {
+        song.overlay(m3);
+      }
+      assertEquals(song.getInstruments(), m3.getInstruments());
+      for (int beat = 0; beat < m3.getLength(); ++ beat) {
+        for (int instrument : m3.getInstruments()) {
+          assertEquals(new HashSet<Playable>(song.getTrackNotes(instrument, beat)),
+                  new HashSet<Playable>(m3.getTrackNotes(instrument, beat)));
+        }
+      }
+      assertEquals(new HashSet<Playable>(song.getTrackNotesStartingIn(0, 2, 8)),
+              new HashSet<Playable>(m3.getTrackNotesStartingIn(0, 2, 8)));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalTrack() {
+    init();
+    m3.getTrackNotes(-1, 0);
+  }
+
+  @Test
+  public void testNotesStream() {
+    init();
+    assertEquals(m3.notes().collect(Collectors.toList()), m3.getNotesStartingIn(0, 22));
+    assertEquals(m3.notes().parallel().count(), 5);
+    assertEquals(m0.notes().count(), 0);
+    Map<Integer, Long> byInstrument = m3.notes().parallel()
+            .collect(Collectors.groupingBy(Playable::getInstrumentID, Collectors.counting()));
+    assertEquals(byInstrument.get(0).longValue(), 4);
+    assertEquals(byInstrument.get(2).longValue(), 1);
+  }
+
+  @Test
+  public void testNotesSplitOnMeasures() {
+    init();
+    // m3 has 3 beats per measure and notes starting on beats 1, 5, 6, 6 and 8
+    Spliterator<Playable> rest = m3.notes().spliterator();
+    assertTrue(rest.hasCharacteristics(Spliterator.SIZED | Spliterator.ORDERED
+            | Spliterator.NONNULL));
+    Spliterator<Playable> first = rest.trySplit();
+    assertEquals(first.estimateSize(), 2);
+    assertEquals(rest.estimateSize(), 3);
+    rest.tryAdvance(note -> assertEquals(note.getStartBeat(), 6));
+    assertNull(rest.trySplit());
+  }
+
+  @Test
+  public void testBuilderIndexesNotes() {
+    init();
+    Song.Builder builder = new Song.Builder(4);
+    // in order of start beat, then out of order
+    builder.addNote(1, 4, 0, 73, 0).addNote(6, 22, 0, 42, 0).addNote(8, 9, 0, 57, 0)
+            .addNote(5, 8, 2, 67, 100).addNote(6, 13, 0, 83, 100).addLink(2, 0, 1);
+    MusicEditorModel built = builder.build();
+    assertEquals(built.getNotesStartingIn(0, 22), Arrays.asList(n1, n4, n3, n5, n2));
+    for (int beat = 0; beat < 23; ++ beat) {
+      assertEquals(new HashSet<Playable>(built.getNotes(beat)),
+              new HashSet<Playable>(m3.getNotes(beat)));
+    }
+    assertEquals(built.getLength(), 22);
+    assertEquals(built.getHighest(), n5);
+    assertEquals(built.getInstruments().toString(), "[0, 2]");
+    assertEquals(built.getLinks(2).size(), 1);
+    assertTrue(built.removeNote(n3));
+    assertEquals(built.getLength(), 13);
+    // the builder starts over once it has built a song
+    assertEquals(builder.build().getLength(), 0);
+  }
+}
@@ -0,0 +1,264 @@
+package cs3500.music.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import cs3500.music.model.IndexedSong;
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Playable;
+import cs3500.music.model.Song;
+import cs3500.music.util.BinaryMusicReader;
+import cs3500.music.util.BinaryMusicWriter;
+import cs3500.music.util.IndexedMusicFile;
+import cs3500.music.util.MusicReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for reading compositions with the MusicReader
+ */
+public class MusicReaderTest {
+
+  /**
+   * Return the message of the exception thrown when parsing the given text
+   */
+  private String errorOf(String text) {
+    try {
+      MusicReader.parseFile(new StringReader(text), Song.builder());
+    }
+    catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+    return null;
+  }
+
+  @Test
+  public void testParseText() {
+    MusicEditorModel song = MusicReader.parseFile(new StringReader(
+            "tempo 250000\r\n  note 0 2 1 60 +64\nnote\t4 6\n 0 -1 64 link 3 1 2\n"),
+            Song.builder());
+    assertEquals(song.getTempo(), 240);
+    assertEquals(song.getNotes(0).get(0).getInstrumentID(), 1);
+    assertEquals(song.getNotes(0).get(0).getVolume(), 64);
+    assertEquals(song.getNotes(5).get(0).getMidi(), -1);
+    assertEquals(song.getLinks(3).size(), 1);
+    assertEquals(MusicReader.parseFile(new StringReader(""), Song.builder()).getLength(), 0);
+  }
+
+  @Test
+  public void testParseChannel() throws IOException {
+    MusicEditorModel read = MusicReader.parseFile(new FileReader("mystery-1.txt"),
+            Song.builder());
+    MusicEditorModel channelled;
+    try (FileChannel file = FileChannel.open(Paths.get("mystery-1.txt"))) {
+      channelled = MusicReader.parseChannel(file, Song.builder());
+    }
+    assertEquals(channelled.getTempo(), read.getTempo());
+    assertEquals(channelled.getNotesStartingIn(0, channelled.getLength()),
+            read.getNotesStartingIn(0, read.getLength()));
+  }
+
+  @Test
+  public void testMalformedLines() {
+    assertEquals(errorOf("tempo fast\n"), "Malformed tempo line: fast");
+    assertEquals(errorOf("note 0 2 0 x 64\nnote 1 2 0 60 64"), "Malformed note line: x 64");
+    assertEquals(errorOf("note 0 2 0 99999999999 64"), "Malformed note line: 99999999999 64");
+    assertEquals(errorOf("link 0 1"), "Malformed note line: ");
+    assertEquals(errorOf("resolution 4x"), "Malformed resolution line: 4x");
+    assertEquals(errorOf("notes 0 2 0 60 64"), "Bad line type: notes");
+    assertEquals(errorOf("note 0 2 0 60 64\ntempi 5"), "Bad line type: tempi");
+  }
+
+  /**
+   * Return a temporary file holding the given text
+   */
+  private Path fileOf(String text) throws IOException {
+    Path file = Files.createTempFile("music", ".txt");
+    file.toFile().deleteOnExit();
+    Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+    return file;
+  }
+
+  @Test
+  public void testParseMapped() throws IOException {
+    // about 3 MB, so that the file is parsed in several chunks
+    StringBuilder text = new StringBuilder("tempo 500000\n");
+    for (int i = 0; i < 150000; ++ i) {
+      text.append("note ").append(i).append(' ').append(i + 3).append(" 1 ")
+              .append(40 + i % 40).append(" 64\n");
+      if (i % 20000 == 0) {
+        text.append("tempo ").append(400000 + i).append(' ').append(i).append('\n');
+        text.append("link ").append(i).append(" 0 1\n");
+      }
+    }
+    text.append("tempo 600000\n");
+    MusicEditorModel read = MusicReader.parseFile(new StringReader(text.toString()),
+            Song.builder());
+    MusicEditorModel mapped = MusicReader.parseMapped(fileOf(text.toString()), Song.builder());
+    assertEquals(mapped.getTempo(), 100);
+    assertEquals(mapped.getTimeMap(), read.getTimeMap());
+    assertEquals(mapped.getNotesStartingIn(0, mapped.getLength()),
+            read.getNotesStartingIn(0, read.getLength()));
+    assertEquals(mapped.getLinks(40000).size(), 1);
+    assertEquals(mapped.getLinks(40000).get(0).getLinkedBeat(), 0);
+    assertEquals(mapped.getLinks(40000).get(0).getPlayIteration(), 1);
+    assertEquals(MusicReader.parseMapped(fileOf(""), Song.builder()).getLength(), 0);
+  }
+
+  @Test
+  public void testParseMappedError() throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 200000; ++ i) {
+      text.append(i == 1000 ? "note 0 1 x 60 64\n" : "note 0 1 0 60 64\n");
+    }
+    text.append("nope\n");
+    try {
+      MusicReader.parseMapped(fileOf(text.toString()), Song.builder());
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals(e.getMessage(), "Malformed note line: x 60 64");
+    }
+  }
+
+  /**
+   * Return the given song written in the binary format
+   */
+  private byte[] binaryOf(MusicEditorModel song) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryMusicWriter.write(song, Channels.newChannel(out));
+    return out.toByteArray();
+  }
+
+  /**
+   * Return the song read from the given bytes of the binary format
+   */
+  private MusicEditorModel readBinary(byte[] bytes) throws IOException {
+    return BinaryMusicReader.parse(Channels.newChannel(new ByteArrayInputStream(bytes)),
+            Song.builder());
+  }
+
+  @Test
+  public void testBinaryRoundTrip() throws IOException {
+    MusicEditorModel song = MusicReader.parseFile(new FileReader("mystery-1.txt"),
+            Song.builder());
+    song.setTempoAt(40, 90);
+    song.addNote(new cs3500.music.model.Note(3, 2, cs3500.music.model.Pitch.C, -2, 0, 0));
+    song.addLink(new cs3500.music.model.LinkImpl(8, 0, 1));
+    byte[] bytes = binaryOf(song);
+    MusicEditorModel read = readBinary(bytes);
+    assertEquals(read.getTimeMap(), song.getTimeMap());
+    assertEquals(read.getNotesStartingIn(0, read.getLength()),
+            song.getNotesStartingIn(0, song.getLength()));
+    assertEquals(read.getLinks(8).get(0).getLinkedBeat(), 0);
+    // a note takes a handful of bytes where its text line takes over twenty
+    assertTrue(bytes.length * 4 < Files.size(Paths.get("mystery-1.txt")));
+  }
+
+  @Test
+  public void testBadBinary() throws IOException {
+    byte[] bytes = binaryOf(new Song());
+    assertEquals(readBinary(bytes).getLength(), 0);
+    try {
+      readBinary("note 0 1 0 60 64".getBytes(StandardCharsets.US_ASCII));
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals(e.getMessage(), "Not a binary music file");
+    }
+    try {
+      readBinary(java.util.Arrays.copyOf(bytes, bytes.length - 1));
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals(e.getMessage(), "Truncated binary music file");
+    }
+  }
+
+  @Test
+  public void testIndexedSong() throws IOException {
+    MusicEditorModel song = MusicReader.parseFile(new FileReader("mystery-1.txt"),
+            Song.builder());
+    song.addNote(new cs3500.music.model.Note(1, 40, cs3500.music.model.Pitch.C, 2, 3, 50));
+    song.addLink(new cs3500.music.model.LinkImpl(8, 0, 1));
+    Path path = fileOf("");
+    IndexedMusicFile.write(song, path, 1);
+    // room for about two blocks of a measure each
+    try (IndexedSong indexed = IndexedSong.open(path, 400)) {
+      assertEquals(indexed.getLength(), song.getLength());
+      assertEquals(indexed.getTimeMap(), song.getTimeMap());
+      assertEquals(indexed.getInstruments(), song.getInstruments());
+      assertEquals(indexed.getHighest(), song.getHighest());
+      assertEquals(indexed.getLinks(8).get(0).getLinkedBeat(), 0);
+      for (int beat = song.getLength() + 1; beat >= 0; -- beat) {
+        assertEquals(new HashSet<Playable>(indexed.getNotes(beat)),
+                new HashSet<Playable>(song.getNotes(beat)));
+        assertTrue(indexed.getCachedBytes() <= 400);
+      }
+      assertEquals(indexed.getNotesStartingIn(0, indexed.getLength()),
+              song.getNotesStartingIn(0, song.getLength()));
+      assertEquals(new HashSet<Playable>(indexed.getNotesSoundingIn(30, 36)),
+              new HashSet<Playable>(song.getNotesSoundingIn(30, 36)));
+      Playable note = song.getNotes(20).get(0);
+      assertEquals(indexed.getNoteById(indexed.getNoteId(note)), note);
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testIndexedSongReadOnly() throws IOException {
+    Path path = fileOf("");
+    IndexedMusicFile.write(new Song(), path, 4);
+    try (IndexedSong indexed = IndexedSong.open(path, 0)) {
+      assertEquals(indexed.getNotes(0).size(), 0);
+      indexed.addNote(new cs3500.music.model.Note(0, 1, cs3500.music.model.Pitch.C, 4));
+    }
+  }
+
+  @Test
+  public void testIndexedSongFromTwoThreads() throws Exception {
+    MusicEditorModel song = MusicReader.parseFile(new FileReader("mystery-1.txt"),
+            Song.builder());
+    Path path = fileOf("");
+    IndexedMusicFile.write(song, path, 1);
+    final int[] expected = new int[song.getLength()];
+    for (int beat = 0; beat < expected.length; ++ beat) {
+      expected[beat] = song.getNotes(beat).size();
+    }
+    try (IndexedSong indexed = IndexedSong.open(path, 200)) {
+      final int[] mismatches = new int[2];
+      Thread[] threads = new Thread[2];
+      for (int t = 0; t < threads.length; ++ t) {
+        final int thread = t;
+        threads[t] = new Thread(() -> {
+          for (int round = 0; round < 20; ++ round) {
+            for (int beat = 0; beat < expected.length; ++ beat) {
+              final int[] count = new int[1];
+              indexed.forEachNoteAt(beat, (Playable note) -> ++ count[0]);
+              if (count[0] != expected[beat]
+                      || indexed.getNotes(beat).size() != count[0]) {
+                ++ mismatches[thread];
+              }
+            }
+          }
+        });
+        threads[t].start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      assertEquals(mismatches[0] + mismatches[1], 0);
+    }
+  }
+}
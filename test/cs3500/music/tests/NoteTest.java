@@ -74,6 +74,20 @@ public class NoteTest {
   }
 
 
+  @Test
+  public void testEqualsAndHashCode() {
+    init();
+    Playable sameAsC4 = new Note(0, 1, Pitch.C, 4, 0, 100);
+    assertEquals(this.c4, sameAsC4);
+    assertEquals(this.c4.hashCode(), sameAsC4.hashCode());
+    assertNotEquals(this.c4, new Note(0, 1, Pitch.C, 4, 0, 99));
+    assertNotEquals(this.c4.hashCode(), new Note(1, 1, Pitch.C, 4, 0, 100).hashCode());
+    assertNotEquals(this.c4, null);
+    assertNotEquals(this.c4, "C4");
+    assertEquals(new Note(this.c4).getVolume(), 100);
+  }
+
+
   // tests for getters and setters
 
   @Test
@@ -283,4 +297,45 @@ public class NoteTest {
     assertEquals(Pitch.pitchFromMidi(59), Pitch.B);
     assertEquals(Pitch.pitchFromMidi(72), Pitch.C);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testMidiOutsideOfTables() {
+    init();
+    assertEquals(Pitch.pitchFromMidi(-5), Pitch.G);
+    assertEquals(Pitch.octaveFromMidi(-5), -2);
+    assertEquals(Pitch.pitchFromMidi(167), Pitch.B);
+    assertEquals(Pitch.octaveFromMidi(167), 12);
+    assertEquals(this.gNeg2.getMidi(), -5);
+    assertEquals(this.gNeg2.getPitch(), Pitch.G);
+    assertEquals(this.gNeg2.getOctave(), -2);
+    assertEquals(this.a12.getMidi(), 165);
+  }
+
+  @Test
+  public void testPitchLabels() {
+    assertEquals(Pitch.label(60), "C4");
+    assertEquals(Pitch.label(61), "C#4");
+    assertEquals(Pitch.label(0), "C-1");
+    assertEquals(Pitch.label(127), "G9");
+    assertEquals(Pitch.label(-5), "G-2");
+    for (int midi = 0; midi < 128; ++ midi) {
+      assertEquals(Pitch.label(midi), Pitch.pitchFromMidi(midi).toString()
+              + Pitch.octaveFromMidi(midi));
+      assertEquals(Pitch.getMidi(Pitch.pitchFromMidi(midi), Pitch.octaveFromMidi(midi)), midi);
+    }
+  }
+
+  @Test
+  public void testGetAndSetMidi() {
+    init();
+    assertEquals(this.c4.getMidi(), 60);
+    assertEquals(this.cs7.getMidi(), 97);
+    assertSame(this.c4.setMidi(73), this.c4);
+    assertEquals(this.c4.getPitch(), Pitch.Cs);
+    assertEquals(this.c4.getOctave(), 5);
+    assertEquals(this.c4, new Note(0, 1, Pitch.Cs, 5, 0, 100));
+    assertEquals(this.c4.setOctave(2).getMidi(), 37);
+    assertEquals(this.c4.setPitch(Pitch.E).getMidi(), 40);
+    assertEquals(this.cs7.compareTo(this.fs0), 97 - 18);
+  }
+}
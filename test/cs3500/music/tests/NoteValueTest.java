@@ -0,0 +1,149 @@
+package cs3500.music.tests;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Note;
+import cs3500.music.model.NoteValue;
+import cs3500.music.model.PackedNotes;
+import cs3500.music.model.Pitch;
+import cs3500.music.model.Playable;
+import cs3500.music.model.Song;
+import cs3500.music.model.VersionedSong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the immutable, interned NoteValue implementation of Playable
+ */
+public class NoteValueTest {
+
+  NoteValue c4;
+  NoteValue cs7;
+  NoteValue gNeg2;
+
+  /**
+   * Initializes all local NoteValues for testing
+   */
+  private void init() {
+    this.c4 = NoteValue.of(0, 1, Pitch.C, 4, 0, 100);
+    this.cs7 = NoteValue.of(9, 4, Pitch.Cs, 7, 3, 100);
+    this.gNeg2 = NoteValue.of(2, 2, Pitch.G, -2, 0, 0);
+  }
+
+  @Test
+  public void testInterning() {
+    init();
+    assertSame(NoteValue.of(0, 1, Pitch.C, 4, 0, 100), this.c4);
+    assertSame(NoteValue.of(new Note(9, 4, Pitch.Cs, 7, 3, 100)), this.cs7);
+    assertSame(NoteValue.of(this.cs7), this.cs7);
+    assertSame(NoteValue.ofPacked(PackedNotes.pack(this.cs7)), this.cs7);
+    assertSame(this.c4.copy(), this.c4);
+    assertNotSame(NoteValue.of(0, 1, Pitch.C, 4, 0, 99), this.c4);
+
+    // notes that cannot be packed are still values, just not shared
+    assertEquals(NoteValue.of(2, 2, Pitch.G, -2, 0, 0), this.gNeg2);
+    assertEquals(this.gNeg2.getOctave(), -2);
+  }
+
+  @Test
+  public void testEqualsAndHashCode() {
+    init();
+    Playable sameAsC4 = new Note(0, 1, Pitch.C, 4, 0, 100);
+    assertEquals(this.c4, sameAsC4);
+    assertEquals(sameAsC4, this.c4);
+    assertEquals(this.c4.hashCode(), sameAsC4.hashCode());
+    assertNotEquals(this.c4, this.cs7);
+    assertNotEquals(this.c4, null);
+    assertEquals(this.c4.toNote(), sameAsC4);
+  }
+
+  @Test
+  public void testSettersReturnNewValues() {
+    init();
+    Playable moved = this.cs7.setStart(12);
+    assertEquals(this.cs7.getStartBeat(), 9);
+    assertEquals(moved, new Note(12, 4, Pitch.Cs, 7, 3, 100));
+    assertSame(moved, NoteValue.of(12, 4, Pitch.Cs, 7, 3, 100));
+    assertEquals(this.c4.setPitch(Pitch.D).setOctave(5), new Note(0, 1, Pitch.D, 5, 0, 100));
+    assertEquals(this.c4.setDuration(3).getDuration(), 3);
+    assertEquals(this.c4.setInstrument(7).getInstrumentID(), 7);
+    assertEquals(this.c4.setVolume(1).getVolume(), 1);
+    assertEquals(this.c4, new Note(0, 1, Pitch.C, 4, 0, 100));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalStart() {
+    init();
+    this.c4.setStart(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalDuration() {
+    NoteValue.of(0, 0, Pitch.C, 4, 0, 100);
+  }
+
+  @Test
+  public void testEditingValuesInSongs() {
+    init();
+    for (MusicEditorModel song : Arrays.asList(new Song(), new VersionedSong())) {
+      song.addNote(this.c4);
+      song.addNote(this.c4);
+      song.addNote(this.cs7);
+      Playable moved = song.moveNote(this.cs7, 2);
+      assertEquals(moved.getStartBeat(), 11);
+      assertEquals(this.cs7.getStartBeat(), 9);
+      assertEquals(song.getNotes(11).get(0), moved);
+      Playable transposed = song.transposeNote(this.c4, 1);
+      assertEquals(transposed.getPitch(), Pitch.Cs);
+      assertEquals(song.getNotes(0).size(), 2);
+      assertEquals(song.removeNote(this.c4), true);
+      assertEquals(song.removeNote(this.c4), false);
+    }
+  }
+
+  @Test
+  public void testVersionedSongSharesValues() {
+    init();
+    VersionedSong song = new VersionedSong();
+    song.addNote(new Note(0, 1, Pitch.C, 4, 0, 100));
+    assertSame(song.getNotes(0).get(0), this.c4);
+    assertSame(song.getHighest(), this.c4);
+    assertSame(new Song(Arrays.<Playable>asList(this.cs7), 120, 4).getHighest(), this.cs7);
+  }
+
+  @Test
+  public void testSongStoresValues() {
+    init();
+    Song song = new Song();
+    song.addNote(new Note(0, 1, Pitch.C, 4, 0, 100));
+    assertSame(song.getNotes(0).get(0), this.c4);
+    // an equal note is stored as a value of its own, so the two can still be told apart
+    song.addNote(this.c4);
+    assertNotSame(song.getNotes(0).get(1), this.c4);
+    assertEquals(song.getNotes(0).get(1), this.c4);
+    Playable moved = song.moveNote(song.getNotes(0).get(1), 3);
+    assertSame(song.getNotes(3).get(0), moved);
+    assertSame(moved, NoteValue.of(3, 1, Pitch.C, 4, 0, 100));
+    assertSame(song.getNotes(0).get(0), this.c4);
+  }
+
+  @Test
+  public void testInterningIsWeak() {
+    WeakReference<NoteValue> unused =
+            new WeakReference<NoteValue>(NoteValue.of(54321, 3, Pitch.E, 3, 7, 11));
+    for (int i = 0; i < 10 && unused.get() != null; ++ i) {
+      System.gc();
+    }
+    assertEquals(unused.get(), null);
+    NoteValue again = NoteValue.of(54321, 3, Pitch.E, 3, 7, 11);
+    // notes in use stay interned while the table is rebuilt around them
+    for (int i = 0; i < 100000; ++ i) {
+      NoteValue.of(i, 1, Pitch.C, 4, 0, 64);
+    }
+    assertSame(NoteValue.of(54321, 3, Pitch.E, 3, 7, 11), again);
+  }
+}
@@ -0,0 +1,63 @@
+package cs3500.music.tests;
+
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Song;
+import cs3500.music.model.Songs;
+import cs3500.music.util.MusicReader;
+
+/**
+ * Compares Songs.overlayAll against overlaying the same songs onto a Song one at a time. The
+ * bundled mystery songs are each repeated the given number of times (1000 by default) by
+ * overlaying the same parsed song that many times, and both ways of overlaying them are timed
+ * after a few rounds of warm up. Run from the root of the project so that the mystery files
+ * can be found.
+ */
+public final class OverlayAllBenchmark {
+  private OverlayAllBenchmark() { } // prevents instantiation
+
+  /**
+   * Runs the benchmark
+   * @param args  optionally the number of times to repeat each mystery song
+   * @throws FileNotFoundException if the mystery files cannot be found
+   */
+  public static void main(String[] args) throws FileNotFoundException {
+    int copies = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    List<MusicEditorModel> stems = new ArrayList<MusicEditorModel>();
+    for (String file : new String[] {"mystery-1.txt", "mystery-2.txt"}) {
+      MusicEditorModel song = MusicReader.parseFile(new FileReader(file), Song.builder());
+      // overlaying only reads the stems, so one song can stand for all of its copies
+      for (int i = 0; i < copies; ++ i) {
+        stems.add(song);
+      }
+    }
+
+    for (int round = 0; round < 5; ++ round) {
+      // collect the Song of the last run first so that neither run pays for the other's garbage
+      System.gc();
+      long start = System.nanoTime();
+      Song sequential = new Song();
+      for (MusicEditorModel stem : stems) {
+        sequential.overlay(stem);
+      }
+      long sequentialTime = System.nanoTime() - start;
+      int sequentialLength = sequential.getLength();
+      sequential = null;
+
+      System.gc();
+      start = System.nanoTime();
+      Song parallel = Songs.overlayAll(stems);
+      long parallelTime = System.nanoTime() - start;
+
+      if (parallel.getLength() != sequentialLength) {
+        throw new IllegalStateException("the overlaid songs differ");
+      }
+      System.out.printf("round %d: sequential %d ms, overlayAll %d ms%n", round,
+              sequentialTime / 1000000, parallelTime / 1000000);
+    }
+  }
+}
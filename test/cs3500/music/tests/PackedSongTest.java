@@ -0,0 +1,415 @@
+package cs3500.music.tests;
+
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+
+import cs3500.music.model.ModelChange;
+import cs3500.music.model.ModelListener;
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Note;
+import cs3500.music.model.NoteVisitor;
+import cs3500.music.model.PackedNotes;
+import cs3500.music.model.PackedSong;
+import cs3500.music.model.Pitch;
+import cs3500.music.model.Playable;
+import cs3500.music.model.Song;
+import cs3500.music.util.MusicReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the packed primitive implementation of the MusicEditorModel
+ */
+public class PackedSongTest {
+
+  MusicEditorModel m0;
+  MusicEditorModel m3;
+
+  Playable n0;
+  Playable n1;
+  Playable n2;
+  Playable n3;
+  Playable n4;
+  Playable n5;
+
+  /**
+   * Initialize all MusicEditorModels in this test class with appropriate testing data
+   */
+  private void init() {
+    n0 = new Note(0, 4, Pitch.C, 4);
+    n1 = new Note(1, 3, Pitch.Cs, 5);
+    n2 = new Note(8, 1, Pitch.A, 3);
+    n3 = new Note(6, 16, Pitch.Fs, 2);
+    n4 = new Note(5, 3, Pitch.G, 4, 2, 100);
+    n5 = new Note(6, 7, Pitch.B, 5, 0, 100);
+
+    m0 = new PackedSong();
+    m3 = new PackedSong(Arrays.asList(n1, n2, n3, n4, n5), 120, 3);
+  }
+
+  /**
+   * Return true if the given Playables have the same fields
+   */
+  private static boolean sameFields(Playable p1, Playable p2) {
+    return PackedNotes.pack(p1) == PackedNotes.pack(p2);
+  }
+
+  /**
+   * Return the packed fields of the given Playable other than its volume
+   */
+  private static long withoutVolume(Playable note) {
+    return PackedNotes.pack(note.getStartBeat(), note.getDuration(),
+            Pitch.getMidi(note.getPitch(), note.getOctave()), note.getInstrumentID(), 0);
+  }
+
+  @Test
+  public void testPacking() {
+    long packed = PackedNotes.pack(1000, 24, 60, 3, 127);
+    assertEquals(PackedNotes.start(packed), 1000);
+    assertEquals(PackedNotes.duration(packed), 24);
+    assertEquals(PackedNotes.end(packed), 1024);
+    assertEquals(PackedNotes.midi(packed), 60);
+    assertEquals(PackedNotes.instrument(packed), 3);
+    assertEquals(PackedNotes.volume(packed), 127);
+    assert (PackedNotes.pack(PackedNotes.MAX_START, 1, 127, 255, 127) > 0);
+    assert (PackedNotes.pack(2, 1, 0, 0, 0) > PackedNotes.pack(1, 500, 127, 255, 127));
+    // a note two hours into a piece at 480 ticks per beat and 120 bpm
+    int late = 2 * 60 * 120 * 480;
+    assertEquals(PackedNotes.start(PackedNotes.pack(late, 480 * 100, 60, 3, 127)), late);
+    assertEquals(PackedNotes.duration(PackedNotes.pack(late, 480 * 100, 60, 3, 127)), 48000);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalPacking() {
+    PackedNotes.pack(0, 1, 128, 0, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddUnpackableNote() {
+    init();
+    m0.addNote(new Note(0, 1, Pitch.C, -2));
+  }
+
+  @Test
+  public void testAddAndGetNotes() {
+    init();
+    assertEquals(m0.getNotes(0).size(), 0);
+    m0.addNote(n0);
+    assertEquals(m0.getNotes(0).size(), 1);
+    assertEquals(m0.getNotes(3).size(), 1);
+    assertEquals(m0.getNotes(4).size(), 0);
+    assertEquals(m0.getNotes(0).get(0), n0);
+
+    assertEquals(m3.getNotes(6).size(), 3);
+    assertEquals(m3.getNotes(15).size(), 1);
+    assert (sameFields(m3.getNotes(15).get(0), n3));
+    assertEquals(m3.getNotes(99).size(), 0);
+  }
+
+  @Test
+  public void testRemoveAndMoveNote() {
+    init();
+    assertEquals(m0.removeNote(n0), false);
+    assertEquals(m3.removeNote(n1), true);
+    assertEquals(m3.getNotes(1).size(), 0);
+    assertEquals(m3.removeNote(n1), false);
+
+    Playable moved = m3.moveNote(m3.getNotes(8).get(2), 10);
+    assertEquals(moved.getStartBeat(), 18);
+    assertEquals(m3.getNotes(8).size(), 2);
+    assert (sameFields(m3.getNotes(18).get(1), moved));
+  }
+
+  @Test
+  public void testForEachNoteAt() {
+    init();
+    final List<Playable> visited = new ArrayList<Playable>();
+    m3.forEachNoteAt(6, new Consumer<Playable>() {
+      @Override
+      public void accept(Playable note) {
+        visited.add(note.copy());
+      }
+    });
+    assertEquals(visited.size(), 3);
+    m0.forEachNoteAt(6, new Consumer<Playable>() {
+      @Override
+      public void accept(Playable note) {
+        visited.add(note.copy());
+      }
+    });
+    assertEquals(visited.size(), 3);
+
+    final int[] sum = new int[2];
+    m3.forEachNoteAt(7, new NoteVisitor() {
+      @Override
+      public void visit(int startBeat, int duration, int midi, int instrument, int volume) {
+        sum[0] += startBeat;
+        sum[1] += midi;
+      }
+    });
+    assertEquals(sum[0], 17);
+    assertEquals(sum[1], Pitch.getMidi(Pitch.Fs, 2) + Pitch.getMidi(Pitch.G, 4) +
+            Pitch.getMidi(Pitch.B, 5));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalForEachNoteAt() {
+    init();
+    m3.forEachNoteAt(-1, new Consumer<Playable>() {
+      @Override
+      public void accept(Playable note) {
+      }
+    });
+  }
+
+  @Test
+  public void testNoteIds() {
+    init();
+    Playable stored = m3.getNotes(5).get(0);
+    long id = m3.getNoteId(stored);
+    assert (id >= 0);
+    assertEquals(m3.getNoteId(n4), id);
+    assertEquals(m3.getNoteById(id), n4);
+    assertEquals(m0.getNoteId(n4), -1);
+    assertEquals(m3.getNoteById(999), null);
+
+    // the ID stays the same when the note is edited
+    Playable moved = m3.moveNote(stored, 2);
+    assertEquals(m3.getNoteId(moved), id);
+    assertEquals(m3.getNoteById(id).getStartBeat(), 7);
+
+    assertEquals(m3.removeNoteById(id), true);
+    assertEquals(m3.removeNoteById(id), false);
+    assertEquals(m3.getNoteById(id), null);
+    assertEquals(m3.getNotes(7).size(), 2);
+  }
+
+  @Test
+  public void testNoteIdsAfterManyRemovals() {
+    PackedSong song = new PackedSong();
+    long[] ids = new long[40];
+    for (int i = 0; i < ids.length; ++ i) {
+      ids[i] = song.addNote(new Note(i, 1, Pitch.C, 4));
+    }
+    // removing most of the notes squeezes their IDs out of the table
+    for (int i = 0; i < ids.length; ++ i) {
+      if (i % 10 != 0) {
+        assertEquals(song.removeNoteById(ids[i]), true);
+      }
+    }
+    for (int i = 0; i < ids.length; ++ i) {
+      assertEquals(song.getNoteById(ids[i]) != null, i % 10 == 0);
+    }
+    song.moveNote(song.getNoteById(ids[10]), 5);
+    assertEquals(song.getNoteById(ids[10]).getStartBeat(), 15);
+    assertEquals(song.getNoteId(new Note(15, 1, Pitch.C, 4)), ids[10]);
+    long added = song.addNote(new Note(1, 1, Pitch.D, 4));
+    assertEquals(song.getNoteById(added), new Note(1, 1, Pitch.D, 4));
+    assertEquals(song.removeNoteById(ids[30]), true);
+    assertEquals(song.size(), 4);
+  }
+
+  @Test
+  public void testMoveBeyondPackedStart() {
+    init();
+    Playable stored = m3.getNotes(5).get(0);
+    try {
+      m3.moveNote(stored, PackedNotes.MAX_START);
+      fail("the moved note cannot be packed");
+    }
+    catch (IllegalArgumentException e) {
+      // the note is still stored where it was
+    }
+    assertEquals(m3.getNotes(5).get(0), n4);
+    assert (m3.getNoteId(n4) >= 0);
+  }
+
+  @Test
+  public void testRemoveNotes() {
+    init();
+    assertEquals(m3.removeNotes(Arrays.asList(n1, n3, n5, n0)), 3);
+    assertEquals(m3.getNotes(6).size(), 1);
+    assertEquals(m3.getNotes(10).size(), 0);
+    assertEquals(m3.getLength(), 9);
+    assertEquals(m3.removeNotes(new ArrayList<Playable>(m3.getNotesStartingIn(0, 9))), 2);
+    assertEquals(m3.getLength(), 0);
+  }
+
+  @Test
+  public void testGetNotesStartingIn() {
+    init();
+    assertEquals(m0.getNotesStartingIn(0, 10).size(), 0);
+    assertEquals(m3.getNotesStartingIn(0, 20).size(), 5);
+    assertEquals(m3.getNotesStartingIn(2, 5).size(), 0);
+    assertEquals(m3.getNotesStartingIn(6, 6).size(), 0);
+    List<Playable> notes = m3.getNotesStartingIn(5, 8);
+    assertEquals(notes.size(), 3);
+    assertEquals(notes.get(0).getStartBeat(), 5);
+    assertEquals(notes.get(1).getStartBeat(), 6);
+    assertEquals(notes.get(2).getStartBeat(), 6);
+  }
+
+  @Test
+  public void testGetNotesSoundingIn() {
+    init();
+    assertEquals(m0.getNotesSoundingIn(0, 10).size(), 0);
+    assertEquals(m3.getNotesSoundingIn(2, 3).size(), 1);
+    assertEquals(m3.getNotesSoundingIn(4, 5).size(), 0);
+    assertEquals(m3.getNotesSoundingIn(7, 7).size(), 0);
+    List<Playable> notes = m3.getNotesSoundingIn(7, 9);
+    assertEquals(notes.size(), 4);
+    assertEquals(notes.get(0).getStartBeat(), 5);
+    assertEquals(notes.get(3).getStartBeat(), 8);
+    assertEquals(m3.getNotesSoundingIn(20, 30).size(), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalBeatRange() {
+    init();
+    m3.getNotesSoundingIn(5, 4);
+  }
+
+  @Test
+  public void testLengthAndExtremes() {
+    init();
+    assertEquals(m0.getLength(), 0);
+    assertEquals(m0.getHighest(), null);
+    assertEquals(m3.getLength(), 22);
+    assert (sameFields(m3.getHighest(), n5));
+    assert (sameFields(m3.getLowest(), n3));
+    m3.removeNote(n3);
+    assertEquals(m3.getLength(), 13);
+  }
+
+  @Test
+  public void testMatchesSong() throws FileNotFoundException {
+    MusicEditorModel song = MusicReader.parseFile(new FileReader("mystery-1.txt"),
+            Song.builder());
+    MusicEditorModel packed = MusicReader.parseFile(new FileReader("mystery-1.txt"),
+            PackedSong.builder());
+    assertEquals(packed.getTempo(), song.getTempo());
+    assertEquals(packed.getLength(), song.getLength());
+    for (int beat = 0; beat < song.getLength(); ++ beat) {
+      List<Long> expected = new ArrayList<Long>();
+      List<Long> actual = new ArrayList<Long>();
+      for (Playable note : song.getNotes(beat)) {
+        expected.add(withoutVolume(note));
+      }
+      for (Playable note : packed.getNotes(beat)) {
+        actual.add(withoutVolume(note));
+      }
+      expected.sort(null);
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testBulkEdits() {
+    init();
+    final List<ModelChange> changes = new ArrayList<ModelChange>();
+    m3.addListener((ModelChange change) -> changes.add(change));
+    List<Playable> moving = m3.getNotesStartingIn(5, 7);
+    long id = m3.getNoteId(moving.get(0));
+    assertEquals(m3.shiftNotes(moving, 2), 3);
+    assertEquals(m3.getNotesStartingIn(5, 7).size(), 0);
+    assertEquals(m3.getNotesStartingIn(7, 9).size(), 4);
+    assertEquals(m3.getNoteId(moving.get(0)), id);
+    assertEquals(m3.getLength(), 24);
+    assertEquals(changes.size(), 1);
+    assertEquals(changes.get(0), new ModelChange(5, 24, 42, 83));
+    assertEquals(m3.transposeNotesStartingIn(0, 2, 12), 1);
+    assertEquals(m3.getHighest().getOctave(), 6);
+  }
+
+  @Test
+  public void testBulkEditsMatchSong() throws FileNotFoundException {
+    MusicEditorModel song = MusicReader.parseFile(new FileReader("mystery-1.txt"),
+            Song.builder());
+    MusicEditorModel packed = MusicReader.parseFile(new FileReader("mystery-1.txt"),
+            PackedSong.builder());
+    song.shiftNotesStartingIn(10, 40, 3);
+    packed.shiftNotesStartingIn(10, 40, 3);
+    song.transposeNotes(song.getNotesStartingIn(0, 20), -5);
+    packed.transposeNotes(packed.getNotesStartingIn(0, 20), -5);
+    assertEquals(packed.getLength(), song.getLength());
+    for (int beat = 0; beat < song.getLength(); ++ beat) {
+      List<Long> expected = new ArrayList<Long>();
+      List<Long> actual = new ArrayList<Long>();
+      for (Playable note : song.getNotes(beat)) {
+        expected.add(withoutVolume(note));
+      }
+      for (Playable note : packed.getNotes(beat)) {
+        actual.add(withoutVolume(note));
+      }
+      expected.sort(null);
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalBulkTranspose() {
+    init();
+    m3.transposeNotes(m3.getNotesStartingIn(0, 10), 100);
+  }
+
+  @Test
+  public void testListeners() {
+    init();
+    final List<ModelChange> changes = new ArrayList<ModelChange>();
+    ModelListener listener = (ModelChange change) -> changes.add(change);
+    m3.addListener(listener);
+    m3.addNote(n0);
+    assertEquals(changes.get(0), new ModelChange(0, 4, 60, 60));
+    // a moved note changes the beats it left as well as the beats it moved to
+    m3.moveNote(n2, 2);
+    assertEquals(changes.get(1), new ModelChange(8, 11, 57, 57));
+    m3.transposeNote(n1, -2);
+    assertEquals(changes.get(2), new ModelChange(1, 4, 71, 73));
+
+    // the edits of a batch are delivered together once it ends
+    m3.beginBatch();
+    m3.removeNote(n4);
+    m3.removeNote(n5);
+    assertEquals(changes.size(), 3);
+    m3.endBatch();
+    assertEquals(changes.size(), 4);
+    assertEquals(changes.get(3), new ModelChange(5, 13, 67, 83));
+    assertEquals(m3.removeNotes(Arrays.asList(n0, n3)), 2);
+    assertEquals(changes.get(4), new ModelChange(0, 22, 42, 60));
+    m3.setTempo(60);
+    assertEquals(changes.get(5), ModelChange.EVERYTHING);
+
+    m3.removeListener(listener);
+    m3.addNote(n0);
+    assertEquals(changes.size(), 6);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testEndBatchWithoutBegin() {
+    init();
+    m3.endBatch();
+  }
+
+  @Test
+  public void testRemoveLongestNote() {
+    init();
+    Playable longest = new Note(0, 1000, Pitch.D, 4);
+    m3.addNote(longest);
+    assertEquals(m3.getNotes(500).size(), 1);
+    assertTrue(m3.removeNote(longest));
+    assertEquals(m3.getNotes(500).size(), 0);
+    // the notes sounding at a beat are still all found once the bound has shrunk
+    assertEquals(m3.getNotes(6).size(), 3);
+    assertEquals(m3.getNotes(21).size(), 1);
+    assertEquals(m3.getNotesSoundingIn(20, 22).size(), 1);
+    m3.removeNote(n3);
+    assertEquals(m3.getNotes(12).size(), 1);
+    assertEquals(m3.getLength(), 13);
+  }
+}
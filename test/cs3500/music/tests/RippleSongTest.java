@@ -0,0 +1,160 @@
+package cs3500.music.tests;
+
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import cs3500.music.model.LinkImpl;
+import cs3500.music.model.ModelChange;
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Note;
+import cs3500.music.model.PackedNotes;
+import cs3500.music.model.Pitch;
+import cs3500.music.model.Playable;
+import cs3500.music.model.RippleSong;
+import cs3500.music.model.Song;
+import cs3500.music.util.MusicReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the RippleSong implementation of the MusicEditorModel
+ */
+public class RippleSongTest {
+
+  RippleSong m0;
+  RippleSong m3;
+
+  Playable n1;
+  Playable n2;
+  Playable n3;
+  Playable n4;
+  Playable n5;
+
+  /**
+   * Initialize all MusicEditorModels in this test class with appropriate testing data
+   */
+  private void init() {
+    n1 = new Note(1, 3, Pitch.Cs, 5);
+    n2 = new Note(8, 1, Pitch.A, 3);
+    n3 = new Note(6, 16, Pitch.Fs, 2);
+    n4 = new Note(5, 3, Pitch.G, 4, 2, 100);
+    n5 = new Note(6, 7, Pitch.B, 5, 0, 100);
+
+    m0 = new RippleSong();
+    m3 = new RippleSong(Arrays.asList(n1, n2, n3, n4, n5), 120, 3);
+    m3.addLink(new LinkImpl(10, 6, 0));
+  }
+
+  /**
+   * Return the packed fields of every Playable sounding at the given beat of the given song,
+   * in ascending order
+   */
+  private static List<Long> packedAt(MusicEditorModel song, int beat) {
+    List<Long> packed = new ArrayList<Long>();
+    for (Playable note : song.getNotes(beat)) {
+      packed.add(PackedNotes.pack(note));
+    }
+    packed.sort(null);
+    return packed;
+  }
+
+  @Test
+  public void testEdits() {
+    init();
+    assertEquals(m0.getLength(), 0);
+    assertEquals(m0.getHighest(), null);
+    assertEquals(m3.getLength(), 22);
+    assertEquals(m3.getHighest(), n5);
+    assertEquals(m3.getLowest(), n3);
+    assertEquals(m3.getNotes(6).size(), 3);
+    assertEquals(m3.getNotesStartingIn(5, 8).size(), 3);
+    assertEquals(m3.getNotesSoundingIn(2, 6).size(), 2);
+
+    Playable moved = m3.moveNote(m3.getNotes(8).get(2), 3);
+    assertEquals(moved.getStartBeat(), 11);
+    assertEquals(m3.getNotes(11).size(), 3);
+    m3.transposeNote(n1, 1);
+    assertEquals(m3.getNotes(1).get(0), new Note(1, 3, Pitch.D, 5));
+
+    assertEquals(m3.removeNote(n3), true);
+    assertEquals(m3.removeNote(n3), false);
+    assertEquals(m3.getLength(), 13);
+    assertEquals(m3.getLowest(), moved);
+  }
+
+  @Test
+  public void testInsertBeats() {
+    init();
+    final List<ModelChange> changes = new ArrayList<ModelChange>();
+    m3.addListener((ModelChange change) -> changes.add(change));
+    long id = m3.getNoteId(n2);
+    m3.insertBeats(5, 4);
+    assertEquals(m3.getNotesStartingIn(5, 9).size(), 0);
+    assertEquals(m3.getNotes(10).size(), 3);
+    assertEquals(m3.getNotes(1).get(0), n1);
+    assertEquals(m3.getLength(), 26);
+    assertEquals(m3.getNoteById(id).getStartBeat(), 12);
+    assertEquals(m3.getHighest().getStartBeat(), 10);
+    assertEquals(m3.getLinks(10).size(), 0);
+    assertEquals(m3.getLinks(14).get(0).getLinkedBeat(), 10);
+    assertEquals(changes.size(), 1);
+    assertEquals(changes.get(0), new ModelChange(5, Integer.MAX_VALUE,
+            Integer.MIN_VALUE, Integer.MAX_VALUE));
+
+    // the moved notes can still be found and edited
+    m3.moveNote(new Note(12, 1, Pitch.A, 3), 1);
+    assertEquals(m3.getNoteById(id).getStartBeat(), 13);
+    m3.insertBeats(100, 4);
+    assertEquals(m3.getLength(), 26);
+  }
+
+  @Test
+  public void testDeleteBeats() {
+    init();
+    assertEquals(m3.deleteBeats(5, 7), 3);
+    assertEquals(m3.getNotesStartingIn(0, 22).size(), 2);
+    assertEquals(m3.getNotes(6).get(0), new Note(6, 1, Pitch.A, 3));
+    assertEquals(m3.getLength(), 7);
+    assertEquals(m3.getHighest(), n1);
+    // the Link now jumps back to the first deleted beat
+    assertEquals(m3.getLinks(8).get(0).getLinkedBeat(), 5);
+    assertEquals(m3.deleteBeats(0, 0), 0);
+    assertEquals(m3.deleteBeats(0, 2), 1);
+    assertEquals(m3.getNotes(4).get(0), new Note(4, 1, Pitch.A, 3));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalInsertBeats() {
+    init();
+    m3.insertBeats(2, -1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalDeleteBeats() {
+    init();
+    m3.deleteBeats(5, 4);
+  }
+
+  @Test
+  public void testMatchesSong() throws FileNotFoundException {
+    MusicEditorModel song = MusicReader.parseFile(new FileReader("mystery-1.txt"),
+            Song.builder());
+    MusicEditorModel ripple = new RippleSong();
+    ripple.overlay(song);
+    for (MusicEditorModel model : Arrays.asList(song, ripple)) {
+      model.insertBeats(0, 8);
+      model.deleteBeats(20, 33);
+      model.insertBeats(50, 3);
+      model.deleteBeats(60, 61);
+    }
+    assertEquals(ripple.getLength(), song.getLength());
+    for (int beat = 0; beat < song.getLength(); ++ beat) {
+      assertEquals(packedAt(ripple, beat), packedAt(song, beat));
+    }
+  }
+}
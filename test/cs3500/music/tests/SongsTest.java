@@ -0,0 +1,225 @@
+package cs3500.music.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import cs3500.music.model.IntervalSong;
+import cs3500.music.model.LinkImpl;
+import cs3500.music.model.ModelChange;
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Note;
+import cs3500.music.model.NoteVisitor;
+import cs3500.music.model.Pitch;
+import cs3500.music.model.Playable;
+import cs3500.music.model.Song;
+import cs3500.music.model.Songs;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the appended, overlaid and sliced views made by Songs
+ */
+public class SongsTest {
+
+  MusicEditorModel m1;
+  MusicEditorModel m2;
+
+  Playable n1;
+  Playable n2;
+  Playable n3;
+  Playable n4;
+  Playable n5;
+
+  /**
+   * Initialize all MusicEditorModels in this test class with appropriate testing data
+   */
+  private void init() {
+    n1 = new Note(1, 3, Pitch.Cs, 5);
+    n2 = new Note(8, 1, Pitch.A, 3);
+    n3 = new Note(6, 16, Pitch.Fs, 2);
+    n4 = new Note(5, 3, Pitch.G, 4, 2, 100);
+    n5 = new Note(0, 4, Pitch.B, 5, 0, 100);
+
+    m1 = new Song(Arrays.asList(n1, n2, n3), 120, 3);
+    m1.addLink(new LinkImpl(10, 6, 0));
+    m2 = new Song(Arrays.asList(n4, n5), 90, 4);
+  }
+
+  @Test
+  public void testAppended() {
+    init();
+    MusicEditorModel view = Songs.appended(m1, m2);
+    assertEquals(view.getLength(), 30);
+    assertEquals(view.getTempo(), 120);
+    assertEquals(view.getNotes(6).size(), 1);
+    assertEquals(view.getNotes(22).get(0), new Note(22, 4, Pitch.B, 5, 0, 100));
+    assertEquals(view.getNotesStartingIn(0, 30).size(), 5);
+    assertEquals(view.getNotesStartingIn(8, 28).get(2), new Note(27, 3, Pitch.G, 4, 2, 100));
+    assertEquals(view.getNotesSoundingIn(20, 23).size(), 2);
+    assertEquals(view.getHighest(), new Note(22, 4, Pitch.B, 5, 0, 100));
+    assertEquals(view.getLowest(), n3);
+    assertEquals(view.getLinks(10).get(0).getLinkedBeat(), 6);
+    assertEquals(Songs.appended(m2, m1).getLinks(18).get(0).getLinkedBeat(), 14);
+
+    // the notes of the first song are not copied
+    assertSame(view.getNotes(1).get(0), m1.getNotes(1).get(0));
+    final List<Playable> visited = new ArrayList<Playable>();
+    view.forEachNoteAt(27, (Playable note) -> visited.add(note.copy()));
+    assertEquals(visited, Arrays.asList(new Note(27, 3, Pitch.G, 4, 2, 100)));
+    final List<Integer> starts = new ArrayList<Integer>();
+    view.forEachNoteAt(24, (NoteVisitor) (start, duration, midi, instrument, volume) ->
+            starts.add(start));
+    assertEquals(starts, Arrays.asList(22));
+  }
+
+  @Test
+  public void testOverlaid() {
+    init();
+    MusicEditorModel view = Songs.overlaid(m1, m2);
+    assertEquals(view.getLength(), 22);
+    assertEquals(view.getNotes(1).size(), 2);
+    List<Playable> starting = view.getNotesStartingIn(0, 22);
+    assertEquals(starting.size(), 5);
+    assertEquals(starting.get(0), n5);
+    assertEquals(starting.get(4), n2);
+    assertEquals(view.getNotesSoundingIn(7, 8).size(), 2);
+    assertEquals(view.getHighest(), n5);
+    assertEquals(view.getLowest(), n3);
+  }
+
+  @Test
+  public void testSliced() {
+    init();
+    MusicEditorModel view = Songs.sliced(m1, 2, 9);
+    assertEquals(view.getLength(), 7);
+    assertEquals(view.getNotes(0).get(0), new Note(0, 2, Pitch.Cs, 5));
+    assertEquals(view.getNotes(4).get(0), new Note(4, 3, Pitch.Fs, 2));
+    assertEquals(view.getNotes(7).size(), 0);
+    assertEquals(view.getNotesStartingIn(0, 7).size(), 3);
+    assertEquals(view.getNotesStartingIn(1, 7).size(), 2);
+    assertEquals(view.getNotesSoundingIn(1, 3).size(), 1);
+    assertEquals(view.getLinks(8).size(), 0);
+    assertEquals(Songs.sliced(m1, 8, 12).getLinks(2).get(0).getLinkedBeat(), 0);
+    assertEquals(Songs.sliced(m1, 30, 40).getLength(), 0);
+    assertEquals(Songs.sliced(m1, 30, 40).getHighest(), null);
+  }
+
+  @Test
+  public void testNoteIds() {
+    init();
+    MusicEditorModel appended = Songs.appended(m1, m2);
+    Playable moved = new Note(27, 3, Pitch.G, 4, 2, 100);
+    long id = appended.getNoteId(moved);
+    assertEquals(appended.getNoteById(id), moved);
+    assertEquals(appended.getNoteId(new Note(5, 3, Pitch.G, 4, 2, 100)), -1);
+
+    MusicEditorModel sliced = Songs.sliced(m1, 2, 9);
+    Playable cut = sliced.getNotes(0).get(0);
+    assertEquals(sliced.getNoteId(cut), m1.getNoteId(n1));
+    assertEquals(sliced.getNoteById(m1.getNoteId(n1)), cut);
+    assertEquals(sliced.getNoteById(m1.getNoteId(n2)), new Note(6, 1, Pitch.A, 3));
+    assertEquals(Songs.sliced(m1, 10, 20).getNoteById(m1.getNoteId(n1)), null);
+  }
+
+  @Test
+  public void testViewsAreLive() {
+    init();
+    MusicEditorModel view = Songs.sliced(Songs.appended(m1, m2), 20, 30);
+    final List<ModelChange> changes = new ArrayList<ModelChange>();
+    view.addListener((ModelChange change) -> changes.add(change));
+    assertEquals(view.getNotesStartingIn(0, 10).size(), 3);
+
+    m1.addNote(new Note(24, 2, Pitch.C, 4));
+    assertEquals(view.getLength(), 10);
+    assertEquals(view.getNotes(0).get(0), new Note(0, 2, Pitch.Fs, 2));
+    assertEquals(view.getNotes(4).get(0), new Note(4, 2, Pitch.C, 4));
+    assertEquals(view.getNotesStartingIn(5, 10).get(0), new Note(6, 4, Pitch.B, 5, 0, 100));
+    // the songs after an edited song may have moved, so the rest of the view is reported
+    assertEquals(changes.size(), 1);
+    assertEquals(changes.get(0), new ModelChange(4, 10, 60, 60));
+
+    m2.addNote(new Note(1, 1, Pitch.C, 4));
+    assertEquals(changes.size(), 2);
+    assertEquals(changes.get(1), new ModelChange(7, 8, 60, 60));
+    // a change outside of the slice is not reported
+    m2.addNote(new Note(10, 1, Pitch.C, 4));
+    assertEquals(changes.size(), 2);
+  }
+
+  @Test
+  public void testCopyOf() {
+    init();
+    Song copy = Songs.copyOf(Songs.appended(m1, m2));
+    assertEquals(copy.getLength(), 30);
+    assertEquals(copy.getTempo(), 120);
+    assertEquals(copy.getNotesStartingIn(0, 30).size(), 5);
+    assertEquals(copy.getLinks(10).size(), 1);
+    copy.addNote(new Note(40, 1, Pitch.C, 4));
+    assertEquals(m1.getNotesStartingIn(0, 40).size(), 3);
+  }
+
+  @Test
+  public void testOverlayAll() {
+    init();
+    MusicEditorModel m3 = new Song(Arrays.asList(n1, new Note(30, 2, Pitch.C, 4)), 60, 4);
+    Song merged = Songs.overlayAll(Arrays.asList(m1, m2, m3));
+    Song sequential = new Song();
+    for (MusicEditorModel song : Arrays.asList(m1, m2, m3)) {
+      sequential.overlay(song);
+    }
+    assertEquals(merged.getLength(), 32);
+    assertEquals(merged.getTempo(), 120);
+    assertEquals(merged.getHighest(), n5);
+    for (int beat = 0; beat < 32; ++ beat) {
+      // the notes at a beat are in the same order as they start, not as they were overlaid
+      assertEquals(merged.getNotes(beat).size(), sequential.getNotes(beat).size());
+      assertTrue(merged.getNotes(beat).containsAll(sequential.getNotes(beat)));
+    }
+    List<Playable> starting = merged.getNotesStartingIn(0, 32);
+    assertEquals(starting.size(), 7);
+    assertEquals(starting.get(0), n5);
+    assertEquals(starting.get(6), new Note(30, 2, Pitch.C, 4));
+
+    // the merged Song holds copies that can be edited on their own
+    merged.moveNote(merged.getNotes(1).get(0), 2);
+    assertEquals(m1.getNotes(1).get(0), n1);
+    assertEquals(merged.getNoteById(merged.getNoteId(n2)), n2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOverlayNothing() {
+    Songs.overlayAll(new ArrayList<MusicEditorModel>());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testEditView() {
+    init();
+    Songs.overlaid(m1, m2).addNote(n1);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testRippleView() {
+    init();
+    Songs.sliced(m1, 0, 4).insertBeats(0, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoSongs() {
+    Songs.appended();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMixedTicksPerBeat() {
+    init();
+    Songs.overlaid(m1, new IntervalSong(480));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalSlice() {
+    init();
+    Songs.sliced(m1, 4, 2);
+  }
+}
@@ -0,0 +1,107 @@
+package cs3500.music.tests;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import cs3500.music.model.MusicEditorModel;
+import cs3500.music.model.Song;
+import cs3500.music.model.Songs;
+import cs3500.music.model.TimeMap;
+import cs3500.music.model.VersionedSong;
+import cs3500.music.util.MusicReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the TimeMap that converts between the ticks of a song and seconds
+ */
+public class TimeMapTest {
+
+  TimeMap steady;
+  TimeMap changing;
+
+  /**
+   * Initializes all local TimeMaps for testing
+   */
+  private void init() {
+    this.steady = TimeMap.of(120, 1);
+    // 120 bpm for 4 beats, 60 bpm for 2 beats, then 240 bpm
+    this.changing = TimeMap.of(120, 1).withTempoAt(6, 240).withTempoAt(4, 60);
+  }
+
+  @Test
+  public void testConversions() {
+    init();
+    assertEquals(this.steady.toSeconds(3), 1.5, 1e-9);
+    assertEquals(this.steady.toTick(1.5), 3, 1e-9);
+    assertEquals(this.changing.toSeconds(4), 2, 1e-9);
+    assertEquals(this.changing.toSeconds(5), 3, 1e-9);
+    assertEquals(this.changing.toSeconds(8), 4.5, 1e-9);
+    assertEquals(this.changing.toMicros(6), 4000000);
+    for (double tick = 0; tick < 10; tick += 0.25) {
+      assertEquals(this.changing.toTick(this.changing.toSeconds(tick)), tick, 1e-9);
+    }
+    assertEquals(TimeMap.of(60, 4).toSeconds(2), 0.5, 1e-9);
+  }
+
+  @Test
+  public void testTempoChanges() {
+    init();
+    assertEquals(this.changing.getTempoAt(0), 120);
+    assertEquals(this.changing.getTempoAt(5), 60);
+    assertEquals(this.changing.getTempoAt(100), 240);
+    assertEquals(this.changing.getTempoChanges().keySet().toString(), "[0, 4, 6]");
+    assertEquals(this.changing.withTempoAt(4, 60), this.changing);
+    assertEquals(this.steady.withTempoAt(0, 90).getTempoChanges().size(), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalTempo() {
+    init();
+    this.steady.withTempoAt(3, 0);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testUnmodifiableChanges() {
+    init();
+    this.changing.getTempoChanges().put(2, 100);
+  }
+
+  @Test
+  public void testEditedSongs() {
+    for (MusicEditorModel song : new MusicEditorModel[] {new Song(), new VersionedSong()}) {
+      song.setTempoAt(4, 60);
+      song.insertBeats(2, 2);
+      assertEquals(song.getTimeMap().getTempoAt(5), 120);
+      assertEquals(song.getTimeMap().getTempoAt(6), 60);
+      song.deleteBeats(5, 8);
+      assertEquals(song.getTimeMap().getTempoAt(5), 60);
+      assertEquals(song.getTimeMap().getTempoAt(4), 120);
+      song.setTempo(100);
+      assertEquals(song.getTempo(), 100);
+      assertEquals(song.getTimeMap().getTempoChanges().size(), 2);
+    }
+  }
+
+  @Test
+  public void testSlicedAndCopied() {
+    Song song = new Song();
+    song.setTempoAt(4, 60);
+    song.setTempoAt(8, 240);
+    MusicEditorModel slice = Songs.sliced(song, 6, 10);
+    assertEquals(slice.getTempo(), 60);
+    assertEquals(slice.getTimeMap().getTempoAt(2), 240);
+    assertEquals(Songs.copyOf(song).getTimeMap(), song.getTimeMap());
+  }
+
+  @Test
+  public void testReadTempoChanges() {
+    String text = "tempo 500000\nnote 0 2 0 60 64\ntempo 1000000 4\nnote 4 6 0 62 64\n";
+    MusicEditorModel song = MusicReader.parseFile(new StringReader(text),
+            new Song.Builder());
+    assertEquals(song.getTempo(), 120);
+    assertEquals(song.getTimeMap().getTempoAt(4), 60);
+    assertEquals(song.getTimeMap().toSeconds(6), 4, 1e-9);
+  }
+}
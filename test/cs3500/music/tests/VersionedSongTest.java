@@ -0,0 +1,216 @@
+package cs3500.music.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import cs3500.music.model.LinkImpl;
+import cs3500.music.model.ModelChange;
+import cs3500.music.model.ModelListener;
+import cs3500.music.model.Note;
+import cs3500.music.model.Pitch;
+import cs3500.music.model.Playable;
+import cs3500.music.model.SongSnapshot;
+import cs3500.music.model.VersionedSong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the VersionedSong implementation of the MusicEditorModel and its snapshots
+ */
+public class VersionedSongTest {
+
+  VersionedSong m0;
+  VersionedSong m3;
+
+  Playable n1;
+  Playable n2;
+  Playable n3;
+  Playable n4;
+  Playable n5;
+
+  /**
+   * Initialize all MusicEditorModels in this test class with appropriate testing data
+   */
+  private void init() {
+    n1 = new Note(1, 3, Pitch.Cs, 5);
+    n2 = new Note(8, 1, Pitch.A, 3);
+    n3 = new Note(6, 16, Pitch.Fs, 2);
+    n4 = new Note(5, 3, Pitch.G, 4, 2, 100);
+    n5 = new Note(6, 7, Pitch.B, 5, 0, 100);
+
+    m0 = new VersionedSong();
+    m3 = new VersionedSong(Arrays.asList(n1, n2, n3, n4, n5), 120, 3);
+  }
+
+  @Test
+  public void testEdits() {
+    init();
+    assertEquals(m0.getLength(), 0);
+    assertEquals(m0.getHighest(), null);
+    assertEquals(m3.getLength(), 22);
+    assertEquals(m3.getHighest(), n5);
+    assertEquals(m3.getLowest(), n3);
+    assertEquals(m3.getNotes(6).size(), 3);
+    assertEquals(m3.getNotesStartingIn(5, 8).size(), 3);
+    assertEquals(m3.getNotesSoundingIn(2, 6).size(), 2);
+
+    Playable moved = m3.moveNote(m3.getNotes(8).get(2), 3);
+    assertEquals(moved.getStartBeat(), 11);
+    assertEquals(m3.getNotes(11).size(), 3);
+    m3.transposeNote(n1, 1);
+    assertEquals(m3.getNotes(1).get(0), new Note(1, 3, Pitch.D, 5));
+
+    assertEquals(m3.removeNote(n3), true);
+    assertEquals(m3.removeNote(n3), false);
+    assertEquals(m3.getLength(), 13);
+    assertEquals(m3.getLowest(), moved);
+  }
+
+  @Test
+  public void testSnapshotUnchangedByEdits() {
+    init();
+    SongSnapshot before = m3.snapshot();
+    m3.removeNote(n3);
+    m3.addNote(new Note(30, 2, Pitch.C, 9));
+    m3.moveNote(n4, 1);
+    m3.setTempo(60);
+    m3.addLink(new LinkImpl(4, 2, 1));
+
+    assertEquals(before.getLength(), 22);
+    assertEquals(before.getNotes(6).size(), 3);
+    assertEquals(before.getHighest(), n5);
+    assertEquals(before.getNotesStartingIn(5, 6).get(0), new Note(5, 3, Pitch.G, 4, 2, 100));
+    assertEquals(before.getTempo(), 120);
+    assertEquals(before.getLinks(4).size(), 0);
+
+    assertEquals(m3.getLength(), 32);
+    assertEquals(m3.getTempo(), 60);
+    assertEquals(m3.getLinks(4).size(), 1);
+
+    // a Playable handed out by a snapshot is a copy
+    before.getNotes(1).get(0).setStart(3);
+    assertEquals(before.getNotes(1).size(), 1);
+  }
+
+  @Test
+  public void testRestore() {
+    init();
+    SongSnapshot before = m3.snapshot();
+    long id = m3.getNoteId(n4);
+    m3.removeNotes(Arrays.asList(n1, n2, n4));
+    assertEquals(m3.getLength(), 22);
+    assertEquals(m3.getNotesStartingIn(0, 22).size(), 2);
+
+    SongSnapshot after = m3.snapshot();
+    m3.restore(before);
+    assertEquals(m3.getNotesStartingIn(0, 22).size(), 5);
+    assertEquals(m3.getNoteId(n4), id);
+    assertEquals(m3.getNoteById(id), n4);
+
+    // IDs given out after restoring are never IDs an older version used
+    m3.addNote(n0());
+    assert (m3.getNoteId(n0()) > id);
+    m3.restore(after);
+    assertEquals(m3.getNotesStartingIn(0, 22).size(), 2);
+  }
+
+  @Test
+  public void testBulkEdits() {
+    init();
+    SongSnapshot before = m3.snapshot();
+    assertEquals(m3.shiftNotesStartingIn(5, 7, 2), 3);
+    assertEquals(m3.getNotesStartingIn(7, 9).size(), 4);
+    assertEquals(m3.getLength(), 24);
+    assertEquals(m3.transposeNotes(m3.getNotesStartingIn(0, 2), 12), 1);
+    assertEquals(m3.getHighest().getOctave(), 6);
+    assertEquals(before.getNotesStartingIn(5, 7).size(), 3);
+    assertEquals(before.getLength(), 22);
+  }
+
+  /**
+   * Return a note that none of the test songs contain
+   */
+  private static Playable n0() {
+    return new Note(0, 4, Pitch.C, 4);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSnapshotCannotBeEdited() {
+    init();
+    m3.snapshot().addNote(n0());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMoveMissingNote() {
+    init();
+    m3.moveNote(n0(), 1);
+  }
+
+  @Test
+  public void testListeners() {
+    init();
+    final List<ModelChange> changes = new ArrayList<ModelChange>();
+    ModelListener listener = (ModelChange change) -> changes.add(change);
+    m3.addListener(listener);
+    m3.addNote(n0());
+    assertEquals(changes.get(0), new ModelChange(0, 4, 60, 60));
+    // a moved note changes the beats it left as well as the beats it moved to
+    m3.moveNote(n2, 2);
+    assertEquals(changes.get(1), new ModelChange(8, 11, 57, 57));
+    m3.transposeNote(n1, -2);
+    assertEquals(changes.get(2), new ModelChange(1, 4, 71, 73));
+
+    // the edits of a batch are delivered together once it ends
+    m3.beginBatch();
+    m3.removeNote(n4);
+    m3.removeNote(n5);
+    assertEquals(changes.size(), 3);
+    m3.endBatch();
+    assertEquals(changes.size(), 4);
+    assertEquals(changes.get(3), new ModelChange(5, 13, 67, 83));
+    assertEquals(m3.removeNotes(Arrays.asList(n0(), n3)), 2);
+    assertEquals(changes.get(4), new ModelChange(0, 22, 42, 60));
+    m3.setTempo(60);
+    assertEquals(changes.get(5), ModelChange.EVERYTHING);
+
+    m3.removeListener(listener);
+    m3.addNote(n0());
+    assertEquals(changes.size(), 6);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testEndBatchWithoutBegin() {
+    init();
+    m3.endBatch();
+  }
+
+  @Test
+  public void testEditDuplicateNotes() {
+    init();
+    m0.addNote(new Note(2, 4, Pitch.C, 4, 1, 50));
+    m0.addNote(new Note(2, 4, Pitch.C, 4, 1, 50));
+    assertEquals(m0.transposeNotes(m0.getNotes(2), 3), 2);
+    assertEquals(m0.getNotes(2).get(0).getMidi(), 63);
+    assertEquals(m0.getNotes(2).get(1).getMidi(), 63);
+    assertEquals(m0.shiftNotes(m0.getNotes(2), 1), 2);
+    assertEquals(m0.getNotesStartingIn(3, 4).size(), 2);
+  }
+
+  @Test
+  public void testRippleDuplicateNotes() {
+    init();
+    VersionedSong song = new VersionedSong();
+    song.addNote(new Note(2, 4, Pitch.C, 4));
+    song.addNote(new Note(2, 4, Pitch.C, 4));
+    song.insertBeats(2, 4);
+    assertEquals(song.getNotesStartingIn(0, 6).size(), 0);
+    assertEquals(song.getNotesStartingIn(6, 7).size(), 2);
+    song.addNote(new Note(1, 1, Pitch.D, 4));
+    song.deleteBeats(1, 3);
+    assertEquals(song.getNotesStartingIn(0, 4).size(), 0);
+    assertEquals(song.getNotesStartingIn(4, 5).size(), 2);
+  }
+}
@@ -1,7 +1,10 @@
 package cs3500.music.tests;
 
+import java.util.ArrayList;
+
 import org.junit.Test;
 
+import cs3500.music.model.ConcurrentSong;
 import cs3500.music.model.Link;
 import cs3500.music.model.LinkImpl;
 import cs3500.music.model.MusicEditorModel;
@@ -121,4 +124,114 @@ public class ViewModelTest {
     assertEquals(vm1.getAllLinks().get(0), l1);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testUndoRedo() {
+    init();
+    assertEquals(vm1.undo(), false);
+    Playable added = new Note(20, 2, Pitch.E, 4);
+    vm1.addNote(added);
+    vm1.transposeNote(vm1.getNotes(0).get(0), 2);
+    vm1.removeNote(cs7);
+    assertEquals(vm1.getNotes(9).size(), 0);
+
+    assertEquals(vm1.undo(), true);
+    assertEquals(vm1.getNotes(9).get(0), cs7);
+    assertEquals(vm1.undo(), true);
+    assertEquals(vm1.getNotes(0).get(0), c4);
+    assertEquals(vm1.undo(), true);
+    assertEquals(vm1.getNotes(20).size(), 0);
+    assertEquals(vm1.undo(), false);
+
+    assertEquals(vm1.redo(), true);
+    assertEquals(vm1.getNotes(20).get(0), added);
+    assertEquals(vm1.redo(), true);
+    assertEquals(vm1.getNotes(0).get(0), new Note(0, 1, Pitch.D, 4, 0, 100));
+    assertEquals(vm1.redo(), true);
+    assertEquals(vm1.getNotes(9).size(), 0);
+    assertEquals(vm1.redo(), false);
+  }
+
+  @Test
+  public void testUndoGroup() {
+    init();
+    vm1.select(vm1.getNotes(0).get(0), vm1.getNotes(9).get(0));
+    vm1.removeNotes(vm1.getSelected());
+    vm1.addLink(new LinkImpl(4, 0, 0));
+    assertEquals(vm1.getNotes(0).size(), 0);
+
+    vm1.undo();
+    assertEquals(vm1.getAllLinks().size(), 0);
+    assertEquals(vm1.getLinks(4).size(), 0);
+    vm1.undo();
+    assertEquals(vm1.getNotes(0).get(0), c4);
+    assertEquals(vm1.getNotes(9).get(0), cs7);
+    vm1.redo();
+    assertEquals(vm1.getNotes(0).size(), 0);
+    assertEquals(vm1.getNotes(9).size(), 0);
+  }
+
+  @Test
+  public void testUndoBulkEdit() {
+    init();
+    vm1.select(c4, cs7);
+    assertEquals(vm1.shiftNotes(new ArrayList<Playable>(vm1.getSelected()), 2), 2);
+    assertEquals(vm1.getNotes(2).size(), 2);
+    assertEquals(vm1.getNotesStartingIn(11, 12).get(0), cs7);
+
+    // the whole bulk edit is undone in one step
+    vm1.undo();
+    assertEquals(vm1.getNotes(0).get(0), c4.setStart(0));
+    assertEquals(vm1.getNotesStartingIn(9, 10).size(), 1);
+    vm1.redo();
+    assertEquals(vm1.getNotesStartingIn(11, 12).size(), 1);
+    assertEquals(vm1.transposeNotesStartingIn(0, 3, 12), 2);
+    assertEquals(vm1.getLowest().getOctave(), -1);
+  }
+
+  @Test
+  public void testUndoDeleteBeats() {
+    init();
+    vm1.addLink(new LinkImpl(10, 2, 0));
+    assertEquals(vm1.deleteBeats(8, 12), 1);
+    assertEquals(vm1.getNotesStartingIn(8, 9).size(), 0);
+    assertEquals(vm1.getNotes(9).get(0), new Note(9, 5, Pitch.A, 12, 1, 100));
+    assertEquals(vm1.getAllLinks().size(), 0);
+
+    vm1.undo();
+    assertEquals(vm1.getNotes(9).get(0), cs7);
+    assertEquals(vm1.getNotesStartingIn(13, 14).get(0), a12);
+    assertEquals(vm1.getLinks(10).size(), 1);
+    vm1.redo();
+    assertEquals(vm1.getNotesStartingIn(9, 10).get(0), new Note(9, 5, Pitch.A, 12, 1, 100));
+    vm1.insertBeats(0, 2);
+    vm1.undo();
+    assertEquals(vm1.getNotes(0).get(0), c4);
+  }
+
+  @Test
+  public void testNudgeStoredValues() {
+    init();
+    // a ConcurrentSong hands out values, which are replaced whenever they are edited
+    MusicEditorModel song = new ConcurrentSong();
+    song.addNote(c4);
+    song.addNote(cs7);
+    ViewModel vm = new MusicEditorViewModel(song);
+    vm.select(vm.getNotes(0).get(0), vm.getNotes(9).get(0));
+    assertEquals(vm.shiftNotes(new ArrayList<Playable>(vm.getSelected()), 1), 2);
+    assertEquals(vm.getSelected().get(0), new Note(1, 1, Pitch.C, 4, 0, 100));
+    assertEquals(vm.getSelected().get(1), new Note(10, 4, Pitch.Cs, 7, 3, 100));
+    assertEquals(vm.shiftNotes(new ArrayList<Playable>(vm.getSelected()), 1), 2);
+    assertEquals(vm.transposeNotes(new ArrayList<Playable>(vm.getSelected()), 1), 2);
+    assertEquals(vm.getNotesStartingIn(11, 12).get(0), new Note(11, 4, Pitch.D, 7, 3, 100));
+
+    assertEquals(vm.undo(), true);
+    assertEquals(vm.undo(), true);
+    assertEquals(vm.getNotesStartingIn(11, 12).size(), 0);
+    assertEquals(vm.getNotesStartingIn(10, 11).get(0), new Note(10, 4, Pitch.Cs, 7, 3, 100));
+    assertEquals(vm.getNotesStartingIn(1, 2).get(0), new Note(1, 1, Pitch.C, 4, 0, 100));
+    assertEquals(vm.undo(), true);
+    assertEquals(vm.getNotes(0).get(0), c4);
+    assertEquals(vm.getNotesStartingIn(9, 10).get(0), cs7);
+    assertEquals(vm.undo(), false);
+  }
+}